@@ -2,6 +2,7 @@ package com.bahattintok.e_commerce.config;
 
 import java.util.concurrent.Executor;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -21,4 +22,54 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    @Bean(name = "paymentTaskExecutor")
+    public Executor paymentTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(16);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("PaymentAsync-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Ödeme mutabakatı sağlayıcı yanıtını bekler; zamanlayıcı thread'ini bloklamaması için tek thread'li ayrı havuz.
+     */
+    @Bean(name = "paymentReconcileExecutor")
+    public Executor paymentReconcileExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("PaymentReconcile-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "reindexTaskExecutor")
+    public Executor reindexTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("Reindex-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * WebSocket giden kuyruklarını boşaltan thread'ler; istek ve broker thread'lerinden ayrıdır.
+     * Oturum başına en fazla bir görev kuyruktadır, kuyruk sınırı oturum kuyruklarıyla sağlanır.
+     */
+    @Bean(name = "websocketDispatchExecutor")
+    public Executor websocketDispatchExecutor(@Value("${websocket.dispatch.pool-size:8}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("WsDispatch-");
+        executor.initialize();
+        return executor;
+    }
 }
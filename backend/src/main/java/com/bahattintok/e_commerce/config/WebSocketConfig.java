@@ -1,10 +1,20 @@
 package com.bahattintok.e_commerce.config;
 
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import com.bahattintok.e_commerce.websocket.BoundedOutboundHandlerDecorator;
+import com.bahattintok.e_commerce.websocket.OutboundOverflowPolicy;
+import com.bahattintok.e_commerce.websocket.StompClusterRelay;
 
 /**
  * WebSocket konfigürasyonu - STOMP ve SockJS desteği
@@ -13,6 +23,25 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Autowired
+    @Qualifier("websocketDispatchExecutor")
+    private Executor websocketDispatchExecutor;
+
+    @Autowired
+    private StompClusterRelay stompClusterRelay;
+
+    @Value("${websocket.outbound.bounded-queues:true}")
+    private boolean boundedQueues;
+
+    @Value("${websocket.outbound.queue-limit:256}")
+    private int queueLimit;
+
+    @Value("${websocket.outbound.overflow-policy:COALESCE}")
+    private OutboundOverflowPolicy overflowPolicy;
+
+    @Value("${websocket.outbound.send-time-limit-ms:10000}")
+    private long sendTimeLimitMs;
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // WebSocket endpoint'i - SockJS fallback ile
@@ -25,11 +54,26 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         // Client'tan server'a mesaj gönderme prefix'i
         registry.setApplicationDestinationPrefixes("/app");
-        
+
         // Server'dan client'a mesaj gönderme prefix'i
         registry.enableSimpleBroker("/topic", "/queue", "/user");
-        
+
         // User-specific mesajlar için
         registry.setUserDestinationPrefix("/user");
+
+        // Aynı oturuma giden mesajlar, clientOutboundChannel thread'leri arasında sıra değiştirmeden kuyruğa girer
+        registry.setPreservePublishOrder(true);
+
+        // Broker'a giden mesajlar diğer düğümlere de aktarılır (PostgreSQL LISTEN/NOTIFY)
+        registry.configureBrokerChannel().interceptors(stompClusterRelay);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        if (boundedQueues) {
+            // Her oturumun giden mesajları sınırlı kuyrukta toplanır ve ayrı dispatch thread'lerinde gönderilir
+            registration.addDecoratorFactory(handler -> new BoundedOutboundHandlerDecorator(
+                    handler, queueLimit, overflowPolicy, websocketDispatchExecutor, sendTimeLimitMs));
+        }
     }
 }
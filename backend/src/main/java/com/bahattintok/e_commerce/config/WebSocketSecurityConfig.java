@@ -14,8 +14,13 @@ public class WebSocketSecurityConfig extends AbstractSecurityWebSocketMessageBro
     protected void configureInbound(MessageSecurityMetadataSourceRegistry messages) {
         messages
             .simpDestMatchers("/app/test").permitAll()
-            .simpDestMatchers("/topic/category-requests").hasRole("ADMIN")
+            // Rol topic'leri: sadece ilgili roldeki kullanıcılar abone olabilir
+            .simpSubscribeDestMatchers("/topic/role/admin/**").hasRole("ADMIN")
+            .simpSubscribeDestMatchers("/topic/role/seller/**").hasRole("SELLER")
+            .simpDestMatchers("/topic/role/**").denyAll()
             .simpDestMatchers("/user/*/queue/category-requests").authenticated()
+            .simpDestMatchers("/user/queue/payments").authenticated()
+            .simpDestMatchers("/user/queue/unread-count").authenticated()
             .anyMessage().authenticated();
     }
 
@@ -6,18 +6,27 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.bahattintok.e_commerce.model.BroadcastNotification;
 import com.bahattintok.e_commerce.model.Notification;
 import com.bahattintok.e_commerce.repository.NotificationRepository;
+import com.bahattintok.e_commerce.repository.NotificationSpecifications;
+import com.bahattintok.e_commerce.service.NotificationService;
 
 /**
  * Admin bildirim işlemleri için REST controller.
@@ -30,6 +39,9 @@ public class AdminNotificationController {
     @Autowired
     private NotificationRepository notificationRepository;
     
+    @Autowired
+    private NotificationService notificationService;
+    
     /**
      * Notification DTO sınıfı - serialization sorunlarını önlemek için
      */
@@ -73,6 +85,8 @@ public class AdminNotificationController {
         public String getUserId() { return userId; }
         public Long getRelatedEntityId() { return relatedEntityId; }
         public String getRelatedEntityType() { return relatedEntityType; }
+        
+        public void setRead(boolean read) { this.read = read; }
     }
     
     /**
@@ -92,72 +106,26 @@ public class AdminNotificationController {
             System.out.println("=== DEBUG: getAllNotifications called ===");
             System.out.println("Page: " + page + ", Size: " + size + ", Search: " + search + ", Type: " + type + ", Read: " + read);
             
-            // Filtreleme işlemleri
-            List<Notification> allNotifications = notificationRepository.findAll();
-            System.out.println("Total notifications found: " + allNotifications.size());
-            
-            // Arama filtresi
-            if (search != null && !search.trim().isEmpty()) {
-                allNotifications = allNotifications.stream()
-                    .filter(notification -> 
-                        (notification.getTitle() != null && notification.getTitle().toLowerCase().contains(search.toLowerCase())) ||
-                        (notification.getMessage() != null && notification.getMessage().toLowerCase().contains(search.toLowerCase())) ||
-                        (notification.getType() != null && notification.getType().toLowerCase().contains(search.toLowerCase()))
-                    )
-                    .collect(Collectors.toList());
-            }
-            
-            // Tip filtresi
-            if (type != null && !type.trim().isEmpty()) {
-                System.out.println("Filtering by type: " + type);
-                allNotifications = allNotifications.stream()
-                    .filter(notification -> {
-                        boolean matches = notification.getType() != null && notification.getType().equals(type);
-                        System.out.println("Notification type: " + notification.getType() + ", matches: " + matches);
-                        return matches;
-                    })
-                    .collect(Collectors.toList());
-                System.out.println("After type filter: " + allNotifications.size() + " notifications");
-            }
-            
-            // Okundu filtresi
-            if (read != null) {
-                allNotifications = allNotifications.stream()
-                    .filter(notification -> notification.isRead() == read.booleanValue())
-                    .collect(Collectors.toList());
-            }
-            
-            // Tarih filtresi
-            if (startDate != null && !startDate.trim().isEmpty()) {
-                java.time.LocalDateTime start = java.time.LocalDateTime.parse(startDate);
-                allNotifications = allNotifications.stream()
-                    .filter(notification -> notification.getCreatedAt() != null && notification.getCreatedAt().isAfter(start))
-                    .collect(Collectors.toList());
-            }
+            // Filtreleme, sayfalama ve sayımlar veritabanında yapılır
+            Specification<Notification> filter = NotificationSpecifications.textContains(search)
+                .and(NotificationSpecifications.hasType(type))
+                .and(NotificationSpecifications.createdBetween(parseDate(startDate), parseDate(endDate)));
             
-            if (endDate != null && !endDate.trim().isEmpty()) {
-                java.time.LocalDateTime end = java.time.LocalDateTime.parse(endDate);
-                allNotifications = allNotifications.stream()
-                    .filter(notification -> notification.getCreatedAt() != null && notification.getCreatedAt().isBefore(end))
-                    .collect(Collectors.toList());
-            }
+            Page<Notification> notificationPage = notificationRepository.findAll(
+                filter.and(NotificationSpecifications.isRead(read)),
+                PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt")));
             
-            // Sayfalama hesaplamaları
-            int totalNotifications = allNotifications.size();
-            int totalPages = (int) Math.ceil((double) totalNotifications / size);
-            int startIndex = page * size;
-            int endIndex = Math.min(startIndex + size, totalNotifications);
-            
-            // Sayfa için bildirimleri al ve DTO'ya dönüştür
-            List<NotificationDTO> pageNotifications = allNotifications.subList(startIndex, endIndex)
+            List<NotificationDTO> pageNotifications = notificationPage.getContent()
                 .stream()
                 .map(NotificationDTO::new)
                 .collect(Collectors.toList());
             
-            // İstatistikler
-            long totalCount = allNotifications.size();
-            long unreadCount = allNotifications.stream().filter(n -> !n.isRead()).count();
-            long readCount = allNotifications.stream().filter(n -> n.isRead()).count();
+            // İstatistikler (okundu filtresi uygulanmışsa diğer durum 0'dır)
+            long totalCount = notificationPage.getTotalElements();
+            long unreadCount = Boolean.TRUE.equals(read) ? 0
+                : notificationRepository.count(filter.and(NotificationSpecifications.isRead(false)));
+            long readCount = totalCount - unreadCount;
+            int totalPages = notificationPage.getTotalPages();
             
             Map<String, Object> response = new HashMap<>();
             response.put("notifications", pageNotifications);
@@ -193,6 +161,10 @@ public class AdminNotificationController {
         }
     }
     
+    private static java.time.LocalDateTime parseDate(String value) {
+        return value != null && !value.trim().isEmpty() ? java.time.LocalDateTime.parse(value) : null;
+    }
+    
     /**
      * Bildirim istatistiklerini getirir
      */
@@ -201,18 +173,21 @@ public class AdminNotificationController {
         try {
             System.out.println("=== DEBUG: getNotificationStats called ===");
             
-            List<Notification> allNotifications = notificationRepository.findAll();
-            
-            long totalCount = allNotifications.size();
-            long unreadCount = allNotifications.stream().filter(n -> !n.isRead()).count();
-            long readCount = allNotifications.stream().filter(n -> n.isRead()).count();
-            
-            // Tip bazında istatistikler
-            Map<String, Long> typeStats = allNotifications.stream()
-                .collect(Collectors.groupingBy(
-                    notification -> notification.getType() != null ? notification.getType() : "UNKNOWN",
-                    Collectors.counting()
-                ));
+            // Tek gruplu sayım sorgusu: [type, read, count]
+            long unreadCount = 0;
+            long readCount = 0;
+            Map<String, Long> typeStats = new HashMap<>();
+            for (Object[] row : notificationRepository.countGroupedByTypeAndRead()) {
+                String notificationType = row[0] != null ? (String) row[0] : "UNKNOWN";
+                long count = ((Number) row[2]).longValue();
+                if (Boolean.TRUE.equals(row[1])) {
+                    readCount += count;
+                } else {
+                    unreadCount += count;
+                }
+                typeStats.merge(notificationType, count, Long::sum);
+            }
+            long totalCount = unreadCount + readCount;
             
             Map<String, Object> response = new HashMap<>();
             response.put("total", totalCount);
@@ -231,6 +206,34 @@ public class AdminNotificationController {
         }
     }
     
+    /**
+     * Tüm kullanıcılara bildirim gönderir (admin için); kullanıcı başına satır yazılmaz
+     */
+    @PostMapping("/broadcast")
+    public ResponseEntity<Map<String, Object>> broadcastNotification(@RequestBody Map<String, String> request) {
+        try {
+            String title = request.get("title");
+            String message = request.get("message");
+            if (title == null || title.isBlank() || message == null || message.isBlank()) {
+                throw new IllegalArgumentException("Başlık ve mesaj zorunludur");
+            }
+            BroadcastNotification notification = "PROMOTION".equals(request.get("type"))
+                ? notificationService.broadcastPromotion(title, message)
+                : notificationService.broadcastSystemNotification(title, message);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Bildirim tüm kullanıcılara gönderildi");
+            response.put("id", notification.getId());
+            response.put("type", notification.getType());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            System.out.println("Error in broadcastNotification: " + e.getMessage());
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "Bildirim gönderilemedi: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
     /**
      * Bildirimi okundu olarak işaretler (admin için)
      */
@@ -243,12 +246,14 @@ public class AdminNotificationController {
             Notification notification = notificationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Bildirim bulunamadı"));
             
-            notification.setRead(true);
-            notificationRepository.save(notification);
+            // Alıcının okunmamış sayacı da güncellenir
+            notificationService.markAsRead(id, notification.getUser());
+            NotificationDTO dto = new NotificationDTO(notification);
+            dto.setRead(true);
             
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Bildirim okundu olarak işaretlendi");
-            response.put("notification", new NotificationDTO(notification));
+            response.put("notification", dto);
             
             System.out.println("Notification marked as read successfully: " + response);
             return ResponseEntity.ok(response);
@@ -269,18 +274,12 @@ public class AdminNotificationController {
         try {
             System.out.println("=== DEBUG: markAllNotificationsAsRead called ===");
             
-            List<Notification> unreadNotifications = notificationRepository.findAll().stream()
-                .filter(n -> !n.isRead())
-                .collect(Collectors.toList());
-            
-            unreadNotifications.forEach(notification -> {
-                notification.setRead(true);
-                notificationRepository.save(notification);
-            });
+            // Tek UPDATE sorgusu; bildirimler belleğe yüklenmez
+            int updatedCount = notificationService.markAllAsReadForAllUsers();
             
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Tüm bildirimler okundu olarak işaretlendi");
-            response.put("updatedCount", unreadNotifications.size());
+            response.put("updatedCount", updatedCount);
             
             System.out.println("All notifications marked as read successfully: " + response);
             return ResponseEntity.ok(response);
@@ -302,10 +301,7 @@ public class AdminNotificationController {
             System.out.println("=== DEBUG: deleteNotification called ===");
             System.out.println("Notification ID: " + id);
             
-            Notification notification = notificationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Bildirim bulunamadı"));
-            
-            notificationRepository.delete(notification);
+            notificationService.deleteNotification(id);
             
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Bildirim başarıyla silindi");
@@ -1,6 +1,7 @@
 package com.bahattintok.e_commerce.controller;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -14,10 +15,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.bahattintok.e_commerce.dto.CartBatchRequest;
 import com.bahattintok.e_commerce.dto.CartItemRequest;
-import com.bahattintok.e_commerce.model.CartItem;
 import com.bahattintok.e_commerce.model.User;
 import com.bahattintok.e_commerce.repository.UserRepository;
+import com.bahattintok.e_commerce.security.CurrentUserProvider;
 import com.bahattintok.e_commerce.service.CartService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -36,24 +38,24 @@ public class CartController {
     
     private final CartService cartService;
     private final UserRepository userRepository;
+    private final CurrentUserProvider currentUserProvider;
     
     /**
      * Kullanıcının sepetindeki tüm ürünleri getirir.
      */
     @GetMapping
     @Operation(summary = "Get user cart", description = "Retrieve all items in user's cart")
-    public ResponseEntity<List<CartItem>> getUserCart(Authentication authentication) {
+    public ResponseEntity<List<Map<String, Object>>> getUserCart(Authentication authentication) {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(401).build();
         }
         
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email).orElse(null);
+        User user = currentUser();
         if (user == null) {
             return ResponseEntity.status(401).build();
         }
-        List<CartItem> cartItems = cartService.getCartItems(user);
-        return ResponseEntity.ok(cartItems);
+        // Ürün, kategori ve mağaza bilgileri okuma modeliyle tek sorguda gelir
+        return ResponseEntity.ok(cartService.getCartItemViews(user));
     }
     
     /**
@@ -69,8 +71,7 @@ public class CartController {
             return ResponseEntity.status(401).build();
         }
         
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email).orElse(null);
+        User user = currentUser();
         if (user == null) {
             return ResponseEntity.status(401).build();
         }
@@ -79,6 +80,27 @@ public class CartController {
         return ResponseEntity.ok().build();
     }
     
+    /**
+     * Birden fazla ekleme/güncelleme/silme işlemini tek istekte, hep birlikte uygular; güncel sepeti döner.
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Apply cart operations", description = "Apply a list of add/update/remove operations to user's cart atomically")
+    public ResponseEntity<List<Map<String, Object>>> applyBatch(
+            Authentication authentication,
+            @Valid @RequestBody CartBatchRequest request) {
+        
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return ResponseEntity.status(401).build();
+        }
+        
+        User user = currentUser();
+        if (user == null) {
+            return ResponseEntity.status(401).build();
+        }
+        
+        return ResponseEntity.ok(cartService.applyBatch(user, request.getOperations()));
+    }
+    
     /**
      * Sepetten ürün siler.
      */
@@ -87,8 +109,7 @@ public class CartController {
     public ResponseEntity<Void> removeFromCart(
             Authentication authentication,
             @PathVariable String productId) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email).orElse(null);
+        User user = currentUser();
         if (user == null) {
             return ResponseEntity.status(401).build();
         }
@@ -105,8 +126,7 @@ public class CartController {
             Authentication authentication,
             @PathVariable String productId,
             @RequestParam Integer quantity) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email).orElse(null);
+        User user = currentUser();
         if (user == null) {
             return ResponseEntity.status(401).build();
         }
@@ -120,8 +140,7 @@ public class CartController {
     @DeleteMapping
     @Operation(summary = "Clear cart", description = "Remove all items from user's cart")
     public ResponseEntity<Void> clearCart(Authentication authentication) {
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email).orElse(null);
+        User user = currentUser();
         if (user == null) {
             return ResponseEntity.status(401).build();
         }
@@ -129,14 +148,24 @@ public class CartController {
         return ResponseEntity.noContent().build();
     }
     
+    /**
+     * Oturumdaki kullanıcıyı sorgu atmadan referans olarak döner (sepet işlemleri sadece ID'yi kullanır); yoksa null.
+     */
+    private User currentUser() {
+        return currentUserProvider.findUser()
+                .map(user -> userRepository.getReferenceById(user.id()))
+                .orElse(null);
+    }
+    
     /**
      * Bu controller şu işlevleri sağlar:
      * 
      * 1. Sepet Görüntüleme: Kullanıcının sepetindeki ürünleri listeler (GET /api/cart)
      * 2. Ürün Ekleme: Sepete yeni ürün ekler (POST /api/cart)
      * 3. Ürün Silme: Sepetten belirli ürünü kaldırır (DELETE /api/cart/{productId})
-     * 4. Miktar Güncelleme: Ürün miktarını değiştirir (PUT /api/cart/{productId}/quantity)
-     * 5. Sepet Temizleme: Tüm sepeti boşaltır (DELETE /api/cart)
+     * 4. Toplu İşlem: Birden fazla ekleme/güncelleme/silmeyi tek istekte uygular (POST /api/cart/batch)
+     * 5. Miktar Güncelleme: Ürün miktarını değiştirir (PUT /api/cart/{productId}/quantity)
+     * 6. Sepet Temizleme: Tüm sepeti boşaltır (DELETE /api/cart)
      * 
      * Bu controller sayesinde kullanıcılar alışveriş sepetlerini tam olarak yönetebilir!
      */
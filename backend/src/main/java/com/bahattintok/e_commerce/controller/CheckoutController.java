@@ -4,15 +4,18 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.bahattintok.e_commerce.dto.AddressRequest;
 import com.bahattintok.e_commerce.dto.CheckoutRequest;
 import com.bahattintok.e_commerce.service.CheckoutService;
+import com.bahattintok.e_commerce.service.IdempotencyService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -26,17 +29,15 @@ import lombok.RequiredArgsConstructor;
 public class CheckoutController {
 
     private final CheckoutService checkoutService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Kullanıcının adres bilgilerini günceller
      */
     @PutMapping("/address")
-    public ResponseEntity<?> updateAddress(
-            @RequestBody AddressRequest addressRequest,
-            Authentication authentication) {
+    public ResponseEntity<?> updateAddress(@RequestBody AddressRequest addressRequest) {
         try {
-            String userEmail = authentication.getName();
-            var result = checkoutService.updateUserAddress(userEmail, addressRequest);
+            var result = checkoutService.updateUserAddress(addressRequest);
             return ResponseEntity.ok(result);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -47,10 +48,9 @@ public class CheckoutController {
      * Kullanıcının mevcut adres bilgilerini getirir
      */
     @GetMapping("/address")
-    public ResponseEntity<?> getAddress(Authentication authentication) {
+    public ResponseEntity<?> getAddress() {
         try {
-            String userEmail = authentication.getName();
-            var result = checkoutService.getUserAddress(userEmail);
+            var result = checkoutService.getUserAddress();
             return ResponseEntity.ok(result);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -84,15 +84,30 @@ public class CheckoutController {
     }
 
     /**
-     * Siparişi tamamlar
+     * Siparişi tamamlar. Idempotency-Key ile tekrarlanan istek yeni sipariş oluşturmaz, ilk yanıtı alır.
      */
     @PostMapping("/complete")
     public ResponseEntity<?> completeOrder(
             @RequestBody CheckoutRequest checkoutRequest,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
         try {
             String userEmail = authentication.getName();
-            var result = checkoutService.completeOrder(userEmail, checkoutRequest);
+            return idempotencyService.execute("checkout:" + userEmail, idempotencyKey, checkoutRequest,
+                    () -> ResponseEntity.ok(checkoutService.completeOrder(checkoutRequest,
+                            IdempotencyService.requestKey("checkout", idempotencyKey))));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Kart ödemesinin sonucunu getirir (WebSocket bildirimi alamayan istemciler için)
+     */
+    @GetMapping("/orders/{orderId}/payment-status")
+    public ResponseEntity<?> getPaymentStatus(@PathVariable String orderId) {
+        try {
+            var result = checkoutService.getPaymentStatus(orderId);
             return ResponseEntity.ok(result);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -1,6 +1,8 @@
 package com.bahattintok.e_commerce.controller;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -15,8 +17,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.bahattintok.e_commerce.dto.ProductSearchResult;
+import com.bahattintok.e_commerce.dto.ReindexProgress;
 import com.bahattintok.e_commerce.model.ProductDocument;
 import com.bahattintok.e_commerce.service.ElasticsearchService;
+import com.bahattintok.e_commerce.service.PopularSearchService;
+import com.bahattintok.e_commerce.service.SearchIndexOutboxService;
+import com.bahattintok.e_commerce.service.SearchReindexService;
 
 /**
  * Elasticsearch işlemleri için REST controller.
@@ -30,6 +37,15 @@ public class ElasticsearchController {
     @Autowired(required = false)
     private ElasticsearchService elasticsearchService;
     
+    @Autowired
+    private PopularSearchService popularSearchService;
+    
+    @Autowired
+    private SearchIndexOutboxService searchIndexOutboxService;
+    
+    @Autowired
+    private SearchReindexService searchReindexService;
+    
     /**
      * Anahtar kelime ile arama yapar
      */
@@ -43,6 +59,10 @@ public class ElasticsearchController {
             return ResponseEntity.ok(Page.empty(PageRequest.of(page, size)));
         }
         
+        if (page == 0) {
+            popularSearchService.recordSearch(keyword);
+        }
+        
         Pageable pageable = PageRequest.of(page, size);
         Page<ProductDocument> results = elasticsearchService.searchByKeyword(keyword, pageable);
         
@@ -50,27 +70,31 @@ public class ElasticsearchController {
     }
     
     /**
-     * Gelişmiş arama yapar
+     * Gelişmiş arama yapar: filtreler tek sorguda, sayfalı sonuç ve filtre paneli için facet'ler tek yanıtta döner
      */
     @GetMapping("/advanced-search")
-    public ResponseEntity<List<ProductDocument>> advancedSearch(
+    public ResponseEntity<ProductSearchResult> advancedSearch(
             @RequestParam(required = false) String query,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) Double minPrice,
             @RequestParam(required = false) Double maxPrice,
-            @RequestParam(required = false) String storeName) {
+            @RequestParam(required = false) String storeName,
+            @RequestParam(required = false) Boolean discounted,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
         
         try {
             if (elasticsearchService == null) {
-                return ResponseEntity.ok(List.of());
+                return ResponseEntity.ok(ProductSearchResult.empty(page, size));
             }
             
-            List<ProductDocument> results = elasticsearchService.advancedSearch(query, category, minPrice, maxPrice, storeName);
+            ProductSearchResult results = elasticsearchService.facetedSearch(query, category, storeName,
+                    minPrice, maxPrice, discounted, PageRequest.of(page, size));
             
             return ResponseEntity.ok(results);
         } catch (Exception e) {
-            // Elasticsearch hatası durumunda boş liste döndür
-            return ResponseEntity.ok(List.of());
+            // Elasticsearch hatası durumunda boş sonuç döndür
+            return ResponseEntity.ok(ProductSearchResult.empty(page, size));
         }
     }
     
@@ -139,22 +163,27 @@ public class ElasticsearchController {
     }
 
     /**
-     * Manuel olarak tüm ürünleri Elasticsearch'e indexler
+     * Kesintisiz reindex'i arka planda başlatır (products, categories, stores, users veya all) (Admin only)
      */
     @PostMapping("/reindex")
-    public ResponseEntity<String> reindexAllProducts() {
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<String> startReindex(@RequestParam(defaultValue = "products") String type) {
         try {
-            if (elasticsearchService == null) {
-                return ResponseEntity.ok("Elasticsearch servisi mevcut değil");
-            }
-            
-            elasticsearchService.indexAllProducts();
-            return ResponseEntity.ok("Tüm ürünler başarıyla indexlendi!");
+            searchReindexService.startReindex(type);
+            return ResponseEntity.accepted().body("Reindex başlatıldı: " + type + ". İlerleme için GET /api/elasticsearch/reindex");
         } catch (Exception e) {
-            return ResponseEntity.ok("Indexleme hatası: " + e.getMessage());
+            return ResponseEntity.badRequest().body("Reindex başlatılamadı: " + e.getMessage());
         }
     }
     
+    /**
+     * Reindex işlerinin ilerlemesini döner
+     */
+    @GetMapping("/reindex")
+    public ResponseEntity<Collection<ReindexProgress>> getReindexProgress() {
+        return ResponseEntity.ok(searchReindexService.getProgress());
+    }
+    
     /**
      * Elasticsearch test endpoint'i
      */
@@ -206,4 +235,23 @@ public class ElasticsearchController {
         
         return ResponseEntity.ok("Index başarıyla yeniden oluşturuldu");
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Index outbox kuyruğunun gecikme ve hata metriklerini döner (Admin only)
+     */
+    @GetMapping("/outbox/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getOutboxStats() {
+        return ResponseEntity.ok(searchIndexOutboxService.getStats());
+    }
+    
+    /**
+     * Deneme hakkı biten outbox kayıtlarını yeniden kuyruğa alır (Admin only)
+     */
+    @PostMapping("/outbox/requeue")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> requeueOutbox() {
+        int requeued = searchIndexOutboxService.requeueExhausted();
+        return ResponseEntity.ok(Map.of("requeued", requeued));
+    }
+}
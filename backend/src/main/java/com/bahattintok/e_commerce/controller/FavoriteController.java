@@ -16,8 +16,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.bahattintok.e_commerce.model.Favorite;
-import com.bahattintok.e_commerce.model.Product;
 import com.bahattintok.e_commerce.service.FavoriteService;
+import com.bahattintok.e_commerce.service.ProductService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -30,6 +30,7 @@ import lombok.RequiredArgsConstructor;
 public class FavoriteController {
     
     private final FavoriteService favoriteService;
+    private final ProductService productService;
     
     @GetMapping
     @Operation(summary = "Kullanıcının favorilerini getir", description = "Giriş yapmış kullanıcının favorilerini listeler")
@@ -43,35 +44,8 @@ public class FavoriteController {
                 return ResponseEntity.ok(new ArrayList<>());
             }
 
-            List<Favorite> favorites = favoriteService.getUserFavorites(email);
-            List<Map<String, Object>> favoriteMaps = new ArrayList<>();
-
-            for (Favorite favorite : favorites) {
-                Product product = favorite.getProduct();
-                if (product != null) { // Only add favorite if product exists
-                    Map<String, Object> favoriteMap = new HashMap<>();
-                    favoriteMap.put("id", favorite.getId());
-                    favoriteMap.put("createdAt", favorite.getCreatedAt());
-
-                    Map<String, Object> productMap = new HashMap<>();
-                    productMap.put("id", product.getId());
-                    productMap.put("name", product.getName());
-                    productMap.put("price", product.getPrice());
-                    productMap.put("description", product.getDescription());
-                    productMap.put("stock", product.getStock());
-                    productMap.put("imageUrl1", product.getImageUrl1());
-                    productMap.put("imageUrl", product.getImageUrl());
-
-                    if (product.getCategory() != null) {
-                        Map<String, Object> categoryMap = new HashMap<>();
-                        categoryMap.put("id", product.getCategory().getId());
-                        categoryMap.put("name", product.getCategory().getName());
-                        productMap.put("category", categoryMap);
-                    }
-                    favoriteMap.put("product", productMap);
-                    favoriteMaps.add(favoriteMap);
-                }
-            }
+            // Ürün, kategori ve mağaza bilgileri okuma modeliyle tek sorguda gelir
+            List<Map<String, Object>> favoriteMaps = favoriteService.getUserFavoriteViews(email);
 
             return ResponseEntity.ok(favoriteMaps);
         } catch (Exception e) {
@@ -107,25 +81,7 @@ public class FavoriteController {
             favoriteMap.put("createdAt", favorite.getCreatedAt());
             
             // Product bilgilerini ekle
-            Product product = favorite.getProduct();
-            Map<String, Object> productMap = new HashMap<>();
-            productMap.put("id", product.getId());
-            productMap.put("name", product.getName());
-            productMap.put("price", product.getPrice());
-            productMap.put("description", product.getDescription());
-            productMap.put("stock", product.getStock());
-            productMap.put("imageUrl1", product.getImageUrl1());
-            productMap.put("imageUrl", product.getImageUrl());
-            
-            // Category bilgilerini ekle
-            if (product.getCategory() != null) {
-                Map<String, Object> categoryMap = new HashMap<>();
-                categoryMap.put("id", product.getCategory().getId());
-                categoryMap.put("name", product.getCategory().getName());
-                productMap.put("category", categoryMap);
-            }
-            
-            favoriteMap.put("product", productMap);
+            favoriteMap.put("product", productService.getProductView(productId));
             
             return ResponseEntity.ok(favoriteMap);
         } catch (RuntimeException e) {
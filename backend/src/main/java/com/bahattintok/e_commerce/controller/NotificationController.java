@@ -16,6 +16,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.bahattintok.e_commerce.dto.NotificationFeedPage;
 import com.bahattintok.e_commerce.model.Notification;
 import com.bahattintok.e_commerce.model.User;
 import com.bahattintok.e_commerce.service.NotificationService;
@@ -45,6 +46,18 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
     
+    /**
+     * Kişisel ve toplu bildirimleri tek akışta getirir; sonraki sayfa için yanıttaki nextCursor gönderilir
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<NotificationFeedPage> getFeed(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        return ResponseEntity.ok(notificationService.getFeed(user, cursor, Math.max(1, Math.min(size, 100))));
+    }
+    
     /**
      * Kullanıcının okunmamış bildirimlerini getirir
      */
@@ -75,6 +88,18 @@ public class NotificationController {
         return ResponseEntity.ok().build();
     }
     
+    /**
+     * Toplu bildirimi (ve ondan eskileri) okundu olarak işaretler
+     */
+    @PutMapping("/broadcast/{id}/read")
+    public ResponseEntity<Void> markBroadcastAsRead(
+            @PathVariable Long id,
+            @AuthenticationPrincipal User user) {
+        
+        notificationService.markBroadcastAsRead(id, user);
+        return ResponseEntity.ok().build();
+    }
+    
     /**
      * Kullanıcının tüm bildirimlerini okundu olarak işaretler
      */
@@ -10,6 +10,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -17,6 +18,9 @@ import com.bahattintok.e_commerce.model.Order;
 import com.bahattintok.e_commerce.model.OrderItem;
 import com.bahattintok.e_commerce.model.User;
 import com.bahattintok.e_commerce.repository.UserRepository;
+import com.bahattintok.e_commerce.security.CurrentUser;
+import com.bahattintok.e_commerce.security.CurrentUserProvider;
+import com.bahattintok.e_commerce.service.IdempotencyService;
 import com.bahattintok.e_commerce.service.OrderService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -30,23 +34,34 @@ import lombok.RequiredArgsConstructor;
 public class OrderController {
     private final OrderService orderService;
     private final UserRepository userRepository;
+    private final IdempotencyService idempotencyService;
+    private final CurrentUserProvider currentUserProvider;
 
     @PostMapping
     @Operation(summary = "Create order from cart", description = "Create a new order from user's cart")
-    public ResponseEntity<Map<String, Object>> createOrder(Authentication authentication, @RequestBody Map<String, Object> orderRequest) {
+    public ResponseEntity<?> createOrder(Authentication authentication,
+                                         @RequestBody Map<String, Object> orderRequest,
+                                         @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         System.out.println("=== SİPARİŞ OLUŞTURMA BAŞLADI ===");
         System.out.println("Authentication: " + authentication);
         System.out.println("Order Request: " + orderRequest);
         
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email).orElse(null);
-        if (user == null) {
-            System.err.println("Kullanıcı bulunamadı: " + email);
+        CurrentUser currentUser = currentUserProvider.findUser().orElse(null);
+        if (currentUser == null) {
+            System.err.println("Kullanıcı bulunamadı: " + authentication.getName());
             return ResponseEntity.status(401).build();
         }
         
-        System.out.println("Kullanıcı bulundu: " + user.getEmail());
+        System.out.println("Kullanıcı bulundu: " + currentUser.email());
+        // Sipariş kullanıcıya sadece ID ile bağlanır; entity yüklenmez
+        User user = userRepository.getReferenceById(currentUser.id());
         
+        // Aynı Idempotency-Key ile tekrarlanan istek siparişi ve stok düşümünü tekrarlamaz
+        return idempotencyService.execute("orders:" + currentUser.id(), idempotencyKey, orderRequest,
+                () -> placeOrder(user, orderRequest, IdempotencyService.requestKey("orders", idempotencyKey)));
+    }
+
+    private ResponseEntity<Map<String, Object>> placeOrder(User user, Map<String, Object> orderRequest, String requestKey) {
         try {
             @SuppressWarnings("unchecked")
             List<Map<String, Object>> items = (List<Map<String, Object>>) orderRequest.get("items");
@@ -55,7 +70,7 @@ public class OrderController {
             System.out.println("Items: " + items);
             System.out.println("Total: " + total);
             
-            Order order = orderService.createOrder(user, items, total);
+            Order order = orderService.createOrder(user, items, total, requestKey);
             System.out.println("Sipariş başarıyla oluşturuldu: " + order.getId());
             
             // Basit response döndür
@@ -78,11 +93,11 @@ public class OrderController {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(401).build();
         }
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email).orElse(null);
-        if (user == null) {
+        CurrentUser currentUser = currentUserProvider.findUser().orElse(null);
+        if (currentUser == null) {
             return ResponseEntity.status(401).build();
         }
+        User user = userRepository.getReferenceById(currentUser.id());
         
         try {
             List<Order> orders = orderService.getUserOrders(user);
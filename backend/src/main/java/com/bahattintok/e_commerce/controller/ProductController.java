@@ -1,10 +1,8 @@
 package com.bahattintok.e_commerce.controller;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -23,9 +21,11 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.bahattintok.e_commerce.dto.ProductRequest;
+import com.bahattintok.e_commerce.dto.ProductView;
 import com.bahattintok.e_commerce.model.Product;
 import com.bahattintok.e_commerce.model.Store;
 import com.bahattintok.e_commerce.repository.StoreRepository;
+import com.bahattintok.e_commerce.service.PopularSearchService;
 import com.bahattintok.e_commerce.service.ProductSearchService;
 import com.bahattintok.e_commerce.service.ProductService;
 
@@ -46,13 +46,14 @@ public class ProductController {
     private final ProductService productService;
     private final StoreRepository storeRepository;
     private final ProductSearchService productSearchService;
+    private final PopularSearchService popularSearchService;
     
     /**
      * Ürünleri getirir (arama, kategori ve sayfalama destekler).
      */
     @GetMapping
     @Operation(summary = "Get all products", description = "Retrieve all available products")
-    public ResponseEntity<Page<Product>> getAllProducts(
+    public ResponseEntity<Page<ProductView>> getAllProducts(
         @RequestParam(value = "categoryId", required = false) String categoryId,
         @RequestParam(value = "search", required = false) String search,
         @RequestParam(value = "minPrice", required = false) Double minPrice,
@@ -83,15 +84,19 @@ public class ProductController {
             } else if (storeName != null && !storeName.isEmpty()) {
                 System.out.println("Getting products by store name: " + storeName);
                 products = productService.getProductsByStoreName(storeName, pageable);
-            } else if (search != null && !search.isEmpty()) {
-                System.out.println("Searching products: " + search);
-                products = productService.searchProducts(search, pageable);
-            } else if (minPrice != null && maxPrice != null) {
-                System.out.println("Getting products by price range: " + minPrice + " - " + maxPrice);
-                products = productService.getProductsByPriceRange(minPrice, maxPrice, pageable);
-            } else if (categoryId != null) {
-                System.out.println("Getting products by category ID: " + categoryId);
-                products = productService.getProductsByCategoryId(categoryId, pageable);
+            } else if ((search != null && !search.isEmpty()) || minPrice != null || maxPrice != null || categoryId != null) {
+                // Arama, fiyat aralığı ve kategori filtreleri tek sorguda birleştirilir
+                System.out.println("Filtering products: search=" + search + ", price=" + minPrice + "-" + maxPrice + ", categoryId=" + categoryId);
+                // Sayfa değiştirmek yeni bir arama sayılmaz
+                if (search != null && !search.isEmpty() && pageable.getPageNumber() == 0) {
+                    popularSearchService.recordSearch(search);
+                }
+                if (minPrice == null && maxPrice == null && categoryId == null) {
+                    // Sadece anahtar kelime: alaka sıralı veritabanı araması
+                    products = productService.searchProducts(search, pageable);
+                } else {
+                    products = productService.findPublishedProducts(categoryId, null, minPrice, maxPrice, search, pageable);
+                }
             } else if ("popular".equals(sort)) {
                 System.out.println("Getting popular products...");
                 try {
@@ -105,27 +110,17 @@ public class ProductController {
                     products = productService.getAllProducts(pageable);
                 }
             } else {
+                // Sadece aktif ürünler veritabanında filtrelenir; toplam sayı da sorgudan gelir
                 System.out.println("Getting all products...");
                 products = productService.getAllProducts(pageable);
-                
-                // Eğer includeInactive false ise sadece aktif ürünleri filtrele
-                if (!includeInactive) {
-                    System.out.println("Filtering inactive products...");
-                    List<Product> activeProducts = products.getContent().stream()
-                        .filter(product -> "AKTİF".equals(product.getStatus()))
-                        .collect(Collectors.toList());
-                    
-                    System.out.println("Active products count: " + activeProducts.size());
-                    // Yeni bir Page nesnesi oluştur
-                    products = new PageImpl<>(activeProducts, pageable, activeProducts.size());
-                }
             }
             
             System.out.println("Final products count: " + products.getContent().size());
             System.out.println("Total pages: " + products.getTotalPages());
             System.out.println("=== END DEBUG ===");
             
-            return ResponseEntity.ok(products);
+            // Kategori/mağaza/satıcı bilgileri tek sorguda doldurulur; serileştirme sırasında SQL çalışmaz
+            return ResponseEntity.ok(productService.toViews(products));
         } catch (Exception e) {
             System.err.println("=== CRITICAL ERROR IN PRODUCT CONTROLLER ===");
             System.err.println("Error message: " + e.getMessage());
@@ -144,11 +139,11 @@ public class ProductController {
      */
     @GetMapping("/discounted")
     @Operation(summary = "Get discounted products", description = "Retrieve all products with active discounts")
-    public ResponseEntity<Page<Product>> getDiscountedProducts(
+    public ResponseEntity<Page<ProductView>> getDiscountedProducts(
         @PageableDefault(size = 12) Pageable pageable
     ) {
         Page<Product> discountedProducts = productService.getDiscountedProducts(pageable);
-        return ResponseEntity.ok(discountedProducts);
+        return ResponseEntity.ok(productService.toViews(discountedProducts));
     }
     
     /**
@@ -156,39 +151,11 @@ public class ProductController {
      */
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID", description = "Retrieve a specific product by its ID")
-    public ResponseEntity<Map<String, Object>> getProductById(@PathVariable String id) {
+    public ResponseEntity<?> getProductById(@PathVariable String id) {
         try {
-            Product product = productService.getProductById(id);
-            
-            // Map.of sınırlı sayıda parametre alabilir ve null değerleri kabul etmez
-            // Bu nedenle HashMap kullanarak daha esnek bir yaklaşım uygulayalım
-            Map<String, Object> dto = new HashMap<>();
-            dto.put("id", product.getId());
-            dto.put("name", product.getName());
-            dto.put("price", product.getPrice());
-            dto.put("description", product.getDescription());
-            dto.put("stock", product.getStock());
-            dto.put("imageUrl", product.getImageUrl());
-            dto.put("imageUrl1", product.getImageUrl1());
-            dto.put("imageUrl2", product.getImageUrl2());
-            dto.put("imageUrl3", product.getImageUrl3());
-            dto.put("imageUrl4", product.getImageUrl4());
-            dto.put("imageUrl5", product.getImageUrl5());
-            
-            // Category bilgisini güvenli bir şekilde ekle
-            if (product.getCategory() != null) {
-                Map<String, Object> categoryMap = new HashMap<>();
-                categoryMap.put("id", product.getCategory().getId());
-                categoryMap.put("name", product.getCategory().getName());
-                dto.put("category", categoryMap);
-            } else {
-                dto.put("category", null);
-            }
-            
-            dto.put("storeName", product.getStore() != null ? product.getStore().getName() : null);
-            dto.put("storeId", product.getStoreId());
-            
-            return ResponseEntity.ok(dto);
+            // Kategori ve mağaza bilgisi tek JOIN sorgusuyla gelir
+            ProductView product = productService.getProductView(id);
+            return ResponseEntity.ok(product);
         } catch (Exception e) {
             // Hata durumunda detaylı log ve uygun hata yanıtı
             System.err.println("Ürün detayı alınırken hata: " + e.getMessage());
@@ -203,9 +170,9 @@ public class ProductController {
     @GetMapping("/my-products")
     @PreAuthorize("hasRole('SELLER')")
     @Operation(summary = "Get seller's own products", description = "Retrieve products belonging to the authenticated seller")
-    public ResponseEntity<List<Product>> getMyProducts() {
+    public ResponseEntity<List<ProductView>> getMyProducts() {
         List<Product> products = productService.getProductsByCurrentSeller();
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok(productService.toViews(products));
     }
 
     /**
@@ -213,9 +180,9 @@ public class ProductController {
      */
     @GetMapping("/search/elastic")
     @Operation(summary = "Search products with Elasticsearch", description = "Search products using Elasticsearch")
-    public ResponseEntity<List<Product>> searchWithElasticsearch(@RequestParam String keyword) {
+    public ResponseEntity<List<ProductView>> searchWithElasticsearch(@RequestParam String keyword) {
         List<Product> products = productSearchService.searchProducts(keyword);
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok(productService.toViews(products));
     }
     
     /**
@@ -292,9 +259,9 @@ public class ProductController {
      */
     @GetMapping("/category/{category}")
     @Operation(summary = "Get products by category", description = "Retrieve products filtered by category")
-    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable String category) {
+    public ResponseEntity<List<ProductView>> getProductsByCategory(@PathVariable String category) {
         List<Product> products = productService.getProductsByCategory(category);
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok(productService.toViews(products));
     }
     
     /**
@@ -302,11 +269,11 @@ public class ProductController {
      */
     @GetMapping("/price-range")
     @Operation(summary = "Get products by price range", description = "Retrieve products within a price range")
-    public ResponseEntity<List<Product>> getProductsByPriceRange(
+    public ResponseEntity<List<ProductView>> getProductsByPriceRange(
             @RequestParam Double minPrice,
             @RequestParam Double maxPrice) {
         List<Product> products = productService.getProductsByPriceRange(minPrice, maxPrice);
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok(productService.toViews(products));
     }
     
     /**
@@ -78,13 +78,14 @@ public class SearchSuggestionController {
     
     /**
      * Popüler arama terimleri getirir.
-     * En çok aranan terimleri listeler.
+     * Son 1 saatte (window=HOUR) veya son 24 saatte (window=DAY) en çok aranan terimleri listeler.
      */
     @GetMapping("/popular")
     public ResponseEntity<List<String>> getPopularSearchTerms(
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "DAY") String window) {
         
-        List<String> popularTerms = searchSuggestionService.getPopularSearchTerms(limit);
+        List<String> popularTerms = searchSuggestionService.getPopularSearchTerms(window, limit);
         return ResponseEntity.ok(popularTerms);
     }
 } 
\ No newline at end of file
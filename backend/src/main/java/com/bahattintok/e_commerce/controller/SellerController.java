@@ -13,8 +13,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -35,15 +34,22 @@ import com.bahattintok.e_commerce.model.OrderItem;
 import com.bahattintok.e_commerce.model.Product;
 import com.bahattintok.e_commerce.model.Review;
 import com.bahattintok.e_commerce.model.Store;
-import com.bahattintok.e_commerce.model.User;
+import com.bahattintok.e_commerce.model.StoreDailySales;
+import com.bahattintok.e_commerce.model.StoreProductSales;
 import com.bahattintok.e_commerce.repository.CampaignRepository;
 import com.bahattintok.e_commerce.repository.CategoryRepository;
 import com.bahattintok.e_commerce.repository.OrderRepository;
 import com.bahattintok.e_commerce.repository.ProductRepository;
 import com.bahattintok.e_commerce.repository.ReviewRepository;
 import com.bahattintok.e_commerce.repository.StoreRepository;
-import com.bahattintok.e_commerce.repository.UserRepository;
+import com.bahattintok.e_commerce.security.CurrentSeller;
+import com.bahattintok.e_commerce.security.CurrentUser;
+import com.bahattintok.e_commerce.security.CurrentUserProvider;
+import com.bahattintok.e_commerce.service.CampaignService;
 import com.bahattintok.e_commerce.service.ElasticsearchService;
+import com.bahattintok.e_commerce.service.OrderService;
+import com.bahattintok.e_commerce.service.SearchIndexOutboxService;
+import com.bahattintok.e_commerce.service.StoreSalesService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -64,7 +70,7 @@ public class SellerController {
     private StoreRepository storeRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private CurrentUserProvider currentUserProvider;
 
     @Autowired
     private ReviewRepository reviewRepository;
@@ -72,12 +78,27 @@ public class SellerController {
     @Autowired
     private CampaignRepository campaignRepository;
     
+    @Autowired
+    private CampaignService campaignService;
+    
     @Autowired
     private CategoryRepository categoryRepository;
     
+    @Autowired
+    private StoreSalesService storeSalesService;
+    
     @Autowired(required = false)
     private ElasticsearchService elasticsearchService;
     
+    @Autowired
+    private SearchIndexOutboxService searchIndexOutboxService;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
     @Autowired
     private org.springframework.context.ApplicationEventPublisher eventPublisher;
 
@@ -99,17 +120,14 @@ public class SellerController {
         try {
             System.out.println("=== FIX STORE IDS DEBUG ===");
             
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             System.out.println("Current user email: " + email);
             
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
+            CurrentSeller seller = currentUserProvider.requireSeller();
+            Store sellerStore = storeRepository.getReferenceById(seller.storeId());
             
-            Store sellerStore = storeRepository.findBySeller(currentUser)
-                    .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
-            
-            System.out.println("Seller store ID: " + sellerStore.getId());
+            System.out.println("Seller store ID: " + seller.storeId());
             
             // Tüm ürünleri çek
             List<Product> allProducts = productRepository.findAll();
@@ -121,7 +139,7 @@ public class SellerController {
             for (Product product : allProducts) {
                 if (product.getStoreId() == null) {
                     System.out.println("Fixing product: " + product.getName() + " (ID: " + product.getId() + ")");
-                    product.setStoreId(sellerStore.getId());
+                    product.setStoreId(seller.storeId());
                     product.setStore(sellerStore);
                     productRepository.save(product);
                     fixedCount++;
@@ -136,7 +154,7 @@ public class SellerController {
             response.put("message", "Store IDs fixed successfully");
             response.put("fixedCount", fixedCount);
             response.put("fixedProducts", fixedProducts);
-            response.put("sellerStoreId", sellerStore.getId());
+            response.put("sellerStoreId", seller.storeId());
             
             return ResponseEntity.ok(response);
             
@@ -162,22 +180,19 @@ public class SellerController {
             System.out.println("=== GET SELLER PRODUCTS DEBUG ===");
             System.out.println("Page: " + page + ", Size: " + size);
             
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             System.out.println("Current user email: " + email);
             
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
-            System.out.println("Found user: " + currentUser.getEmail() + ", Role: " + currentUser.getRole().getName());
+            System.out.println("Found user: " + currentUser.email() + ", Role: " + currentUser.roleName());
             
-            if (!currentUser.getRole().getName().equals("SELLER") && !currentUser.getRole().isSeller()) {
+            if (!currentUser.isSeller()) {
                 System.out.println("User is not a seller, returning 403");
                 return ResponseEntity.status(403).build();
             }
             
-            Store sellerStore = storeRepository.findBySeller(currentUser)
-                    .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
-            System.out.println("Found store: " + sellerStore.getName() + " (ID: " + sellerStore.getId() + ")");
+            CurrentSeller seller = currentUserProvider.requireSeller();
+            System.out.println("Found store: " + seller.storeName() + " (ID: " + seller.storeId() + ")");
             
             // Tüm ürünleri çek ve debug et
             List<Product> allProducts = productRepository.findAll();
@@ -186,20 +201,20 @@ public class SellerController {
             // Her ürünün store ID'sini ve status'unu kontrol et
             System.out.println("=== STORE ID AND STATUS DEBUG ===");
             for (Product p : allProducts) {
-                System.out.println("Product: " + p.getName() + " | Store ID: " + p.getStoreId() + " | Status: " + p.getStatus() + " | Looking for: " + sellerStore.getId());
+                System.out.println("Product: " + p.getName() + " | Store ID: " + p.getStoreId() + " | Status: " + p.getStatus() + " | Looking for: " + seller.storeId());
             }
             System.out.println("=== END STORE ID AND STATUS DEBUG ===");
             
             // Store ID'sine göre ürünleri filtrele
             List<Product> sellerProducts = allProducts.stream()
-                .filter(p -> p.getStoreId() != null && p.getStoreId().equals(sellerStore.getId()))
+                .filter(p -> p.getStoreId() != null && p.getStoreId().equals(seller.storeId()))
                 .collect(java.util.stream.Collectors.toList());
             
             // Alternatif olarak ProductRepository'nin yeni metodunu kullan
             // List<Product> sellerProducts = productRepository.findActiveProductsByStore(sellerStore);
             
             System.out.println("Found " + sellerProducts.size() + " products for seller");
-            System.out.println("Seller store ID: " + sellerStore.getId());
+            System.out.println("Seller store ID: " + seller.storeId());
             
             // Status bilgilerini kontrol et
             System.out.println("=== STATUS DEBUG ===");
@@ -251,22 +266,20 @@ public class SellerController {
             System.out.println("=== ADD PRODUCT DEBUG ===");
             System.out.println("Received product data: " + product);
             
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             System.out.println("Current user email: " + email);
             
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
-            System.out.println("Found user: " + currentUser.getEmail() + ", Role: " + currentUser.getRole().getName());
+            System.out.println("Found user: " + currentUser.email() + ", Role: " + currentUser.roleName());
             
-            if (!currentUser.getRole().getName().equals("SELLER") && !currentUser.getRole().isSeller()) {
+            if (!currentUser.isSeller()) {
                 System.out.println("User is not a seller, returning 403");
                 return ResponseEntity.status(403).build();
             }
             
-            Store sellerStore = storeRepository.findBySeller(currentUser)
-                    .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
-            System.out.println("Found store: " + sellerStore.getName() + " (ID: " + sellerStore.getId() + ")");
+            CurrentSeller seller = currentUserProvider.requireSeller();
+            Store sellerStore = storeRepository.getReferenceById(seller.storeId());
+            System.out.println("Found store: " + seller.storeName() + " (ID: " + seller.storeId() + ")");
             
             product.setStore(sellerStore);
             
@@ -279,27 +292,19 @@ public class SellerController {
             }
             
             // Store ID'yi de set et
-            product.setStoreId(sellerStore.getId());
-            System.out.println("Store ID set to: " + sellerStore.getId());
+            product.setStoreId(seller.storeId());
+            System.out.println("Store ID set to: " + seller.storeId());
             
             System.out.println("Product before save: " + product);
             
-            Product savedProduct = productRepository.save(product);
+            // Ürün ve arama indexi outbox kaydı aynı transaction'da yazılır
+            Product savedProduct = transactionTemplate.execute(status -> {
+                Product saved = productRepository.save(product);
+                searchIndexOutboxService.enqueue(saved.getId());
+                return saved;
+            });
             System.out.println("Product saved successfully: " + savedProduct);
             
-            // Elasticsearch'e indexle (eğer varsa)
-            if (elasticsearchService != null) {
-                try {
-                    elasticsearchService.indexProduct(savedProduct);
-                    System.out.println("Product indexed to Elasticsearch successfully");
-                } catch (Exception e) {
-                    System.err.println("Elasticsearch indexing failed: " + e.getMessage());
-                    // Elasticsearch hatası ürün oluşturmayı engellemez
-                }
-            } else {
-                System.out.println("Elasticsearch service not available, skipping indexing");
-            }
-            
             System.out.println("=== END ADD PRODUCT DEBUG ===");
             
             return ResponseEntity.ok(savedProduct);
@@ -329,24 +334,20 @@ public class SellerController {
     @Operation(summary = "Update product", description = "Update an existing product")
     public ResponseEntity<?> updateProduct(@PathVariable String id, @RequestBody Product product) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             
-            if (!currentUser.getRole().getName().equals("SELLER") && !currentUser.getRole().isSeller()) {
+            if (!currentUser.isSeller()) {
                 return ResponseEntity.status(403).build();
             }
             
-            Store sellerStore = storeRepository.findBySeller(currentUser)
-                    .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
+            CurrentSeller seller = currentUserProvider.requireSeller();
             
             Product existingProduct = productRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Product not found: " + id));
             
             // Ürünün bu satıcıya ait olduğunu kontrol et
-            if (!existingProduct.getStore().getId().equals(sellerStore.getId())) {
+            if (!existingProduct.getStore().getId().equals(seller.storeId())) {
                 return ResponseEntity.status(403).build();
             }
             
@@ -373,23 +374,14 @@ public class SellerController {
             }
             
             // Store ID'yi de güncelle
-            existingProduct.setStoreId(sellerStore.getId());
-            System.out.println("Store ID updated to: " + sellerStore.getId());
+            existingProduct.setStoreId(seller.storeId());
+            System.out.println("Store ID updated to: " + seller.storeId());
             
-            Product updatedProduct = productRepository.save(existingProduct);
-            
-            // Elasticsearch'i güncelle (eğer varsa)
-            if (elasticsearchService != null) {
-                try {
-                    elasticsearchService.updateProduct(updatedProduct);
-                    System.out.println("Product updated in Elasticsearch successfully");
-                } catch (Exception e) {
-                    System.err.println("Elasticsearch update failed: " + e.getMessage());
-                    // Elasticsearch hatası ürün güncellemeyi engellemez
-                }
-            } else {
-                System.out.println("Elasticsearch service not available, skipping update");
-            }
+            Product updatedProduct = transactionTemplate.execute(status -> {
+                Product saved = productRepository.save(existingProduct);
+                searchIndexOutboxService.enqueue(saved.getId());
+                return saved;
+            });
             
             return ResponseEntity.ok(updatedProduct);
             
@@ -414,52 +406,39 @@ public class SellerController {
             System.out.println("=== DELETE PRODUCT DEBUG ===");
             System.out.println("Product ID to delete: " + id);
             
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             System.out.println("Current user email: " + email);
             
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
-            System.out.println("Found user: " + currentUser.getEmail() + ", Role: " + currentUser.getRole().getName());
+            System.out.println("Found user: " + currentUser.email() + ", Role: " + currentUser.roleName());
             
-            if (!currentUser.getRole().getName().equals("SELLER") && !currentUser.getRole().isSeller()) {
+            if (!currentUser.isSeller()) {
                 System.out.println("User is not a seller, returning 403");
                 return ResponseEntity.status(403).build();
             }
             
-            Store sellerStore = storeRepository.findBySeller(currentUser)
-                    .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
-            System.out.println("Found store: " + sellerStore.getName() + " (ID: " + sellerStore.getId() + ")");
+            CurrentSeller seller = currentUserProvider.requireSeller();
+            System.out.println("Found store: " + seller.storeName() + " (ID: " + seller.storeId() + ")");
             
             // Ürünün bu satıcıya ait olup olmadığını kontrol et
             Product product = productRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Product not found: " + id));
             
-            if (!sellerStore.getId().equals(product.getStoreId())) {
+            if (!seller.storeId().equals(product.getStoreId())) {
                 System.out.println("Product does not belong to this seller, returning 403");
                 return ResponseEntity.status(403).build();
             }
             
             System.out.println("Product found: " + product.getName() + " (ID: " + product.getId() + ")");
             System.out.println("Product store ID: " + product.getStoreId());
-            System.out.println("Seller store ID: " + sellerStore.getId());
+            System.out.println("Seller store ID: " + seller.storeId());
             
-            productRepository.deleteById(id);
+            transactionTemplate.executeWithoutResult(status -> {
+                productRepository.deleteById(id);
+                searchIndexOutboxService.enqueue(id);
+            });
             System.out.println("Product deleted successfully");
             
-            // Elasticsearch'ten de sil (eğer varsa)
-            if (elasticsearchService != null) {
-                try {
-                    elasticsearchService.deleteProduct(id);
-                    System.out.println("Product deleted from Elasticsearch successfully");
-                } catch (Exception e) {
-                    System.err.println("Elasticsearch deletion failed: " + e.getMessage());
-                    // Elasticsearch hatası ürün silmeyi engellemez
-                }
-            } else {
-                System.out.println("Elasticsearch service not available, skipping deletion");
-            }
-            
             System.out.println("=== END DELETE PRODUCT DEBUG ===");
             
             return ResponseEntity.noContent().build();
@@ -484,28 +463,25 @@ public class SellerController {
             System.out.println("=== TOGGLE PRODUCT STATUS DEBUG ===");
             System.out.println("Product ID to toggle: " + id);
             
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             System.out.println("Current user email: " + email);
             
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
-            System.out.println("Found user: " + currentUser.getEmail() + ", Role: " + currentUser.getRole().getName());
+            System.out.println("Found user: " + currentUser.email() + ", Role: " + currentUser.roleName());
             
-            if (!currentUser.getRole().getName().equals("SELLER") && !currentUser.getRole().isSeller()) {
+            if (!currentUser.isSeller()) {
                 System.out.println("User is not a seller, returning 403");
                 return ResponseEntity.status(403).build();
             }
             
-            Store sellerStore = storeRepository.findBySeller(currentUser)
-                    .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
-            System.out.println("Found store: " + sellerStore.getName() + " (ID: " + sellerStore.getId() + ")");
+            CurrentSeller seller = currentUserProvider.requireSeller();
+            System.out.println("Found store: " + seller.storeName() + " (ID: " + seller.storeId() + ")");
             
             // Ürünün bu satıcıya ait olup olmadığını kontrol et
             Product product = productRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Product not found: " + id));
             
-            if (!sellerStore.getId().equals(product.getStoreId())) {
+            if (!seller.storeId().equals(product.getStoreId())) {
                 System.out.println("Product does not belong to this seller, returning 403");
                 return ResponseEntity.status(403).build();
             }
@@ -522,22 +498,13 @@ public class SellerController {
                 System.out.println("Status changed to: AKTİF");
             }
             
-            Product updatedProduct = productRepository.save(product);
+            Product updatedProduct = transactionTemplate.execute(status -> {
+                Product saved = productRepository.save(product);
+                searchIndexOutboxService.enqueue(saved.getId());
+                return saved;
+            });
             System.out.println("Product status updated successfully");
             
-            // Elasticsearch'i güncelle (eğer varsa)
-            if (elasticsearchService != null) {
-                try {
-                    elasticsearchService.indexProduct(updatedProduct);
-                    System.out.println("Product updated in Elasticsearch successfully");
-                } catch (Exception e) {
-                    System.err.println("Elasticsearch update failed: " + e.getMessage());
-                    // Elasticsearch hatası ürün güncellemeyi engellemez
-                }
-            } else {
-                System.out.println("Elasticsearch service not available, skipping update");
-            }
-            
             System.out.println("=== END TOGGLE PRODUCT STATUS DEBUG ===");
             
             return ResponseEntity.ok(updatedProduct);
@@ -560,62 +527,34 @@ public class SellerController {
             @RequestParam(defaultValue = "week") String period) {
         try {
             System.out.println("=== SELLER STATS DEBUG ===");
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             System.out.println("User email: " + email);
             
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
-            System.out.println("User found: " + currentUser.getEmail());
+            System.out.println("User found: " + currentUser.email());
             
-            if (!currentUser.getRole().getName().equals("SELLER") && !currentUser.getRole().isSeller()) {
+            if (!currentUser.isSeller()) {
                 System.out.println("Access denied: User is not a seller");
                 Map<String, Object> error = new HashMap<>();
                 error.put("error", "Access denied. User is not a seller.");
                 return ResponseEntity.status(403).body(error);
             }
             
-            Store sellerStore = storeRepository.findBySeller(currentUser)
-                    .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
-            System.out.println("Store found: " + sellerStore.getName());
+            CurrentSeller seller = currentUserProvider.requireSeller();
+            Store sellerStore = storeRepository.getReferenceById(seller.storeId());
+            System.out.println("Store found: " + seller.storeName());
             
             // Get seller's products
             List<Product> sellerProducts = productRepository.findByStore(sellerStore, org.springframework.data.domain.Pageable.unpaged()).getContent();
             int totalProducts = sellerProducts.size();
             System.out.println("Seller products count: " + totalProducts);
             
-            // Get all orders and filter by seller's products
-            List<Order> allOrders = orderRepository.findAll();
-            System.out.println("Total orders in database: " + allOrders.size());
-            List<Order> sellerOrders = new ArrayList<>();
-            Set<String> uniqueCustomers = new HashSet<>();
-            double totalRevenue = 0.0;
-            int totalSales = 0;
-            
-            for (Order order : allOrders) {
-                boolean hasSellerProduct = false;
-                double orderRevenue = 0.0;
-                
-                for (OrderItem item : order.getItems()) {
-                    // Null kontrolü ekle
-                    if (item.getProduct() != null && 
-                        item.getProduct().getStore() != null && 
-                        item.getProduct().getStore().getId().equals(sellerStore.getId())) {
-                        hasSellerProduct = true;
-                        orderRevenue += item.getPrice().doubleValue() * item.getQuantity();
-                        totalSales += item.getQuantity();
-                    }
-                }
-                
-                if (hasSellerProduct) {
-                    sellerOrders.add(order);
-                    totalRevenue += orderRevenue;
-                    uniqueCustomers.add(order.getUser().getId());
-                }
-            }
-            
-            int totalOrders = sellerOrders.size();
-            int totalCustomers = uniqueCustomers.size();
+            // Mağaza satış özetinden toplamları oku
+            Object[] totals = storeSalesService.getTotals(seller.storeId());
+            int totalOrders = ((Number) totals[0]).intValue();
+            int totalSales = ((Number) totals[1]).intValue();
+            double totalRevenue = ((Number) totals[2]).doubleValue();
+            int totalCustomers = (int) orderRepository.countDistinctCustomersByStoreId(seller.storeId());
             
             // Calculate average order value
             double averageOrderValue = totalOrders > 0 ? totalRevenue / totalOrders : 0.0;
@@ -624,12 +563,16 @@ public class SellerController {
             double averageRating = calculateAverageRating(sellerProducts);
             
             // Generate real chart data based on period
-            List<Map<String, Object>> salesData = generateRealSalesData(sellerOrders, period);
-            List<Map<String, Object>> revenueData = generateRealRevenueData(sellerOrders, period);
-            List<Map<String, Object>> categoryData = generateRealCategoryData(sellerProducts, sellerOrders);
+            int days = period.equals("week") ? 7 : period.equals("month") ? 30 : 365;
+            java.time.LocalDate today = java.time.LocalDate.now();
+            List<StoreDailySales> dailySales = storeSalesService.getDailySales(
+                    seller.storeId(), today.minusDays(days - 1), today);
+            List<Map<String, Object>> salesData = generateRealSalesData(dailySales, period);
+            List<Map<String, Object>> revenueData = generateRealRevenueData(dailySales, period);
+            List<Map<String, Object>> categoryData = generateRealCategoryData(seller.storeId());
             
             // Get top product and category
-            Map<String, Object> topProduct = getTopProduct(sellerProducts, sellerOrders);
+            Map<String, Object> topProduct = getTopProduct(sellerProducts, seller.storeId());
             System.out.println("Category data being passed to getTopCategory: " + categoryData.size() + " items");
             Map<String, Object> topCategory = getTopCategory(categoryData);
             System.out.println("Top category result: " + topCategory);
@@ -709,17 +652,16 @@ public class SellerController {
         return reviewCount > 0 ? totalRating / reviewCount : 0.0;
     }
 
-    private List<Map<String, Object>> generateRealSalesData(List<Order> orders, String period) {
+    private List<Map<String, Object>> generateRealSalesData(List<StoreDailySales> dailySales, String period) {
         List<Map<String, Object>> data = new ArrayList<>();
         int days = period.equals("week") ? 7 : period.equals("month") ? 30 : 365;
         
-        // Group orders by date
-        Map<String, Integer> dailySales = new HashMap<>();
+        // Group daily summaries by date label
+        Map<String, Long> salesByLabel = new HashMap<>();
         
-        for (Order order : orders) {
-            String dateKey = getDateLabel(period, order.getCreatedAt());
-            int salesCount = order.getItems().size();
-            dailySales.put(dateKey, dailySales.getOrDefault(dateKey, 0) + salesCount);
+        for (StoreDailySales day : dailySales) {
+            String dateKey = getDateLabel(period, day.getStatDate().atStartOfDay());
+            salesByLabel.put(dateKey, salesByLabel.getOrDefault(dateKey, 0L) + day.getItemsSold());
         }
         
         // Fill in missing dates with 0
@@ -727,24 +669,23 @@ public class SellerController {
             String dateLabel = getDateLabel(period, i);
             Map<String, Object> dayData = new HashMap<>();
             dayData.put("date", dateLabel);
-            dayData.put("count", dailySales.getOrDefault(dateLabel, 0));
+            dayData.put("count", salesByLabel.getOrDefault(dateLabel, 0L));
             data.add(dayData);
         }
         
         return data;
     }
 
-    private List<Map<String, Object>> generateRealRevenueData(List<Order> orders, String period) {
+    private List<Map<String, Object>> generateRealRevenueData(List<StoreDailySales> dailySales, String period) {
         List<Map<String, Object>> data = new ArrayList<>();
         int days = period.equals("week") ? 7 : period.equals("month") ? 30 : 365;
         
-        // Group orders by date
-        Map<String, Double> dailyRevenue = new HashMap<>();
+        // Group daily summaries by date label
+        Map<String, Double> revenueByLabel = new HashMap<>();
         
-        for (Order order : orders) {
-            String dateKey = getDateLabel(period, order.getCreatedAt());
-            double orderRevenue = order.getTotalPrice().doubleValue();
-            dailyRevenue.put(dateKey, dailyRevenue.getOrDefault(dateKey, 0.0) + orderRevenue);
+        for (StoreDailySales day : dailySales) {
+            String dateKey = getDateLabel(period, day.getStatDate().atStartOfDay());
+            revenueByLabel.put(dateKey, revenueByLabel.getOrDefault(dateKey, 0.0) + day.getRevenue().doubleValue());
         }
         
         // Fill in missing dates with 0
@@ -752,48 +693,25 @@ public class SellerController {
             String dateLabel = getDateLabel(period, i);
             Map<String, Object> dayData = new HashMap<>();
             dayData.put("date", dateLabel);
-            dayData.put("amount", Math.round(dailyRevenue.getOrDefault(dateLabel, 0.0) * 100.0) / 100.0);
+            dayData.put("amount", Math.round(revenueByLabel.getOrDefault(dateLabel, 0.0) * 100.0) / 100.0);
             data.add(dayData);
         }
         
         return data;
     }
 
-    private List<Map<String, Object>> generateRealCategoryData(List<Product> products, List<Order> orders) {
+    private List<Map<String, Object>> generateRealCategoryData(String storeId) {
         List<Map<String, Object>> data = new ArrayList<>();
         
-        System.out.println("=== CATEGORY DATA DEBUG ===");
-        System.out.println("Orders count for category analysis: " + orders.size());
-        
-        // Count sales by category from orders
-        Map<String, Integer> categorySales = new HashMap<>();
-        
-        for (Order order : orders) {
-            for (OrderItem item : order.getItems()) {
-                // Null kontrolü ekle
-                if (item.getProduct() != null && item.getProduct().getCategory() != null) {
-                    Product product = item.getProduct();
-                    String categoryName = product.getCategory().getName();
-                    categorySales.put(categoryName, categorySales.getOrDefault(categoryName, 0) + item.getQuantity());
-                    System.out.println("Category: " + categoryName + ", Sales: " + item.getQuantity());
-                }
-            }
-        }
-        
-        System.out.println("Category sales map: " + categorySales);
-        
-        // Convert to list format
-        for (Map.Entry<String, Integer> entry : categorySales.entrySet()) {
+        // Mağaza ürün satış özetinden kategori bazlı adetler
+        for (Object[] row : storeSalesService.getCategorySales(storeId)) {
             Map<String, Object> categoryData = new HashMap<>();
-            categoryData.put("name", entry.getKey()); // Frontend 'name' field'ını bekliyor
-            categoryData.put("categoryName", entry.getKey()); // Eski field için backward compatibility
-            categoryData.put("salesCount", entry.getValue());
+            categoryData.put("name", row[0]); // Frontend 'name' field'ını bekliyor
+            categoryData.put("categoryName", row[0]); // Eski field için backward compatibility
+            categoryData.put("salesCount", ((Number) row[1]).intValue());
             data.add(categoryData);
         }
         
-        System.out.println("Final category data: " + data);
-        System.out.println("=== END CATEGORY DATA DEBUG ===");
-        
         return data;
     }
 
@@ -821,7 +739,7 @@ public class SellerController {
         }
     }
 
-    private Map<String, Object> getTopProduct(List<Product> products, List<Order> orders) {
+    private Map<String, Object> getTopProduct(List<Product> products, String storeId) {
         if (products.isEmpty()) {
             Map<String, Object> empty = new HashMap<>();
             empty.put("name", "Veri yok");
@@ -829,34 +747,19 @@ public class SellerController {
             return empty;
         }
         
-        // Count sales for each product
-        Map<String, Integer> productSales = new HashMap<>();
+        // Find top selling product from the store's product sales summary
+        List<StoreProductSales> topSales = storeSalesService.getTopProducts(storeId, 1);
         
-        for (Order order : orders) {
-            for (OrderItem item : order.getItems()) {
-                // Null kontrolü ekle
-                if (item.getProduct() != null) {
-                    String productId = item.getProduct().getId();
-                    productSales.put(productId, productSales.getOrDefault(productId, 0) + item.getQuantity());
-                }
-            }
-        }
-        
-        // Find top selling product
-        String topProductId = productSales.entrySet().stream()
-            .max(Map.Entry.comparingByValue())
-            .map(Map.Entry::getKey)
-            .orElse(null);
-        
-        if (topProductId != null) {
+        if (!topSales.isEmpty()) {
+            StoreProductSales top = topSales.get(0);
             Product topProduct = products.stream()
-                .filter(p -> p.getId().equals(topProductId))
+                .filter(p -> p.getId().equals(top.getProductId()))
                 .findFirst()
                 .orElse(products.get(0));
             
             Map<String, Object> result = new HashMap<>();
             result.put("name", topProduct.getName());
-            result.put("salesCount", productSales.get(topProductId));
+            result.put("salesCount", (int) top.getQuantitySold());
             return result;
         } else {
             Product topProduct = products.get(0);
@@ -895,9 +798,14 @@ public class SellerController {
     @Operation(summary = "Get recent orders", description = "Retrieve recent orders for the authenticated seller")
     public ResponseEntity<List<Order>> getRecentOrders() {
         try {
-            // For demo purposes, return all orders
-            // In real app, you'd filter by seller's store
-            List<Order> recentOrders = orderRepository.findAll();
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
+            
+            CurrentSeller seller = currentUserProvider.requireSeller();
+            
+            // Sadece bu mağazanın ürünlerini içeren son siparişler
+            List<Order> recentOrders = orderService.getStoreOrders(
+                    seller.storeId(), "all", org.springframework.data.domain.PageRequest.of(0, 10)).getContent();
             return ResponseEntity.ok(recentOrders);
             
         } catch (Exception e) {
@@ -910,87 +818,44 @@ public class SellerController {
     @Operation(summary = "Get welcome dashboard data", description = "Retrieve welcome dashboard data for the authenticated seller")
     public ResponseEntity<Map<String, Object>> getWelcomeDashboard() {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             
             System.out.println("Welcome Dashboard - Current user email: " + email);
             
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
-            
-            System.out.println("Found user: " + currentUser.getEmail() + ", Role: " + currentUser.getRole().getName()); // Debug log
+            System.out.println("Found user: " + currentUser.email() + ", Role: " + currentUser.roleName()); // Debug log
             
             // Check if user is a seller
-            if (!currentUser.getRole().getName().equals("SELLER") && !currentUser.getRole().isSeller()) {
+            if (!currentUser.isSeller()) {
                 Map<String, Object> error = new HashMap<>();
                 error.put("error", "Access denied. User is not a seller.");
                 return ResponseEntity.status(403).body(error);
             }
             
-            Store sellerStore = storeRepository.findBySeller(currentUser)
-                    .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
+            CurrentSeller seller = currentUserProvider.requireSeller();
+            Store sellerStore = storeRepository.getReferenceById(seller.storeId());
             
             // Get today's date
             java.time.LocalDate today = java.time.LocalDate.now();
             java.time.LocalDate weekStart = today.minusDays(7);
             
             // Get recent orders for this seller's store (last 5)
-            List<Order> allOrders = orderRepository.findAll();
-            List<Order> sellerOrders = allOrders.stream()
-                .filter(order -> order.getItems().stream()
-                    .anyMatch(item -> item.getProduct() != null && 
-                                     item.getProduct().getStore() != null && 
-                                     item.getProduct().getStore().getId().equals(sellerStore.getId())))
-                .collect(java.util.stream.Collectors.toList());
-            
-            List<Order> recentOrders = sellerOrders.stream()
-                .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
-                .limit(5)
-                .collect(java.util.stream.Collectors.toList());
-            
-            // Get today's sales for this seller's store
-            List<Order> allTodayOrders = orderRepository.findByCreatedAtBetween(
-                today.atStartOfDay(), 
-                today.atTime(23, 59, 59)
-            );
-            List<Order> todayOrders = allTodayOrders.stream()
-                .filter(order -> order.getItems().stream()
-                    .anyMatch(item -> item.getProduct() != null && 
-                                     item.getProduct().getStore() != null && 
-                                     item.getProduct().getStore().getId().equals(sellerStore.getId())))
-                .collect(java.util.stream.Collectors.toList());
-            
-            // Get this week's sales for this seller's store
-            List<Order> allWeekOrders = orderRepository.findByCreatedAtBetween(
-                weekStart.atStartOfDay(),
-                today.atTime(23, 59, 59)
-            );
-            List<Order> weekOrders = allWeekOrders.stream()
-                .filter(order -> order.getItems().stream()
-                    .anyMatch(item -> item.getProduct() != null && 
-                                     item.getProduct().getStore() != null && 
-                                     item.getProduct().getStore().getId().equals(sellerStore.getId())))
-                .collect(java.util.stream.Collectors.toList());
-            
-            // Calculate today's revenue for this seller's products only
-            double todayRevenue = todayOrders.stream()
-                .mapToDouble(order -> order.getItems().stream()
-                    .filter(item -> item.getProduct() != null && 
-                                   item.getProduct().getStore() != null && 
-                                   item.getProduct().getStore().getId().equals(sellerStore.getId()))
-                    .mapToDouble(item -> item.getPrice().doubleValue() * item.getQuantity())
-                    .sum())
-                .sum();
-            
-            // Calculate this week's revenue for this seller's products only
-            double weekRevenue = weekOrders.stream()
-                .mapToDouble(order -> order.getItems().stream()
-                    .filter(item -> item.getProduct() != null && 
-                                   item.getProduct().getStore() != null && 
-                                   item.getProduct().getStore().getId().equals(sellerStore.getId()))
-                    .mapToDouble(item -> item.getPrice().doubleValue() * item.getQuantity())
-                    .sum())
-                .sum();
+            List<Order> recentOrders = orderService.getStoreOrders(
+                    seller.storeId(), "all", org.springframework.data.domain.PageRequest.of(0, 5)).getContent();
+            
+            // Get today's and this week's sales from the store's daily summary
+            long todayOrderCount = 0;
+            double todayRevenue = 0.0;
+            long weekOrderCount = 0;
+            double weekRevenue = 0.0;
+            for (StoreDailySales day : storeSalesService.getDailySales(seller.storeId(), weekStart, today)) {
+                weekOrderCount += day.getOrderCount();
+                weekRevenue += day.getRevenue().doubleValue();
+                if (day.getStatDate().equals(today)) {
+                    todayOrderCount += day.getOrderCount();
+                    todayRevenue += day.getRevenue().doubleValue();
+                }
+            }
             
             // Get low stock products (stock < 10)
             List<Product> lowStockProducts = productRepository.findByStoreAndStockLessThan(sellerStore, 10);
@@ -1003,14 +868,14 @@ public class SellerController {
             
             // Welcome message
             dashboardData.put("welcomeMessage", "Hoş geldin");
-            dashboardData.put("storeName", sellerStore.getName());
+            dashboardData.put("storeName", seller.storeName());
             dashboardData.put("today", today.toString());
             
             // Quick stats
             Map<String, Object> quickStats = new HashMap<>();
-            quickStats.put("todayOrders", todayOrders.size());
+            quickStats.put("todayOrders", todayOrderCount);
             quickStats.put("todayRevenue", Math.round(todayRevenue * 100.0) / 100.0);
-            quickStats.put("weekOrders", weekOrders.size());
+            quickStats.put("weekOrders", weekOrderCount);
             quickStats.put("weekRevenue", Math.round(weekRevenue * 100.0) / 100.0);
             quickStats.put("lowStockCount", lowStockProducts.size());
             dashboardData.put("quickStats", quickStats);
@@ -1022,7 +887,7 @@ public class SellerController {
                     List<OrderItem> sellerItems = order.getItems().stream()
                         .filter(item -> item.getProduct() != null && 
                                        item.getProduct().getStore() != null && 
-                                       item.getProduct().getStore().getId().equals(sellerStore.getId()))
+                                       item.getProduct().getStore().getId().equals(seller.storeId()))
                         .collect(java.util.stream.Collectors.toList());
                     
                     // Seller'ın ürünlerinin toplam tutarını hesapla
@@ -1137,62 +1002,18 @@ public class SellerController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "all") String status) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
-            
-            Store sellerStore = storeRepository.findBySeller(currentUser)
-                    .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
-            
-            // Seller'ın ürünlerini çek
-            List<Product> sellerProducts = productRepository.findByStore(sellerStore, org.springframework.data.domain.Pageable.unpaged()).getContent();
-            Set<String> sellerProductIds = new HashSet<>();
-            for (Product product : sellerProducts) {
-                sellerProductIds.add(product.getId());
-            }
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             
-            // Tüm siparişleri çek
-            List<Order> allOrders = orderRepository.findAll();
+            CurrentSeller seller = currentUserProvider.requireSeller();
             
-            // Seller'ın ürünlerini içeren siparişleri filtrele
-            List<Order> sellerOrders = new ArrayList<>();
-            for (Order order : allOrders) {
-                boolean hasSellerProduct = false;
-                for (OrderItem item : order.getItems()) {
-                    // Null kontrolü ekle
-                    if (item.getProduct() != null && sellerProductIds.contains(item.getProduct().getId())) {
-                        hasSellerProduct = true;
-                        break;
-                    }
-                }
-                if (hasSellerProduct) {
-                    sellerOrders.add(order);
-                }
-            }
+            // Seller'ın ürünlerini içeren siparişleri veritabanında sayfalı getir
+            org.springframework.data.domain.Pageable pageable = org.springframework.data.domain.PageRequest.of(page, size);
+            org.springframework.data.domain.Page<Order> orderPage = orderService.getStoreOrders(seller.storeId(), status, pageable);
             
-            // Status filtresi uygula
-            if (!"all".equals(status)) {
-                sellerOrders = sellerOrders.stream()
-                    .filter(order -> status.equalsIgnoreCase(order.getStatus()))
-                    .collect(java.util.stream.Collectors.toList());
-            }
-            
-            // Toplam sipariş sayısı
-            int totalOrders = sellerOrders.size();
-            
-            // Pagination uygula
-            int startIndex = page * size;
-            int endIndex = Math.min(startIndex + size, totalOrders);
-            
-            List<Order> paginatedOrders = new ArrayList<>();
-            if (startIndex < totalOrders) {
-                paginatedOrders = sellerOrders.subList(startIndex, endIndex);
-            }
-            
-            // Toplam sayfa sayısı
-            int totalPages = (int) Math.ceil((double) totalOrders / size);
+            List<Order> paginatedOrders = orderPage.getContent();
+            int totalOrders = (int) orderPage.getTotalElements();
+            int totalPages = orderPage.getTotalPages();
             
             // Order objelerini Map'lere dönüştür
             List<Map<String, Object>> orderMaps = new ArrayList<>();
@@ -1272,17 +1093,14 @@ public class SellerController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Status is required"));
             }
             
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             
-            Store sellerStore = storeRepository.findBySeller(currentUser)
-                    .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
+            CurrentSeller seller = currentUserProvider.requireSeller();
+            Store sellerStore = storeRepository.getReferenceById(seller.storeId());
             
-            // Siparişi bul
-            Order order = orderRepository.findById(orderId)
+            // Siparişi bul (durum email'i asenkron gönderildiği için müşteri ve kalemlerle)
+            Order order = orderService.getOrderDetail(orderId)
                     .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
             
             // Seller'ın bu siparişte ürünü olup olmadığını kontrol et
@@ -1338,14 +1156,11 @@ public class SellerController {
     public ResponseEntity<Map<String, Object>> getLowStockProducts(
             @RequestParam(defaultValue = "10") int threshold) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
-            
-            Store sellerStore = storeRepository.findBySeller(currentUser)
-                    .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
+            CurrentSeller seller = currentUserProvider.requireSeller();
+            Store sellerStore = storeRepository.getReferenceById(seller.storeId());
             
             // Seller'ın düşük stoklu ürünlerini çek
             List<Product> lowStockProducts = productRepository.findByStoreAndStockLessThan(
@@ -1396,14 +1211,11 @@ public class SellerController {
     @Operation(summary = "Get seller campaigns", description = "Retrieve all campaigns for the authenticated seller")
     public ResponseEntity<Map<String, Object>> getSellerCampaigns() {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
-            
-            Store sellerStore = storeRepository.findBySeller(currentUser)
-                    .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
+            CurrentSeller seller = currentUserProvider.requireSeller();
+            Store sellerStore = storeRepository.getReferenceById(seller.storeId());
             
             // Seller'ın kampanyalarını çek
             List<Campaign> campaigns = campaignRepository.findByStore(sellerStore);
@@ -1422,6 +1234,7 @@ public class SellerController {
                 campaignMap.put("startDate", campaign.getStartDate());
                 campaignMap.put("endDate", campaign.getEndDate());
                 campaignMap.put("isActive", campaign.isActive());
+                campaignMap.put("status", campaign.getStatus());
                 campaignMap.put("createdAt", campaign.getCreatedAt());
                 campaignMap.put("updatedAt", campaign.getUpdatedAt());
                 
@@ -1445,14 +1258,11 @@ public class SellerController {
     @Operation(summary = "Create campaign", description = "Create a new campaign for the authenticated seller")
     public ResponseEntity<Map<String, Object>> createCampaign(@RequestBody Map<String, Object> request) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
-            
-            Store sellerStore = storeRepository.findBySeller(currentUser)
-                    .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
+            CurrentSeller seller = currentUserProvider.requireSeller();
+            Store sellerStore = storeRepository.getReferenceById(seller.storeId());
             
             // Kampanya oluştur
             Campaign campaign = new Campaign();
@@ -1469,23 +1279,12 @@ public class SellerController {
             campaign.setCreatedAt(java.time.LocalDateTime.now());
             campaign.setUpdatedAt(java.time.LocalDateTime.now());
             
-            Campaign savedCampaign = campaignRepository.save(campaign);
+            // Başlangıç zamanı gelmişse indirim hemen, gelmemişse zamanlayıcı tarafından toplu uygulanır
+            Campaign savedCampaign = campaignService.save(campaign);
             
             System.out.println("=== KAMPANYA OLUŞTURULDU ===");
             System.out.println("Kampanya ID: " + savedCampaign.getId());
-            System.out.println("Kampanya Tipi: " + savedCampaign.getCampaignType());
-            System.out.println("Hedef ID: " + savedCampaign.getTargetId());
-            System.out.println("Aktif mi: " + savedCampaign.isActive());
-            System.out.println("İndirim Tipi: " + savedCampaign.getDiscountType());
-            System.out.println("İndirim Değeri: " + savedCampaign.getDiscountValue());
-            
-            // Kampanya aktifse ürünlerin indirim bilgilerini güncelle (hem product hem category için)
-            if (savedCampaign.isActive()) {
-                System.out.println("Ürün indirimleri güncelleniyor...");
-                updateProductDiscounts(savedCampaign);
-            } else {
-                System.out.println("Kampanya pasif, ürün güncellemesi yapılmıyor.");
-            }
+            System.out.println("Kampanya Durumu: " + savedCampaign.getStatus());
             
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Kampanya başarıyla oluşturuldu");
@@ -1506,21 +1305,17 @@ public class SellerController {
             @PathVariable String campaignId,
             @RequestBody Map<String, Object> request) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             
-            Store sellerStore = storeRepository.findBySeller(currentUser)
-                    .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
+            CurrentSeller seller = currentUserProvider.requireSeller();
             
             // Kampanyayı bul
             Campaign campaign = campaignRepository.findById(campaignId)
                     .orElseThrow(() -> new RuntimeException("Campaign not found: " + campaignId));
             
             // Seller'ın bu kampanyaya sahip olup olmadığını kontrol et
-            if (!campaign.getStore().getId().equals(sellerStore.getId())) {
+            if (!campaign.getStore().getId().equals(seller.storeId())) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Bu kampanyayı düzenleme yetkiniz yok"));
             }
             
@@ -1536,10 +1331,8 @@ public class SellerController {
             campaign.setActive((Boolean) request.get("isActive"));
             campaign.setUpdatedAt(java.time.LocalDateTime.now());
             
-            campaignRepository.save(campaign);
-            
-            // Kampanya güncellendikten sonra ürünlerin indirim bilgilerini güncelle
-            updateProductDiscounts(campaign);
+            // Önceki indirimler kaldırılır, kampanya yeni zamanlarına göre yeniden uygulanır
+            campaignService.save(campaign);
             
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Kampanya başarıyla güncellendi");
@@ -1553,177 +1346,27 @@ public class SellerController {
         }
     }
 
-    /**
-     * Kampanya bilgilerine göre ürünlerin indirim bilgilerini günceller
-     */
-    private void updateProductDiscounts(Campaign campaign) {
-        try {
-            System.out.println("=== UPDATE PRODUCT DISCOUNTS BAŞLADI ===");
-            System.out.println("Kampanya Tipi: " + campaign.getCampaignType());
-            System.out.println("Hedef ID: " + campaign.getTargetId());
-            System.out.println("Store ID: " + campaign.getStore().getId());
-            
-            if ("product".equals(campaign.getCampaignType())) {
-                System.out.println("Ürün kampanyası - belirli ürün güncelleniyor...");
-                // Belirli ürün için indirim
-                Product product = productRepository.findById(campaign.getTargetId()).orElse(null);
-                if (product != null && product.getStoreId().equals(campaign.getStore().getId())) {
-                    System.out.println("Ürün bulundu: " + product.getName());
-                    updateProductDiscount(product, campaign);
-                } else {
-                    System.out.println("Ürün bulunamadı veya store ID uyuşmuyor!");
-                    System.out.println("Product: " + (product != null ? product.getName() : "null"));
-                    System.out.println("Product Store ID: " + (product != null ? product.getStoreId() : "null"));
-                }
-            } else if ("category".equals(campaign.getCampaignType())) {
-                System.out.println("Kategori kampanyası - kategorideki tüm ürünler güncelleniyor...");
-                // Kategori için indirim - o kategorideki tüm ürünleri güncelle
-                List<Product> categoryProducts = productRepository.findByCategoryIdAndStoreId(
-                    campaign.getTargetId(), campaign.getStore().getId());
-                
-                System.out.println("Kategoride bulunan ürün sayısı: " + categoryProducts.size());
-                
-                for (Product product : categoryProducts) {
-                    System.out.println("Ürün güncelleniyor: " + product.getName());
-                    updateProductDiscount(product, campaign);
-                }
-            } else {
-                System.out.println("Bilinmeyen kampanya tipi: " + campaign.getCampaignType());
-            }
-            
-            System.out.println("=== UPDATE PRODUCT DISCOUNTS TAMAMLANDI ===");
-        } catch (Exception e) {
-            System.err.println("Update product discounts error: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
-    /**
-     * Tek bir ürünün indirim bilgilerini günceller
-     */
-    private void updateProductDiscount(Product product, Campaign campaign) {
-        try {
-            System.out.println("=== UPDATE PRODUCT DISCOUNT BAŞLADI ===");
-            System.out.println("Ürün: " + product.getName() + " (ID: " + product.getId() + ")");
-            System.out.println("Mevcut Fiyat: " + product.getPrice());
-            System.out.println("Kampanya Aktif mi: " + campaign.isActive());
-            System.out.println("İndirim Tipi: " + campaign.getDiscountType());
-            System.out.println("İndirim Değeri: " + campaign.getDiscountValue());
-            
-            if (campaign.isActive()) {
-                // İndirim yüzdesi hesapla
-                int discountPercentage = 0;
-                if ("percentage".equals(campaign.getDiscountType())) {
-                    discountPercentage = campaign.getDiscountValue().intValue();
-                    System.out.println("Yüzde indirim: %" + discountPercentage);
-                } else if ("fixed".equals(campaign.getDiscountType())) {
-                    // Sabit tutar indirimi için yüzde hesapla
-                    if (product.getPrice().compareTo(BigDecimal.ZERO) > 0) {
-                        BigDecimal discountAmount = campaign.getDiscountValue();
-                        BigDecimal percentage = discountAmount.multiply(new BigDecimal("100"))
-                            .divide(product.getPrice(), 2, java.math.RoundingMode.HALF_UP);
-                        discountPercentage = percentage.intValue();
-                        System.out.println("Sabit tutar indirimi: " + discountAmount + "₺ (%" + discountPercentage + ")");
-                    }
-                }
-                
-                // İndirimli fiyat hesapla
-                BigDecimal discountedPrice = null;
-                if (discountPercentage > 0) {
-                    BigDecimal discountMultiplier = new BigDecimal("100").subtract(new BigDecimal(discountPercentage))
-                        .divide(new BigDecimal("100"), 4, java.math.RoundingMode.HALF_UP);
-                    discountedPrice = product.getPrice().multiply(discountMultiplier);
-                    System.out.println("İndirimli Fiyat: " + discountedPrice + "₺");
-                }
-                
-                // Ürünü güncelle
-                product.setDiscountPercentage(discountPercentage);
-                product.setDiscountedPrice(discountedPrice);
-                product.setDiscountEndDate(campaign.getEndDate());
-                
-                Product savedProduct = productRepository.save(product);
-                System.out.println("Ürün kaydedildi!");
-                System.out.println("Yeni İndirim Yüzdesi: " + savedProduct.getDiscountPercentage());
-                System.out.println("Yeni İndirimli Fiyat: " + savedProduct.getDiscountedPrice());
-                System.out.println("İndirim Bitiş Tarihi: " + savedProduct.getDiscountEndDate());
-                System.out.println("İndirim Aktif mi: " + savedProduct.isDiscountActive());
-            } else {
-                System.out.println("Kampanya pasif - indirimler kaldırılıyor...");
-                // Kampanya pasifse indirimleri kaldır
-                product.setDiscountPercentage(null);
-                product.setDiscountedPrice(null);
-                product.setDiscountEndDate(null);
-                
-                productRepository.save(product);
-                System.out.println("İndirimler kaldırıldı!");
-            }
-            
-            System.out.println("=== UPDATE PRODUCT DISCOUNT TAMAMLANDI ===");
-        } catch (Exception e) {
-            System.err.println("Update product discount error for product " + product.getId() + ": " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
-    /**
-     * Kampanya silindiğinde ürünlerin indirim bilgilerini temizler
-     */
-    private void clearProductDiscounts(Campaign campaign) {
-        try {
-            if ("product".equals(campaign.getCampaignType())) {
-                // Belirli ürün için indirimleri temizle
-                Product product = productRepository.findById(campaign.getTargetId()).orElse(null);
-                if (product != null && product.getStoreId().equals(campaign.getStore().getId())) {
-                    product.setDiscountPercentage(null);
-                    product.setDiscountedPrice(null);
-                    product.setDiscountEndDate(null);
-                    productRepository.save(product);
-                }
-            } else if ("category".equals(campaign.getCampaignType())) {
-                // Kategori için indirimleri temizle - o kategorideki tüm ürünleri güncelle
-                List<Product> categoryProducts = productRepository.findByCategoryIdAndStoreId(
-                    campaign.getTargetId(), campaign.getStore().getId());
-                
-                for (Product product : categoryProducts) {
-                    product.setDiscountPercentage(null);
-                    product.setDiscountedPrice(null);
-                    product.setDiscountEndDate(null);
-                    productRepository.save(product);
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Clear product discounts error: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
     @DeleteMapping("/campaigns/{campaignId}")
     @PreAuthorize("hasRole('SELLER') or hasRole('ROLE_SELLER')")
     @Operation(summary = "Delete campaign", description = "Delete a campaign")
     public ResponseEntity<Map<String, Object>> deleteCampaign(@PathVariable String campaignId) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             
-            Store sellerStore = storeRepository.findBySeller(currentUser)
-                    .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
+            CurrentSeller seller = currentUserProvider.requireSeller();
             
             // Kampanyayı bul
             Campaign campaign = campaignRepository.findById(campaignId)
                     .orElseThrow(() -> new RuntimeException("Campaign not found: " + campaignId));
             
             // Seller'ın bu kampanyaya sahip olup olmadığını kontrol et
-            if (!campaign.getStore().getId().equals(sellerStore.getId())) {
+            if (!campaign.getStore().getId().equals(seller.storeId())) {
                 return ResponseEntity.badRequest().body(Map.of("error", "Bu kampanyayı silme yetkiniz yok"));
             }
             
-            // Kampanya silinmeden önce ürünlerin indirim bilgilerini temizle
-            clearProductDiscounts(campaign);
-            
-            campaignRepository.delete(campaign);
+            // Kampanyanın uyguladığı indirimler kaldırılır ve kampanya silinir
+            campaignService.delete(campaign);
             
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Kampanya başarıyla silindi");
@@ -1744,13 +1387,11 @@ public class SellerController {
     @Operation(summary = "Get store information", description = "Retrieve store information for the authenticated seller")
     public ResponseEntity<Map<String, Object>> getStoreInfo() {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
-            
-            Store sellerStore = storeRepository.findBySeller(currentUser)
+            CurrentSeller seller = currentUserProvider.requireSeller();
+            Store sellerStore = storeRepository.findById(seller.storeId())
                     .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
             
             Map<String, Object> response = new HashMap<>();
@@ -1826,15 +1467,14 @@ public class SellerController {
             System.out.println("=== UPDATE STORE INFO DEBUG ===");
             System.out.println("Request data: " + request);
             
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             System.out.println("Current user email: " + email);
             
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
-            System.out.println("Found user: " + currentUser.getEmail());
+            System.out.println("Found user: " + currentUser.email());
             
-            Store sellerStore = storeRepository.findBySeller(currentUser)
+            CurrentSeller seller = currentUserProvider.requireSeller();
+            Store sellerStore = storeRepository.findById(seller.storeId())
                     .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
             System.out.println("Found store: " + sellerStore.getName() + " (ID: " + sellerStore.getId() + ")");
             
@@ -1977,11 +1617,8 @@ public class SellerController {
     @Operation(summary = "Update seller settings", description = "Update notification and appearance settings")
     public ResponseEntity<Map<String, Object>> updateSettings(@RequestBody Map<String, Object> request) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            
-            userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Ayarlar başarıyla güncellendi");
@@ -2007,14 +1644,10 @@ public class SellerController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
-            
-            Store sellerStore = storeRepository.findBySeller(currentUser)
-                    .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
+            CurrentSeller seller = currentUserProvider.requireSeller();
             
             // Elasticsearch servisi kontrol et
             if (elasticsearchService == null) {
@@ -2023,11 +1656,11 @@ public class SellerController {
             
             // Elasticsearch ile arama yap
             List<com.bahattintok.e_commerce.model.ProductDocument> searchResults = 
-                elasticsearchService.advancedSearch(query, category, minPrice, maxPrice, sellerStore.getName());
+                elasticsearchService.advancedSearch(query, category, minPrice, maxPrice, seller.storeName());
             
             // Sadece bu seller'ın ürünlerini filtrele
             List<com.bahattintok.e_commerce.model.ProductDocument> filteredResults = searchResults.stream()
-                .filter(doc -> doc.getStoreId().equals(sellerStore.getId()))
+                .filter(doc -> doc.getStoreId().equals(seller.storeId()))
                 .toList();
             
             // Pagination uygula
@@ -2061,57 +1694,16 @@ public class SellerController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             
-            Store sellerStore = storeRepository.findBySeller(currentUser)
-                    .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
-            
-            // Tüm siparişleri getir
-            List<Order> allOrders = orderRepository.findAll();
-            
-            // Bu seller'ın ürünlerini içeren siparişleri filtrele
-            List<Order> sellerOrders = allOrders.stream()
-                .filter(order -> order.getOrderItems().stream()
-                    .anyMatch(item -> item.getProduct().getStore().getId().equals(sellerStore.getId())))
-                .toList();
-            
-            // Elasticsearch benzeri filtreleme
-            List<Order> filteredOrders = sellerOrders.stream()
-                .filter(order -> {
-                    // Status filtresi
-                    if (!status.equals("all") && !order.getStatus().equals(status)) {
-                        return false;
-                    }
-                    
-                    // Customer name filtresi
-                    if (!customerName.isEmpty() && 
-                        !order.getUser().getFirstName().toLowerCase().contains(customerName.toLowerCase()) &&
-                        !order.getUser().getLastName().toLowerCase().contains(customerName.toLowerCase())) {
-                        return false;
-                    }
-                    
-                    // Query filtresi (order ID veya ürün adı)
-                    if (!query.isEmpty()) {
-                        boolean matchesQuery = order.getId().toLowerCase().contains(query.toLowerCase()) ||
-                            order.getOrderItems().stream()
-                                .anyMatch(item -> item.getProduct().getName().toLowerCase().contains(query.toLowerCase()));
-                        if (!matchesQuery) {
-                            return false;
-                        }
-                    }
-                    
-                    return true;
-                })
-                .toList();
+            CurrentSeller seller = currentUserProvider.requireSeller();
             
-            // Pagination uygula
-            int startIndex = page * size;
-            int endIndex = Math.min(startIndex + size, filteredOrders.size());
-            List<Order> paginatedOrders = filteredOrders.subList(startIndex, endIndex);
+            // Bu seller'ın ürünlerini içeren siparişleri filtreleriyle birlikte veritabanında ara
+            org.springframework.data.domain.Page<Order> orderPage = orderService.searchStoreOrders(
+                    seller.storeId(), status, customerName, query,
+                    org.springframework.data.domain.PageRequest.of(page, size));
+            List<Order> paginatedOrders = orderPage.getContent();
             
             // Order'ları Map'e dönüştür
             List<Map<String, Object>> orderMaps = new ArrayList<>();
@@ -2136,7 +1728,7 @@ public class SellerController {
                 for (OrderItem item : order.getOrderItems()) {
                     // Sadece bu seller'ın ürünlerini dahil et - null kontrolü ekle
                     if (item.getProduct() != null && item.getProduct().getStore() != null && 
-                        item.getProduct().getStore().getId().equals(sellerStore.getId())) {
+                        item.getProduct().getStore().getId().equals(seller.storeId())) {
                         Map<String, Object> itemMap = new HashMap<>();
                         itemMap.put("id", item.getId());
                         itemMap.put("quantity", item.getQuantity());
@@ -2166,8 +1758,8 @@ public class SellerController {
             
             Map<String, Object> response = new HashMap<>();
             response.put("orders", orderMaps);
-            response.put("totalElements", filteredOrders.size());
-            response.put("totalPages", (int) Math.ceil((double) filteredOrders.size() / size));
+            response.put("totalElements", orderPage.getTotalElements());
+            response.put("totalPages", orderPage.getTotalPages());
             response.put("currentPage", page);
             response.put("size", size);
             
@@ -2190,14 +1782,10 @@ public class SellerController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             
-            Store sellerStore = storeRepository.findBySeller(currentUser)
-                    .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
+            CurrentSeller seller = currentUserProvider.requireSeller();
             
             // Elasticsearch servisi kontrol et
             if (elasticsearchService == null) {
@@ -2206,11 +1794,11 @@ public class SellerController {
             
             // Elasticsearch ile arama yap
             List<com.bahattintok.e_commerce.model.ProductDocument> searchResults = 
-                elasticsearchService.advancedSearch(query, category, 0.0, 999999.0, sellerStore.getName());
+                elasticsearchService.advancedSearch(query, category, 0.0, 999999.0, seller.storeName());
             
             // Sadece bu seller'ın ürünlerini filtrele ve stok kriterlerini uygula
             List<com.bahattintok.e_commerce.model.ProductDocument> filteredResults = searchResults.stream()
-                .filter(doc -> doc.getStoreId().equals(sellerStore.getId()))
+                .filter(doc -> doc.getStoreId().equals(seller.storeId()))
                 .filter(doc -> doc.getStock() >= minStock && doc.getStock() <= maxStock)
                 .toList();
             
@@ -2245,14 +1833,11 @@ public class SellerController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
-            
-            Store sellerStore = storeRepository.findBySeller(currentUser)
-                    .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
+            CurrentSeller seller = currentUserProvider.requireSeller();
+            Store sellerStore = storeRepository.getReferenceById(seller.storeId());
             
             // Tüm kampanyaları getir
             List<Campaign> allCampaigns = campaignRepository.findByStore(sellerStore);
@@ -2341,27 +1926,23 @@ public class SellerController {
             System.out.println("Product ID: " + productId);
             System.out.println("Request body: " + request);
             
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             System.out.println("Current user email: " + email);
             
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
-            
-            if (!currentUser.getRole().getName().equals("SELLER") && !currentUser.getRole().isSeller()) {
+            if (!currentUser.isSeller()) {
                 System.out.println("User is not a seller, returning 403");
                 return ResponseEntity.status(403).body(Map.of("error", "Bu işlem için seller yetkisi gereklidir"));
             }
             
-            Store sellerStore = storeRepository.findBySeller(currentUser)
-                    .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
+            CurrentSeller seller = currentUserProvider.requireSeller();
             
             // Ürünü bul
             Product product = productRepository.findById(productId)
                     .orElseThrow(() -> new RuntimeException("Product not found: " + productId));
             
             // Ürünün bu seller'a ait olduğunu kontrol et
-            if (!product.getStoreId().equals(sellerStore.getId())) {
+            if (!product.getStoreId().equals(seller.storeId())) {
                 System.out.println("Product does not belong to this seller");
                 return ResponseEntity.status(403).body(Map.of("error", "Bu ürün size ait değil"));
             }
@@ -2406,20 +1987,17 @@ public class SellerController {
             System.out.println("=== BULK ADD PRODUCTS DEBUG ===");
             System.out.println("Received " + productsData.size() + " products");
             
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            CurrentUser currentUser = currentUserProvider.requireUser();
+            String email = currentUser.email();
             System.out.println("Current user email: " + email);
             
-            User currentUser = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + email));
-            
-            if (!currentUser.getRole().getName().equals("SELLER") && !currentUser.getRole().isSeller()) {
+            if (!currentUser.isSeller()) {
                 System.out.println("User is not a seller, returning 403");
                 return ResponseEntity.status(403).body(Map.of("error", "Bu işlem için seller yetkisi gereklidir"));
             }
             
-            Store sellerStore = storeRepository.findBySeller(currentUser)
-                    .orElseThrow(() -> new RuntimeException("Store not found for seller: " + email));
+            CurrentSeller seller = currentUserProvider.requireSeller();
+            Store sellerStore = storeRepository.getReferenceById(seller.storeId());
             
             List<Product> savedProducts = new ArrayList<>();
             List<Map<String, Object>> errors = new ArrayList<>();
@@ -2538,7 +2116,7 @@ public class SellerController {
                     
                     // Store ve kategori bilgileri
                     product.setStore(sellerStore);
-                    product.setStoreId(sellerStore.getId());
+                    product.setStoreId(seller.storeId());
                     product.setCategory(category);
                     product.setCategoryId(category.getId());
                     
@@ -7,9 +7,7 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
 import com.bahattintok.e_commerce.model.CategoryRequest;
-import com.bahattintok.e_commerce.model.User;
-import com.bahattintok.e_commerce.repository.RoleRepository;
-import com.bahattintok.e_commerce.repository.UserRepository;
+import com.bahattintok.e_commerce.service.RealtimeMessagingService;
 
 /**
  * WebSocket mesajları için controller
@@ -21,44 +19,14 @@ public class WebSocketController {
     private SimpMessagingTemplate messagingTemplate;
     
     @Autowired
-    private UserRepository userRepository;
-    
-    @Autowired
-    private RoleRepository roleRepository;
+    private RealtimeMessagingService realtimeMessagingService;
     
     /**
-     * Kategori isteği oluşturulduğunda admin'lere bildirim gönderir
+     * Kategori isteği oluşturulduğunda admin'lere bildirim gönderir.
+     * Admin'ler tek tek dolaşılmaz; bildirim admin rol topic'ine bir kez yayınlanır.
      */
     public void sendCategoryRequestNotification(CategoryRequest request) {
-        // Admin kullanıcılarını bul
-        var adminRole = roleRepository.findByName("ADMIN");
-        if (adminRole.isEmpty()) {
-            return; // Admin rolü bulunamadı
-        }
-        var adminUsers = userRepository.findByRole(adminRole.get());
-        
-        // Her admin'e bildirim gönder
-        for (User admin : adminUsers) {
-            String destination = "/user/" + admin.getId() + "/queue/category-requests";
-            
-            CategoryRequestNotification notification = new CategoryRequestNotification(
-                "Yeni Kategori İsteği",
-                String.format("'%s' kategorisi için yeni istek oluşturuldu.", request.getCategoryName()),
-                request.getId(),
-                request.getCategoryName(),
-                request.getSeller().getFirstName() + " " + request.getSeller().getLastName(),
-                request.getCreatedAt()
-            );
-            
-            messagingTemplate.convertAndSendToUser(
-                admin.getId().toString(),
-                "/queue/category-requests",
-                notification
-            );
-        }
-        
-        // Genel topic'e de gönder (admin panel'deki sayfa için)
-        CategoryRequestNotification generalNotification = new CategoryRequestNotification(
+        CategoryRequestNotification notification = new CategoryRequestNotification(
             "Yeni Kategori İsteği",
             String.format("'%s' kategorisi için yeni istek oluşturuldu.", request.getCategoryName()),
             request.getId(),
@@ -67,7 +35,7 @@ public class WebSocketController {
             request.getCreatedAt()
         );
         
-        messagingTemplate.convertAndSend("/topic/category-requests", generalNotification);
+        realtimeMessagingService.sendToRole("ADMIN", "/category-requests", notification);
     }
     
     /**
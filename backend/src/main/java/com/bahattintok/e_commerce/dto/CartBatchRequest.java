@@ -0,0 +1,45 @@
+package com.bahattintok.e_commerce.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sepette tek istekte birden fazla ekleme/güncelleme/silme için DTO ("tekrar satın al", paket ekleme).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartBatchRequest {
+
+    @NotEmpty(message = "Operations are required")
+    @Size(max = 100, message = "At most 100 operations are allowed")
+    @Valid
+    private List<Operation> operations;
+
+    /**
+     * Tek sepet işlemi. ADD miktarı ekler, UPDATE miktarı verilen değere ayarlar
+     * (0 satırı siler, sepette yoksa ekler), REMOVE satırı siler.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Operation {
+
+        @NotNull(message = "Action is required")
+        @Pattern(regexp = "ADD|UPDATE|REMOVE", message = "Action must be ADD, UPDATE or REMOVE")
+        private String action;
+
+        @NotNull(message = "Product ID is required")
+        private String productId;
+
+        private Integer quantity;
+    }
+}
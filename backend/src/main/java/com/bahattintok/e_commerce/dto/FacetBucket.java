@@ -0,0 +1,23 @@
+package com.bahattintok.e_commerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Arama filtresi seçeneği ve o seçenekteki ürün sayısı.
+ * Aralık facet'lerinde (fiyat, puan) from/to dolu gelir.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetBucket {
+    private String key;
+    private Double from;
+    private Double to;
+    private long count;
+
+    public static FacetBucket of(String key, long count) {
+        return new FacetBucket(key, null, null, count);
+    }
+}
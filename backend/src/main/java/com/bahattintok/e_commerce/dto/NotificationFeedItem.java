@@ -0,0 +1,30 @@
+package com.bahattintok.e_commerce.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bildirim akışındaki kayıt. source PERSONAL ise kullanıcıya özel bildirim, BROADCAST ise tüm kullanıcılara giden
+ * bildirimdir (ID'ler iki kaynakta ayrıdır; okundu işaretlemede kaynak da gönderilmelidir).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationFeedItem {
+
+    public static final String SOURCE_PERSONAL = "PERSONAL";
+    public static final String SOURCE_BROADCAST = "BROADCAST";
+
+    private String source;
+    private Long id;
+    private String title;
+    private String message;
+    private String type;
+    private boolean read;
+    private LocalDateTime createdAt;
+    private Long relatedEntityId;
+    private String relatedEntityType;
+}
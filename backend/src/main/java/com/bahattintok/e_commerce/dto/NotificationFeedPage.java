@@ -0,0 +1,18 @@
+package com.bahattintok.e_commerce.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bildirim akışının bir sayfası. Sonraki sayfa nextCursor ile istenir; null ise akışın sonuna gelinmiştir.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationFeedPage {
+    private List<NotificationFeedItem> items;
+    private String nextCursor;
+}
@@ -0,0 +1,25 @@
+package com.bahattintok.e_commerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ödeme sağlayıcısından dönen sonuç
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentResult {
+    private boolean success;
+    private String transactionId;
+    private String message;
+
+    public static PaymentResult approved(String transactionId) {
+        return new PaymentResult(true, transactionId, "Ödeme onaylandı");
+    }
+
+    public static PaymentResult declined(String message) {
+        return new PaymentResult(false, null, message);
+    }
+}
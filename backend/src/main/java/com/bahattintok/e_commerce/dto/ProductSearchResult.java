@@ -0,0 +1,31 @@
+package com.bahattintok.e_commerce.dto;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.bahattintok.e_commerce.model.ProductDocument;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sayfalı ürün arama sonucu ve filtre panelini dolduracak facet'ler
+ * (categories, stores, price, rating). Sayfa alanları Spring Page ile aynı adlardadır.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResult {
+    private List<ProductDocument> content;
+    private int number;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+    private Map<String, List<FacetBucket>> facets = new LinkedHashMap<>();
+
+    public static ProductSearchResult empty(int page, int size) {
+        return new ProductSearchResult(List.of(), page, size, 0, 0, new LinkedHashMap<>());
+    }
+}
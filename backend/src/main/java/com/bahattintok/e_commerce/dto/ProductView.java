@@ -0,0 +1,107 @@
+package com.bahattintok.e_commerce.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.bahattintok.e_commerce.model.enums.SellerStatus;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ürün listeleri için düz okuma modeli.
+ *
+ * Kategori, mağaza ve satıcı bilgileri tek bir JOIN sorgusunda doldurulur; JSON'a çevrilirken
+ * lazy ilişkilere dokunulmadığı için ek SQL çalışmaz. Alan adları Product entity'sinin JSON
+ * çıktısıyla aynıdır, böylece istemci tarafı değişmeden kullanılabilir.
+ */
+@Data
+@NoArgsConstructor
+public class ProductView {
+
+    private String id;
+    private String name;
+    private BigDecimal price;
+    private String description;
+    private Integer stock;
+    private String imageUrl;
+    private String imageUrl1;
+    private String imageUrl2;
+    private String imageUrl3;
+    private String imageUrl4;
+    private String imageUrl5;
+    private Integer discountPercentage;
+    /** İndirim aktifse indirimli fiyat, değilse normal fiyat */
+    private BigDecimal discountedPrice;
+    private LocalDateTime discountEndDate;
+    private String status;
+    private String categoryId;
+    private String storeId;
+    private CategoryRef category;
+    private String categoryName;
+    private String storeName;
+    private String sellerId;
+    private String sellerName;
+    private String sellerEmail;
+    @JsonProperty("isDiscountActive")
+    private boolean discountActive;
+    @JsonProperty("isSellerApproved")
+    private boolean sellerApproved;
+    @JsonProperty("isPublishable")
+    private boolean publishable;
+    private String image;
+
+    /**
+     * JPQL constructor expression'ı için; türetilen alanlar burada hesaplanır.
+     */
+    public ProductView(String id, String name, BigDecimal price, String description, Integer stock,
+                       String imageUrl, String imageUrl1, String imageUrl2, String imageUrl3,
+                       String imageUrl4, String imageUrl5, Integer discountPercentage,
+                       BigDecimal effectivePrice, LocalDateTime discountEndDate, String status,
+                       String categoryId, String storeId, String categoryName, String storeName,
+                       String sellerId, String sellerFirstName, String sellerLastName,
+                       String sellerEmail, SellerStatus sellerStatus) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.description = description;
+        this.stock = stock;
+        this.imageUrl = imageUrl;
+        this.imageUrl1 = imageUrl1;
+        this.imageUrl2 = imageUrl2;
+        this.imageUrl3 = imageUrl3;
+        this.imageUrl4 = imageUrl4;
+        this.imageUrl5 = imageUrl5;
+        this.discountPercentage = discountPercentage;
+        this.discountEndDate = discountEndDate;
+        this.status = status;
+        this.categoryId = categoryId;
+        this.storeId = storeId;
+        this.category = categoryId != null ? new CategoryRef(categoryId, categoryName) : null;
+        this.categoryName = categoryName;
+        this.storeName = storeName;
+        this.sellerId = sellerId;
+        this.sellerName = sellerId != null ? sellerFirstName + " " + sellerLastName : null;
+        this.sellerEmail = sellerEmail;
+
+        // Etkin fiyat kampanya zamanlayıcısında önceden hesaplanır; burada indirim kuralı işletilmez
+        this.discountedPrice = effectivePrice != null ? effectivePrice : price;
+        this.discountActive = effectivePrice != null && price != null && effectivePrice.compareTo(price) < 0;
+        this.sellerApproved = sellerStatus == SellerStatus.APPROVED || sellerStatus == SellerStatus.ACTIVE;
+        this.publishable = sellerApproved && "AKTİF".equals(status);
+        this.image = imageUrl1 != null ? imageUrl1 : (imageUrl != null ? imageUrl : "/images/default-product.jpg");
+    }
+
+    /**
+     * Ürünün kategori özeti (istemci category.id / category.name kullanır).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryRef {
+        private String id;
+        private String name;
+    }
+}
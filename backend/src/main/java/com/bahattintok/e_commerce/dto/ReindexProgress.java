@@ -0,0 +1,43 @@
+package com.bahattintok.e_commerce.dto;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Tam reindex işinin ilerleme durumu
+ */
+@Getter
+@Setter
+public class ReindexProgress {
+
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private final String type;
+    private final String indexName;
+    private final long total;
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private volatile String status = STATUS_RUNNING;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    public ReindexProgress(String type, String indexName, long total) {
+        this.type = type;
+        this.indexName = indexName;
+        this.total = total;
+    }
+
+    public boolean isRunning() {
+        return STATUS_RUNNING.equals(status);
+    }
+
+    public int getPercent() {
+        return total > 0 ? (int) Math.min(100, processed.get() * 100 / total) : (isRunning() ? 0 : 100);
+    }
+}
@@ -0,0 +1,58 @@
+package com.bahattintok.e_commerce.listener;
+
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bahattintok.e_commerce.model.Store;
+import com.bahattintok.e_commerce.model.User;
+import com.bahattintok.e_commerce.security.CurrentUserCache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Kullanıcı veya mağaza kaydı değiştiğinde CurrentUserCache'teki ilgili kayıtları commit sonrası temizler.
+ * Kayıt hangi controller/servisten değişirse değişsin (rol, satıcı durumu, mağaza adı, yeni mağaza) önbellek tutarlı kalır.
+ */
+@Component
+public class CurrentUserCacheEntityListener {
+
+    private final CurrentUserCache currentUserCache;
+
+    public CurrentUserCacheEntityListener(@Lazy CurrentUserCache currentUserCache) {
+        this.currentUserCache = currentUserCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof User user) {
+            String userId = user.getId();
+            afterCommit(() -> currentUserCache.invalidateUser(userId));
+        } else if (entity instanceof Store store) {
+            String storeId = store.getId();
+            String sellerId = store.getSeller() != null ? store.getSeller().getId() : null;
+            afterCommit(() -> {
+                currentUserCache.invalidateStore(storeId);
+                currentUserCache.invalidateUser(sellerId);
+            });
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
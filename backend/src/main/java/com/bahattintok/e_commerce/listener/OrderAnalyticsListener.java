@@ -0,0 +1,34 @@
+package com.bahattintok.e_commerce.listener;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.bahattintok.e_commerce.event.OrderPlacedEvent;
+import com.bahattintok.e_commerce.event.OrderStatusChangedEvent;
+import com.bahattintok.e_commerce.service.OrderAnalyticsService;
+import com.bahattintok.e_commerce.service.StoreSalesService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Sipariş olaylarını dinleyip günlük sipariş ve mağaza satış özetlerini günceller.
+ * Senkron çalışır; böylece özet, siparişi yazan transaction ile birlikte commit/rollback olur.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderAnalyticsListener {
+
+    private final OrderAnalyticsService orderAnalyticsService;
+    private final StoreSalesService storeSalesService;
+
+    @EventListener
+    public void handleOrderPlaced(OrderPlacedEvent event) {
+        orderAnalyticsService.recordOrderPlaced(event.getOrder());
+        storeSalesService.recordOrderPlaced(event.getOrder());
+    }
+
+    @EventListener
+    public void handleOrderStatusChanged(OrderStatusChangedEvent event) {
+        orderAnalyticsService.recordStatusChange(event.getOrder(), event.getOldStatus(), event.getNewStatus());
+    }
+}
@@ -0,0 +1,66 @@
+package com.bahattintok.e_commerce.listener;
+
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bahattintok.e_commerce.model.Category;
+import com.bahattintok.e_commerce.model.Product;
+import com.bahattintok.e_commerce.model.Store;
+import com.bahattintok.e_commerce.service.SearchSuggestionService;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Ürün, kategori ve mağaza kayıtları değiştiğinde arama önerisi indeksini günceller.
+ * JPA entity listener olarak çalışır; böylece kayıt hangi controller/servisten değişirse değişsin indeks güncellenir.
+ * Değişiklik transaction commit edildikten sonra uygulanır, geri alınan kayıtlar indekse girmez.
+ */
+@Component
+public class SuggestionIndexEntityListener {
+
+    private final SearchSuggestionService searchSuggestionService;
+
+    public SuggestionIndexEntityListener(@Lazy SearchSuggestionService searchSuggestionService) {
+        this.searchSuggestionService = searchSuggestionService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        if (entity instanceof Product product) {
+            afterCommit(() -> searchSuggestionService.indexProduct(product.getId(), product.getName()));
+        } else if (entity instanceof Category category) {
+            afterCommit(() -> searchSuggestionService.indexCategory(category.getId(), category.getName()));
+        } else if (entity instanceof Store store) {
+            afterCommit(() -> searchSuggestionService.indexStore(store.getId(), store.getName()));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof Product product) {
+            afterCommit(() -> searchSuggestionService.removeProduct(product.getId()));
+        } else if (entity instanceof Category category) {
+            afterCommit(() -> searchSuggestionService.removeCategory(category.getId()));
+        } else if (entity instanceof Store store) {
+            afterCommit(() -> searchSuggestionService.removeStore(store.getId()));
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.bahattintok.e_commerce.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Tüm kullanıcılara giden bildirim (sistem, promosyon). Kullanıcı sayısından bağımsız olarak tek satır saklanır;
+ * okundu bilgisi satırda değil, kullanıcının okuma işaretinde (NotificationReadMark) tutulur.
+ */
+@Entity
+@Table(name = "broadcast_notifications")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BroadcastNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false, length = 1000)
+    private String message;
+
+    /**
+     * Bildirim tipi (SYSTEM, PROMOTION)
+     */
+    @Column(nullable = false, length = 50)
+    private String type;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -24,6 +24,10 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 public class Campaign {
+    public static final String STATUS_SCHEDULED = "SCHEDULED";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_ENDED = "ENDED";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
@@ -55,6 +59,9 @@ public class Campaign {
     @Column(nullable = false)
     private boolean isActive;
 
+    @Column(nullable = false, length = 20)
+    private String status = STATUS_SCHEDULED; // Zamanlayıcının durumu: SCHEDULED, RUNNING, ENDED
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "store_id", nullable = false)
     private Store store;
@@ -205,6 +212,20 @@ public class Campaign {
         this.isActive = isActive;
     }
     
+    /**
+     * Status getter metodu
+     */
+    public String getStatus() {
+        return status;
+    }
+    
+    /**
+     * Status setter metodu
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
     /**
      * Store getter metodu
      */
@@ -254,7 +275,7 @@ public class Campaign {
      * 2. İndirim Türleri: Yüzde (%) veya sabit tutar (₺) indirimleri
      * 3. Hedef Belirleme: Belirli ürün veya kategori için indirim
      * 4. Zaman Yönetimi: Başlangıç ve bitiş tarihleri
-     * 5. Durum Kontrolü: Aktif/pasif kampanya durumu
+     * 5. Durum Kontrolü: Aktif/pasif kampanya durumu ve zamanlayıcının başlatma/bitirme durumu
      * 6. Mağaza İlişkisi: Kampanyanın hangi mağazaya ait olduğu
      * 7. Zaman Damgası: Oluşturma ve güncelleme zamanları
      * 
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
@@ -33,6 +34,10 @@ public class Cart {
 
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<CartItem> items = new ArrayList<>();
+
+    /** Sepet her toplu yazımda bir artar; bellekteki kopya eski sürümü görürse yazmaz */
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version = 0L;
     
     /**
      * Bu entity şu işlevleri sağlar:
@@ -2,8 +2,11 @@ package com.bahattintok.e_commerce.model;
 
 import org.hibernate.annotations.GenericGenerator;
 
+import com.bahattintok.e_commerce.listener.SuggestionIndexEntityListener;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
@@ -15,6 +18,7 @@ import lombok.NoArgsConstructor;
  * Ürün kategorilerini temsil eden JPA entity'si.
  */
 @Entity
+@EntityListeners(SuggestionIndexEntityListener.class)
 @Table(name = "categories")
 @Data
 @NoArgsConstructor
@@ -0,0 +1,70 @@
+package com.bahattintok.e_commerce.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * İstemcinin Idempotency-Key başlığıyla gönderdiği isteğin kaydı.
+ * (scope, idempotency_key) tekildir; böylece aynı istek birden fazla düğümde de yalnızca bir kez işlenir
+ * ve tekrarında saklanan ilk yanıt döner.
+ */
+@Entity
+@Table(name = "idempotency_keys", uniqueConstraints = @UniqueConstraint(
+        name = "uk_idempotency_keys_scope_key", columnNames = {"scope", "idempotency_key"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKey {
+
+    public static final String STATUS_IN_PROGRESS = "IN_PROGRESS";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Uç nokta ve kullanıcı (ör. checkout:ali@example.com); farklı kullanıcıların anahtarları çakışmaz
+     */
+    @Column(name = "scope", nullable = false)
+    private String scope;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    /**
+     * İstek gövdesinin SHA-256 özeti; aynı anahtar farklı bir istekle gelirse reddedilir
+     */
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    /**
+     * IN_PROGRESS, COMPLETED
+     */
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
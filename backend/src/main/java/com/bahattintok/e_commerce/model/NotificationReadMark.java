@@ -0,0 +1,35 @@
+package com.bahattintok.e_commerce.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Kullanıcının toplu bildirimlerdeki okuma işareti: ID'si broadcastReadUpTo'ya kadar olan toplu bildirimler okunmuş sayılır.
+ * Kaydı olmayan kullanıcı için işaret 0'dır.
+ */
+@Entity
+@Table(name = "notification_read_marks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationReadMark {
+
+    @Id
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "broadcast_read_up_to", nullable = false)
+    private long broadcastReadUpTo;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
@@ -31,6 +32,27 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
+    /** Kart ödemesi sağlayıcıdan sonuç bekliyor */
+    public static final String STATUS_PENDING_PAYMENT = "PENDING_PAYMENT";
+    /** Kart ödemesi onaylandı */
+    public static final String STATUS_PAID = "PAID";
+    /** Sağlayıcı zamanında yanıt vermedi; sonuç mutabakatla netleşir (reddedildi sayılmaz) */
+    public static final String STATUS_PAYMENT_UNKNOWN = "PAYMENT_UNKNOWN";
+    /** Kart ödemesi reddedildi veya sağlayıcıda tahsilat bulunamadı */
+    public static final String STATUS_FAILED = "FAILED";
+
+    /**
+     * Sipariş satış özetlerine (günlük sipariş ve mağaza satışları) giriyor mu.
+     * Ödemesi sonuçlanmamış veya başarısız siparişler özetlere hiç eklenmez, bu yüzden çıkarılmaz da.
+     */
+    public static boolean isCountedStatus(String status) {
+        return status != null
+                && !STATUS_PENDING_PAYMENT.equals(status)
+                && !STATUS_PAYMENT_UNKNOWN.equals(status)
+                && !STATUS_FAILED.equals(status);
+    }
+
+    /** UUID persist anında uygulamada üretilir; IDENTITY'nin aksine insert'ler JDBC batch'lenebilir */
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
@@ -44,12 +66,22 @@ public class Order {
     private LocalDateTime createdAt;
 
     @Column(nullable = false)
-    private String status; // örn: PENDING, COMPLETED, CANCELLED
+    private String status; // örn: PENDING_PAYMENT, PAYMENT_UNKNOWN, PAID, FAILED, PENDING, COMPLETED, CANCELLED
 
     @Column(nullable = false)
     private BigDecimal totalPrice;
 
-    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    /** Kart ödemesi sonuçlanana kadar tutulan stok rezervasyonu; mutabakat bununla onaylar veya iade eder */
+    @Column(name = "reservation_key", length = 36)
+    @JsonIgnore
+    private String reservationKey;
+
+    /** Siparişi oluşturan isteğin Idempotency-Key'i; yarıda kalan istek yeniden çalışırsa mevcut sipariş döner */
+    @Column(name = "request_key", length = 120)
+    @JsonIgnore
+    private String requestKey;
+
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @JsonManagedReference
     private List<OrderItem> items = new ArrayList<>();
     
@@ -0,0 +1,59 @@
+package com.bahattintok.e_commerce.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Günlük sipariş özet entity'si.
+ * Her satır bir gün ve sipariş durumu için sipariş adedini ve toplam tutarı tutar.
+ * Admin raporları siparişleri taramak yerine bu tablodan okunur.
+ */
+@Entity
+@Table(name = "order_daily_stats",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"stat_date", "status"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Siparişin oluşturulduğu gün
+     */
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    /**
+     * Sipariş durumu (PENDING, SHIPPED, DELIVERED, ...)
+     */
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    /**
+     * O gün oluşturulup bu durumda bulunan sipariş adedi
+     */
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    /**
+     * Bu siparişlerin toplam tutarı
+     */
+    @Column(name = "total_amount", nullable = false)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+}
@@ -13,6 +13,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -35,7 +36,7 @@ public class OrderItem {
     @JsonBackReference
     private Order order;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id")
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "reviews", "store"})
     private Product product;
@@ -46,6 +47,19 @@ public class OrderItem {
     @Column(nullable = false)
     private BigDecimal price; // sipariş anındaki ürün fiyatı
     
+    /**
+     * Sipariş anında ürünün ait olduğu mağaza (mağaza bazlı sipariş sorguları için)
+     */
+    @Column(name = "store_id", columnDefinition = "VARCHAR(36)")
+    private String storeId;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (storeId == null && product != null) {
+            storeId = product.getStoreId();
+        }
+    }
+    
     /**
      * Id getter metodu
      */
@@ -116,6 +130,20 @@ public class OrderItem {
         this.price = price;
     }
     
+    /**
+     * StoreId getter metodu
+     */
+    public String getStoreId() {
+        return storeId;
+    }
+    
+    /**
+     * StoreId setter metodu
+     */
+    public void setStoreId(String storeId) {
+        this.storeId = storeId;
+    }
+    
     /**
      * Bu entity şu işlevleri sağlar:
      * 
@@ -0,0 +1,66 @@
+package com.bahattintok.e_commerce.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * İade edilmesi gereken tahsilat (iade talebi).
+ * Siparişi başarısız sayan transaction ile birlikte yazılır; iade commit sonrası sağlayıcıya iletilir,
+ * iletilemezse ödeme mutabakatı next_attempt_at geldiğinde yeniden dener.
+ */
+@Entity
+@Table(name = "payment_refunds")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentRefund {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_REFUNDED = "REFUNDED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false, columnDefinition = "VARCHAR(36)")
+    private String orderId;
+
+    @Column(name = "transaction_id", nullable = false, unique = true)
+    private String transactionId;
+
+    @Column(name = "amount", nullable = false, precision = 38, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status = STATUS_PENDING;
+
+    /**
+     * Sağlayıcıya iletme denemesi sayısı
+     */
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Talep bu zamandan önce yeniden denenmez; deneme başlarken ileri alınır (kiralama)
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
@@ -0,0 +1,60 @@
+package com.bahattintok.e_commerce.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Popüler arama terimi anlık görüntüsü.
+ * Sayaçlar bellekte tutulur; bu tablo yalnızca periyodik olarak yazılır ve yeniden başlatmada okunur.
+ */
+@Entity
+@Table(name = "popular_search_terms",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"window_name", "term"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PopularSearchTerm {
+
+    public static final String WINDOW_HOUR = "HOUR";
+    public static final String WINDOW_DAY = "DAY";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Pencere (HOUR veya DAY)
+     */
+    @Column(name = "window_name", nullable = false, length = 10)
+    private String windowName;
+
+    /**
+     * Arama terimi (küçük harfe çevrilmiş)
+     */
+    @Column(name = "term", nullable = false, length = 100)
+    private String term;
+
+    /**
+     * Pencere içindeki arama sayısı
+     */
+    @Column(name = "hits", nullable = false)
+    private long hits;
+
+    /**
+     * Anlık görüntünün alındığı zaman
+     */
+    @Column(name = "captured_at", nullable = false)
+    private LocalDateTime capturedAt;
+}
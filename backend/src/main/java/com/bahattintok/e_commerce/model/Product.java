@@ -6,6 +6,7 @@ import java.util.List;
 
 import org.hibernate.annotations.GenericGenerator;
 
+import com.bahattintok.e_commerce.listener.SuggestionIndexEntityListener;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -15,12 +16,15 @@ import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
@@ -30,6 +34,7 @@ import lombok.Setter;
  * Ürünleri temsil eden JPA entity'si.
  */
 @Entity
+@EntityListeners(SuggestionIndexEntityListener.class)
 @Table(name = "products")
 @Setter
 @NoArgsConstructor
@@ -125,6 +130,21 @@ public class Product {
     @Column(name = "discount_end_date")
     private java.time.LocalDateTime discountEndDate;
     
+    /**
+     * Satışta geçerli fiyat (indirim aktifse indirimli fiyat, değilse normal fiyat).
+     * Yazımda ve kampanya zamanlayıcısında hesaplanır; okumalar indirim kuralı işletmez.
+     */
+    @JsonIgnore
+    @Column(name = "effective_price")
+    private BigDecimal effectivePrice;
+    
+    /**
+     * İndirimi uygulayan kampanya (kampanya bitince sadece kendi indirimini kaldırır)
+     */
+    @JsonIgnore
+    @Column(name = "campaign_id", columnDefinition = "VARCHAR(36)")
+    private String campaignId;
+    
     /**
      * Ürün durumu (AKTİF, PASİF)
      */
@@ -237,27 +257,26 @@ public class Product {
      */
     @JsonProperty("discountedPrice")
     public BigDecimal getFinalPrice() {
-        if (isDiscountActive()) {
-            return discountedPrice != null ? discountedPrice : price;
-        }
-        return price;
+        return effectivePrice != null ? effectivePrice : price;
     }
     
     /**
-     * İndirimin aktif olup olmadığını kontrol eder
+     * İndirimin aktif olup olmadığını döner (süresi dolan indirimleri kampanya zamanlayıcısı kaldırır)
      */
     @JsonProperty("isDiscountActive")
     public boolean isDiscountActive() {
-        if (discountPercentage == null || discountPercentage <= 0) {
-            return false;
-        }
-        
-        // İndirim bitiş tarihi kontrolü
-        if (discountEndDate != null && discountEndDate.isBefore(java.time.LocalDateTime.now())) {
-            return false;
-        }
-        
-        return true;
+        return effectivePrice != null && price != null && effectivePrice.compareTo(price) < 0;
+    }
+    
+    /**
+     * Etkin fiyatı fiyat ve indirim alanlarından yeniden hesaplar
+     */
+    @PrePersist
+    @PreUpdate
+    public void refreshEffectivePrice() {
+        boolean discounted = discountPercentage != null && discountPercentage > 0 && discountedPrice != null
+                && (discountEndDate == null || discountEndDate.isAfter(java.time.LocalDateTime.now()));
+        effectivePrice = discounted ? discountedPrice : price;
     }
     
     /**
@@ -481,6 +500,20 @@ public class Product {
         this.discountEndDate = discountEndDate;
     }
     
+    /**
+     * EffectivePrice getter metodu
+     */
+    public BigDecimal getEffectivePrice() {
+        return effectivePrice;
+    }
+    
+    /**
+     * CampaignId getter metodu
+     */
+    public String getCampaignId() {
+        return campaignId;
+    }
+    
     /**
      * ImageUrl1 getter metodu
      */
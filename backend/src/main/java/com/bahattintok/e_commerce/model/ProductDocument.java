@@ -1,6 +1,10 @@
 package com.bahattintok.e_commerce.model;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.data.annotation.Id;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
@@ -63,6 +67,12 @@ public class ProductDocument {
     @Field(type = FieldType.Integer)
     private Integer discountPercentage;
 
+    @Field(type = FieldType.Double)
+    private Double averageRating;
+
+    @Field(type = FieldType.Integer)
+    private Integer reviewCount;
+
     @Field(type = FieldType.Date)
     private String createdAt;
 
@@ -100,5 +110,21 @@ public class ProductDocument {
         return doc;
     }
 
+    /**
+     * Toplu sorgudan gelen puan istatistiklerini belgelere yazar.
+     * Satırlar: [ürün ID, ortalama puan, yorum sayısı]; yorumu olmayan ürünler 0 alır.
+     */
+    public static void applyRatingStats(List<ProductDocument> documents, List<Object[]> stats) {
+        Map<String, Object[]> byProduct = new HashMap<>();
+        for (Object[] row : stats) {
+            byProduct.put((String) row[0], row);
+        }
+        for (ProductDocument doc : documents) {
+            Object[] row = byProduct.get(doc.getId());
+            doc.setAverageRating(row != null ? ((Number) row[1]).doubleValue() : 0.0);
+            doc.setReviewCount(row != null ? ((Number) row[2]).intValue() : 0);
+        }
+    }
+
     // Getters and setters are handled by Lombok's @Data annotation
 }
\ No newline at end of file
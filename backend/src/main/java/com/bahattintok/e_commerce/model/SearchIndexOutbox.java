@@ -0,0 +1,53 @@
+package com.bahattintok.e_commerce.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Elasticsearch'e yansıtılması gereken ürün değişikliği (transactional outbox).
+ * Ürünü değiştiren transaction ile aynı anda yazılır; arka plan işçisi ürünün
+ * o anki halini okuyup indexler (ürün yoksa indexten siler) ve kaydı kaldırır.
+ */
+@Entity
+@Table(name = "search_index_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchIndexOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false, columnDefinition = "VARCHAR(36)")
+    private String productId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Başarısız deneme sayısı; üst sınıra ulaşan kayıtlar tekrar denenmez
+     */
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    /**
+     * Kayıt bu zamandan önce işlenmez (geri çekilme / backoff)
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
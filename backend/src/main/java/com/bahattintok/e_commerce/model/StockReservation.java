@@ -0,0 +1,60 @@
+package com.bahattintok.e_commerce.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Ödeme tamamlanana kadar ayrılan stok kaydı.
+ * Aynı checkout'a ait satırlar aynı reservationKey'i paylaşır; süresi dolan
+ * rezervasyonlar zamanlanmış görevle serbest bırakılır ve stok geri eklenir.
+ */
+@Entity
+@Table(name = "stock_reservations")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservation {
+
+    public static final String STATUS_RESERVED = "RESERVED";
+    public static final String STATUS_COMMITTED = "COMMITTED";
+    public static final String STATUS_RELEASED = "RELEASED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    /**
+     * Aynı checkout'a ait rezervasyonları gruplayan anahtar
+     */
+    @Column(name = "reservation_key", nullable = false)
+    private String reservationKey;
+
+    @Column(name = "product_id", nullable = false, columnDefinition = "VARCHAR(36)")
+    private String productId;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    /**
+     * RESERVED, COMMITTED, RELEASED
+     */
+    @Column(name = "status", nullable = false)
+    private String status = STATUS_RESERVED;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
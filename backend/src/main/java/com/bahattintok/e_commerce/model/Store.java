@@ -6,12 +6,15 @@ import java.util.List;
 
 import org.hibernate.annotations.GenericGenerator;
 
+import com.bahattintok.e_commerce.listener.CurrentUserCacheEntityListener;
+import com.bahattintok.e_commerce.listener.SuggestionIndexEntityListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
@@ -24,6 +27,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@EntityListeners({ SuggestionIndexEntityListener.class, CurrentUserCacheEntityListener.class })
 @Table(name = "stores")
 @Data
 @NoArgsConstructor
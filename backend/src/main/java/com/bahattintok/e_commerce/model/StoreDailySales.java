@@ -0,0 +1,58 @@
+package com.bahattintok.e_commerce.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Mağaza bazlı günlük satış özeti.
+ * Satıcı paneli tüm siparişleri taramak yerine bu tablodan okur.
+ */
+@Entity
+@Table(name = "store_daily_sales",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"store_id", "stat_date"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoreDailySales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "store_id", nullable = false, columnDefinition = "VARCHAR(36)")
+    private String storeId;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    /**
+     * Mağazanın ürününü içeren sipariş adedi
+     */
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    /**
+     * Satılan toplam ürün adedi
+     */
+    @Column(name = "items_sold", nullable = false)
+    private long itemsSold;
+
+    /**
+     * Mağazanın ürünlerinden elde edilen gelir
+     */
+    @Column(name = "revenue", nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+}
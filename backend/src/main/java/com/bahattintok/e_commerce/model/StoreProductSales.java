@@ -0,0 +1,47 @@
+package com.bahattintok.e_commerce.model;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Mağaza bazlı ürün satış özeti (en çok satan ürün ve kategori için).
+ */
+@Entity
+@Table(name = "store_product_sales",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"store_id", "product_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoreProductSales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "store_id", nullable = false, columnDefinition = "VARCHAR(36)")
+    private String storeId;
+
+    @Column(name = "product_id", nullable = false, columnDefinition = "VARCHAR(36)")
+    private String productId;
+
+    @Column(name = "category_id", columnDefinition = "VARCHAR(36)")
+    private String categoryId;
+
+    @Column(name = "quantity_sold", nullable = false)
+    private long quantitySold;
+
+    @Column(name = "revenue", nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+}
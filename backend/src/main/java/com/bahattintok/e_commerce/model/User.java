@@ -8,11 +8,14 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.bahattintok.e_commerce.listener.CurrentUserCacheEntityListener;
 import com.bahattintok.e_commerce.model.enums.SellerStatus;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -33,6 +36,7 @@ import lombok.ToString;
  * Kullanıcıları temsil eden JPA entity'si ve Spring Security UserDetails implementasyonu.
  */
 @Entity
+@EntityListeners(CurrentUserCacheEntityListener.class)
 @Table(name = "users")
 @Getter
 @Setter
@@ -143,8 +147,9 @@ public class User implements UserDetails {
     /**
      * Kullanıcının rolü (RoleEntity ile ilişki)
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "role_id", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private RoleEntity role;
     
     /**
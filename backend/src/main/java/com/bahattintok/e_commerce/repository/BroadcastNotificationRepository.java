@@ -0,0 +1,32 @@
+package com.bahattintok.e_commerce.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.bahattintok.e_commerce.model.BroadcastNotification;
+
+/**
+ * Toplu bildirimler için JPA repository'si.
+ */
+@Repository
+public interface BroadcastNotificationRepository extends JpaRepository<BroadcastNotification, Long> {
+
+    /**
+     * Saklanan tüm toplu bildirimlerin ID'leri (okunmamış sayısı bellekte hesaplanır)
+     */
+    @Query("SELECT b.id FROM BroadcastNotification b ORDER BY b.id")
+    List<Long> findAllIds();
+
+    /**
+     * Saklama süresi dolan toplu bildirimleri siler
+     */
+    @Modifying
+    @Query("DELETE FROM BroadcastNotification b WHERE b.createdAt < :date")
+    int deleteCreatedBefore(@Param("date") LocalDateTime date);
+}
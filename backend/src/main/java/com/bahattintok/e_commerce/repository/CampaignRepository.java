@@ -1,8 +1,12 @@
 package com.bahattintok.e_commerce.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.bahattintok.e_commerce.model.Campaign;
@@ -35,4 +39,24 @@ public interface CampaignRepository extends JpaRepository<Campaign, String> {
      * Belirli hedef için aktif kampanyaları getir (ürün veya kategori)
      */
     List<Campaign> findByTargetIdAndCampaignTypeAndIsActiveTrue(String targetId, String campaignType);
+    
+    /**
+     * Başlama zamanı gelmiş, henüz başlatılmamış aktif kampanyalar
+     */
+    @Query("SELECT c FROM Campaign c WHERE c.status = 'SCHEDULED' AND c.isActive = true " +
+           "AND c.startDate <= :now AND c.endDate > :now ORDER BY c.startDate")
+    List<Campaign> findDueToStart(@Param("now") LocalDateTime now);
+    
+    /**
+     * Bitiş zamanı gelmiş veya pasife alınmış çalışan kampanyaların ID'leri
+     */
+    @Query("SELECT c.id FROM Campaign c WHERE c.status = 'RUNNING' AND (c.endDate <= :now OR c.isActive = false)")
+    List<String> findIdsDueToEnd(@Param("now") LocalDateTime now);
+    
+    /**
+     * Hiç başlamadan süresi dolan kampanyaları bitmiş olarak işaretler
+     */
+    @Modifying
+    @Query("UPDATE Campaign c SET c.status = 'ENDED' WHERE c.status = 'SCHEDULED' AND c.endDate <= :now")
+    int markExpiredUnstarted(@Param("now") LocalDateTime now);
 } 
\ No newline at end of file
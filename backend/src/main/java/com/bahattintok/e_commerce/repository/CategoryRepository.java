@@ -3,7 +3,9 @@ package com.bahattintok.e_commerce.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.bahattintok.e_commerce.model.Category;
@@ -33,6 +35,17 @@ public interface CategoryRepository extends JpaRepository<Category, String> {
      */
     List<Category> findAllByOrderByPriorityDescNameAsc();
     
+    /**
+     * Sadece ID ve isim (arama önerisi indeksini kurmak için).
+     */
+    @Query("SELECT c.id, c.name FROM Category c")
+    List<Object[]> findAllIdAndName();
+    
+    /**
+     * ID sırasına göre bir sonraki parça (keyset sayfalama; tam reindex için).
+     */
+    List<Category> findByIdGreaterThanOrderByIdAsc(String lastId, Pageable pageable);
+    
     /**
      * Bu repository şu işlevleri sağlar:
      * 
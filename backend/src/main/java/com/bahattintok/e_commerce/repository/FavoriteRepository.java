@@ -4,6 +4,8 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.bahattintok.e_commerce.model.Favorite;
@@ -16,6 +18,12 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
      */
     List<Favorite> findByUserIdOrderByCreatedAtDesc(String userId);
     
+    /**
+     * Kullanıcının favorileri için sadece favori ID'si, eklenme tarihi ve ürün ID'si (entity yüklemez)
+     */
+    @Query("SELECT f.id, f.createdAt, f.product.id FROM Favorite f WHERE f.user.id = :userId ORDER BY f.createdAt DESC")
+    List<Object[]> findSummariesByUserId(@Param("userId") String userId);
+    
     /**
      * Kullanıcının belirli bir ürünü favorilerinde olup olmadığını kontrol eder
      */
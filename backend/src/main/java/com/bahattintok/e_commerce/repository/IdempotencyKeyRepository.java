@@ -0,0 +1,46 @@
+package com.bahattintok.e_commerce.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.bahattintok.e_commerce.model.IdempotencyKey;
+
+/**
+ * Idempotency-Key kayıtları repository'si
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    Optional<IdempotencyKey> findByScopeAndIdempotencyKey(String scope, String idempotencyKey);
+
+    /**
+     * İsteği tamamlar ve yanıtını saklar
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.status = 'COMPLETED', k.responseStatus = :responseStatus, " +
+           "k.responseBody = :responseBody, k.completedAt = :completedAt WHERE k.id = :id")
+    int complete(@Param("id") Long id,
+                 @Param("responseStatus") int responseStatus,
+                 @Param("responseBody") String responseBody,
+                 @Param("completedAt") LocalDateTime completedAt);
+
+    /**
+     * Yarım kalmış (işleyen düğüm çökmüş) kaydı siler; kayıt bu arada tamamlandıysa dokunmaz
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.id = :id AND k.status = 'IN_PROGRESS' AND k.createdAt < :before")
+    int deleteStale(@Param("id") Long id, @Param("before") LocalDateTime before);
+
+    /**
+     * Saklama süresi dolan anahtarları siler
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,40 @@
+package com.bahattintok.e_commerce.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.bahattintok.e_commerce.model.NotificationReadMark;
+
+/**
+ * Kullanıcıların toplu bildirim okuma işaretleri için JPA repository'si.
+ */
+@Repository
+public interface NotificationReadMarkRepository extends JpaRepository<NotificationReadMark, String> {
+
+    /**
+     * Kullanıcının okuma işareti. Kaydı yoksa kayıt tarihinden önceki son toplu bildirim kabul edilir;
+     * böylece yeni kullanıcı, üye olmadan önce gönderilmiş bildirimleri okunmamış görmez.
+     */
+    @Query(value = "SELECT COALESCE(m.broadcast_read_up_to, " +
+            "(SELECT MAX(b.id) FROM broadcast_notifications b WHERE b.created_at < u.registration_date), 0) " +
+            "FROM users u LEFT JOIN notification_read_marks m ON m.user_id = u.id WHERE u.id = :userId",
+            nativeQuery = true)
+    Optional<Long> findBroadcastReadUpTo(@Param("userId") String userId);
+
+    /**
+     * İşareti ileri alır (geri almaz); kayıt yoksa oluşturur
+     */
+    @Modifying
+    @Query(value = "INSERT INTO notification_read_marks (user_id, broadcast_read_up_to, updated_at) " +
+            "VALUES (:userId, :upTo, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "broadcast_read_up_to = GREATEST(notification_read_marks.broadcast_read_up_to, EXCLUDED.broadcast_read_up_to), " +
+            "updated_at = CURRENT_TIMESTAMP",
+            nativeQuery = true)
+    int advance(@Param("userId") String userId, @Param("upTo") long upTo);
+}
@@ -4,7 +4,10 @@ import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,7 +20,7 @@ import com.bahattintok.e_commerce.model.User;
  * Bildirimler için JPA repository'si.
  */
 @Repository
-public interface NotificationRepository extends JpaRepository<Notification, Long> {
+public interface NotificationRepository extends JpaRepository<Notification, Long>, JpaSpecificationExecutor<Notification> {
     
     /**
      * Kullanıcının tüm bildirimlerini getirir (sayfalama ile)
@@ -35,28 +38,39 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     long countByUserAndReadFalse(User user);
     
     /**
-     * Belirli tipteki bildirimleri getirir
+     * Kullanıcının okunmamış bildirim sayısını ID ile getirir (sayaç yüklemesi için)
      */
-    List<Notification> findByUserAndTypeOrderByCreatedAtDesc(User user, String type);
+    long countByUserIdAndReadFalse(String userId);
     
     /**
-     * Kullanıcının tüm bildirimlerini okundu olarak işaretler
+     * Filtrelenmiş bildirimleri alıcılarıyla birlikte getirir (admin listesi)
      */
-    @Modifying
-    @Query("UPDATE Notification n SET n.read = true WHERE n.user = :user")
-    void markAllAsReadByUser(@Param("user") User user);
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Page<Notification> findAll(Specification<Notification> spec, Pageable pageable);
+    
+    /**
+     * Tip ve okundu durumuna göre bildirim sayıları: [type, read, count]
+     */
+    @Query("SELECT n.type, n.read, COUNT(n) FROM Notification n GROUP BY n.type, n.read")
+    List<Object[]> countGroupedByTypeAndRead();
+    
+    /**
+     * Belirli tipteki bildirimleri getirir
+     */
+    List<Notification> findByUserAndTypeOrderByCreatedAtDesc(User user, String type);
     
     /**
-     * Belirli bir bildirimi okundu olarak işaretler
+     * Kullanıcının okunmamış tüm bildirimlerini okundu olarak işaretler; güncellenen satır sayısını döner
      */
     @Modifying
-    @Query("UPDATE Notification n SET n.read = true WHERE n.id = :id AND n.user = :user")
-    void markAsReadByIdAndUser(@Param("id") Long id, @Param("user") User user);
+    @Query("UPDATE Notification n SET n.read = true WHERE n.user = :user AND n.read = false")
+    int markAllAsReadByUser(@Param("user") User user);
     
     /**
-     * Eski bildirimleri siler (30 günden eski)
+     * Belirli bir bildirimi okunmamışsa okundu olarak işaretler; güncellenen satır sayısını döner
      */
     @Modifying
-    @Query("DELETE FROM Notification n WHERE n.createdAt < :date")
-    void deleteOldNotifications(@Param("date") java.time.LocalDateTime date);
+    @Query("UPDATE Notification n SET n.read = true WHERE n.id = :id AND n.user = :user AND n.read = false")
+    int markAsReadByIdAndUser(@Param("id") Long id, @Param("user") User user);
 } 
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.bahattintok.e_commerce.repository;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.bahattintok.e_commerce.model.Notification;
+
+/**
+ * Admin bildirim listesi için birleştirilebilir filtreler.
+ * Null/boş parametre verilen filtre sorguya eklenmez; filtreleme ve sayfalama veritabanında yapılır.
+ */
+public final class NotificationSpecifications {
+
+    private NotificationSpecifications() {
+    }
+
+    /**
+     * Başlık, mesaj veya tipte arama metni geçen bildirimler (büyük/küçük harf duyarsız)
+     */
+    public static Specification<Notification> textContains(String search) {
+        return (root, query, cb) -> {
+            if (isBlank(search)) {
+                return null;
+            }
+            String pattern = "%" + search.trim().toLowerCase(Locale.ROOT) + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("title")), pattern),
+                    cb.like(cb.lower(root.get("message")), pattern),
+                    cb.like(cb.lower(root.get("type")), pattern));
+        };
+    }
+
+    public static Specification<Notification> hasType(String type) {
+        return (root, query, cb) -> isBlank(type) ? null : cb.equal(root.get("type"), type);
+    }
+
+    public static Specification<Notification> isRead(Boolean read) {
+        return (root, query, cb) -> read == null ? null : cb.equal(root.get("read"), read);
+    }
+
+    public static Specification<Notification> createdBetween(LocalDateTime start, LocalDateTime end) {
+        return (root, query, cb) -> {
+            if (start != null && end != null) {
+                return cb.and(cb.greaterThan(root.get("createdAt"), start), cb.lessThan(root.get("createdAt"), end));
+            }
+            if (start != null) {
+                return cb.greaterThan(root.get("createdAt"), start);
+            }
+            if (end != null) {
+                return cb.lessThan(root.get("createdAt"), end);
+            }
+            return null;
+        };
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
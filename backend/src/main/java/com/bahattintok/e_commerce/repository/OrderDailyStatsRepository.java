@@ -0,0 +1,75 @@
+package com.bahattintok.e_commerce.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.bahattintok.e_commerce.model.OrderDailyStats;
+
+/**
+ * Günlük sipariş özetleri repository'si
+ */
+@Repository
+public interface OrderDailyStatsRepository extends JpaRepository<OrderDailyStats, Long> {
+
+    /**
+     * Gün/durum satırına adet ve tutar ekler (satır yoksa oluşturur).
+     * Negatif değerlerle çağrılarak sipariş başka bir duruma taşınabilir.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_daily_stats (stat_date, status, order_count, total_amount) " +
+            "VALUES (:statDate, :status, :countDelta, :amountDelta) " +
+            "ON CONFLICT (stat_date, status) DO UPDATE SET " +
+            "order_count = order_daily_stats.order_count + EXCLUDED.order_count, " +
+            "total_amount = order_daily_stats.total_amount + EXCLUDED.total_amount",
+            nativeQuery = true)
+    void increment(@Param("statDate") LocalDate statDate,
+                   @Param("status") String status,
+                   @Param("countDelta") long countDelta,
+                   @Param("amountDelta") BigDecimal amountDelta);
+
+    /**
+     * Toplam sipariş adedi
+     */
+    @Query("SELECT COALESCE(SUM(s.orderCount), 0) FROM OrderDailyStats s")
+    long sumOrderCount();
+
+    /**
+     * Duruma göre toplam sipariş adedi
+     */
+    @Query("SELECT COALESCE(SUM(s.orderCount), 0) FROM OrderDailyStats s WHERE s.status = :status")
+    long sumOrderCountByStatus(@Param("status") String status);
+
+    /**
+     * Duruma göre toplam tutar
+     */
+    @Query("SELECT COALESCE(SUM(s.totalAmount), 0) FROM OrderDailyStats s WHERE s.status = :status")
+    BigDecimal sumTotalAmountByStatus(@Param("status") String status);
+
+    /**
+     * Tarih aralığındaki günlük özetleri getirir
+     */
+    List<OrderDailyStats> findByStatDateBetween(LocalDate start, LocalDate end);
+
+    /**
+     * Özet tablosunu siparişlerden tek sorguyla yeniden oluşturur
+     * (ödemesi tamamlanmamış veya başarısız siparişler satış sayılmaz)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_daily_stats (stat_date, status, order_count, total_amount) " +
+            "SELECT CAST(o.created_at AS DATE), o.status, COUNT(*), COALESCE(SUM(o.total_price), 0) " +
+            "FROM orders o WHERE o.status NOT IN ('PENDING_PAYMENT', 'PAYMENT_UNKNOWN', 'FAILED') " +
+            "GROUP BY CAST(o.created_at AS DATE), o.status",
+            nativeQuery = true)
+    void rebuildFromOrders();
+
+    @Modifying
+    @Query(value = "DELETE FROM order_daily_stats", nativeQuery = true)
+    void deleteAllRows();
+}
@@ -2,27 +2,120 @@ package com.bahattintok.e_commerce.repository;
 
 import com.bahattintok.e_commerce.model.Order;
 import com.bahattintok.e_commerce.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, String> {
 
-    // Find orders for a specific user, ordered by creation date descending.
+    // Fetch plans: Order.items, OrderItem.product and User.role are LAZY. Each use case loads what it renders:
+    //  - list view: orders (+ customer) first, then fetchItems(...) for exactly those orders in one more query;
+    //  - detail view: findByIdWithUserAndItems;
+    //  - analytics: aggregate queries below, no entities.
+
+    // Find orders for a specific user, ordered by creation date descending (items not loaded).
     List<Order> findByUserOrderByCreatedAtDesc(User user);
 
-    // Custom query to fetch orders with all their items and associated products eagerly.
-    // This helps prevent LazyInitializationException.
-    @Query("SELECT o FROM Order o JOIN FETCH o.items oi LEFT JOIN FETCH oi.product WHERE o.user = :user ORDER BY o.createdAt DESC")
-    List<Order> findByUserWithItemsAndProducts(@Param("user") User user);
+    // List view, admin: newest orders with their customer (to-one join, no row multiplication).
+    @EntityGraph(attributePaths = {"user", "user.role"})
+    Page<Order> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"user", "user.role"})
+    List<Order> findAllByOrderByCreatedAtDesc();
+
+    @EntityGraph(attributePaths = {"user", "user.role"})
+    List<Order> findByStatusOrderByCreatedAtDesc(String status);
+
+    // Second step of the list view: initializes items (with product, category, store and seller) of already loaded orders.
+    // One row per order item; must run in the same persistence context as the query that loaded the orders.
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items oi LEFT JOIN FETCH oi.product p " +
+           "LEFT JOIN FETCH p.category LEFT JOIN FETCH p.store s LEFT JOIN FETCH s.seller WHERE o IN :orders")
+    List<Order> fetchItems(@Param("orders") Collection<Order> orders);
+
+    // Analytics: totals and counts computed in the database.
+    long countByStatus(String status);
+
+    long countByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT COALESCE(SUM(o.totalPrice), 0) FROM Order o")
+    BigDecimal sumTotalPrice();
+
+    @Query("SELECT COALESCE(SUM(o.totalPrice), 0) FROM Order o WHERE o.status = :status")
+    BigDecimal sumTotalPriceByStatus(@Param("status") String status);
+
+    @Query("SELECT COALESCE(SUM(o.totalPrice), 0) FROM Order o WHERE o.status = :status AND o.createdAt BETWEEN :start AND :end")
+    BigDecimal sumTotalPriceByStatusAndCreatedAtBetween(@Param("status") String status,
+                                                        @Param("start") LocalDateTime start,
+                                                        @Param("end") LocalDateTime end);
+
+    // Monthly revenue as (year, month, total) rows since the given date.
+    @Query("SELECT EXTRACT(YEAR FROM o.createdAt), EXTRACT(MONTH FROM o.createdAt), SUM(o.totalPrice) FROM Order o " +
+           "WHERE o.status = :status AND o.createdAt >= :since " +
+           "GROUP BY EXTRACT(YEAR FROM o.createdAt), EXTRACT(MONTH FROM o.createdAt)")
+    List<Object[]> sumTotalPriceByMonth(@Param("status") String status, @Param("since") LocalDateTime since);
+
+    // Orders that contain at least one item of the given store, newest first.
+    // Uses the store_id copied onto order_items, so cost grows with the store's orders only.
+    @EntityGraph(attributePaths = {"user", "user.role"})
+    @Query(value = "SELECT DISTINCT o FROM Order o JOIN o.items oi WHERE oi.storeId = :storeId ORDER BY o.createdAt DESC",
+           countQuery = "SELECT COUNT(DISTINCT o) FROM Order o JOIN o.items oi WHERE oi.storeId = :storeId")
+    Page<Order> findByStoreId(@Param("storeId") String storeId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"user", "user.role"})
+    @Query(value = "SELECT DISTINCT o FROM Order o JOIN o.items oi WHERE oi.storeId = :storeId AND LOWER(o.status) = LOWER(:status) ORDER BY o.createdAt DESC",
+           countQuery = "SELECT COUNT(DISTINCT o) FROM Order o JOIN o.items oi WHERE oi.storeId = :storeId AND LOWER(o.status) = LOWER(:status)")
+    Page<Order> findByStoreIdAndStatus(@Param("storeId") String storeId, @Param("status") String status, Pageable pageable);
+
+    // Store-scoped order search: status, customer name and order id / product name filters in one query.
+    @EntityGraph(attributePaths = {"user", "user.role"})
+    @Query(value = "SELECT DISTINCT o FROM Order o JOIN o.items oi JOIN o.user u WHERE oi.storeId = :storeId " +
+                   "AND (:status = 'all' OR o.status = :status) " +
+                   "AND (:customerName = '' OR LOWER(u.firstName) LIKE LOWER(CONCAT('%', :customerName, '%')) OR LOWER(u.lastName) LIKE LOWER(CONCAT('%', :customerName, '%'))) " +
+                   "AND (:query = '' OR LOWER(o.id) LIKE LOWER(CONCAT('%', :query, '%')) " +
+                   "     OR EXISTS (SELECT 1 FROM OrderItem qi WHERE qi.order = o AND LOWER(qi.product.name) LIKE LOWER(CONCAT('%', :query, '%')))) " +
+                   "ORDER BY o.createdAt DESC",
+           countQuery = "SELECT COUNT(DISTINCT o) FROM Order o JOIN o.items oi JOIN o.user u WHERE oi.storeId = :storeId " +
+                   "AND (:status = 'all' OR o.status = :status) " +
+                   "AND (:customerName = '' OR LOWER(u.firstName) LIKE LOWER(CONCAT('%', :customerName, '%')) OR LOWER(u.lastName) LIKE LOWER(CONCAT('%', :customerName, '%'))) " +
+                   "AND (:query = '' OR LOWER(o.id) LIKE LOWER(CONCAT('%', :query, '%')) " +
+                   "     OR EXISTS (SELECT 1 FROM OrderItem qi WHERE qi.order = o AND LOWER(qi.product.name) LIKE LOWER(CONCAT('%', :query, '%'))))")
+    Page<Order> searchStoreOrders(@Param("storeId") String storeId,
+                                  @Param("status") String status,
+                                  @Param("customerName") String customerName,
+                                  @Param("query") String query,
+                                  Pageable pageable);
+
+    // Distinct customers who bought from the given store.
+    @Query("SELECT COUNT(DISTINCT o.user.id) FROM Order o JOIN o.items oi WHERE oi.storeId = :storeId")
+    long countDistinctCustomersByStoreId(@Param("storeId") String storeId);
+
+    // Detail view: order with user, items and products loaded; also used for event listeners that run outside the transaction.
+    @Query("SELECT DISTINCT o FROM Order o JOIN FETCH o.user u LEFT JOIN FETCH u.role LEFT JOIN FETCH o.items oi " +
+           "LEFT JOIN FETCH oi.product p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.store s LEFT JOIN FETCH s.seller WHERE o.id = :id")
+    Optional<Order> findByIdWithUserAndItems(@Param("id") String id);
+
+    // Conditional status transition; returns 0 if the order is no longer in the expected status.
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :newStatus WHERE o.id = :id AND o.status = :expectedStatus")
+    int transitionStatus(@Param("id") String id, @Param("expectedStatus") String expectedStatus, @Param("newStatus") String newStatus);
 
-    List<Order> findByStatus(String status);
+    // Order created by an earlier run of the same idempotent request (unique per user and key).
+    @Query("SELECT o FROM Order o WHERE o.user.id = :userId AND o.requestKey = :requestKey")
+    Optional<Order> findByUserIdAndRequestKey(@Param("userId") String userId, @Param("requestKey") String requestKey);
 
-    @Query("SELECT o FROM Order o JOIN FETCH o.user JOIN FETCH o.items")
-    List<Order> findAllWithUserAndItems();
+    @Query("SELECT o.status FROM Order o WHERE o.id = :id")
+    Optional<String> findStatusById(@Param("id") String id);
 
-    List<Order> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
-}
\ No newline at end of file
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status AND o.createdAt < :before")
+    List<String> findIdsByStatusAndCreatedAtBefore(@Param("status") String status, @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,62 @@
+package com.bahattintok.e_commerce.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.bahattintok.e_commerce.model.PaymentRefund;
+
+/**
+ * Tahsilat iade talepleri repository'si
+ */
+@Repository
+public interface PaymentRefundRepository extends JpaRepository<PaymentRefund, Long> {
+
+    /**
+     * İade talebi ekler; aynı tahsilat için talep zaten varsa bir şey yapmaz
+     */
+    @Modifying
+    @Query(value = "INSERT INTO payment_refunds (order_id, transaction_id, amount, status, attempts, created_at, next_attempt_at) " +
+            "VALUES (:orderId, :transactionId, :amount, 'PENDING', 0, :now, :now) " +
+            "ON CONFLICT (transaction_id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("orderId") String orderId,
+                       @Param("transactionId") String transactionId,
+                       @Param("amount") BigDecimal amount,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Zamanı gelmiş bekleyen talebi leaseUntil'e kadar kiralar; başka deneme aynı talebi bu sürede alamaz.
+     * Talep alındıysa 1 döner.
+     */
+    @Modifying
+    @Query("UPDATE PaymentRefund r SET r.attempts = r.attempts + 1, r.nextAttemptAt = :leaseUntil " +
+           "WHERE r.transactionId = :transactionId AND r.status = :status AND r.nextAttemptAt <= :now")
+    int claim(@Param("transactionId") String transactionId,
+              @Param("status") String status,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE PaymentRefund r SET r.status = :status, r.lastError = :error WHERE r.transactionId = :transactionId")
+    int updateStatus(@Param("transactionId") String transactionId,
+                     @Param("status") String status,
+                     @Param("error") String error);
+
+    /**
+     * Yeniden denenmeye hazır talepler, eskiden yeniye
+     */
+    @Query("SELECT r.transactionId FROM PaymentRefund r WHERE r.status = :status AND r.nextAttemptAt <= :now ORDER BY r.id")
+    List<String> findReadyTransactionIds(@Param("status") String status, @Param("now") LocalDateTime now);
+
+    Optional<PaymentRefund> findByTransactionId(String transactionId);
+
+    List<PaymentRefund> findByOrderId(String orderId);
+}
@@ -0,0 +1,25 @@
+package com.bahattintok.e_commerce.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.bahattintok.e_commerce.model.PopularSearchTerm;
+
+/**
+ * Popüler arama terimi anlık görüntüleri repository'si
+ */
+@Repository
+public interface PopularSearchTermRepository extends JpaRepository<PopularSearchTerm, Long> {
+
+    List<PopularSearchTerm> findByWindowNameOrderByHitsDesc(String windowName, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM PopularSearchTerm p WHERE p.windowName = :windowName")
+    void deleteByWindowName(@Param("windowName") String windowName);
+}
@@ -1,14 +1,17 @@
 package com.bahattintok.e_commerce.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.bahattintok.e_commerce.dto.ProductView;
 import com.bahattintok.e_commerce.model.Product;
 import com.bahattintok.e_commerce.model.Store;
 
@@ -16,7 +19,7 @@ import com.bahattintok.e_commerce.model.Store;
  * Product (ürün) ile ilgili veritabanı işlemlerini yapan repository.
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, String> {
+public interface ProductRepository extends JpaRepository<Product, String>, JpaSpecificationExecutor<Product> {
     /**
      * Kategori adına göre ürünleri getirir.
      */
@@ -132,15 +135,15 @@ public interface ProductRepository extends JpaRepository<Product, String> {
     List<Product> findByCategoryIdAndStoreId(@Param("categoryId") String categoryId, @Param("storeId") String storeId);
     
     /**
-     * İndirimli ürünleri getirir.
+     * İndirimli ürünleri getirir (süresi dolan indirimleri kampanya zamanlayıcısı kaldırır).
      */
-    @Query("SELECT p FROM Product p WHERE p.discountPercentage IS NOT NULL AND p.discountPercentage > 0 AND p.discountEndDate > CURRENT_TIMESTAMP")
+    @Query("SELECT p FROM Product p WHERE p.effectivePrice < p.price")
     List<Product> findDiscountedProducts();
     
     /**
      * İndirimli ürünleri sayfalı getirir.
      */
-    @Query("SELECT p FROM Product p WHERE p.discountPercentage IS NOT NULL AND p.discountPercentage > 0 AND p.discountEndDate > CURRENT_TIMESTAMP")
+    @Query("SELECT p FROM Product p WHERE p.effectivePrice < p.price")
     Page<Product> findDiscountedProducts(Pageable pageable);
     
     /**
@@ -149,6 +152,53 @@ public interface ProductRepository extends JpaRepository<Product, String> {
     @Query("SELECT p FROM Product p LEFT JOIN FETCH p.store s LEFT JOIN FETCH s.seller LEFT JOIN FETCH p.category")
     List<Product> findAllWithStoreAndSeller();
     
+    /**
+     * Sadece ID ve isim (arama önerisi indeksini kurmak için; entity yüklemez).
+     */
+    @Query("SELECT p.id, p.name FROM Product p")
+    List<Object[]> findAllIdAndName();
+    
+    /**
+     * ID sırasına göre bir sonraki parça, kategori ve mağazasıyla birlikte (keyset sayfalama; tam reindex için).
+     */
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category LEFT JOIN FETCH p.store WHERE p.id > :lastId ORDER BY p.id")
+    List<Product> findChunkAfter(@Param("lastId") String lastId, Pageable pageable);
+    
+    /**
+     * PostgreSQL tam metin araması (Türkçe tsvector + trigram), ts_rank ile sıralı.
+     * Sadece vitrindeki (AKTİF ve onaylı satıcıya ait) ürünleri döner. V1.27 migration'ını gerektirir.
+     */
+    @Query(value = "SELECT p.* FROM products p " +
+                   "JOIN stores s ON s.id = p.store_id JOIN users u ON u.id = s.seller_id " +
+                   "WHERE p.status = 'AKTİF' AND u.seller_status IN ('APPROVED', 'ACTIVE') " +
+                   "AND (p.search_vector @@ websearch_to_tsquery('turkish', :keyword) " +
+                   "     OR lower(p.name) LIKE lower(CONCAT('%', :keyword, '%')) " +
+                   "     OR lower(p.name) % lower(:keyword)) " +
+                   "ORDER BY ts_rank(p.search_vector, websearch_to_tsquery('turkish', :keyword)) DESC, " +
+                   "         similarity(lower(p.name), lower(:keyword)) DESC, p.id",
+           countQuery = "SELECT COUNT(*) FROM products p " +
+                   "JOIN stores s ON s.id = p.store_id JOIN users u ON u.id = s.seller_id " +
+                   "WHERE p.status = 'AKTİF' AND u.seller_status IN ('APPROVED', 'ACTIVE') " +
+                   "AND (p.search_vector @@ websearch_to_tsquery('turkish', :keyword) " +
+                   "     OR lower(p.name) LIKE lower(CONCAT('%', :keyword, '%')) " +
+                   "     OR lower(p.name) % lower(:keyword))",
+           nativeQuery = true)
+    Page<Product> fullTextSearchPublished(@Param("keyword") String keyword, Pageable pageable);
+    
+    /**
+     * Verilen ürünlerin okuma modelini kategori, mağaza ve satıcı bilgisiyle tek sorguda getirir.
+     * Entity yüklenmediği için JSON'a çevirirken ek sorgu oluşmaz.
+     */
+    @Query("SELECT new com.bahattintok.e_commerce.dto.ProductView(" +
+           "p.id, p.name, p.price, p.description, p.stock, " +
+           "p.imageUrl, p.imageUrl1, p.imageUrl2, p.imageUrl3, p.imageUrl4, p.imageUrl5, " +
+           "p.discountPercentage, p.effectivePrice, p.discountEndDate, p.status, " +
+           "p.categoryId, p.storeId, c.name, s.name, " +
+           "u.id, u.firstName, u.lastName, u.email, u.sellerStatus) " +
+           "FROM Product p LEFT JOIN p.category c LEFT JOIN p.store s LEFT JOIN s.seller u " +
+           "WHERE p.id IN :ids")
+    List<ProductView> findViewsByIdIn(@Param("ids") Collection<String> ids);
+
     /**
      * Bu repository şu işlevleri sağlar:
      * 
@@ -0,0 +1,78 @@
+package com.bahattintok.e_commerce.repository;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.bahattintok.e_commerce.model.Product;
+import com.bahattintok.e_commerce.model.enums.SellerStatus;
+
+/**
+ * Ürün sorguları için birleştirilebilir filtreler.
+ * Null/boş parametre verilen filtre sorguya eklenmez; böylece kategori, mağaza, fiyat,
+ * anahtar kelime, durum ve satıcı onayı tek SQL sorgusunda (doğru toplam sayıyla) birleştirilir.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    /**
+     * Vitrinde gösterilebilir ürünler: AKTİF ve satıcısı onaylı
+     */
+    public static Specification<Product> published() {
+        return isActive().and(fromApprovedSeller());
+    }
+
+    public static Specification<Product> isActive() {
+        return (root, query, cb) -> cb.equal(root.get("status"), "AKTİF");
+    }
+
+    public static Specification<Product> fromApprovedSeller() {
+        return (root, query, cb) -> root.join("store").join("seller").get("sellerStatus")
+                .in(SellerStatus.APPROVED, SellerStatus.ACTIVE);
+    }
+
+    public static Specification<Product> hasCategoryId(String categoryId) {
+        return (root, query, cb) -> isBlank(categoryId) ? null : cb.equal(root.get("categoryId"), categoryId);
+    }
+
+    public static Specification<Product> hasStoreId(String storeId) {
+        return (root, query, cb) -> isBlank(storeId) ? null : cb.equal(root.get("storeId"), storeId);
+    }
+
+    public static Specification<Product> priceBetween(Double minPrice, Double maxPrice) {
+        return (root, query, cb) -> {
+            if (minPrice != null && maxPrice != null) {
+                return cb.between(root.get("price"), BigDecimal.valueOf(minPrice), BigDecimal.valueOf(maxPrice));
+            }
+            if (minPrice != null) {
+                return cb.greaterThanOrEqualTo(root.get("price"), BigDecimal.valueOf(minPrice));
+            }
+            if (maxPrice != null) {
+                return cb.lessThanOrEqualTo(root.get("price"), BigDecimal.valueOf(maxPrice));
+            }
+            return null;
+        };
+    }
+
+    /**
+     * İsim veya açıklamada anahtar kelime geçen ürünler (büyük/küçük harf duyarsız)
+     */
+    public static Specification<Product> nameOrDescriptionContains(String keyword) {
+        return (root, query, cb) -> {
+            if (isBlank(keyword)) {
+                return null;
+            }
+            String pattern = "%" + keyword.trim().toLowerCase(Locale.ROOT) + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("name")), pattern),
+                    cb.like(cb.lower(root.get("description")), pattern));
+        };
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
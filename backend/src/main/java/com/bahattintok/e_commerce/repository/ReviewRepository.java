@@ -1,9 +1,11 @@
 package com.bahattintok.e_commerce.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -19,11 +21,13 @@ public interface ReviewRepository extends JpaRepository<Review, String> {
      * Ürüne ait tüm review'ları getirir (tarihe göre sıralı)
      */
     @Query("SELECT r FROM Review r WHERE r.product.id = :productId ORDER BY r.createdAt DESC")
+    @EntityGraph(attributePaths = {"user", "user.role", "product"})
     List<Review> findByProductIdOrderByCreatedAtDesc(@Param("productId") String productId);
     
     /**
      * Kullanıcının belirli bir ürün için review'ını getirir
      */
+    @EntityGraph(attributePaths = {"user", "user.role", "product"})
     Optional<Review> findByUserIdAndProductId(String userId, String productId);
     
     /**
@@ -43,15 +47,23 @@ public interface ReviewRepository extends JpaRepository<Review, String> {
     @Query("SELECT COUNT(r) FROM Review r WHERE r.product.id = :productId")
     Long getReviewCountByProductId(@Param("productId") String productId);
     
+    /**
+     * Birden fazla ürünün ortalama puanı ve yorum sayısı: [ürün ID, ortalama, sayı]
+     */
+    @Query("SELECT r.product.id, AVG(r.rating), COUNT(r) FROM Review r WHERE r.product.id IN :productIds GROUP BY r.product.id")
+    List<Object[]> findRatingStatsByProductIds(@Param("productIds") Collection<String> productIds);
+    
     /**
      * Kullanıcının tüm review'larını getirir
      */
+    @EntityGraph(attributePaths = {"user", "user.role", "product"})
     List<Review> findByUserIdOrderByCreatedAtDesc(String userId);
     
     /**
      * Mağazaya ait ürünlerin son review'larını getirir
      */
     @Query("SELECT r FROM Review r WHERE r.product.store = :store ORDER BY r.createdAt DESC")
+    @EntityGraph(attributePaths = {"user", "user.role", "product"})
     List<Review> findTop3ByProductStoreOrderByCreatedAtDesc(Store store, Pageable pageable);
     
     default List<Review> findTop3ByProductStoreOrderByCreatedAtDesc(Store store) {
@@ -0,0 +1,58 @@
+package com.bahattintok.e_commerce.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.bahattintok.e_commerce.model.SearchIndexOutbox;
+
+/**
+ * Arama indexi outbox kayıtları repository'si
+ */
+@Repository
+public interface SearchIndexOutboxRepository extends JpaRepository<SearchIndexOutbox, Long> {
+
+    /**
+     * İşlenmeye hazır (zamanı gelmiş ve deneme hakkı kalmış) kayıtları eskiden yeniye kilitleyerek getirir.
+     * Başka düğümün işlediği (kilitli) kayıtlar atlanır; kilit çağıranın transaction'ı bitince bırakılır.
+     */
+    @Query(value = "SELECT * FROM search_index_outbox WHERE next_attempt_at <= :now AND attempts < :maxAttempts " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<SearchIndexOutbox> claimReady(@Param("now") LocalDateTime now,
+                                       @Param("maxAttempts") int maxAttempts,
+                                       @Param("limit") int limit);
+
+    /**
+     * Başarısız kayıtların deneme sayısını ve bir sonraki deneme zamanını günceller
+     */
+    @Modifying
+    @Query("UPDATE SearchIndexOutbox o SET o.attempts = :attempts, o.nextAttemptAt = :nextAttemptAt, o.lastError = :error WHERE o.id IN :ids")
+    int markFailed(@Param("ids") List<Long> ids,
+                   @Param("attempts") int attempts,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("error") String error);
+
+    /**
+     * Deneme hakkı biten kayıtları yeniden kuyruğa alır
+     */
+    @Modifying
+    @Query("UPDATE SearchIndexOutbox o SET o.attempts = 0, o.nextAttemptAt = :now WHERE o.attempts >= :maxAttempts")
+    int requeueExhausted(@Param("maxAttempts") int maxAttempts, @Param("now") LocalDateTime now);
+
+    long countByAttemptsLessThan(int maxAttempts);
+
+    long countByAttemptsGreaterThanEqual(int maxAttempts);
+
+    /**
+     * Bekleyen en eski kaydın zamanı (index gecikmesi için)
+     */
+    @Query("SELECT MIN(o.createdAt) FROM SearchIndexOutbox o WHERE o.attempts < :maxAttempts")
+    LocalDateTime findOldestPendingCreatedAt(@Param("maxAttempts") int maxAttempts);
+
+    List<SearchIndexOutbox> findByProductId(String productId);
+}
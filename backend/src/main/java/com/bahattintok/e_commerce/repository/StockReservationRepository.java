@@ -0,0 +1,39 @@
+package com.bahattintok.e_commerce.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.bahattintok.e_commerce.model.StockReservation;
+
+/**
+ * Stok rezervasyonları repository'si
+ */
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, String> {
+
+    List<StockReservation> findByReservationKeyAndStatus(String reservationKey, String status);
+
+    boolean existsByReservationKeyAndStatus(String reservationKey, String status);
+
+    /**
+     * Süresi dolmuş ve hâlâ ayrılmış durumdaki rezervasyonları getirir
+     */
+    @Query("SELECT r FROM StockReservation r WHERE r.status = 'RESERVED' AND r.expiresAt < :now ORDER BY r.expiresAt")
+    List<StockReservation> findExpired(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Rezervasyonun durumunu yalnızca beklenen durumdaysa değiştirir (aynı kaydın iki kez serbest bırakılmasını önler)
+     */
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = :newStatus WHERE r.id = :id AND r.status = :expectedStatus")
+    int transition(@Param("id") String id,
+                   @Param("expectedStatus") String expectedStatus,
+                   @Param("newStatus") String newStatus);
+}
@@ -0,0 +1,49 @@
+package com.bahattintok.e_commerce.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.bahattintok.e_commerce.model.StoreDailySales;
+
+/**
+ * Mağaza günlük satış özetleri repository'si
+ */
+@Repository
+public interface StoreDailySalesRepository extends JpaRepository<StoreDailySales, Long> {
+
+    /**
+     * Mağaza/gün satırına sipariş, adet ve gelir ekler (satır yoksa oluşturur)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO store_daily_sales (store_id, stat_date, order_count, items_sold, revenue) " +
+            "VALUES (:storeId, :statDate, :orderDelta, :itemsDelta, :revenueDelta) " +
+            "ON CONFLICT (store_id, stat_date) DO UPDATE SET " +
+            "order_count = store_daily_sales.order_count + EXCLUDED.order_count, " +
+            "items_sold = store_daily_sales.items_sold + EXCLUDED.items_sold, " +
+            "revenue = store_daily_sales.revenue + EXCLUDED.revenue",
+            nativeQuery = true)
+    void increment(@Param("storeId") String storeId,
+                   @Param("statDate") LocalDate statDate,
+                   @Param("orderDelta") long orderDelta,
+                   @Param("itemsDelta") long itemsDelta,
+                   @Param("revenueDelta") BigDecimal revenueDelta);
+
+    /**
+     * Mağazanın tarih aralığındaki günlük özetleri
+     */
+    List<StoreDailySales> findByStoreIdAndStatDateBetween(String storeId, LocalDate start, LocalDate end);
+
+    /**
+     * Mağazanın toplam sipariş adedi, satılan ürün adedi ve geliri
+     */
+    @Query("SELECT COALESCE(SUM(s.orderCount), 0), COALESCE(SUM(s.itemsSold), 0), COALESCE(SUM(s.revenue), 0) " +
+           "FROM StoreDailySales s WHERE s.storeId = :storeId")
+    List<Object[]> getTotalsByStoreId(@Param("storeId") String storeId);
+}
@@ -0,0 +1,57 @@
+package com.bahattintok.e_commerce.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.bahattintok.e_commerce.model.StoreProductSales;
+
+/**
+ * Mağaza ürün satış özetleri repository'si
+ */
+@Repository
+public interface StoreProductSalesRepository extends JpaRepository<StoreProductSales, Long> {
+
+    /**
+     * Mağaza/ürün satırına adet ve gelir ekler (satır yoksa oluşturur)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO store_product_sales (store_id, product_id, category_id, quantity_sold, revenue) " +
+            "VALUES (:storeId, :productId, :categoryId, :quantityDelta, :revenueDelta) " +
+            "ON CONFLICT (store_id, product_id) DO UPDATE SET " +
+            "category_id = EXCLUDED.category_id, " +
+            "quantity_sold = store_product_sales.quantity_sold + EXCLUDED.quantity_sold, " +
+            "revenue = store_product_sales.revenue + EXCLUDED.revenue",
+            nativeQuery = true)
+    void increment(@Param("storeId") String storeId,
+                   @Param("productId") String productId,
+                   @Param("categoryId") String categoryId,
+                   @Param("quantityDelta") long quantityDelta,
+                   @Param("revenueDelta") BigDecimal revenueDelta);
+
+    /**
+     * Mağazanın en çok satan ürünleri
+     */
+    @Query("SELECT s FROM StoreProductSales s WHERE s.storeId = :storeId ORDER BY s.quantitySold DESC")
+    List<StoreProductSales> findTopByStoreId(@Param("storeId") String storeId, Pageable pageable);
+
+    /**
+     * Mağazanın kategori bazlı satış adetleri (çoktan aza)
+     */
+    @Query("SELECT c.name, SUM(s.quantitySold) FROM StoreProductSales s, Category c " +
+           "WHERE c.id = s.categoryId AND s.storeId = :storeId " +
+           "GROUP BY c.name ORDER BY SUM(s.quantitySold) DESC")
+    List<Object[]> getCategorySalesByStoreId(@Param("storeId") String storeId);
+
+    /**
+     * Ürün başına toplam satış adedi (tüm mağazalar)
+     */
+    @Query("SELECT s.productId, SUM(s.quantitySold) FROM StoreProductSales s GROUP BY s.productId")
+    List<Object[]> sumQuantitySoldByProduct();
+}
@@ -1,8 +1,12 @@
 package com.bahattintok.e_commerce.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.bahattintok.e_commerce.model.Store;
@@ -14,6 +18,15 @@ public interface StoreRepository extends JpaRepository<Store, String> {
     Optional<Store> findByNameIgnoreCase(String name);
     boolean existsByNameIgnoreCase(String name);
     
+    @Query("SELECT s.id, s.name FROM Store s")
+    List<Object[]> findAllIdAndName();
+    
+    /**
+     * ID sırasına göre bir sonraki parça (keyset sayfalama; tam reindex için).
+     */
+    @EntityGraph(attributePaths = "seller")
+    List<Store> findByIdGreaterThanOrderByIdAsc(String lastId, Pageable pageable);
+    
     /**
      * Bu repository şu işlevleri sağlar:
      * 
@@ -3,7 +3,10 @@ package com.bahattintok.e_commerce.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -18,9 +21,48 @@ import com.bahattintok.e_commerce.model.enums.SellerStatus;
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
     /**
-     * Email adresinden kullanıcı bulur.
+     * Email adresinden kullanıcı bulur (rolüyle birlikte; yetki kontrolü ve principal önbelleği için).
      */
+    @EntityGraph(attributePaths = "role")
     Optional<User> findByEmail(String email);
+    
+    /**
+     * Oturumdaki kullanıcının kimlik, rol ve mağaza özetini tek sorguda getirir (entity yüklemez).
+     * Sütunlar: id, email, firstName, lastName, rol adı, rol satıcı mı, satıcı durumu, mağaza id, mağaza adı
+     */
+    @Query("SELECT u.id, u.email, u.firstName, u.lastName, r.name, r.isSeller, u.sellerStatus, s.id, s.name " +
+           "FROM User u LEFT JOIN u.role r LEFT JOIN Store s ON s.seller = u WHERE u.email = :email")
+    List<Object[]> findIdentityByEmail(@Param("email") String email);
+    
+    /**
+     * Teslimat adresi sütunları: address1, address2, phone
+     */
+    @Query("SELECT u.address1, u.address2, u.phone FROM User u WHERE u.id = :id")
+    List<Object[]> findAddressById(@Param("id") String id);
+    
+    /**
+     * Teslimat adresini kullanıcıyı yüklemeden günceller. Adres oturum önbelleğinde (CurrentUserCache)
+     * tutulmadığı için önbellek temizlenmez; önbellekteki alanları değiştiren toplu güncellemeler
+     * CurrentUserCache.invalidateUser çağırmalıdır.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.address1 = :address1, u.address2 = :address2, u.phone = :phone WHERE u.id = :id")
+    int updateAddress(@Param("id") String id, @Param("address1") String address1,
+                      @Param("address2") String address2, @Param("phone") String phone);
+    
+    /**
+     * ID'ye göre kullanıcıyı rolüyle birlikte getirir.
+     */
+    @Override
+    @EntityGraph(attributePaths = "role")
+    Optional<User> findById(String id);
+    
+    /**
+     * Tüm kullanıcıları rolleriyle birlikte getirir (admin listeleri rolü serileştirir).
+     */
+    @Override
+    @EntityGraph(attributePaths = "role")
+    List<User> findAll();
     /**
      * Email var mı kontrolü.
      */
@@ -34,6 +76,7 @@ public interface UserRepository extends JpaRepository<User, String> {
     /**
      * Belirli bir role sahip kullanıcıları getirir.
      */
+    @EntityGraph(attributePaths = "role")
     List<User> findByRole(RoleEntity role);
     
     /**
@@ -45,21 +88,38 @@ public interface UserRepository extends JpaRepository<User, String> {
     /**
      * Rol adına göre kullanıcıları getirir.
      */
-    @Query("SELECT u FROM User u JOIN u.role r WHERE r.name = :roleName")
+    @Query("SELECT u FROM User u JOIN FETCH u.role r WHERE r.name = :roleName")
     List<User> findByRoleName(@Param("roleName") String roleName);
     
+    /**
+     * Rol adına göre kullanıcıları sayar.
+     */
+    @Query("SELECT COUNT(u) FROM User u JOIN u.role r WHERE r.name = :roleName")
+    long countByRoleName(@Param("roleName") String roleName);
+    
+    /**
+     * Verilen tarihten sonra kayıt olan kullanıcıları sayar.
+     */
+    long countByRegistrationDateAfter(java.time.LocalDateTime date);
+    
     /**
      * Rol adı ve satıcı durumuna göre kullanıcıları getirir.
      */
-    @Query("SELECT u FROM User u JOIN u.role r WHERE r.name = :roleName AND u.sellerStatus = :sellerStatus")
+    @Query("SELECT u FROM User u JOIN FETCH u.role r WHERE r.name = :roleName AND u.sellerStatus = :sellerStatus")
     List<User> findByRoleNameAndSellerStatus(@Param("roleName") String roleName, @Param("sellerStatus") SellerStatus sellerStatus);
     
     /**
      * Rol adı ve kayıt tarihine göre kullanıcıları getirir.
      */
-    @Query("SELECT u FROM User u JOIN u.role r WHERE r.name = :roleName AND u.registrationDate > :date")
+    @Query("SELECT u FROM User u JOIN FETCH u.role r WHERE r.name = :roleName AND u.registrationDate > :date")
     List<User> findByRoleNameAndRegistrationDateAfter(@Param("roleName") String roleName, @Param("date") java.time.LocalDateTime date);
     
+    /**
+     * ID sırasına göre bir sonraki parça (keyset sayfalama; tam reindex için).
+     */
+    @EntityGraph(attributePaths = "role")
+    List<User> findByIdGreaterThanOrderByIdAsc(String lastId, Pageable pageable);
+    
     /**
      * Bu repository şu işlevleri sağlar:
      * 
@@ -0,0 +1,15 @@
+package com.bahattintok.e_commerce.security;
+
+/**
+ * Oturumdaki satıcı ve mağazasının değişmez özeti.
+ */
+public record CurrentSeller(CurrentUser user, String storeId, String storeName) {
+
+    public String userId() {
+        return user.id();
+    }
+
+    public String email() {
+        return user.email();
+    }
+}
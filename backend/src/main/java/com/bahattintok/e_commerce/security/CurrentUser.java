@@ -0,0 +1,30 @@
+package com.bahattintok.e_commerce.security;
+
+import com.bahattintok.e_commerce.model.enums.SellerStatus;
+
+/**
+ * Oturumdaki kullanıcının değişmez özeti. Entity değildir; istekler arasında önbelleklenebilir.
+ */
+public record CurrentUser(
+        String id,
+        String email,
+        String firstName,
+        String lastName,
+        String roleName,
+        boolean sellerRole,
+        SellerStatus sellerStatus) {
+
+    /**
+     * Kullanıcının satıcı rolünde olup olmadığını döner
+     */
+    public boolean isSeller() {
+        return "SELLER".equals(roleName) || sellerRole;
+    }
+
+    /**
+     * Satıcı hesabının ürün yayınlayabilecek şekilde onaylı olup olmadığını döner
+     */
+    public boolean isApprovedSeller() {
+        return sellerStatus == SellerStatus.APPROVED || sellerStatus == SellerStatus.ACTIVE;
+    }
+}
@@ -0,0 +1,168 @@
+package com.bahattintok.e_commerce.security;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bahattintok.e_commerce.service.ClusterBusService;
+
+/**
+ * Oturumdaki kullanıcının controller/servislerin kullandığı özetini + mağazasını (Identity) email anahtarıyla
+ * istekler arası önbellekler. Kayıtlar TTL sonunda düşer; boyut sınırlıdır. Kullanıcı veya mağaza değiştiğinde
+ * CurrentUserCacheEntityListener tarafından commit sonrası temizlenir; JPA olayı üretmeyen toplu güncellemeler
+ * invalidateUser çağırmalıdır. Kullanıcı temizlemesi JWT filtresinin PrincipalCache kayıtlarını da düşürür;
+ * temizleme diğer düğümlere de iletilir.
+ */
+@Component
+public class CurrentUserCache {
+
+    private static final String CLUSTER_TOPIC = "current-user-cache";
+
+    private final ClusterBusService clusterBusService;
+
+    private final PrincipalCache principalCache;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /** Her temizlemede artar; temizlemeden önce başlamış bir yükleme eski veriyi önbelleğe yazamaz */
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${security.current-user-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${security.current-user-cache.max-size:10000}")
+    private int maxSize;
+
+    public CurrentUserCache(ClusterBusService clusterBusService, PrincipalCache principalCache) {
+        this.clusterBusService = clusterBusService;
+        this.principalCache = principalCache;
+        clusterBusService.subscribe(CLUSTER_TOPIC, this::applyRemote);
+        // Düğüm mesaj kaçırmış olabilir; önbellek tamamen temizlenir
+        clusterBusService.onResync(this::clearLocal);
+    }
+
+    /**
+     * Kullanıcının kimlik ve mağaza bilgisi (mağazası yoksa storeId null)
+     */
+    public record Identity(CurrentUser user, String storeId, String storeName) {
+    }
+
+    /**
+     * Önbellekteki kullanıcı özetini döner; yoksa veya süresi dolduysa null döner.
+     */
+    public Identity get(String email) {
+        Entry entry = entries.get(email);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(email, entry);
+            return null;
+        }
+        return entry.identity();
+    }
+
+    /**
+     * Yüklemeye başlamadan önce alınır ve put'a verilir.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Kullanıcı özetini ekler; yükleme sürerken bir temizleme olduysa eklemez.
+     */
+    public void put(String email, Identity identity, long loadedAtGeneration) {
+        long now = System.currentTimeMillis();
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        entries.put(email, new Entry(identity.user().id(), identity, now + ttlSeconds * 1000));
+        if (generation.get() != loadedAtGeneration) {
+            entries.remove(email);
+        }
+    }
+
+    /**
+     * Kullanıcıya ait kaydı siler (email değişmiş olsa bile ID ile bulunur).
+     */
+    public void invalidateUser(String userId) {
+        removeUser(userId);
+        if (userId != null) {
+            clusterBusService.publish(CLUSTER_TOPIC, "user:" + userId);
+        }
+    }
+
+    /**
+     * Mağazaya bağlı kayıtları siler.
+     */
+    public void invalidateStore(String storeId) {
+        removeStore(storeId);
+        if (storeId != null) {
+            clusterBusService.publish(CLUSTER_TOPIC, "store:" + storeId);
+        }
+    }
+
+    /**
+     * Tüm önbelleği temizler.
+     */
+    public void invalidateAll() {
+        clearLocal();
+        clusterBusService.publish(CLUSTER_TOPIC, "all");
+    }
+
+    /**
+     * Diğer düğümden gelen temizleme; tekrar yayınlanmaz.
+     */
+    private void applyRemote(String message) {
+        if (message.startsWith("user:")) {
+            removeUser(message.substring("user:".length()));
+        } else if (message.startsWith("store:")) {
+            removeStore(message.substring("store:".length()));
+        } else {
+            clearLocal();
+        }
+    }
+
+    private void removeUser(String userId) {
+        generation.incrementAndGet();
+        principalCache.removeUser(userId);
+        if (userId != null) {
+            entries.values().removeIf(entry -> userId.equals(entry.userId()));
+        }
+    }
+
+    private void removeStore(String storeId) {
+        generation.incrementAndGet();
+        if (storeId != null) {
+            entries.values().removeIf(entry -> storeId.equals(entry.identity().storeId()));
+        }
+    }
+
+    private void clearLocal() {
+        generation.incrementAndGet();
+        principalCache.clear();
+        entries.clear();
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        int overflow = entries.size() - maxSize + 1;
+        if (overflow > 0) {
+            // Hâlâ doluysa süresi en yakın olan kayıtlar (en az %10) atılır; her eklemede tarama yapılmasın
+            entries.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().expiresAt()))
+                    .limit(Math.max(overflow, maxSize / 10))
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(entries::remove);
+        }
+    }
+
+    private record Entry(String userId, Identity identity, long expiresAt) {
+    }
+}
@@ -0,0 +1,104 @@
+package com.bahattintok.e_commerce.security;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.bahattintok.e_commerce.model.enums.SellerStatus;
+import com.bahattintok.e_commerce.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Oturumdaki kullanıcıyı (ve satıcıysa mağazasını) controller ve servislere değişmez bir özet olarak verir.
+ * İstek başına bir kez çözülür ve istek attribute'unda saklanır; istekler arası CurrentUserCache kullanılır.
+ * Önbellekte yoksa kullanıcı, rol ve mağaza tek sorguda okunur.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserProvider {
+
+    private static final String REQUEST_ATTRIBUTE = CurrentUserProvider.class.getName() + ".IDENTITY";
+
+    private final UserRepository userRepository;
+    private final CurrentUserCache currentUserCache;
+
+    /**
+     * Oturumdaki kullanıcıyı döner; oturum yoksa boş döner.
+     */
+    public Optional<CurrentUser> findUser() {
+        return identity().map(CurrentUserCache.Identity::user);
+    }
+
+    /**
+     * Oturumdaki kullanıcıyı döner; yoksa hata fırlatır.
+     */
+    public CurrentUser requireUser() {
+        return findUser().orElseThrow(() -> new RuntimeException("Kullanıcı bulunamadı"));
+    }
+
+    /**
+     * Oturumdaki satıcıyı mağazasıyla döner; kullanıcı veya mağaza yoksa hata fırlatır.
+     */
+    public CurrentSeller requireSeller() {
+        CurrentUserCache.Identity identity = identity()
+                .orElseThrow(() -> new RuntimeException("Kullanıcı bulunamadı"));
+        if (identity.storeId() == null) {
+            throw new RuntimeException("Mağaza bulunamadı");
+        }
+        return new CurrentSeller(identity.user(), identity.storeId(), identity.storeName());
+    }
+
+    private Optional<CurrentUserCache.Identity> identity() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return Optional.empty();
+        }
+        String email = authentication.getName();
+
+        // İstek içindeki kopya, istek sırasında önbellek temizlendiyse (ör. kullanıcı mağazasını güncelledi) kullanılmaz
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        long generation = currentUserCache.generation();
+        if (request != null
+                && request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Memo memo
+                && memo.generation() == generation
+                && memo.identity().user().email().equals(email)) {
+            return Optional.of(memo.identity());
+        }
+
+        CurrentUserCache.Identity identity = currentUserCache.get(email);
+        if (identity == null) {
+            identity = load(email);
+            if (identity == null) {
+                return Optional.empty();
+            }
+            currentUserCache.put(email, identity, generation);
+        }
+        if (request != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE, new Memo(identity, generation), RequestAttributes.SCOPE_REQUEST);
+        }
+        return Optional.of(identity);
+    }
+
+    private record Memo(CurrentUserCache.Identity identity, long generation) {
+    }
+
+    private CurrentUserCache.Identity load(String email) {
+        List<Object[]> rows = userRepository.findIdentityByEmail(email);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Object[] row = rows.get(0);
+        CurrentUser user = new CurrentUser(
+                (String) row[0], (String) row[1], (String) row[2], (String) row[3], (String) row[4],
+                Boolean.TRUE.equals(row[5]), (SellerStatus) row[6]);
+        return new CurrentUserCache.Identity(user, (String) row[7], (String) row[8]);
+    }
+}
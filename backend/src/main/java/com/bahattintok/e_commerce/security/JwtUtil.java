@@ -1,19 +1,22 @@
 package com.bahattintok.e_commerce.security;
 
-import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 
+import javax.crypto.SecretKey;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 
 /**
  * JWT token üretme, çözme ve doğrulama işlemlerini yapan yardımcı sınıf.
@@ -27,15 +30,31 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
     
+    /** İmzalama anahtarı; secret değişmediği için bir kez üretilir */
+    private SecretKey signingKey;
+    
+    /** Thread-safe parser; her token için yeniden oluşturulmaz */
+    private JwtParser parser;
+    
     /**
-     * JWT imzalama anahtarını döner.
+     * İmzalama anahtarını ve parser'ı uygulama açılışında bir kez hazırlar.
      */
-    private Key getSigningKey() {
+    @PostConstruct
+    void init() {
         if (secret == null || secret.trim().isEmpty()) {
             throw new IllegalStateException("JWT secret key is not configured properly");
         }
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+    
+    /**
+     * JWT imzalama anahtarını döner.
+     */
+    private SecretKey getSigningKey() {
+        return signingKey;
     }
     
     /**
@@ -61,22 +80,17 @@ public class JwtUtil {
     }
     
     /**
-     * Token'daki tüm claim'leri çözer.
+     * Token'ı bir kez çözüp doğrular (imza ve süre); aynı istekte birden fazla claim okunacaksa kullanılır.
      */
-    @SuppressWarnings("deprecation")
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
     }
     
     /**
-     * Token'ın süresi dolmuş mu kontrolü.
+     * Token'daki tüm claim'leri çözer.
      */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private Claims extractAllClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
     
     /**
@@ -116,8 +130,8 @@ public class JwtUtil {
      * Token'ı doğrular (email eşleşiyor ve süresi dolmamış mı kontrolü).
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String email = extractUsername(token);
-        return (email.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = extractAllClaims(token);
+        return (claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date()));
     }
 
     /**
@@ -141,7 +155,7 @@ public class JwtUtil {
      * 2. Token Çözme: JWT token'ından kullanıcı bilgilerini çıkarma
      * 3. Token Doğrulama: Token'ın geçerliliğini ve süresini kontrol etme
      * 4. Rol Yönetimi: JWT içinde kullanıcı rollerini saklama ve okuma
-     * 5. Güvenli İmzalama: HMAC-SHA256 algoritması ile token imzalama
+     * 5. Güvenli İmzalama: HMAC-SHA256 algoritması ile token imzalama (anahtar ve parser bir kez hazırlanır)
      * 6. Süre Yönetimi: Token'ın geçerlilik süresini ayarlama ve kontrol etme
      * 7. Konfigürasyon: Application properties'den secret ve expiration değerlerini alma
      * 
@@ -0,0 +1,123 @@
+package com.bahattintok.e_commerce.security;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.bahattintok.e_commerce.model.User;
+
+/**
+ * Doğrulanmış kullanıcıları (UserDetails) token'ın subject + issued-at değerine göre önbellekleyen sınıf.
+ * Kayıtlar TTL veya token süresi (hangisi önce dolarsa) sonunda düşer; boyut sınırlıdır.
+ * Temizleme CurrentUserCache üzerinden yapılır: invalidateUser kullanıcının tüm token'larına ait kayıtları
+ * kimlik özetiyle birlikte bu ve diğer düğümlerde siler.
+ */
+@Component
+public class PrincipalCache {
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /** Her temizlemede artar; temizlemeden önce başlamış bir yükleme eski kullanıcıyı önbelleğe yazamaz */
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${security.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    /**
+     * Önbellekteki kullanıcıyı döner; yoksa veya süresi dolduysa null döner.
+     */
+    public UserDetails get(String subject, Date issuedAt) {
+        Key key = key(subject, issuedAt);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.userDetails();
+    }
+
+    /**
+     * Yüklemeye başlamadan önce alınır ve put'a verilir.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Kullanıcıyı önbelleğe ekler; kayıt token süresinden uzun yaşamaz.
+     * Yükleme sürerken bir temizleme olduysa eklemez.
+     */
+    public void put(String subject, Date issuedAt, Date tokenExpiration, UserDetails userDetails, long loadedAtGeneration) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlSeconds * 1000;
+        if (tokenExpiration != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiration.getTime());
+        }
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        Key key = key(subject, issuedAt);
+        String userId = userDetails instanceof User user ? user.getId() : null;
+        entries.put(key, new Entry(userId, userDetails, expiresAt));
+        if (generation.get() != loadedAtGeneration) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Kullanıcının tüm token'larına ait kayıtları yalnızca bu düğümde siler (CurrentUserCache çağırır).
+     */
+    void removeUser(String userId) {
+        generation.incrementAndGet();
+        if (userId != null) {
+            entries.values().removeIf(entry -> userId.equals(entry.userId()));
+        }
+    }
+
+    /**
+     * Bu düğümdeki tüm kayıtları siler (CurrentUserCache çağırır).
+     */
+    void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        int overflow = entries.size() - maxSize + 1;
+        if (overflow > 0) {
+            // Hâlâ doluysa süresi en yakın olan kayıtlar (en az %10) atılır; her eklemede tarama yapılmasın
+            entries.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().expiresAt()))
+                    .limit(Math.max(overflow, maxSize / 10))
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(entries::remove);
+        }
+    }
+
+    private static Key key(String subject, Date issuedAt) {
+        return new Key(subject, issuedAt != null ? issuedAt.getTime() : 0L);
+    }
+
+    private record Key(String subject, long issuedAt) {
+    }
+
+    private record Entry(String userId, UserDetails userDetails, long expiresAt) {
+    }
+}
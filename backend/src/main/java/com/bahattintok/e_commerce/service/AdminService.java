@@ -7,7 +7,6 @@ import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.bahattintok.e_commerce.model.Order;
 import com.bahattintok.e_commerce.model.Product;
 import com.bahattintok.e_commerce.model.Store;
 import com.bahattintok.e_commerce.model.User;
@@ -54,14 +53,11 @@ public class AdminService {
         long totalOrders = orderRepository.count();
         long totalStores = storeRepository.count();
 
-        double totalRevenue = orderRepository.findByStatus("DELIVERED").stream()
-                .mapToDouble(order -> order.getTotalPrice() != null ? order.getTotalPrice().doubleValue() : 0.0)
-                .sum();
+        // Toplamlar veritabanında hesaplanır; sipariş ve kullanıcı entity'leri yüklenmez
+        double totalRevenue = orderRepository.sumTotalPriceByStatus("DELIVERED").doubleValue();
 
         // Satıcı sayısını hesapla
-        long totalSellers = userRepository.findAll().stream()
-                .filter(user -> user.getRole() != null && "SELLER".equals(user.getRole().getName()))
-                .count();
+        long totalSellers = userRepository.countByRoleName("SELLER");
         
         stats.put("totalUsers", totalUsers);
         stats.put("totalSellers", totalSellers);
@@ -82,33 +78,21 @@ public class AdminService {
         java.time.LocalDateTime startOfToday = now.toLocalDate().atStartOfDay();
         java.time.LocalDateTime startOfWeek = now.minusDays(7).toLocalDate().atStartOfDay();
 
-        List<Order> monthlyOrders = orderRepository.findByCreatedAtBetween(startOfMonth, now);
-        double thisMonthRevenue = monthlyOrders.stream()
-                .filter(order -> "DELIVERED".equals(order.getStatus()))
-                .mapToDouble(order -> order.getTotalPrice() != null ? order.getTotalPrice().doubleValue() : 0.0)
-                .sum();
+        double thisMonthRevenue = orderRepository
+                .sumTotalPriceByStatusAndCreatedAtBetween("DELIVERED", startOfMonth, now).doubleValue();
 
-        List<Order> todayOrders = orderRepository.findByCreatedAtBetween(startOfToday, now);
-        double todayRevenue = todayOrders.stream()
-                .filter(order -> "DELIVERED".equals(order.getStatus()))
-                .mapToDouble(order -> order.getTotalPrice() != null ? order.getTotalPrice().doubleValue() : 0.0)
-                .sum();
+        double todayRevenue = orderRepository
+                .sumTotalPriceByStatusAndCreatedAtBetween("DELIVERED", startOfToday, now).doubleValue();
 
-        long totalPendingOrders = orderRepository.findByStatus("PENDING").size();
+        long totalPendingOrders = orderRepository.countByStatus("PENDING");
         
         // Haftalık sipariş sayısı
-        List<Order> weeklyOrders = orderRepository.findByCreatedAtBetween(startOfWeek, now);
-        long weeklyOrdersCount = weeklyOrders.size();
+        long weeklyOrdersCount = orderRepository.countByCreatedAtBetween(startOfWeek, now);
         
-        List<User> allUsers = userRepository.findAll();
-        long newCustomersThisMonth = allUsers.stream()
-                .filter(user -> user.getRegistrationDate() != null && user.getRegistrationDate().isAfter(startOfMonth))
-                .count();
+        long newCustomersThisMonth = userRepository.countByRegistrationDateAfter(startOfMonth);
         
         // Toplam kullanıcı sayısı (USER rolündeki kullanıcılar)
-        long totalUsers = allUsers.stream()
-                .filter(user -> user.getRole() != null && "USER".equals(user.getRole().getName()))
-                .count();
+        long totalUsers = userRepository.countByRoleName("USER");
 
         quickStats.put("thisMonthRevenue", thisMonthRevenue);
         quickStats.put("todayRevenue", todayRevenue);
@@ -127,17 +111,18 @@ public class AdminService {
         Map<String, Object> chartData = new HashMap<>();
         java.time.LocalDateTime now = java.time.LocalDateTime.now();
         
-        // Son 12 ayın verisini topla
+        // Son 12 ayın verisini tek gruplu sorguyla topla
+        java.time.LocalDateTime firstMonth = now.minusMonths(11).withDayOfMonth(1).toLocalDate().atStartOfDay();
+        Map<String, Double> totalsByMonth = new HashMap<>();
+        for (Object[] row : orderRepository.sumTotalPriceByMonth("DELIVERED", firstMonth)) {
+            String key = ((Number) row[0]).intValue() + "-" + ((Number) row[1]).intValue();
+            totalsByMonth.put(key, row[2] != null ? ((Number) row[2]).doubleValue() : 0.0);
+        }
+        
         Map<String, Double> monthlySales = new java.util.LinkedHashMap<>();
         for (int i = 11; i >= 0; i--) {
             java.time.LocalDateTime monthStart = now.minusMonths(i).withDayOfMonth(1).toLocalDate().atStartOfDay();
-            java.time.LocalDateTime monthEnd = monthStart.plusMonths(1).minusNanos(1);
-            
-            List<Order> monthOrders = orderRepository.findByCreatedAtBetween(monthStart, monthEnd);
-            double total = monthOrders.stream()
-                                          .filter(order -> "DELIVERED".equals(order.getStatus()))
-                                          .mapToDouble(o -> o.getTotalPrice() != null ? o.getTotalPrice().doubleValue() : 0.0)
-                                          .sum();
+            double total = totalsByMonth.getOrDefault(monthStart.getYear() + "-" + monthStart.getMonthValue(), 0.0);
             
             String monthName = monthStart.getMonth().name().substring(0, 3) + " " + monthStart.getYear();
             monthlySales.put(monthName, total);
@@ -151,26 +136,20 @@ public class AdminService {
                Map<String, Object> reports = new HashMap<>();
                
                // Toplam gelir
-               double totalRevenue = orderRepository.findAll().stream()
-                   .mapToDouble(order -> order.getTotalPrice().doubleValue())
-                   .sum();
+               double totalRevenue = orderRepository.sumTotalPrice().doubleValue();
                
                // Tamamlanan siparişlerden gelir
-               double completedRevenue = orderRepository.findByStatus("DELIVERED").stream()
-                   .mapToDouble(order -> order.getTotalPrice() != null ? order.getTotalPrice().doubleValue() : 0.0)
-                   .sum();
+               double completedRevenue = orderRepository.sumTotalPriceByStatus("DELIVERED").doubleValue();
                
                // Bekleyen siparişlerden gelir
-               double pendingRevenue = orderRepository.findByStatus("PENDING").stream()
-                   .mapToDouble(order -> order.getTotalPrice().doubleValue())
-                   .sum();
+               double pendingRevenue = orderRepository.sumTotalPriceByStatus("PENDING").doubleValue();
                
                reports.put("totalRevenue", totalRevenue);
                reports.put("completedRevenue", completedRevenue);
                reports.put("pendingRevenue", pendingRevenue);
                reports.put("totalOrders", orderRepository.count());
-               reports.put("completedOrders", orderRepository.findByStatus("DELIVERED").size());
-               reports.put("pendingOrders", orderRepository.findByStatus("PENDING").size());
+               reports.put("completedOrders", orderRepository.countByStatus("DELIVERED"));
+               reports.put("pendingOrders", orderRepository.countByStatus("PENDING"));
                
                return reports;
            }
@@ -186,19 +165,14 @@ public class AdminService {
                    .withSecond(0)
                    .withNano(0);
                
-               List<Order> monthlyOrders = orderRepository.findByCreatedAtBetween(
-                   startOfMonth, 
-                   java.time.LocalDateTime.now()
-               );
-               
-               double monthlyRevenue = monthlyOrders.stream()
-                   .filter(order -> "DELIVERED".equals(order.getStatus()))
-                   .mapToDouble(order -> order.getTotalPrice() != null ? order.getTotalPrice().doubleValue() : 0.0)
-                   .sum();
+               java.time.LocalDateTime now = java.time.LocalDateTime.now();
+               long monthlyOrders = orderRepository.countByCreatedAtBetween(startOfMonth, now);
+               double monthlyRevenue = orderRepository
+                   .sumTotalPriceByStatusAndCreatedAtBetween("DELIVERED", startOfMonth, now).doubleValue();
                
                report.put("monthlyRevenue", monthlyRevenue);
-               report.put("monthlyOrders", monthlyOrders.size());
-               report.put("averageOrderValue", monthlyOrders.isEmpty() ? 0 : monthlyRevenue / monthlyOrders.size());
+               report.put("monthlyOrders", monthlyOrders);
+               report.put("averageOrderValue", monthlyOrders == 0 ? 0 : monthlyRevenue / monthlyOrders);
                
                return report;
            }
@@ -0,0 +1,41 @@
+package com.bahattintok.e_commerce.service;
+
+import java.time.LocalDateTime;
+
+import com.bahattintok.e_commerce.model.BroadcastNotification;
+import com.bahattintok.e_commerce.model.User;
+
+/**
+ * Tüm kullanıcılara giden bildirimleri (sistem, promosyon) tek satır olarak saklayan servis.
+ * Okundu bilgisi kullanıcı başına bir işarettir: işaretten büyük ID'li toplu bildirimler okunmamış sayılır.
+ */
+public interface BroadcastNotificationService {
+
+    /** Yeni toplu bildirimlerin gönderildiği topic */
+    String TOPIC = "/topic/notifications/broadcast";
+
+    /**
+     * Toplu bildirimi kaydeder ve bağlı tüm kullanıcılara tek topic mesajıyla gönderir.
+     */
+    BroadcastNotification broadcast(String title, String message, String type);
+
+    /**
+     * Verilen işaretten sonraki (okunmamış) toplu bildirim sayısı; bellekten hesaplanır.
+     */
+    long countUnread(long readUpTo);
+
+    /**
+     * Kullanıcının okuma işaretini verilen toplu bildirime kadar ilerletir.
+     */
+    void markAsRead(User user, long broadcastId);
+
+    /**
+     * Kullanıcının tüm toplu bildirimlerini okundu sayar.
+     */
+    void markAllAsRead(User user);
+
+    /**
+     * Saklama süresi dolan toplu bildirimleri siler; silinen sayısını döner.
+     */
+    int purgeExpired(LocalDateTime cutoff);
+}
@@ -0,0 +1,27 @@
+package com.bahattintok.e_commerce.service;
+
+import com.bahattintok.e_commerce.model.Campaign;
+
+/**
+ * Kampanyaları başlangıç ve bitiş zamanlarında ürünlere toplu olarak uygulayan/kaldıran servis.
+ * Ürünlerin etkin fiyatı burada hesaplanır; katalog okumaları indirim kuralı işletmez.
+ */
+public interface CampaignService {
+
+    /**
+     * Kampanyayı kaydeder. Daha önce uyguladığı indirimler kaldırılır; zamanı gelmişse hemen,
+     * gelmemişse başlangıç zamanında zamanlayıcı tarafından uygulanır.
+     */
+    Campaign save(Campaign campaign);
+
+    /**
+     * Kampanyanın uyguladığı indirimleri kaldırıp kampanyayı siler.
+     */
+    void delete(Campaign campaign);
+
+    /**
+     * Zamanı gelen kampanyaları başlatır/bitirir, süresi dolan elle girilmiş indirimleri kaldırır.
+     * Fiyatı değişen ürün sayısını döner.
+     */
+    int runDue();
+}
@@ -1,19 +1,33 @@
 package com.bahattintok.e_commerce.service;
 
 import java.util.List;
+import java.util.Map;
 
-import com.bahattintok.e_commerce.model.Cart;
-import com.bahattintok.e_commerce.model.CartItem;
+import com.bahattintok.e_commerce.dto.CartBatchRequest;
 import com.bahattintok.e_commerce.model.User;
 
+/**
+ * Sepet işlemleri. Sepetler bellekte tutulur ve veritabanına geriden toplu yazılır (bkz. CartWriteBehindService).
+ */
 public interface CartService {
-    Cart getOrCreateCart(User user);
-    List<CartItem> getCartItems(User user);
+    
+    /**
+     * Sepet satırlarını ürün okuma modeliyle döner (id, quantity, product); ürünler tek sorguda gelir.
+     * Satır kimliği olarak ürün ID'si kullanılır (sepette her ürün tek satırdır).
+     */
+    List<Map<String, Object>> getCartItemViews(User user);
+    
     void addToCart(User user, String productId, int quantity);
     void removeFromCart(User user, String productId);
     void updateCartItemQuantity(User user, String productId, int quantity);
     void clearCart(User user);
     
+    /**
+     * İşlem listesini sepete hep birlikte uygular; ürün bulunamaz veya stok yetmezse hiçbiri uygulanmaz.
+     * Ürünler ve stokları tek sorguda okunur. Güncel sepeti döner.
+     */
+    List<Map<String, Object>> applyBatch(User user, List<CartBatchRequest.Operation> operations);
+    
     /**
      * Bu interface şu işlevleri sağlar:
      * 
@@ -0,0 +1,69 @@
+package com.bahattintok.e_commerce.service;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.bahattintok.e_commerce.model.User;
+
+/**
+ * Sık kullanılan sepetleri kullanıcı bazında bellekte tutan, değişiklikleri PostgreSQL'e
+ * partiler halinde geriden yazan (write-behind) sepet deposu.
+ *
+ * Sepete ekleme/güncelleme/silme veritabanına dokunmaz; kirli sepetler zamanlanmış görevle
+ * toplu yazılır. Uygulama kapanırken bekleyen tüm sepetler yazılır.
+ *
+ * Sepet birden fazla düğümde önbellekte olabilir: yazılan sepetler küme yoluyla bildirilir ve diğer
+ * düğümler temiz kopyalarını bırakır. Kirli kopya yazılırken sürüm çakışırsa değişiklikler güncel
+ * sepetle birleştirilir, hiçbir düğüm diğerinin yazdığını ezmez.
+ */
+public interface CartWriteBehindService {
+
+    /**
+     * Sepet satırlarını eklenme sırasıyla döner (ürün ID -> miktar); dönen harita kopyadır.
+     */
+    Map<String, Integer> getLines(User user);
+
+    /**
+     * Ürünü sepete ekler, varsa miktarını artırır.
+     */
+    void addLine(User user, String productId, int quantity);
+
+    /**
+     * Sepetteki ürünün miktarını değiştirir; 0 veya altı satırı siler. Sepette olmayan ürün yok sayılır.
+     */
+    void setQuantity(User user, String productId, int quantity);
+
+    /**
+     * Ürünü sepetten çıkarır.
+     */
+    void removeLine(User user, String productId);
+
+    /**
+     * Değişikliği sepet satırlarının kopyasına uygular ve sonucu tek seferde geçirir; yeni satırları döner.
+     * Değişiklik exception fırlatırsa sepet hiç değişmez.
+     */
+    Map<String, Integer> modify(User user, Consumer<Map<String, Integer>> change);
+
+    /**
+     * Sepeti boşaltır. Etkin bir transaction varsa commit sonrasına ertelenir
+     * (sipariş geri alınırsa sepet korunur).
+     */
+    void clear(User user);
+
+    /**
+     * Kirli sepetleri partiler halinde yazar ve yazılan sepet sayısını döner.
+     */
+    int flushDirty();
+
+    /**
+     * Kullanıcının bellekteki sepetini yazmadan bırakır; sepet veritabanında doğrudan
+     * değiştirildiğinde (ör. admin silmesi) çağrılır, bir sonraki erişimde yeniden yüklenir.
+     * Diğer düğümlere de iletilir.
+     */
+    void invalidate(String userId);
+
+    /**
+     * Bellekteki sepet sayısı, bekleyen yazımlar ve yazım metriklerini döner.
+     */
+    Map<String, Object> getStats();
+}
@@ -6,19 +6,20 @@ import com.bahattintok.e_commerce.dto.AddressRequest;
 import com.bahattintok.e_commerce.dto.CheckoutRequest;
 
 /**
- * Teslimat ve ödeme işlemleri için service interface
+ * Teslimat ve ödeme işlemleri için service interface.
+ * Kullanıcı oturumdan (CurrentUserProvider) çözülür.
  */
 public interface CheckoutService {
     
     /**
-     * Kullanıcının adres bilgilerini günceller
+     * Oturumdaki kullanıcının adres bilgilerini günceller
      */
-    Map<String, Object> updateUserAddress(String userEmail, AddressRequest addressRequest);
+    Map<String, Object> updateUserAddress(AddressRequest addressRequest);
     
     /**
-     * Kullanıcının mevcut adres bilgilerini getirir
+     * Oturumdaki kullanıcının mevcut adres bilgilerini getirir
      */
-    Map<String, Object> getUserAddress(String userEmail);
+    Map<String, Object> getUserAddress();
     
     /**
      * Teslimat seçeneklerini getirir
@@ -31,7 +32,18 @@ public interface CheckoutService {
     Map<String, Object> getPaymentMethods();
     
     /**
-     * Siparişi tamamlar
+     * Oturumdaki kullanıcının siparişini tamamlar
      */
-    Map<String, Object> completeOrder(String userEmail, CheckoutRequest checkoutRequest);
+    Map<String, Object> completeOrder(CheckoutRequest checkoutRequest);
+    
+    /**
+     * requestKey ile oluşturulmuş bir sipariş varsa stok yeniden ayrılmadan ve ödeme yeniden başlatılmadan
+     * o siparişin yanıtı döner
+     */
+    Map<String, Object> completeOrder(CheckoutRequest checkoutRequest, String requestKey);
+    
+    /**
+     * Siparişin ödeme durumunu getirir (PENDING_PAYMENT, PAYMENT_UNKNOWN, PAID, FAILED)
+     */
+    Map<String, Object> getPaymentStatus(String orderId);
 }
@@ -0,0 +1,36 @@
+package com.bahattintok.e_commerce.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Uygulama düğümleri arasında mesaj taşıyan küme yolu (PostgreSQL LISTEN/NOTIFY).
+ * Mesajlar toplu olarak yazılır ve diğer düğümlere iletilir; yayınlayan düğüm kendi mesajını almaz.
+ * Bağlantısı kopan düğüm yeniden bağlandığında kaçırdığı mesajları okur; saklama süresinden uzun
+ * kopukluklarda resync dinleyicileri çağrılır (ör. önbellekler tamamen temizlenir).
+ */
+public interface ClusterBusService {
+
+    /**
+     * Mesajı diğer düğümlere gönderilmek üzere kuyruğa alır (bir sonraki toplu yazımda gider).
+     */
+    void publish(String topic, String payload);
+
+    /**
+     * Diğer düğümlerden gelen mesajlar için dinleyici ekler. Dinleyiciler sırayla, dinleme thread'inde çağrılır.
+     */
+    void subscribe(String topic, Consumer<String> handler);
+
+    /**
+     * Mesaj kaybı olmuş olabileceğinde çağrılacak dinleyiciyi ekler.
+     */
+    void onResync(Runnable handler);
+
+    /**
+     * Bekleyen mesajları hemen yazar; yazılan mesaj sayısını döner.
+     */
+    int flush();
+
+    String getNodeId();
+
+    boolean isConnected();
+}
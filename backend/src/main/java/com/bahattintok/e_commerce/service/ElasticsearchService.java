@@ -5,6 +5,7 @@ import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import com.bahattintok.e_commerce.dto.ProductSearchResult;
 import com.bahattintok.e_commerce.model.Category;
 import com.bahattintok.e_commerce.model.CategoryDocument;
 import com.bahattintok.e_commerce.model.Product;
@@ -49,6 +50,14 @@ public interface ElasticsearchService {
      */
     List<ProductDocument> advancedSearch(String query, String category, Double minPrice, Double maxPrice, String storeName);
     
+    /**
+     * Metin, kategori, mağaza, fiyat aralığı ve indirim filtrelerini tek bir bool sorguda birleştirir;
+     * sayfalı sonuçla birlikte kategori, mağaza, fiyat ve puan facet'lerini aynı istekte döner.
+     */
+    ProductSearchResult facetedSearch(String query, String category, String storeName,
+                                      Double minPrice, Double maxPrice, Boolean discounted,
+                                      Pageable pageable);
+    
     /**
      * Benzer ürünleri bulur
      */
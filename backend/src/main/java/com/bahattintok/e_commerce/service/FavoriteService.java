@@ -1,6 +1,7 @@
 package com.bahattintok.e_commerce.service;
 
 import java.util.List;
+import java.util.Map;
 
 import com.bahattintok.e_commerce.model.Favorite;
 
@@ -11,6 +12,11 @@ public interface FavoriteService {
      */
     List<Favorite> getUserFavorites(String email);
     
+    /**
+     * Kullanıcının favorilerini ürün okuma modeliyle getirir (id, createdAt, product)
+     */
+    List<Map<String, Object>> getUserFavoriteViews(String email);
+    
     /**
      * Ürünü favorilere ekler
      */
@@ -1,11 +1,14 @@
 package com.bahattintok.e_commerce.service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.bahattintok.e_commerce.dto.ProductView;
 import com.bahattintok.e_commerce.model.Favorite;
 import com.bahattintok.e_commerce.model.Product;
 import com.bahattintok.e_commerce.model.User;
@@ -23,6 +26,7 @@ public class FavoriteServiceImpl implements FavoriteService {
     private final FavoriteRepository favoriteRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
+    private final ProductService productService;
     
     @Override
     public List<Favorite> getUserFavorites(String email) {
@@ -46,6 +50,39 @@ public class FavoriteServiceImpl implements FavoriteService {
         }
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getUserFavoriteViews(String email) {
+        User user = userRepository.findByEmail(email).orElse(null);
+        if (user == null) {
+            return new ArrayList<>();
+        }
+        
+        // Favoriler ve ürün bilgileri iki sorguda gelir; favori sayısından bağımsız
+        List<Object[]> rows = favoriteRepository.findSummariesByUserId(user.getId());
+        List<String> productIds = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            productIds.add((String) row[2]);
+        }
+        Map<String, ProductView> views = new HashMap<>();
+        for (ProductView view : productService.getProductViews(productIds)) {
+            views.put(view.getId(), view);
+        }
+        
+        List<Map<String, Object>> favorites = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ProductView product = views.get((String) row[2]);
+            if (product != null) {
+                Map<String, Object> favoriteMap = new HashMap<>();
+                favoriteMap.put("id", row[0]);
+                favoriteMap.put("createdAt", row[1]);
+                favoriteMap.put("product", product);
+                favorites.add(favoriteMap);
+            }
+        }
+        return favorites;
+    }
+    
     @Override
     public Favorite addToFavorites(String email, String productId) {
         try {
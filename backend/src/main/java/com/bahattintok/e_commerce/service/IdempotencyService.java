@@ -0,0 +1,40 @@
+package com.bahattintok.e_commerce.service;
+
+import java.util.function.Supplier;
+
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Idempotency-Key başlığıyla gelen isteklerin yalnızca bir kez işlenmesini sağlar.
+ */
+public interface IdempotencyService {
+
+    /** İstemcinin gönderdiği başlık */
+    String HEADER = "Idempotency-Key";
+
+    /**
+     * İşlemi anahtar başına bir kez çalıştırır ve yanıtını saklar.
+     * Aynı anahtarla gelen tekrar istekler işlemi yeniden çalıştırmadan ilk yanıtı alır; eşzamanlı
+     * tekrarlar ilk isteğin bitmesini bekler. Anahtar yoksa işlem doğrudan çalışır.
+     * İşlem exception fırlatır veya 5xx dönerse anahtar serbest bırakılır, istemci aynı anahtarla tekrar deneyebilir.
+     * Yanıtı kaydedilemeden kalan anahtar süresi dolunca yeniden çalıştırılır; bu yüzden işlem kendi yan etkisini
+     * {@link #requestKey} ile işaretleyip tekrar çalıştığında mevcut sonucu döndürmelidir.
+     *
+     * @param scope   uç nokta ve kullanıcı (anahtarlar bu kapsamda tekildir)
+     * @param key     istemcinin gönderdiği anahtar, boş olabilir
+     * @param request istek gövdesi; aynı anahtarın farklı bir istekle kullanılmasını yakalamak için özetlenir
+     */
+    ResponseEntity<?> execute(String scope, String key, Object request, Supplier<ResponseEntity<?>> action);
+
+    /**
+     * İşlemin yazdığı kayıtta saklanacak anahtar (uç nokta önekiyle); anahtar yoksa null.
+     */
+    static String requestKey(String endpoint, String key) {
+        return key == null || key.isBlank() ? null : endpoint + ":" + key;
+    }
+
+    /**
+     * Saklama süresi dolan anahtarları siler.
+     */
+    int purgeExpired();
+}
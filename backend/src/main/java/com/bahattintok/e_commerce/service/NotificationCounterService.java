@@ -0,0 +1,43 @@
+package com.bahattintok.e_commerce.service;
+
+import java.util.Collection;
+
+/**
+ * Kullanıcı başına okunmamış bildirim sayaçlarını bellekte tutan servis.
+ * Sayaç, kişisel okunmamış sayısı ve toplu bildirim okuma işaretinden oluşur; toplama işaretten sonraki toplu
+ * bildirimler eklenir. Sayaç ilk istendiğinde veritabanından yüklenir, sonrasında bildirim oluşturma/okuma
+ * işlemlerinin commit'inde güncellenir ve değişiklik kullanıcıya /user/queue/unread-count üzerinden iletilir
+ * (istemci sayıyı sorgulamaz).
+ */
+public interface NotificationCounterService {
+
+    /** Sayaç değişikliklerinin gönderildiği kişisel kuyruk */
+    String DESTINATION = "/queue/unread-count";
+
+    /**
+     * Kullanıcıya giden sayaç mesajı: unreadCount kişisel ve toplu okunmamışların toplamıdır; reload true ise
+     * istemci sayıyı /api/notifications/unread-count üzerinden yeniden yükler.
+     */
+    record UnreadCountMessage(Long unreadCount, boolean reload) {
+    }
+
+    /**
+     * Kullanıcının okunmamış bildirim sayısını döner; bellekte yoksa veritabanından yükler.
+     */
+    long getUnreadCount(String userId);
+
+    /**
+     * Okunmamış sayısındaki değişikliği kaydeder; işlem içindeyse commit sonrası uygulanır ve kullanıcıya gönderilir.
+     */
+    void recordChange(String userId, String email, long delta);
+
+    /**
+     * Toplu bildirim okuma işaretinin ilerlediğini kaydeder; işlem içindeyse commit sonrası uygulanır.
+     */
+    void recordReadMark(String userId, String email, long readUpTo);
+
+    /**
+     * Tüm sayaçları (diğer düğümler dahil) temizler; verilen kullanıcılara sayıyı yeniden yüklemeleri bildirilir.
+     */
+    void resetAll(Collection<String> affectedEmails);
+}
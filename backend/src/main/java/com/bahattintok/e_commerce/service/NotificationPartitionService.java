@@ -0,0 +1,22 @@
+package com.bahattintok.e_commerce.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * notifications tablosunun aylık bölümlerini yöneten servis.
+ * İleriki aylar için bölümler önceden oluşturulur; saklama süresi tamamen dolan aylar bölüm olarak düşürülür
+ * (satır satır DELETE yapılmaz).
+ */
+public interface NotificationPartitionService {
+
+    /**
+     * Bu ay ve sonraki aylar için eksik bölümleri oluşturur; oluşturulan bölüm sayısını döner.
+     */
+    int ensurePartitions();
+
+    /**
+     * Tamamı verilen tarihten eski olan aylık bölümleri eşzamanlı ayırıp düşürür; düşürülen bölüm sayısını döner.
+     * DETACH ... CONCURRENTLY işlem içinde çalışamadığından çağıran işlem açmamalıdır.
+     */
+    int dropExpiredPartitions(LocalDateTime cutoff);
+}
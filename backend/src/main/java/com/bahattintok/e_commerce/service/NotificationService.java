@@ -5,6 +5,8 @@ import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import com.bahattintok.e_commerce.dto.NotificationFeedPage;
+import com.bahattintok.e_commerce.model.BroadcastNotification;
 import com.bahattintok.e_commerce.model.Notification;
 import com.bahattintok.e_commerce.model.User;
 
@@ -34,10 +36,30 @@ public interface NotificationService {
     void markAsRead(Long notificationId, User user);
     
     /**
-     * Kullanıcının tüm bildirimlerini okundu olarak işaretler
+     * Kullanıcının tüm bildirimlerini (toplu bildirimler dahil) okundu olarak işaretler
      */
     void markAllAsRead(User user);
     
+    /**
+     * Toplu bildirimi (ve ondan eskileri) kullanıcı için okundu sayar
+     */
+    void markBroadcastAsRead(Long broadcastId, User user);
+    
+    /**
+     * Kişisel ve toplu bildirimleri tek akışta, imleçle (keyset) sayfalayarak getirir; cursor null ise ilk sayfa
+     */
+    NotificationFeedPage getFeed(User user, String cursor, int size);
+    
+    /**
+     * Tüm kullanıcıların okunmamış bildirimlerini tek sorguda okundu olarak işaretler (admin); güncellenen sayıyı döner
+     */
+    int markAllAsReadForAllUsers();
+    
+    /**
+     * Bildirimi siler (admin); okunmamışsa alıcının sayacı düşer
+     */
+    void deleteNotification(Long notificationId);
+    
     /**
      * Yeni bildirim oluşturur
      */
@@ -65,7 +87,17 @@ public interface NotificationService {
     void sendSystemNotification(User user, String title, String message);
     
     /**
-     * Eski bildirimleri temizler
+     * Tüm kullanıcılara promosyon bildirimi (tek satır olarak saklanır)
+     */
+    BroadcastNotification broadcastPromotion(String title, String message);
+    
+    /**
+     * Tüm kullanıcılara sistem bildirimi (tek satır olarak saklanır)
+     */
+    BroadcastNotification broadcastSystemNotification(String title, String message);
+    
+    /**
+     * Saklama süresi dolan bildirimleri temizler (aylık bölümler düşürülür)
      */
     void cleanupOldNotifications();
 } 
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.bahattintok.e_commerce.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import com.bahattintok.e_commerce.model.Order;
+import com.bahattintok.e_commerce.model.OrderDailyStats;
+
+/**
+ * Sipariş özetlerini (günlük adet ve gelir) artımlı olarak tutan servis.
+ * Admin raporları sipariş tablosunu taramak yerine bu servisten okur.
+ * Yalnızca {@link Order#isCountedStatus} durumundaki siparişler özete girer.
+ */
+public interface OrderAnalyticsService {
+
+    /**
+     * Yeni siparişi özete ekler
+     */
+    void recordOrderPlaced(Order order);
+
+    /**
+     * Siparişi eski durumundan yeni durumuna taşır
+     */
+    void recordStatusChange(Order order, String oldStatus, String newStatus);
+
+    /**
+     * Silinen siparişi özetten çıkarır
+     */
+    void recordOrderRemoved(Order order);
+
+    /**
+     * Toplam sipariş adedi
+     */
+    long getTotalOrderCount();
+
+    /**
+     * Duruma göre sipariş adedi
+     */
+    long getOrderCount(String status);
+
+    /**
+     * Duruma göre toplam gelir
+     */
+    BigDecimal getRevenue(String status);
+
+    /**
+     * Tarih aralığındaki günlük özetler
+     */
+    List<OrderDailyStats> getDailyStats(LocalDate start, LocalDate end);
+
+    /**
+     * Özeti sipariş tablosundan baştan oluşturur
+     */
+    void rebuild();
+}
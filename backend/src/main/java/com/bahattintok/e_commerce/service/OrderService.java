@@ -2,6 +2,10 @@ package com.bahattintok.e_commerce.service;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import com.bahattintok.e_commerce.model.Order;
 import com.bahattintok.e_commerce.model.User;
@@ -9,8 +13,46 @@ import com.bahattintok.e_commerce.model.User;
 public interface OrderService {
     Order createOrder(User user);
     Order createOrder(User user, List<Map<String, Object>> items, Double total);
+    
+    /**
+     * requestKey ile oluşturulmuş bir sipariş varsa stok yeniden düşülmeden o sipariş döner.
+     */
+    Order createOrder(User user, List<Map<String, Object>> items, Double total, String requestKey);
     List<Order> getUserOrders(User user);
     
+    /**
+     * Liste görünümü: siparişler müşteri bilgisiyle, kalemleri ürünleriyle birlikte ikinci bir sorguda yüklenir.
+     */
+    List<Order> getAllOrders();
+    
+    List<Order> getOrdersByStatus(String status);
+    
+    Page<Order> getRecentOrders(Pageable pageable);
+    
+    /**
+     * Mağazanın ürünlerini içeren siparişler (status "all" ise durum filtresi yok).
+     */
+    Page<Order> getStoreOrders(String storeId, String status, Pageable pageable);
+    
+    Page<Order> searchStoreOrders(String storeId, String status, String customerName, String query, Pageable pageable);
+    
+    /**
+     * Detay görünümü: müşteri, kalemler ve ürünlerle tek sorguda.
+     */
+    Optional<Order> getOrderDetail(String orderId);
+    
+    /**
+     * Kullanıcının siparişlerini siler ve sipariş/mağaza satış özetlerinden düşer; ikisi tek transaction'dadır.
+     * Silinen sipariş sayısını döner.
+     */
+    int deleteUserOrders(User user);
+    
+    /**
+     * Sipariş durumunu günceller ve günlük sipariş özetini aynı transaction'da düzeltir.
+     * Sipariş müşteri, kalemler ve ürünlerle yüklenmiş döner; bulunamazsa boş döner.
+     */
+    Optional<Order> updateStatus(String orderId, String newStatus);
+    
     /**
      * Bu interface şu işlevleri sağlar:
      * 
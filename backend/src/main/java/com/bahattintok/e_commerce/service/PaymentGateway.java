@@ -0,0 +1,31 @@
+package com.bahattintok.e_commerce.service;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import com.bahattintok.e_commerce.dto.CreditCardRequest;
+import com.bahattintok.e_commerce.dto.PaymentResult;
+
+/**
+ * Ödeme sağlayıcısı soyutlaması.
+ * Gerçek bir sağlayıcı entegrasyonu bu arayüzü uygulayıp "payment.gateway" ayarı ile seçilebilir.
+ */
+public interface PaymentGateway {
+
+    /**
+     * Karttan tahsilat yapar; sonuç hazır olduğunda tamamlanan future döner (çağıran thread bloklanmaz)
+     */
+    CompletableFuture<PaymentResult> charge(String orderId, CreditCardRequest creditCard, BigDecimal amount);
+
+    /**
+     * Sipariş için yapılmış tahsilatın sonucunu sağlayıcıdan sorgular (mutabakat).
+     * Sağlayıcıda bu sipariş için kayıt yoksa boş döner.
+     */
+    CompletableFuture<Optional<PaymentResult>> findCharge(String orderId);
+
+    /**
+     * Onaylanmış bir tahsilatı iade eder
+     */
+    CompletableFuture<PaymentResult> refund(String transactionId, BigDecimal amount);
+}
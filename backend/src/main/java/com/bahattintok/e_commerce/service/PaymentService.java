@@ -0,0 +1,27 @@
+package com.bahattintok.e_commerce.service;
+
+import com.bahattintok.e_commerce.dto.CreditCardRequest;
+import com.bahattintok.e_commerce.model.Order;
+
+/**
+ * Kart ödemelerini istek thread'ini bekletmeden yürüten servis.
+ * Sipariş PENDING_PAYMENT durumunda oluşturulur; sağlayıcı sonucu geldiğinde
+ * PAID veya FAILED durumuna geçirilir ve kullanıcıya /user/queue/payments üzerinden bildirilir.
+ * Sağlayıcı zamanında yanıt vermezse sipariş PAYMENT_UNKNOWN olur; sonuç mutabakatla netleşir.
+ */
+public interface PaymentService {
+
+    /**
+     * Ödemeyi ödeme executor'ında başlatır ve hemen döner; sonuç userEmail'e bildirilir
+     */
+    void startPayment(Order order, String userEmail, String reservationKey, CreditCardRequest creditCard);
+
+    /**
+     * Sonucu belirsiz kalan (zaman aşımı, sağlayıcı hatası, uygulamanın yeniden başlaması) ödemeleri
+     * sağlayıcıdan sorgulayıp sonuçlandırır (zamanlanmış görev). Tahsilat bulunursa sipariş onaylanır;
+     * bekleme süresi dolduğu halde sağlayıcıda kayıt yoksa sipariş başarısız sayılır ve stok iade edilir.
+     * Sağlayıcıya iletilemeyen tahsilat iadeleri de yeniden denenir. Tur zamanlayıcı thread'ini bloklamaz,
+     * ayrı executor'da çalışır.
+     */
+    void reconcilePayments();
+}
@@ -0,0 +1,27 @@
+package com.bahattintok.e_commerce.service;
+
+import java.util.List;
+
+/**
+ * Gerçek arama trafiğinden popüler arama terimlerini çıkaran servis.
+ * Terimler bellekte sınırlı boyutlu kayan pencerelerde (son 1 saat / son 24 saat) sayılır;
+ * her aramayı tabloya yazmak yerine periyodik olarak anlık görüntü alınır.
+ */
+public interface PopularSearchService {
+
+    /**
+     * Yapılan aramayı sayaca ekler.
+     */
+    void recordSearch(String term);
+
+    /**
+     * Penceredeki en popüler terimleri döner.
+     * @param window HOUR veya DAY
+     */
+    List<String> getPopularTerms(String window, int limit);
+
+    /**
+     * Sayaçların anlık görüntüsünü veritabanına yazar (zamanlanmış görev).
+     */
+    void snapshot();
+}
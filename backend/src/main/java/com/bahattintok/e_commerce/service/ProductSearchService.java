@@ -2,6 +2,9 @@ package com.bahattintok.e_commerce.service;
 
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
 import com.bahattintok.e_commerce.model.Product;
 
 /**
@@ -30,6 +33,13 @@ public interface ProductSearchService {
      */
     List<Product> searchProducts(String keyword);
     
+    /**
+     * Vitrindeki ürünlerde veritabanı araması yapar (Elasticsearch gerektirmez).
+     * search.sql.mode=fulltext ise PostgreSQL tam metin + trigram araması (ts_rank sıralı),
+     * like ise isim/açıklama LIKE araması kullanılır.
+     */
+    Page<Product> searchPublishedProducts(String keyword, Pageable pageable);
+    
     /**
      * Kategoriye göre arama yapar.
      */
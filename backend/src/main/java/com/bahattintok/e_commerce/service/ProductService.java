@@ -6,6 +6,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import com.bahattintok.e_commerce.dto.ProductRequest;
+import com.bahattintok.e_commerce.dto.ProductView;
 import com.bahattintok.e_commerce.model.Product;
 
 /**
@@ -60,6 +61,13 @@ public interface ProductService {
      * İsme göre arama yapar (sayfalı).
      */
     Page<Product> searchProducts(String keyword, Pageable pageable);
+    
+    /**
+     * Vitrindeki (AKTİF ve onaylı satıcıya ait) ürünleri verilen filtrelerle tek sorguda getirir.
+     * Null/boş filtreler yok sayılır.
+     */
+    Page<Product> findPublishedProducts(String categoryId, String storeId, Double minPrice, Double maxPrice,
+                                        String keyword, Pageable pageable);
     /**
      * Mağaza adına göre ürünleri sayfalı getirir.
      */
@@ -90,6 +98,26 @@ public interface ProductService {
      */
     Page<Product> getDiscountedProducts(Pageable pageable);
     
+    /**
+     * Ürün sayfasını okuma modeline çevirir (tek JOIN sorgusu, sıra korunur).
+     */
+    Page<ProductView> toViews(Page<Product> products);
+    
+    /**
+     * Ürün listesini okuma modeline çevirir (tek JOIN sorgusu, sıra korunur).
+     */
+    List<ProductView> toViews(List<Product> products);
+    
+    /**
+     * ID'lere göre okuma modellerini verilen sırayla getirir; bulunamayan ID'ler atlanır.
+     */
+    List<ProductView> getProductViews(List<String> productIds);
+    
+    /**
+     * ID'ye göre ürünün okuma modelini getirir.
+     */
+    ProductView getProductView(String id);
+    
     /**
      * Bu interface şu işlevleri sağlar:
      * 
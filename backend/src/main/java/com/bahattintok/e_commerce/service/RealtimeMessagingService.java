@@ -0,0 +1,49 @@
+package com.bahattintok.e_commerce.service;
+
+import java.util.Locale;
+
+/**
+ * WebSocket (STOMP) üzerinden kullanıcıya veya bir role gerçek zamanlı mesaj gönderen servis.
+ * Role gönderim tek bir rol topic'ine yapılır (/topic/role/{rol}{hedef}); kullanıcılar tek tek dolaşılmaz.
+ * Coalesce anahtarı verilen mesajlar, istemci yavaşsa kuyrukta aynı anahtarlı eski mesajın yerine geçer.
+ */
+public interface RealtimeMessagingService {
+
+    /** Coalesce anahtarının taşındığı STOMP başlığı */
+    String COALESCE_KEY_HEADER = "coalesce-key";
+
+    /** Rol topic'lerinin öneki */
+    String ROLE_TOPIC_PREFIX = "/topic/role/";
+
+    /**
+     * Kullanıcının kişisel kuyruğuna (/user/queue/...) mesaj gönderir.
+     */
+    void sendToUser(String username, String destination, Object payload);
+
+    /**
+     * Kullanıcının kişisel kuyruğuna coalesce anahtarıyla mesaj gönderir.
+     */
+    void sendToUser(String username, String destination, Object payload, String coalesceKey);
+
+    /**
+     * Rol topic'ine (ör. ADMIN, "/notifications" → /topic/role/admin/notifications) mesaj gönderir.
+     */
+    void sendToRole(String role, String destination, Object payload);
+
+    /**
+     * Rol topic'ine coalesce anahtarıyla mesaj gönderir.
+     */
+    void sendToRole(String role, String destination, Object payload, String coalesceKey);
+
+    /**
+     * Tüm abonelere açık bir topic'e (ör. /topic/notifications/broadcast) mesaj gönderir.
+     */
+    void sendToTopic(String topic, Object payload);
+
+    /**
+     * Rolün verilen hedef için topic adını döner.
+     */
+    static String roleTopic(String role, String destination) {
+        return ROLE_TOPIC_PREFIX + role.toLowerCase(Locale.ROOT) + destination;
+    }
+}
@@ -25,6 +25,7 @@ public class ReviewServiceImpl implements ReviewService {
     private final ReviewRepository reviewRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
+    private final SearchIndexOutboxService searchIndexOutboxService;
     
     @Override
     public List<Review> getProductReviews(String productId) {
@@ -58,6 +59,9 @@ public class ReviewServiceImpl implements ReviewService {
         Review existingReview = reviewRepository.findByUserIdAndProductId(user.getId(), productId)
             .orElse(null);
         
+        // Ortalama puan arama indexinde de tutulur
+        searchIndexOutboxService.enqueue(productId);
+        
         if (existingReview != null) {
             // Mevcut review'ı güncelle
             existingReview.setRating(rating);
@@ -84,6 +88,7 @@ public class ReviewServiceImpl implements ReviewService {
             .orElseThrow(() -> new RuntimeException("Review bulunamadı"));
         
         reviewRepository.delete(review);
+        searchIndexOutboxService.enqueue(productId);
     }
     
     @Override
@@ -0,0 +1,19 @@
+package com.bahattintok.e_commerce.service;
+
+import java.util.List;
+import java.util.Set;
+
+import com.bahattintok.e_commerce.model.ProductDocument;
+
+/**
+ * Arama indexine toplu yazma arayüzü.
+ * Outbox işçisi bu arayüz üzerinden çalışır; testlerde bellek içi bir uygulama kullanılabilir.
+ */
+public interface SearchIndexClient {
+
+    /**
+     * Belgeleri tek istekte indexler ve verilen ID'leri siler.
+     * Başarısız olan belge ID'lerini döner (hepsi başarılıysa boş küme).
+     */
+    Set<String> bulk(List<ProductDocument> upserts, List<String> deleteIds);
+}
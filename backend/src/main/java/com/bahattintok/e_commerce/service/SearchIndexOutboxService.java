@@ -0,0 +1,47 @@
+package com.bahattintok.e_commerce.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Ürün değişikliklerini Elasticsearch'e outbox üzerinden, toplu ve asenkron aktaran servis.
+ */
+public interface SearchIndexOutboxService {
+
+    /**
+     * Ürünün yeniden indexlenmesi (veya silinmesi) için outbox kaydı ekler.
+     * Çağıranın transaction'ına katılır; ürün değişikliği geri alınırsa kayıt da geri alınır.
+     */
+    void enqueue(String productId);
+
+    /**
+     * Toplu ürün güncellemelerinden (ör. kampanya başlangıcı) sonra etkilenen ürünleri kuyruğa ekler.
+     */
+    void enqueueAll(Collection<String> productIds);
+
+    /**
+     * Hazır kayıtlardan bir parti işler ve işlenen kayıt sayısını döner.
+     */
+    int drainBatch();
+
+    /**
+     * Boşaltmayı tüm düğümlerde durdurur; herhangi bir düğümde devam eden parti varsa bitmesini bekler.
+     * Ürün indexi yeniden kurulurken kullanılır, bu sırada gelen değişiklikler kuyrukta birikir.
+     */
+    void pause();
+
+    /**
+     * Bu düğümün durdurduğu boşaltmayı tüm düğümlerde sürdürür.
+     */
+    void resume();
+
+    /**
+     * Deneme hakkı biten kayıtları yeniden kuyruğa alır.
+     */
+    int requeueExhausted();
+
+    /**
+     * Kuyruk gecikmesi ve hata metriklerini döner.
+     */
+    Map<String, Object> getStats();
+}
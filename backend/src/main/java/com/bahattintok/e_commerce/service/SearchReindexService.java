@@ -0,0 +1,34 @@
+package com.bahattintok.e_commerce.service;
+
+import java.util.Collection;
+
+import com.bahattintok.e_commerce.dto.ReindexProgress;
+
+/**
+ * Elasticsearch indexlerini kesintisiz yeniden kuran servis.
+ * Veriler yeni sürümlü bir indexe parça parça yazılır, bitince alias atomik olarak yeni indexe çevrilir;
+ * arama eski index üzerinden kesintisiz devam eder.
+ */
+public interface SearchReindexService {
+
+    String TYPE_PRODUCTS = "products";
+    String TYPE_CATEGORIES = "categories";
+    String TYPE_STORES = "stores";
+    String TYPE_USERS = "users";
+
+    /**
+     * Verilen tür için reindex'i arka planda başlatır ("all" tüm türler).
+     * Aynı tür için çalışan iş varsa yenisi başlatılmaz.
+     */
+    void startReindex(String type);
+
+    /**
+     * Verilen tür için reindex'i çalıştırır ve bitmesini bekler.
+     */
+    ReindexProgress reindex(String type);
+
+    /**
+     * Son reindex işlerinin ilerlemesini döner.
+     */
+    Collection<ReindexProgress> getProgress();
+}
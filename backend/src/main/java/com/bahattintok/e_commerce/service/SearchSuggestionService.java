@@ -46,4 +46,47 @@ public interface SearchSuggestionService {
      * @return Popüler arama terimleri listesi
      */
     List<String> getPopularSearchTerms(int limit);
-} 
\ No newline at end of file
+    
+    /**
+     * Belirli penceredeki popüler arama terimlerini getirir.
+     * @param window HOUR (son 1 saat) veya DAY (son 24 saat)
+     * @param limit Öneri sayısı
+     * @return Popüler arama terimleri listesi
+     */
+    List<String> getPopularSearchTerms(String window, int limit);
+    
+    /**
+     * Ürünü öneri indeksine ekler veya günceller.
+     */
+    void indexProduct(String id, String name);
+    
+    /**
+     * Kategoriyi öneri indeksine ekler veya günceller.
+     */
+    void indexCategory(String id, String name);
+    
+    /**
+     * Mağazayı öneri indeksine ekler veya günceller.
+     */
+    void indexStore(String id, String name);
+    
+    /**
+     * Ürünü öneri indeksinden çıkarır.
+     */
+    void removeProduct(String id);
+    
+    /**
+     * Kategoriyi öneri indeksinden çıkarır.
+     */
+    void removeCategory(String id);
+    
+    /**
+     * Mağazayı öneri indeksinden çıkarır.
+     */
+    void removeStore(String id);
+    
+    /**
+     * Öneri indeksini veritabanından yeniden oluşturur.
+     */
+    void rebuildIndex();
+}
@@ -0,0 +1,40 @@
+package com.bahattintok.e_commerce.service;
+
+import java.util.Map;
+
+/**
+ * Atomik stok düşme ve süreli stok rezervasyonu servisi.
+ * Stok, "stock >= adet" koşullu tek UPDATE ile düşülür; çok ürünlü işlemlerde
+ * ürünler ID sırasına göre kilitlenir ve herhangi biri yetersizse tamamı geri alınır.
+ */
+public interface StockReservationService {
+
+    /**
+     * Tüm ürünlerin stoğunu ya hep ya hiç mantığıyla düşer (çağıranın transaction'ına katılır).
+     * Stok yetersizse RuntimeException fırlatır.
+     */
+    void decrementAll(Map<String, Integer> quantities);
+
+    /**
+     * Stoğu düşer ve süreli rezervasyon oluşturur; rezervasyon anahtarını döner.
+     */
+    String reserve(Map<String, Integer> quantities);
+
+    /**
+     * Rezervasyonu kalıcı hale getirir (sipariş oluşturuldu).
+     * Rezervasyonun bir kısmı süresi dolduğu için serbest bırakılmışsa veya anahtarın hiç satırı kalmamışsa false döner;
+     * bu durumda kalan satırlar da iade edilir, stok kısmen kalıcı hale gelmez.
+     */
+    boolean commit(String reservationKey);
+
+    /**
+     * Rezervasyonu serbest bırakır ve stoğu geri ekler.
+     */
+    void release(String reservationKey);
+
+    /**
+     * Süresi dolmuş rezervasyonları serbest bırakır ve saklama süresi dolan onaylanmış/iade edilmiş
+     * rezervasyonları siler (zamanlanmış görev).
+     */
+    void releaseExpired();
+}
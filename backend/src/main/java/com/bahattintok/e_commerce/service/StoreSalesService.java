@@ -0,0 +1,45 @@
+package com.bahattintok.e_commerce.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.bahattintok.e_commerce.model.Order;
+import com.bahattintok.e_commerce.model.StoreDailySales;
+import com.bahattintok.e_commerce.model.StoreProductSales;
+
+/**
+ * Mağaza bazlı satış özetlerini artımlı olarak tutan servis.
+ * Satıcı paneli istatistikleri bu servisten okunur.
+ */
+public interface StoreSalesService {
+
+    /**
+     * Siparişteki her mağazanın satışlarını özete ekler
+     */
+    void recordOrderPlaced(Order order);
+
+    /**
+     * Silinen siparişi mağaza özetlerinden çıkarır
+     */
+    void recordOrderRemoved(Order order);
+
+    /**
+     * Mağazanın tarih aralığındaki günlük satışları
+     */
+    List<StoreDailySales> getDailySales(String storeId, LocalDate start, LocalDate end);
+
+    /**
+     * Mağazanın toplam sipariş adedi, satılan ürün adedi ve geliri: [orderCount, itemsSold, revenue]
+     */
+    Object[] getTotals(String storeId);
+
+    /**
+     * Mağazanın en çok satan ürünleri
+     */
+    List<StoreProductSales> getTopProducts(String storeId, int limit);
+
+    /**
+     * Mağazanın kategori bazlı satış adetleri: [kategoriAdı, adet]
+     */
+    List<Object[]> getCategorySales(String storeId);
+}
@@ -0,0 +1,134 @@
+package com.bahattintok.e_commerce.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bahattintok.e_commerce.dto.NotificationFeedItem;
+import com.bahattintok.e_commerce.model.BroadcastNotification;
+import com.bahattintok.e_commerce.model.User;
+import com.bahattintok.e_commerce.repository.BroadcastNotificationRepository;
+import com.bahattintok.e_commerce.repository.NotificationReadMarkRepository;
+import com.bahattintok.e_commerce.service.BroadcastNotificationService;
+import com.bahattintok.e_commerce.service.ClusterBusService;
+import com.bahattintok.e_commerce.service.NotificationCounterService;
+import com.bahattintok.e_commerce.service.RealtimeMessagingService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class BroadcastNotificationServiceImpl implements BroadcastNotificationService {
+
+    private static final String CLUSTER_TOPIC = "broadcast-notifications";
+
+    private final BroadcastNotificationRepository broadcastNotificationRepository;
+    private final NotificationReadMarkRepository notificationReadMarkRepository;
+    private final NotificationCounterService notificationCounterService;
+    private final RealtimeMessagingService realtimeMessagingService;
+    private final ClusterBusService clusterBusService;
+
+    /** Saklanan toplu bildirimlerin ID'leri; ilk kullanımda yüklenir, başka düğümde değişince yeniden yüklenir */
+    private volatile NavigableSet<Long> ids;
+
+    public BroadcastNotificationServiceImpl(BroadcastNotificationRepository broadcastNotificationRepository,
+                                            NotificationReadMarkRepository notificationReadMarkRepository,
+                                            NotificationCounterService notificationCounterService,
+                                            RealtimeMessagingService realtimeMessagingService,
+                                            ClusterBusService clusterBusService) {
+        this.broadcastNotificationRepository = broadcastNotificationRepository;
+        this.notificationReadMarkRepository = notificationReadMarkRepository;
+        this.notificationCounterService = notificationCounterService;
+        this.realtimeMessagingService = realtimeMessagingService;
+        this.clusterBusService = clusterBusService;
+        clusterBusService.subscribe(CLUSTER_TOPIC, message -> ids = null);
+        clusterBusService.onResync(() -> ids = null);
+    }
+
+    @Override
+    @Transactional
+    public BroadcastNotification broadcast(String title, String message, String type) {
+        BroadcastNotification notification = new BroadcastNotification();
+        notification.setTitle(title);
+        notification.setMessage(message);
+        notification.setType(type);
+        notification.setCreatedAt(LocalDateTime.now());
+        BroadcastNotification saved = broadcastNotificationRepository.save(notification);
+
+        NotificationFeedItem item = new NotificationFeedItem(NotificationFeedItem.SOURCE_BROADCAST, saved.getId(),
+                saved.getTitle(), saved.getMessage(), saved.getType(), false, saved.getCreatedAt(), null, null);
+        afterCommit(() -> {
+            ids().add(saved.getId());
+            clusterBusService.publish(CLUSTER_TOPIC, "changed");
+            // Kullanıcı sayısı kadar mesaj değil, tek topic mesajı; istemci okunmamış sayısını kendisi artırır
+            realtimeMessagingService.sendToTopic(TOPIC, item);
+        });
+        return saved;
+    }
+
+    @Override
+    public long countUnread(long readUpTo) {
+        return ids().tailSet(readUpTo, false).size();
+    }
+
+    @Override
+    @Transactional
+    public void markAsRead(User user, long broadcastId) {
+        notificationReadMarkRepository.advance(user.getId(), broadcastId);
+        notificationCounterService.recordReadMark(user.getId(), user.getEmail(), broadcastId);
+    }
+
+    @Override
+    @Transactional
+    public void markAllAsRead(User user) {
+        NavigableSet<Long> current = ids();
+        if (!current.isEmpty()) {
+            markAsRead(user, current.last());
+        }
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpired(LocalDateTime cutoff) {
+        int deleted = broadcastNotificationRepository.deleteCreatedBefore(cutoff);
+        if (deleted > 0) {
+            afterCommit(() -> {
+                ids = null;
+                clusterBusService.publish(CLUSTER_TOPIC, "changed");
+            });
+        }
+        return deleted;
+    }
+
+    private NavigableSet<Long> ids() {
+        NavigableSet<Long> current = ids;
+        if (current == null) {
+            synchronized (this) {
+                current = ids;
+                if (current == null) {
+                    current = new ConcurrentSkipListSet<>(broadcastNotificationRepository.findAllIds());
+                    ids = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
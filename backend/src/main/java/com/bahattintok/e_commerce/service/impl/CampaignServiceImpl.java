@@ -0,0 +1,180 @@
+package com.bahattintok.e_commerce.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bahattintok.e_commerce.model.Campaign;
+import com.bahattintok.e_commerce.repository.CampaignRepository;
+import com.bahattintok.e_commerce.service.CampaignService;
+import com.bahattintok.e_commerce.service.SearchIndexOutboxService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class CampaignServiceImpl implements CampaignService {
+
+    /**
+     * Kampanya indirimini hedef ürünlere tek UPDATE ile uygular. Sabit tutar indirimi ürün fiyatına
+     * göre yüzdeye çevrilir (0-100 arasına sıkıştırılır); etkin fiyat aynı ifadede yazılır.
+     */
+    private static final String APPLY_SQL =
+            "UPDATE products p SET " +
+            "  discount_percentage = d.pct, " +
+            "  discounted_price = CASE WHEN d.pct > 0 THEN ROUND(p.price * (100 - d.pct) / 100, 2) END, " +
+            "  effective_price = CASE WHEN d.pct > 0 THEN ROUND(p.price * (100 - d.pct) / 100, 2) ELSE p.price END, " +
+            "  discount_end_date = ?, " +
+            "  campaign_id = ? " +
+            "FROM (SELECT id, CAST(LEAST(100, GREATEST(0, CASE " +
+            "          WHEN ? = 'percentage' THEN TRUNC(CAST(? AS NUMERIC)) " +
+            "          WHEN price > 0 THEN TRUNC(ROUND(CAST(? AS NUMERIC) * 100 / price, 2)) " +
+            "          ELSE 0 END)) AS INTEGER) AS pct " +
+            "      FROM products WHERE store_id = ? AND %s = ?) d " +
+            "WHERE p.id = d.id " +
+            "RETURNING p.id";
+
+    private static final String CLEAR_SQL =
+            "UPDATE products SET discount_percentage = NULL, discounted_price = NULL, discount_end_date = NULL, " +
+            "effective_price = price, campaign_id = NULL ";
+
+    private final CampaignRepository campaignRepository;
+    private final SearchIndexOutboxService searchIndexOutboxService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public CampaignServiceImpl(CampaignRepository campaignRepository,
+                               SearchIndexOutboxService searchIndexOutboxService,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager) {
+        this.campaignRepository = campaignRepository;
+        this.searchIndexOutboxService = searchIndexOutboxService;
+        this.jdbcTemplate = jdbcTemplate;
+        // Her kampanya kendi transaction'ında işlenir; biri hata verirse diğerleri beklemez
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional
+    public Campaign save(Campaign campaign) {
+        if (campaign.getId() != null) {
+            release(campaign.getId());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (!campaign.getEndDate().isAfter(now)) {
+            campaign.setStatus(Campaign.STATUS_ENDED);
+        } else if (campaign.isActive() && !campaign.getStartDate().isAfter(now)) {
+            campaign.setStatus(Campaign.STATUS_RUNNING);
+        } else {
+            campaign.setStatus(Campaign.STATUS_SCHEDULED);
+        }
+        // Ürün UPDATE'i kampanya satırı yazıldıktan sonra aynı transaction'da çalışır
+        Campaign saved = campaignRepository.saveAndFlush(campaign);
+        if (Campaign.STATUS_RUNNING.equals(saved.getStatus())) {
+            apply(saved);
+        }
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public void delete(Campaign campaign) {
+        release(campaign.getId());
+        campaignRepository.delete(campaign);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${campaign.scheduler.interval-ms:15000}")
+    public int runDue() {
+        LocalDateTime now = LocalDateTime.now();
+        int changed = 0;
+
+        // Önce bitenler: aynı anda başlayan yeni kampanya aynı ürünlerde son sözü söyler
+        for (String campaignId : campaignRepository.findIdsDueToEnd(now)) {
+            changed += runSafely(campaignId, () -> end(campaignId));
+        }
+        changed += runSafely("expired-discounts", () -> expireDiscounts(now));
+        for (Campaign campaign : campaignRepository.findDueToStart(now)) {
+            changed += runSafely(campaign.getId(), () -> start(campaign));
+        }
+        transactionTemplate.executeWithoutResult(status -> campaignRepository.markExpiredUnstarted(now));
+
+        if (changed > 0) {
+            log.info("Kampanya zamanlayıcısı {} ürünün fiyatını güncelledi", changed);
+        }
+        return changed;
+    }
+
+    private int runSafely(String name, Supplier<Integer> work) {
+        try {
+            Integer changed = transactionTemplate.execute(status -> work.get());
+            return changed != null ? changed : 0;
+        } catch (Exception e) {
+            log.error("Kampanya işlenemedi: {} - {}", name, e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Kampanyayı başlatır. Durum geçişi koşullu UPDATE'tir; birden fazla düğüm aynı kampanyayı
+     * aynı anda işlerse sadece biri uygular.
+     */
+    private int start(Campaign campaign) {
+        int claimed = jdbcTemplate.update(
+                "UPDATE campaigns SET status = ? WHERE id = ? AND status = ?",
+                Campaign.STATUS_RUNNING, campaign.getId(), Campaign.STATUS_SCHEDULED);
+        return claimed == 1 ? apply(campaign) : 0;
+    }
+
+    private int end(String campaignId) {
+        int claimed = jdbcTemplate.update(
+                "UPDATE campaigns SET status = ? WHERE id = ? AND status = ?",
+                Campaign.STATUS_ENDED, campaignId, Campaign.STATUS_RUNNING);
+        return claimed == 1 ? release(campaignId) : 0;
+    }
+
+    private int apply(Campaign campaign) {
+        String targetColumn;
+        if ("category".equals(campaign.getCampaignType())) {
+            targetColumn = "category_id";
+        } else if ("product".equals(campaign.getCampaignType())) {
+            targetColumn = "id";
+        } else {
+            log.warn("Bilinmeyen kampanya tipi: {} ({})", campaign.getCampaignType(), campaign.getId());
+            return 0;
+        }
+        List<String> productIds = jdbcTemplate.queryForList(String.format(APPLY_SQL, targetColumn), String.class,
+                campaign.getEndDate(), campaign.getId(),
+                campaign.getDiscountType(), campaign.getDiscountValue(), campaign.getDiscountValue(),
+                campaign.getStore().getId(), campaign.getTargetId());
+        searchIndexOutboxService.enqueueAll(productIds);
+        return productIds.size();
+    }
+
+    /**
+     * Kampanyanın uyguladığı (ve başka bir kampanya ya da elle girilen indirimle ezilmemiş) indirimleri kaldırır.
+     */
+    private int release(String campaignId) {
+        List<String> productIds = jdbcTemplate.queryForList(
+                CLEAR_SQL + "WHERE campaign_id = ? RETURNING id", String.class, campaignId);
+        searchIndexOutboxService.enqueueAll(productIds);
+        return productIds.size();
+    }
+
+    /**
+     * Süresi dolan tüm indirimleri (elle girilenler dahil) kaldırır.
+     */
+    private int expireDiscounts(LocalDateTime now) {
+        List<String> productIds = jdbcTemplate.queryForList(
+                CLEAR_SQL + "WHERE discount_end_date <= ? RETURNING id", String.class, now);
+        searchIndexOutboxService.enqueueAll(productIds);
+        return productIds.size();
+    }
+}
@@ -1,106 +1,117 @@
 package com.bahattintok.e_commerce.service.impl;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import com.bahattintok.e_commerce.model.Cart;
-import com.bahattintok.e_commerce.model.CartItem;
+import com.bahattintok.e_commerce.dto.CartBatchRequest;
+import com.bahattintok.e_commerce.dto.ProductView;
 import com.bahattintok.e_commerce.model.Product;
 import com.bahattintok.e_commerce.model.User;
-import com.bahattintok.e_commerce.repository.CartItemRepository;
-import com.bahattintok.e_commerce.repository.CartRepository;
 import com.bahattintok.e_commerce.repository.ProductRepository;
 import com.bahattintok.e_commerce.service.CartService;
+import com.bahattintok.e_commerce.service.CartWriteBehindService;
+import com.bahattintok.e_commerce.service.ProductService;
 
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class CartServiceImpl implements CartService {
-    private final CartRepository cartRepository;
-    private final CartItemRepository cartItemRepository;
+    private final CartWriteBehindService cartWriteBehindService;
+    private final ProductService productService;
     private final ProductRepository productRepository;
 
     @Override
-    public Cart getOrCreateCart(User user) {
-        return cartRepository.findByUser(user).orElseGet(() -> {
-            Cart cart = new Cart();
-            cart.setUser(user);
-            return cartRepository.save(cart);
-        });
-    }
-
-    @Override
-    public List<CartItem> getCartItems(User user) {
-        Cart cart = getOrCreateCart(user);
-        return cart.getItems();
+    public List<Map<String, Object>> getCartItemViews(User user) {
+        Map<String, Integer> lines = cartWriteBehindService.getLines(user);
+        List<Map<String, Object>> items = new ArrayList<>(lines.size());
+        for (ProductView product : productService.getProductViews(new ArrayList<>(lines.keySet()))) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("id", product.getId());
+            item.put("quantity", lines.get(product.getId()));
+            item.put("product", product);
+            items.add(item);
+        }
+        return items;
     }
 
+    // Değişiklikler bellekte uygulanır, veritabanına CartWriteBehindService toplu yazar
     @Override
-    @Transactional
     public void addToCart(User user, String productId, int quantity) {
-        Cart cart = getOrCreateCart(user);
-        Optional<CartItem> existing = cart.getItems().stream()
-            .filter(item -> item.getProduct().getId().equals(productId)).findFirst();
-        if (existing.isPresent()) {
-            CartItem item = existing.get();
-            item.setQuantity(item.getQuantity() + quantity);
-            cartItemRepository.save(item);
-        } else {
-            Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-            CartItem newItem = new CartItem();
-            newItem.setCart(cart);
-            newItem.setProduct(product);
-            newItem.setQuantity(quantity);
-            cart.getItems().add(newItem);
-            cartItemRepository.save(newItem);
-        }
-        cartRepository.save(cart);
+        cartWriteBehindService.addLine(user, productId, quantity);
     }
 
     @Override
-    @Transactional
     public void removeFromCart(User user, String productId) {
-        Cart cart = getOrCreateCart(user);
-        cart.getItems().removeIf(item -> item.getProduct().getId().equals(productId));
-        cartRepository.save(cart);
-        // Ayrıca CartItem'ı sil
-        cartItemRepository.deleteAll(
-            cartItemRepository.findAll().stream()
-                .filter(item -> item.getCart().getId().equals(cart.getId()) && item.getProduct().getId().equals(productId))
-                .toList()
-        );
+        cartWriteBehindService.removeLine(user, productId);
     }
 
     @Override
-    @Transactional
     public void updateCartItemQuantity(User user, String productId, int quantity) {
-        Cart cart = getOrCreateCart(user);
-        for (CartItem item : cart.getItems()) {
-            if (item.getProduct().getId().equals(productId)) {
-                if (quantity <= 0) {
-                    cartItemRepository.delete(item);
-                } else {
-                    item.setQuantity(quantity);
-                    cartItemRepository.save(item);
-                }
-                break;
-            }
-        }
-        cartRepository.save(cart);
+        cartWriteBehindService.setQuantity(user, productId, quantity);
     }
 
     @Override
-    @Transactional
     public void clearCart(User user) {
-        Cart cart = getOrCreateCart(user);
-        cartItemRepository.deleteAll(cart.getItems());
-        cart.getItems().clear();
-        cartRepository.save(cart);
+        cartWriteBehindService.clear(user);
+    }
+
+    @Override
+    public List<Map<String, Object>> applyBatch(User user, List<CartBatchRequest.Operation> operations) {
+        Set<String> productIds = new LinkedHashSet<>();
+        for (CartBatchRequest.Operation operation : operations) {
+            productIds.add(operation.getProductId());
+        }
+        // Ürünler ve stokları tek sorguda
+        Map<String, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(productIds)) {
+            products.put(product.getId(), product);
+        }
+
+        cartWriteBehindService.modify(user, lines -> {
+            for (CartBatchRequest.Operation operation : operations) {
+                String productId = operation.getProductId();
+                int quantity = operation.getQuantity() != null ? operation.getQuantity() : 0;
+                switch (operation.getAction()) {
+                    case "ADD" -> {
+                        if (quantity <= 0) {
+                            throw new RuntimeException("Geçersiz ürün adedi: " + productId);
+                        }
+                        lines.merge(productId, quantity, Integer::sum);
+                    }
+                    case "UPDATE" -> {
+                        if (quantity <= 0) {
+                            lines.remove(productId);
+                        } else {
+                            lines.put(productId, quantity);
+                        }
+                    }
+                    case "REMOVE" -> lines.remove(productId);
+                    default -> throw new RuntimeException("Geçersiz sepet işlemi: " + operation.getAction());
+                }
+            }
+            // Stok, işlemlerden etkilenen satırların son miktarına göre kontrol edilir
+            for (String productId : productIds) {
+                Integer quantity = lines.get(productId);
+                if (quantity == null) {
+                    continue;
+                }
+                Product product = products.get(productId);
+                if (product == null) {
+                    throw new RuntimeException("Ürün bulunamadı: " + productId);
+                }
+                if (product.getStock() == null || product.getStock() < quantity) {
+                    throw new RuntimeException(product.getName() + " için stok yetersiz!");
+                }
+            }
+        });
+        return getCartItemViews(user);
     }
     
     /**
@@ -112,7 +123,7 @@ public class CartServiceImpl implements CartService {
      * 4. Miktar Güncelleme: Sepetteki ürün miktarını değiştirme
      * 5. Sepet Temizleme: Tüm sepet içeriğini silme
      * 6. Otomatik Sepet Oluşturma: Kullanıcı için otomatik sepet oluşturma
-     * 7. Transaction Yönetimi: Veritabanı işlemlerinin atomik yapılması
+     * 7. Geriden Yazma: Değişikliklerin veritabanına partiler halinde yazılması
      * 
      * Bu servis sayesinde kullanıcı sepetleri güvenli ve tutarlı şekilde yönetilebilir!
      */
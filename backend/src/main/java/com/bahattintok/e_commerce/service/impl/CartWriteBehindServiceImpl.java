@@ -0,0 +1,614 @@
+package com.bahattintok.e_commerce.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bahattintok.e_commerce.model.User;
+import com.bahattintok.e_commerce.repository.ProductRepository;
+import com.bahattintok.e_commerce.service.CartWriteBehindService;
+import com.bahattintok.e_commerce.service.ClusterBusService;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class CartWriteBehindServiceImpl implements CartWriteBehindService {
+
+    private static final String CLUSTER_TOPIC = "cart";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ClusterBusService clusterBusService;
+
+    @Value("${cart.write-behind.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${cart.write-behind.batch-size:200}")
+    private int batchSize;
+
+    @Value("${cart.write-behind.max-attempts:5}")
+    private int maxAttempts;
+
+    private final ConcurrentHashMap<String, CartEntry> entries = new ConcurrentHashMap<>();
+
+    /** Zamanlanmış yazım, taşma sırasında yapılan yazım ve kapanış yazımı aynı anda çalışmasın */
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+
+    private final AtomicLong loadsTotal = new AtomicLong();
+    private final AtomicLong writtenTotal = new AtomicLong();
+    private final AtomicLong batchesTotal = new AtomicLong();
+    private final AtomicLong conflictsTotal = new AtomicLong();
+    private final AtomicLong failedTotal = new AtomicLong();
+    private final AtomicLong evictedTotal = new AtomicLong();
+    private volatile long lastFlushMs;
+    private volatile LocalDateTime lastFlushAt;
+
+    public CartWriteBehindServiceImpl(JdbcTemplate jdbcTemplate, ProductRepository productRepository,
+                                      TransactionTemplate transactionTemplate, ClusterBusService clusterBusService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.clusterBusService = clusterBusService;
+        clusterBusService.subscribe(CLUSTER_TOPIC, this::applyRemote);
+        // Düğüm mesaj kaçırmış olabilir; temiz sepetler bırakılır, kirliler yazımda sürüm kontrolüyle birleştirilir
+        clusterBusService.onResync(() -> entries.values().forEach(this::dropIfClean));
+    }
+
+    /**
+     * Kullanıcının bellekteki sepeti. Alanlar sadece entry kilidi altında okunur/yazılır.
+     * version her değişiklikte artar; flushedVersion veritabanına yazılmış son sürümdür.
+     * baseLines dbVersion anındaki veritabanı satırlarıdır; sürüm çakışmasında bellekteki değişiklikler
+     * bunlara göre hesaplanıp güncel satırların üzerine uygulanır.
+     */
+    private static final class CartEntry {
+        final String userId;
+        Long cartId;
+        /** carts.version sütununun son görülen değeri */
+        long dbVersion;
+        Map<String, Integer> baseLines = Map.of();
+        final LinkedHashMap<String, Integer> lines = new LinkedHashMap<>();
+        long version;
+        long flushedVersion;
+        int failedAttempts;
+        boolean removed;
+        volatile long lastAccess = System.nanoTime();
+
+        CartEntry(String userId) {
+            this.userId = userId;
+        }
+
+        boolean isDirty() {
+            return version != flushedVersion;
+        }
+    }
+
+    /**
+     * Yazım anındaki sepet kopyası; yazım sürerken sepet değişmeye devam edebilir.
+     */
+    private record Snapshot(CartEntry entry, Long cartId, long dbVersion, Map<String, Integer> lines, long version) {
+    }
+
+    @Override
+    public Map<String, Integer> getLines(User user) {
+        return read(user.getId(), entry -> new LinkedHashMap<>(entry.lines));
+    }
+
+    @Override
+    public void addLine(User user, String productId, int quantity) {
+        if (!read(user.getId(), entry -> entry.lines.containsKey(productId))
+                && !productRepository.existsById(productId)) {
+            throw new RuntimeException("Product not found");
+        }
+        mutate(user.getId(), entry -> {
+            entry.lines.merge(productId, quantity, Integer::sum);
+            return true;
+        });
+    }
+
+    @Override
+    public void setQuantity(User user, String productId, int quantity) {
+        mutate(user.getId(), entry -> {
+            if (!entry.lines.containsKey(productId)) {
+                return false;
+            }
+            if (quantity <= 0) {
+                entry.lines.remove(productId);
+            } else {
+                entry.lines.put(productId, quantity);
+            }
+            return true;
+        });
+    }
+
+    @Override
+    public void removeLine(User user, String productId) {
+        mutate(user.getId(), entry -> entry.lines.remove(productId) != null);
+    }
+
+    @Override
+    public Map<String, Integer> modify(User user, Consumer<Map<String, Integer>> change) {
+        return read(user.getId(), entry -> {
+            LinkedHashMap<String, Integer> lines = new LinkedHashMap<>(entry.lines);
+            change.accept(lines);
+            if (!lines.equals(entry.lines)) {
+                entry.lines.clear();
+                entry.lines.putAll(lines);
+                entry.version++;
+            }
+            return new LinkedHashMap<>(lines);
+        });
+    }
+
+    @Override
+    public void clear(User user) {
+        String userId = user.getId();
+        Runnable action = () -> mutate(userId, entry -> {
+            if (entry.lines.isEmpty()) {
+                return false;
+            }
+            entry.lines.clear();
+            return true;
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    @Override
+    public void invalidate(String userId) {
+        discard(userId);
+        clusterBusService.publish(CLUSTER_TOPIC, "invalidate:" + userId);
+    }
+
+    private void discard(String userId) {
+        CartEntry entry = entries.get(userId);
+        if (entry != null) {
+            synchronized (entry) {
+                entry.removed = true;
+                entries.remove(userId, entry);
+            }
+        }
+    }
+
+    /**
+     * Diğer düğümden gelen mesaj; tekrar yayınlanmaz. "changed" sepetin başka düğümde yazıldığını bildirir:
+     * temiz kopya bırakılır, kirli kopya ise yazımda sürüm çakışması olarak birleştirilir.
+     */
+    private void applyRemote(String message) {
+        if (message.startsWith("invalidate:")) {
+            discard(message.substring("invalidate:".length()));
+        } else if (message.startsWith("changed:")) {
+            CartEntry entry = entries.get(message.substring("changed:".length()));
+            if (entry != null) {
+                dropIfClean(entry);
+            }
+        }
+    }
+
+    private void dropIfClean(CartEntry entry) {
+        synchronized (entry) {
+            if (!entry.removed && !entry.isDirty()) {
+                entry.removed = true;
+                entries.remove(entry.userId, entry);
+            }
+        }
+    }
+
+    private <T> T read(String userId, Function<CartEntry, T> action) {
+        while (true) {
+            CartEntry entry = entryFor(userId);
+            synchronized (entry) {
+                if (entry.removed) {
+                    // Tam bu sırada bellekten atıldı, yeniden yükle
+                    continue;
+                }
+                entry.lastAccess = System.nanoTime();
+                return action.apply(entry);
+            }
+        }
+    }
+
+    /**
+     * Değişikliği sadece bellekte uygular; action true dönerse sepet kirli işaretlenir.
+     */
+    private void mutate(String userId, Function<CartEntry, Boolean> action) {
+        read(userId, entry -> {
+            if (action.apply(entry)) {
+                entry.version++;
+            }
+            return null;
+        });
+    }
+
+    private CartEntry entryFor(String userId) {
+        CartEntry entry = entries.get(userId);
+        if (entry != null) {
+            return entry;
+        }
+        CartEntry loaded = load(userId);
+        entry = entries.putIfAbsent(userId, loaded);
+        if (entry != null) {
+            return entry;
+        }
+        loadsTotal.incrementAndGet();
+        if (entries.size() > maxEntries) {
+            evictIdle();
+        }
+        return loaded;
+    }
+
+    /**
+     * Sepeti ve satırlarını tek sorguda yükler; sepeti olmayan kullanıcı için boş kayıt döner
+     * (veritabanındaki sepet ilk yazımda oluşturulur).
+     */
+    private CartEntry load(String userId) {
+        CartEntry entry = new CartEntry(userId);
+        jdbcTemplate.query(
+                "SELECT c.id, c.version, ci.product_id, ci.quantity FROM carts c " +
+                "LEFT JOIN cart_items ci ON ci.cart_id = c.id WHERE c.user_id = ? ORDER BY ci.id",
+                rs -> {
+                    entry.cartId = rs.getLong(1);
+                    entry.dbVersion = rs.getLong(2);
+                    String productId = rs.getString(3);
+                    if (productId != null) {
+                        entry.lines.merge(productId, rs.getInt(4), Integer::sum);
+                    }
+                },
+                userId);
+        entry.baseLines = new LinkedHashMap<>(entry.lines);
+        return entry;
+    }
+
+    /**
+     * En uzun süredir dokunulmayan temiz sepetleri bellekten atar (%10 boşluk bırakır).
+     * İstek thread'inde de çağrıldığı için yazım yapmaz: kirli sepetler zamanlanmış yazımdan sonra atılır,
+     * o zamana kadar sınır geçici olarak aşılabilir.
+     */
+    private void evictIdle() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (entries.size() > maxEntries) {
+                Map<CartEntry, Long> accessed = new HashMap<>();
+                for (CartEntry entry : entries.values()) {
+                    accessed.put(entry, entry.lastAccess);
+                }
+                List<CartEntry> candidates = new ArrayList<>(accessed.keySet());
+                candidates.sort(Comparator.comparingLong(accessed::get));
+
+                int toEvict = entries.size() - maxEntries * 9 / 10;
+                for (CartEntry entry : candidates) {
+                    if (toEvict <= 0) {
+                        break;
+                    }
+                    synchronized (entry) {
+                        if (entry.removed || entry.isDirty()) {
+                            continue;
+                        }
+                        entry.removed = true;
+                        entries.remove(entry.userId, entry);
+                    }
+                    toEvict--;
+                    evictedTotal.incrementAndGet();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cart.write-behind.flush-interval-ms:2000}",
+               initialDelayString = "${cart.write-behind.flush-interval-ms:2000}")
+    public void flushPending() {
+        try {
+            flushDirty();
+            if (entries.size() > maxEntries) {
+                evictIdle();
+            }
+        } catch (Exception e) {
+            log.error("Sepetler veritabanına yazılırken hata oluştu", e);
+        }
+    }
+
+    /**
+     * Kapanışta bekleyen tüm sepetleri yazar. Web sunucusu istek almayı bıraktıktan sonra çalışır.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        int written = flushDirty();
+        long pending = entries.values().stream().filter(this::isDirty).count();
+        if (pending > 0) {
+            log.warn("Kapanışta {} sepet yazılamadı", pending);
+        } else {
+            log.info("Kapanışta {} sepet yazıldı", written);
+        }
+    }
+
+    @Override
+    public int flushDirty() {
+        flushLock.lock();
+        try {
+            long started = System.currentTimeMillis();
+            List<Snapshot> pending = new ArrayList<>();
+            for (CartEntry entry : entries.values()) {
+                synchronized (entry) {
+                    if (!entry.removed && entry.isDirty()) {
+                        pending.add(new Snapshot(entry, entry.cartId, entry.dbVersion,
+                                new LinkedHashMap<>(entry.lines), entry.version));
+                    }
+                }
+            }
+            int written = 0;
+            for (int from = 0; from < pending.size(); from += batchSize) {
+                written += writeBatch(pending.subList(from, Math.min(from + batchSize, pending.size())));
+            }
+            lastFlushAt = LocalDateTime.now();
+            lastFlushMs = System.currentTimeMillis() - started;
+            return written;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Partiyi tek transaction'da yazar; parti başarısız olursa sepetler tek tek denenir,
+     * böylece hatalı bir sepet diğerlerinin yazılmasını engellemez.
+     */
+    private int writeBatch(List<Snapshot> batch) {
+        Map<Snapshot, long[]> written;
+        try {
+            written = transactionTemplate.execute(status -> write(batch));
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                markFailed(batch.get(0), e);
+                return 0;
+            }
+            log.warn("Sepet partisi yazılamadı, sepetler tek tek deneniyor: {}", e.getMessage());
+            int count = 0;
+            for (Snapshot snapshot : batch) {
+                count += writeBatch(List.of(snapshot));
+            }
+            return count;
+        }
+        batchesTotal.incrementAndGet();
+
+        for (Snapshot snapshot : batch) {
+            CartEntry entry = snapshot.entry();
+            long[] cart = written.get(snapshot);
+            if (cart == null) {
+                merge(entry);
+                continue;
+            }
+            synchronized (entry) {
+                entry.cartId = cart[0];
+                entry.dbVersion = cart[1];
+                entry.baseLines = snapshot.lines();
+                entry.flushedVersion = Math.max(entry.flushedVersion, snapshot.version());
+                entry.failedAttempts = 0;
+            }
+            clusterBusService.publish(CLUSTER_TOPIC, "changed:" + entry.userId);
+        }
+        int count = written.size();
+        writtenTotal.addAndGet(count);
+        return count;
+    }
+
+    /**
+     * Sepet başka yerden (başka düğüm, başka sekme) yazılmış: güncel satırlar okunur ve bellekteki
+     * yazılmamış değişiklikler (baseLines'a göre fark) bunların üzerine uygulanır. Sepet kirli kalır,
+     * sonraki yazımda yeni sürümle yazılır; hiçbir ekleme/silme kaybolmaz.
+     */
+    private void merge(CartEntry entry) {
+        CartEntry fresh = load(entry.userId);
+        conflictsTotal.incrementAndGet();
+        synchronized (entry) {
+            if (entry.removed) {
+                return;
+            }
+            LinkedHashMap<String, Integer> merged = new LinkedHashMap<>(fresh.lines);
+            for (Map.Entry<String, Integer> base : entry.baseLines.entrySet()) {
+                if (!entry.lines.containsKey(base.getKey())) {
+                    merged.remove(base.getKey());
+                }
+            }
+            for (Map.Entry<String, Integer> line : entry.lines.entrySet()) {
+                Integer base = entry.baseLines.get(line.getKey());
+                Integer current = merged.get(line.getKey());
+                if (base != null && base.equals(line.getValue())) {
+                    continue;
+                }
+                if (base != null && current != null) {
+                    // İki taraf da aynı satırı değiştirmiş: bu düğümün farkı güncel miktara eklenir
+                    int quantity = current + line.getValue() - base;
+                    if (quantity > 0) {
+                        merged.put(line.getKey(), quantity);
+                    } else {
+                        merged.remove(line.getKey());
+                    }
+                } else {
+                    merged.merge(line.getKey(), line.getValue(), Integer::sum);
+                }
+            }
+            entry.cartId = fresh.cartId;
+            entry.dbVersion = fresh.dbVersion;
+            entry.baseLines = fresh.baseLines;
+            entry.lines.clear();
+            entry.lines.putAll(merged);
+            entry.version++;
+        }
+        log.info("Sepet sürüm çakışması, bellekteki değişiklikler güncel sepetle birleştirildi (kullanıcı {})", entry.userId);
+    }
+
+    /**
+     * Sepet sürümlerini koşullu artırır ve satırları farklarıyla toplu yazar.
+     * Yazılan sepetlerin ID'sini ve yeni sürümünü döner; sürümü tutmayan sepetler sonuçta yer almaz.
+     */
+    private Map<Snapshot, long[]> write(List<Snapshot> batch) {
+        List<Snapshot> resolved = new ArrayList<>(batch.size());
+        Map<Snapshot, Long> cartIds = new HashMap<>();
+        Map<Snapshot, Long> versions = new HashMap<>();
+
+        // İlk kez yazılan sepetler oluşturulur (başka bir düğüm oluşturduysa mevcut kayıt kullanılır)
+        List<Snapshot> fresh = batch.stream().filter(s -> s.cartId() == null).toList();
+        if (!fresh.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO carts (user_id, version) VALUES (?, 0) ON CONFLICT (user_id) DO NOTHING",
+                    fresh.stream().map(s -> new Object[] { s.entry().userId }).toList());
+            Map<String, long[]> existing = new HashMap<>();
+            jdbcTemplate.query("SELECT user_id, id, version FROM carts WHERE user_id IN (" + placeholders(fresh.size()) + ")",
+                    rs -> {
+                        existing.put(rs.getString(1), new long[] { rs.getLong(2), rs.getLong(3) });
+                    },
+                    fresh.stream().map(s -> s.entry().userId).toArray());
+            for (Snapshot snapshot : fresh) {
+                long[] cart = existing.get(snapshot.entry().userId);
+                if (cart != null) {
+                    cartIds.put(snapshot, cart[0]);
+                    versions.put(snapshot, cart[1]);
+                }
+            }
+        }
+        for (Snapshot snapshot : batch) {
+            if (snapshot.cartId() != null) {
+                cartIds.put(snapshot, snapshot.cartId());
+                versions.put(snapshot, snapshot.dbVersion());
+            }
+        }
+
+        // İyimser sürüm kontrolü: sürüm değişmişse sepet başka yerden yazılmıştır
+        List<Snapshot> candidates = batch.stream().filter(cartIds::containsKey).toList();
+        int[] updated = jdbcTemplate.batchUpdate("UPDATE carts SET version = version + 1 WHERE id = ? AND version = ?",
+                candidates.stream().map(s -> new Object[] { cartIds.get(s), versions.get(s) }).toList());
+        for (int i = 0; i < candidates.size(); i++) {
+            if (updated[i] != 0) {
+                resolved.add(candidates.get(i));
+            }
+        }
+        if (resolved.isEmpty()) {
+            return Map.of();
+        }
+
+        // Mevcut satırlar tek sorguda okunur; aynı ürüne ait fazladan satırlar silinir
+        Map<Long, Map<String, long[]>> current = new HashMap<>();
+        List<Object[]> deletes = new ArrayList<>();
+        jdbcTemplate.query("SELECT cart_id, product_id, id, quantity FROM cart_items WHERE cart_id IN ("
+                        + placeholders(resolved.size()) + ") ORDER BY id",
+                rs -> {
+                    long[] line = new long[] { rs.getLong(3), rs.getInt(4) };
+                    if (current.computeIfAbsent(rs.getLong(1), id -> new HashMap<>()).putIfAbsent(rs.getString(2), line) != null) {
+                        deletes.add(new Object[] { line[0] });
+                    }
+                },
+                resolved.stream().map(cartIds::get).toArray());
+
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        for (Snapshot snapshot : resolved) {
+            Long cartId = cartIds.get(snapshot);
+            Map<String, long[]> existing = current.getOrDefault(cartId, Collections.emptyMap());
+            for (Map.Entry<String, Integer> line : snapshot.lines().entrySet()) {
+                long[] row = existing.get(line.getKey());
+                if (row == null) {
+                    inserts.add(new Object[] { cartId, line.getKey(), line.getValue(), line.getKey() });
+                } else if (row[1] != line.getValue()) {
+                    updates.add(new Object[] { line.getValue(), row[0] });
+                }
+            }
+            for (Map.Entry<String, long[]> row : existing.entrySet()) {
+                if (!snapshot.lines().containsKey(row.getKey())) {
+                    deletes.add(new Object[] { row.getValue()[0] });
+                }
+            }
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM cart_items WHERE id = ?", deletes);
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE cart_items SET quantity = ? WHERE id = ?", updates);
+        }
+        if (!inserts.isEmpty()) {
+            // Bu arada silinen ürünler atlanır; okuma modeli zaten var olmayan ürünleri göstermez
+            jdbcTemplate.batchUpdate("INSERT INTO cart_items (cart_id, product_id, quantity) " +
+                    "SELECT ?, ?, ? WHERE EXISTS (SELECT 1 FROM products WHERE id = ?)", inserts);
+        }
+
+        Map<Snapshot, long[]> written = new HashMap<>();
+        for (Snapshot snapshot : resolved) {
+            written.put(snapshot, new long[] { cartIds.get(snapshot), versions.get(snapshot) + 1 });
+        }
+        return written;
+    }
+
+    private void markFailed(Snapshot snapshot, Exception e) {
+        failedTotal.incrementAndGet();
+        CartEntry entry = snapshot.entry();
+        synchronized (entry) {
+            entry.failedAttempts++;
+            if (entry.failedAttempts < maxAttempts) {
+                log.warn("Sepet yazılamadı, tekrar denenecek (kullanıcı {}): {}", entry.userId, e.getMessage());
+                return;
+            }
+            entry.removed = true;
+            entries.remove(entry.userId, entry);
+        }
+        log.error("Sepet {} denemede yazılamadı, bellekteki değişiklikler bırakıldı (kullanıcı {})",
+                maxAttempts, entry.userId, e);
+    }
+
+    private boolean isDirty(CartEntry entry) {
+        synchronized (entry) {
+            return !entry.removed && entry.isDirty();
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("dirty", entries.values().stream().filter(this::isDirty).count());
+        stats.put("loads", loadsTotal.get());
+        stats.put("written", writtenTotal.get());
+        stats.put("batches", batchesTotal.get());
+        stats.put("conflicts", conflictsTotal.get());
+        stats.put("failed", failedTotal.get());
+        stats.put("evicted", evictedTotal.get());
+        stats.put("lastFlushMs", lastFlushMs);
+        stats.put("lastFlushAt", lastFlushAt);
+        return stats;
+    }
+}
@@ -3,16 +3,21 @@ package com.bahattintok.e_commerce.service.impl;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.bahattintok.e_commerce.dto.AddressRequest;
 import com.bahattintok.e_commerce.dto.CheckoutRequest;
 import com.bahattintok.e_commerce.dto.CreditCardRequest;
+import com.bahattintok.e_commerce.event.OrderPlacedEvent;
 import com.bahattintok.e_commerce.model.Order;
 import com.bahattintok.e_commerce.model.OrderItem;
 import com.bahattintok.e_commerce.model.Product;
@@ -20,7 +25,11 @@ import com.bahattintok.e_commerce.model.User;
 import com.bahattintok.e_commerce.repository.OrderRepository;
 import com.bahattintok.e_commerce.repository.ProductRepository;
 import com.bahattintok.e_commerce.repository.UserRepository;
+import com.bahattintok.e_commerce.security.CurrentUser;
+import com.bahattintok.e_commerce.security.CurrentUserProvider;
 import com.bahattintok.e_commerce.service.CheckoutService;
+import com.bahattintok.e_commerce.service.PaymentService;
+import com.bahattintok.e_commerce.service.StockReservationService;
 
 /**
  * Teslimat ve ödeme işlemleri için service implementasyonu
@@ -36,25 +45,35 @@ public class CheckoutServiceImpl implements CheckoutService {
     
     @Autowired
     private OrderRepository orderRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private StockReservationService stockReservationService;
+    
+    @Autowired
+    private PaymentService paymentService;
+    
+    @Autowired
+    private CurrentUserProvider currentUserProvider;
 
     @Override
-    public Map<String, Object> updateUserAddress(String userEmail, AddressRequest addressRequest) {
+    @Transactional
+    public Map<String, Object> updateUserAddress(AddressRequest addressRequest) {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            Optional<User> userOpt = userRepository.findByEmail(userEmail);
-            if (userOpt.isEmpty()) {
+            Optional<CurrentUser> currentUser = currentUserProvider.findUser();
+            if (currentUser.isEmpty()) {
                 response.put("success", false);
                 response.put("message", "Kullanıcı bulunamadı");
                 return response;
             }
             
-            User user = userOpt.get();
-            user.setAddress1(addressRequest.getAddress1());
-            user.setAddress2(addressRequest.getAddress2());
-            user.setPhone(addressRequest.getPhone());
-            
-            userRepository.save(user);
+            // Adres oturum özetinde tutulmaz; kullanıcı yüklenmeden tek UPDATE ile yazılır, önbellek etkilenmez
+            userRepository.updateAddress(currentUser.get().id(),
+                    addressRequest.getAddress1(), addressRequest.getAddress2(), addressRequest.getPhone());
             
             response.put("success", true);
             response.put("message", "Adres bilgileri güncellendi");
@@ -69,22 +88,25 @@ public class CheckoutServiceImpl implements CheckoutService {
     }
 
     @Override
-    public Map<String, Object> getUserAddress(String userEmail) {
+    public Map<String, Object> getUserAddress() {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            Optional<User> userOpt = userRepository.findByEmail(userEmail);
-            if (userOpt.isEmpty()) {
+            Optional<CurrentUser> currentUser = currentUserProvider.findUser();
+            List<Object[]> rows = currentUser.isPresent()
+                    ? userRepository.findAddressById(currentUser.get().id())
+                    : List.of();
+            if (rows.isEmpty()) {
                 response.put("success", false);
                 response.put("message", "Kullanıcı bulunamadı");
                 return response;
             }
             
-            User user = userOpt.get();
+            Object[] row = rows.get(0);
             Map<String, Object> address = new HashMap<>();
-            address.put("address1", user.getAddress1());
-            address.put("address2", user.getAddress2());
-            address.put("phone", user.getPhone());
+            address.put("address1", row[0]);
+            address.put("address2", row[1]);
+            address.put("phone", row[2]);
             
             response.put("success", true);
             response.put("address", address);
@@ -232,50 +254,35 @@ public class CheckoutServiceImpl implements CheckoutService {
         return null; // Geçerli
     }
 
-    /**
-     * Kredi kartı ödeme işlemini simüle eder
-     */
-    private boolean processCreditCardPayment(CreditCardRequest creditCard, double amount) {
-        // Burada gerçek bir ödeme işlemi entegrasyonu yapılabilir
-        // Şimdilik sadece simülasyon yapıyoruz
-        
-        try {
-            // Kart numarasının son 4 hanesi kontrol edilir
-            String lastFourDigits = creditCard.getCardNumber().replaceAll("\\s", "").substring(
-                creditCard.getCardNumber().replaceAll("\\s", "").length() - 4
-            );
-            
-            // Test kartları için özel kontrol
-            if (lastFourDigits.equals("0000")) {
-                throw new RuntimeException("Test kartı - ödeme reddedildi");
-            }
-            
-            // Simüle edilmiş işlem gecikmesi
-            Thread.sleep(1000);
-            
-            // Başarılı ödeme simülasyonu
-            return true;
-            
-        } catch (Exception e) {
-            return false;
-        }
+    @Override
+    public Map<String, Object> completeOrder(CheckoutRequest checkoutRequest) {
+        return completeOrder(checkoutRequest, null);
     }
 
     @Override
-    public Map<String, Object> completeOrder(String userEmail, CheckoutRequest checkoutRequest) {
+    public Map<String, Object> completeOrder(CheckoutRequest checkoutRequest, String requestKey) {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            Optional<User> userOpt = userRepository.findByEmail(userEmail);
-            if (userOpt.isEmpty()) {
+            Optional<CurrentUser> currentUser = currentUserProvider.findUser();
+            if (currentUser.isEmpty()) {
                 response.put("success", false);
                 response.put("message", "Kullanıcı bulunamadı");
                 return response;
             }
             
-            User user = userOpt.get();
+            // Sipariş kullanıcıya sadece ID ile bağlanır; entity yüklenmez
+            User user = userRepository.getReferenceById(currentUser.get().id());
             
-            // Kredi kartı ödeme kontrolü
+            // Aynı isteğin önceki çalışması siparişi yazdıysa (idempotency kaydı tamamlanamadan kalmış) onu döndür
+            if (requestKey != null) {
+                Optional<Order> existing = orderRepository.findByUserIdAndRequestKey(user.getId(), requestKey);
+                if (existing.isPresent()) {
+                    return orderResponse(existing.get());
+                }
+            }
+            
+            // Kredi kartı bilgilerini doğrula
             if ("CREDIT_CARD".equals(checkoutRequest.getPaymentMethod())) {
                 String cardValidationError = validateCreditCard(checkoutRequest.getCreditCard());
                 if (cardValidationError != null) {
@@ -283,61 +290,94 @@ public class CheckoutServiceImpl implements CheckoutService {
                     response.put("message", cardValidationError);
                     return response;
                 }
-                
-                // Kredi kartı ödeme işlemi
-                boolean paymentSuccess = processCreditCardPayment(
-                    checkoutRequest.getCreditCard(), 
-                    checkoutRequest.getTotal().doubleValue()
-                );
-                
-                if (!paymentSuccess) {
-                    response.put("success", false);
-                    response.put("message", "Ödeme işlemi başarısız. Lütfen kart bilgilerinizi kontrol edin.");
-                    return response;
-                }
             }
             
-            // Sipariş oluştur
-            Order order = new Order();
-            order.setUser(user);
-            order.setTotalPrice(checkoutRequest.getTotal());
-            order.setStatus("PENDING");
-            order.setCreatedAt(LocalDateTime.now());
+            // Ürünleri tek sorguda getir
+            List<String> productIds = new ArrayList<>();
+            for (var item : checkoutRequest.getItems()) {
+                productIds.add(item.getProductId());
+            }
+            Map<String, Product> products = new HashMap<>();
+            for (Product product : productRepository.findAllById(productIds)) {
+                products.put(product.getId(), product);
+            }
             
-            // Sipariş öğelerini oluştur
-            List<OrderItem> orderItems = new ArrayList<>();
+            Map<String, Integer> quantities = new LinkedHashMap<>();
             for (var item : checkoutRequest.getItems()) {
-                Optional<Product> productOpt = productRepository.findById(item.getProductId());
-                if (productOpt.isPresent()) {
-                    Product product = productOpt.get();
-                    
-                    // Stok kontrolü
-                    if (product.getStock() < item.getQuantity()) {
-                        response.put("success", false);
-                        response.put("message", product.getName() + " ürünü için yeterli stok bulunmuyor");
-                        return response;
-                    }
-                    
-                    OrderItem orderItem = new OrderItem();
-                    orderItem.setOrder(order);
-                    orderItem.setProduct(product);
-                    orderItem.setQuantity(item.getQuantity());
-                    orderItem.setPrice(item.getPrice());
-                    
-                    orderItems.add(orderItem);
-                    
-                    // Stok güncelle
-                    product.setStock(product.getStock() - item.getQuantity());
-                    productRepository.save(product);
+                if (products.containsKey(item.getProductId())) {
+                    quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
                 }
             }
             
-            order.setItems(orderItems);
-            Order savedOrder = orderRepository.save(order);
+            // Ödeme sürerken stok başkasına satılmasın diye stoğu süreli olarak ayır
+            String reservationKey;
+            try {
+                reservationKey = stockReservationService.reserve(quantities);
+            } catch (RuntimeException e) {
+                response.put("success", false);
+                response.put("message", e.getMessage());
+                return response;
+            }
             
-            response.put("success", true);
-            response.put("message", "Sipariş başarıyla oluşturuldu");
-            response.put("orderId", savedOrder.getId());
+            try {
+                boolean cardPayment = "CREDIT_CARD".equals(checkoutRequest.getPaymentMethod());
+                
+                // Sipariş oluştur
+                Order order = new Order();
+                order.setUser(user);
+                order.setTotalPrice(checkoutRequest.getTotal());
+                order.setStatus(cardPayment ? Order.STATUS_PENDING_PAYMENT : "PENDING");
+                order.setCreatedAt(LocalDateTime.now());
+                order.setRequestKey(requestKey);
+                if (cardPayment) {
+                    order.setReservationKey(reservationKey);
+                }
+                
+                // Sipariş öğelerini oluştur (stok rezervasyonda düşüldü)
+                List<OrderItem> orderItems = new ArrayList<>();
+                for (var item : checkoutRequest.getItems()) {
+                    Product product = products.get(item.getProductId());
+                    if (product != null) {
+                        OrderItem orderItem = new OrderItem();
+                        orderItem.setOrder(order);
+                        orderItem.setProduct(product);
+                        orderItem.setQuantity(item.getQuantity());
+                        orderItem.setPrice(item.getPrice());
+                        
+                        orderItems.add(orderItem);
+                    }
+                }
+                
+                order.setItems(orderItems);
+                Order savedOrder = orderRepository.save(order);
+                
+                if (cardPayment) {
+                    // Kart ödemesi arka planda yürür; sonuç /user/queue/payments ile bildirilir,
+                    // rezervasyon ödeme onaylanınca kalıcı hale gelir
+                    paymentService.startPayment(savedOrder, currentUser.get().email(), reservationKey,
+                            checkoutRequest.getCreditCard());
+                    
+                    return orderResponse(savedOrder);
+                }
+                
+                stockReservationService.commit(reservationKey);
+                
+                // Sipariş onay email'i ve sipariş özetleri için event yayınla
+                eventPublisher.publishEvent(new OrderPlacedEvent(this, savedOrder));
+                
+                return orderResponse(savedOrder);
+            } catch (RuntimeException e) {
+                // Sipariş oluşturulamadıysa ayrılan stoğu geri bırak
+                stockReservationService.release(reservationKey);
+                // Eşzamanlı tekrar siparişi önce yazdıysa tekil indeks bu insert'ü reddeder; o siparişin yanıtı döner
+                if (requestKey != null && e instanceof DataIntegrityViolationException) {
+                    Optional<Order> existing = orderRepository.findByUserIdAndRequestKey(user.getId(), requestKey);
+                    if (existing.isPresent()) {
+                        return orderResponse(existing.get());
+                    }
+                }
+                throw e;
+            }
             
         } catch (Exception e) {
             response.put("success", false);
@@ -346,4 +386,34 @@ public class CheckoutServiceImpl implements CheckoutService {
         
         return response;
     }
+
+    private Map<String, Object> orderResponse(Order order) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", Order.STATUS_PENDING_PAYMENT.equals(order.getStatus())
+                ? "Ödemeniz işleniyor" : "Sipariş başarıyla oluşturuldu");
+        response.put("orderId", order.getId());
+        response.put("status", order.getStatus());
+        return response;
+    }
+
+    @Override
+    public Map<String, Object> getPaymentStatus(String orderId) {
+        Map<String, Object> response = new HashMap<>();
+        
+        // Sahiplik kullanıcı ID'si ile kontrol edilir; sipariş kullanıcısı yüklenmez
+        Optional<CurrentUser> currentUser = currentUserProvider.findUser();
+        Optional<Order> orderOpt = orderRepository.findById(orderId);
+        if (orderOpt.isEmpty() || currentUser.isEmpty()
+                || !currentUser.get().id().equals(orderOpt.get().getUser().getId())) {
+            response.put("success", false);
+            response.put("message", "Sipariş bulunamadı");
+            return response;
+        }
+        
+        response.put("success", true);
+        response.put("orderId", orderId);
+        response.put("status", orderOpt.get().getStatus());
+        return response;
+    }
 }
@@ -0,0 +1,399 @@
+package com.bahattintok.e_commerce.service.impl;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bahattintok.e_commerce.service.ClusterBusService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class ClusterBusServiceImpl implements ClusterBusService {
+
+    /** Yazımlar bu advisory lock altında yapılır; böylece id'ler commit sırasıyla artar ve okuyan düğüm mesaj atlamaz */
+    private static final long PUBLISH_LOCK_KEY = 0x636c757374657242L;
+
+    private static final TypeReference<List<BusMessage>> BATCH_TYPE = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectMapper objectMapper;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, List<Consumer<String>>> subscribers = new ConcurrentHashMap<>();
+    private final List<Runnable> resyncHandlers = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<BusMessage> outbox;
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /** Yazımı başarısız olan toplu mesaj; bir sonraki flush'ta önce bu denenir */
+    private List<BusMessage> failedBatch = List.of();
+
+    @Value("${cluster.bus.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cluster.bus.channel:cluster_bus}")
+    private String channel;
+
+    @Value("${cluster.bus.batch-size:500}")
+    private int batchSize;
+
+    @Value("${cluster.bus.poll-timeout-ms:500}")
+    private int pollTimeoutMs;
+
+    @Value("${cluster.bus.catch-up-interval-ms:30000}")
+    private long catchUpIntervalMs;
+
+    @Value("${cluster.bus.reconnect-delay-ms:2000}")
+    private long reconnectDelayMs;
+
+    @Value("${cluster.bus.retention-minutes:10}")
+    private int retentionMinutes;
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private Thread listenerThread;
+
+    /** Okunan son mesaj id'si; sadece dinleme thread'inde kullanılır */
+    private long lastSeenId = -1;
+
+    /** Bir toplu yazımda taşınan mesaj */
+    record BusMessage(String topic, String payload) {
+    }
+
+    public ClusterBusServiceImpl(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 DataSourceProperties dataSourceProperties,
+                                 ObjectMapper objectMapper,
+                                 @Value("${cluster.bus.queue-capacity:10000}") int queueCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.objectMapper = objectMapper;
+        // Yazım, yayınlayan işlemden bağımsız commit edilir
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.outbox = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @Override
+    public void publish(String topic, String payload) {
+        if (!enabled) {
+            return;
+        }
+        if (!outbox.offer(new BusMessage(topic, payload))) {
+            log.warn("Küme mesaj kuyruğu dolu, mesaj diğer düğümlere gönderilemedi: {}", topic);
+        }
+    }
+
+    @Override
+    public void subscribe(String topic, Consumer<String> handler) {
+        subscribers.computeIfAbsent(topic, key -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    @Override
+    public void onResync(Runnable handler) {
+        resyncHandlers.add(handler);
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return connected;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "ClusterBus-" + nodeId.substring(0, 8));
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+        log.info("Küme mesaj yolu başlatıldı: düğüm {}, kanal {}", nodeId, channel);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        flush();
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cluster.bus.flush-interval-ms:50}")
+    public void flushPending() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Küme mesajları yazılamadı: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Bekleyen mesajları batch-size'lık gruplar halinde tek satır + tek NOTIFY olarak yazar.
+     */
+    @Override
+    public int flush() {
+        flushLock.lock();
+        try {
+            int written = 0;
+            while (true) {
+                List<BusMessage> batch = failedBatch;
+                if (batch.isEmpty()) {
+                    batch = new ArrayList<>();
+                    outbox.drainTo(batch, batchSize);
+                    if (batch.isEmpty()) {
+                        return written;
+                    }
+                }
+                failedBatch = batch;
+                write(batch);
+                failedBatch = List.of();
+                written += batch.size();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void write(List<BusMessage> batch) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(batch);
+        } catch (JsonProcessingException e) {
+            failedBatch = List.of();
+            throw new RuntimeException("Küme mesajı yazılamadı", e);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, PUBLISH_LOCK_KEY);
+            Long id = jdbcTemplate.queryForObject(
+                    "INSERT INTO cluster_bus_messages (node_id, payload) VALUES (?, ?) RETURNING id",
+                    Long.class, nodeId, payload);
+            // NOTIFY commit anında gönderilir; yük sadece id'dir (8000 bayt sınırına takılmaz)
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, String.valueOf(id));
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${cluster.bus.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("DELETE FROM cluster_bus_messages WHERE created_at < CURRENT_TIMESTAMP - make_interval(mins => ?)",
+                    retentionMinutes);
+        } catch (Exception e) {
+            log.warn("Eski küme mesajları silinemedi: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Dinleme döngüsü: ayrı bir bağlantıda LISTEN yapar, bildirim gelince (ve belirli aralıklarla) yeni mesajları okur.
+     * Bağlantı koparsa bekleyip yeniden bağlanır ve kaçırılan mesajları tablodan okur.
+     */
+    private void listen() {
+        while (running) {
+            try (Connection connection = openListenConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (lastSeenId < 0) {
+                    // İlk bağlantı: geçmiş mesajlar tekrar oynatılmaz
+                    lastSeenId = maxId(connection);
+                } else {
+                    resumeAfterReconnect(connection);
+                }
+                connected = true;
+
+                long nextCatchUp = System.currentTimeMillis() + catchUpIntervalMs;
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    boolean due = System.currentTimeMillis() >= nextCatchUp;
+                    if (due || hasUnseen(notifications)) {
+                        catchUp(connection);
+                        nextCatchUp = System.currentTimeMillis() + catchUpIntervalMs;
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    log.warn("Küme mesaj yolu bağlantısı koptu, {} ms sonra yeniden bağlanılacak: {}",
+                            reconnectDelayMs, e.getMessage());
+                }
+            } finally {
+                connected = false;
+            }
+            sleepBeforeReconnect();
+        }
+    }
+
+    private Connection openListenConnection() throws SQLException {
+        Properties properties = new Properties();
+        String username = dataSourceProperties.determineUsername();
+        String password = dataSourceProperties.determinePassword();
+        if (username != null) {
+            properties.setProperty("user", username);
+        }
+        if (password != null) {
+            properties.setProperty("password", password);
+        }
+        properties.setProperty("ApplicationName", "cluster-bus-" + nodeId);
+        properties.setProperty("tcpKeepAlive", "true");
+        // Havuzdan bağlantı tutmamak için ayrı, kalıcı bir bağlantı açılır
+        Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+        connection.setAutoCommit(true);
+        return connection;
+    }
+
+    /**
+     * Yeniden bağlanınca kaçırılan mesajları okur. Aradaki mesajlar silinmişse (saklama süresinden uzun kopukluk)
+     * resync dinleyicileri çağrılır.
+     */
+    private void resumeAfterReconnect(Connection connection) throws SQLException {
+        long oldestId;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MIN(id), 0) FROM cluster_bus_messages")) {
+            rs.next();
+            oldestId = rs.getLong(1);
+        }
+        if (oldestId > lastSeenId + 1) {
+            log.warn("Küme mesajları kaçırıldı (son okunan {}, en eski {}), resync yapılıyor", lastSeenId, oldestId);
+            for (Runnable handler : resyncHandlers) {
+                runSafely(handler);
+            }
+        }
+        catchUp(connection);
+    }
+
+    private boolean hasUnseen(PGNotification[] notifications) {
+        if (notifications == null) {
+            return false;
+        }
+        for (PGNotification notification : notifications) {
+            try {
+                if (Long.parseLong(notification.getParameter()) > lastSeenId) {
+                    return true;
+                }
+            } catch (NumberFormatException e) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void catchUp(Connection connection) throws SQLException {
+        String sql = "SELECT id, node_id, payload FROM cluster_bus_messages WHERE id > ? ORDER BY id LIMIT ?";
+        while (true) {
+            int read = 0;
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setLong(1, lastSeenId);
+                statement.setInt(2, batchSize);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        read++;
+                        lastSeenId = rs.getLong("id");
+                        if (!nodeId.equals(rs.getString("node_id"))) {
+                            dispatch(rs.getString("payload"));
+                        }
+                    }
+                }
+            }
+            if (read < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        List<BusMessage> batch;
+        try {
+            batch = objectMapper.readValue(payload, BATCH_TYPE);
+        } catch (JsonProcessingException e) {
+            log.error("Küme mesajı okunamadı: {}", e.getMessage());
+            return;
+        }
+        for (BusMessage message : batch) {
+            List<Consumer<String>> handlers = subscribers.get(message.topic());
+            if (handlers == null) {
+                continue;
+            }
+            for (Consumer<String> handler : handlers) {
+                runSafely(() -> handler.accept(message.payload()));
+            }
+        }
+    }
+
+    private static void runSafely(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            log.error("Küme mesajı işlenemedi: {}", e.getMessage());
+        }
+    }
+
+    private static long maxId(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM cluster_bus_messages")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        if (!running) {
+            return;
+        }
+        try {
+            Thread.sleep(reconnectDelayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
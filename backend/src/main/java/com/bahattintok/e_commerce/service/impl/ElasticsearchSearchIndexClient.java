@@ -0,0 +1,57 @@
+package com.bahattintok.e_commerce.service.impl;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.stereotype.Component;
+
+import com.bahattintok.e_commerce.model.ProductDocument;
+import com.bahattintok.e_commerce.repository.ProductSearchRepository;
+import com.bahattintok.e_commerce.service.SearchIndexClient;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Elasticsearch _bulk API'si ile çalışan index istemcisi.
+ * Sadece elasticsearch.enabled=true olduğunda aktif olur.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "elasticsearch.enabled", havingValue = "true", matchIfMissing = false)
+public class ElasticsearchSearchIndexClient implements SearchIndexClient {
+
+    private final ProductSearchRepository productSearchRepository;
+
+    @Override
+    public Set<String> bulk(List<ProductDocument> upserts, List<String> deleteIds) {
+        Set<String> failed = new HashSet<>();
+
+        if (!upserts.isEmpty()) {
+            try {
+                // saveAll tek bir _bulk isteği gönderir; kısmi hatalarda başarısız belgeler exception'da döner
+                productSearchRepository.saveAll(upserts);
+            } catch (BulkFailureException e) {
+                failed.addAll(e.getFailedDocuments().keySet());
+                log.warn("Toplu indexlemede {} belge başarısız oldu", e.getFailedDocuments().size());
+            } catch (Exception e) {
+                upserts.forEach(document -> failed.add(document.getId()));
+                log.warn("Toplu indexleme başarısız: {}", e.getMessage());
+            }
+        }
+
+        if (!deleteIds.isEmpty()) {
+            try {
+                productSearchRepository.deleteAllById(deleteIds);
+            } catch (Exception e) {
+                failed.addAll(deleteIds);
+                log.warn("Toplu silme başarısız: {}", e.getMessage());
+            }
+        }
+        return failed;
+    }
+}
@@ -1,18 +1,28 @@
 package com.bahattintok.e_commerce.service.impl;
 
-import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregation;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.bahattintok.e_commerce.dto.FacetBucket;
+import com.bahattintok.e_commerce.dto.ProductSearchResult;
 import com.bahattintok.e_commerce.model.Category;
 import com.bahattintok.e_commerce.model.CategoryDocument;
 import com.bahattintok.e_commerce.model.Product;
@@ -21,15 +31,16 @@ import com.bahattintok.e_commerce.model.Store;
 import com.bahattintok.e_commerce.model.StoreDocument;
 import com.bahattintok.e_commerce.model.User;
 import com.bahattintok.e_commerce.model.UserDocument;
-import com.bahattintok.e_commerce.repository.CategoryRepository;
 import com.bahattintok.e_commerce.repository.CategorySearchRepository;
 import com.bahattintok.e_commerce.repository.ProductRepository;
 import com.bahattintok.e_commerce.repository.ProductSearchRepository;
-import com.bahattintok.e_commerce.repository.StoreRepository;
 import com.bahattintok.e_commerce.repository.StoreSearchRepository;
-import com.bahattintok.e_commerce.repository.UserRepository;
 import com.bahattintok.e_commerce.repository.UserSearchRepository;
 import com.bahattintok.e_commerce.service.ElasticsearchService;
+import com.bahattintok.e_commerce.service.SearchReindexService;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.AggregationRange;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -59,15 +70,22 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
     private ProductRepository productRepository;
     
     @Autowired
-    private CategoryRepository categoryRepository;
+    private SearchReindexService searchReindexService;
     
-    @Autowired
-    private StoreRepository storeRepository;
+    @Autowired(required = false)
+    private ElasticsearchOperations elasticsearchOperations;
     
-    @Autowired
-    private UserRepository userRepository;
+    /** Fiyat histogramı aralık genişliği (TL) */
+    @Value("${search.facets.price-interval:250}")
+    private double priceFacetInterval;
+    
+    private static final int FACET_SIZE = 50;
+    
+    /** Liste dönen advancedSearch için üst sınır */
+    private static final int ADVANCED_SEARCH_LIMIT = 1000;
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void indexAllProducts() {
         if (productSearchRepository == null) {
             log.warn("Elasticsearch is not enabled, skipping indexing");
@@ -76,13 +94,8 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
         
         try {
             log.info("Tüm ürünler Elasticsearch'e indexleniyor...");
-            List<Product> products = productRepository.findAll();
-            
-            for (Product product : products) {
-                indexProduct(product);
-            }
-            
-            log.info("{} ürün başarıyla indexlendi", products.size());
+            // Yeni indexe parça parça yazılır, bitince alias çevrilir; arama bu sırada eski indexten devam eder
+            searchReindexService.reindex(SearchReindexService.TYPE_PRODUCTS);
         } catch (Exception e) {
             log.error("Ürünler indexlenirken hata oluştu", e);
         }
@@ -168,85 +181,123 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
     
     @Override
     public List<ProductDocument> advancedSearch(String query, String category, Double minPrice, Double maxPrice, String storeName) {
-        if (productSearchRepository == null) {
+        return facetedSearch(query, category, storeName, minPrice, maxPrice, null,
+                PageRequest.of(0, ADVANCED_SEARCH_LIMIT)).getContent();
+    }
+    
+    @Override
+    public ProductSearchResult facetedSearch(String query, String category, String storeName,
+                                             Double minPrice, Double maxPrice, Boolean discounted,
+                                             Pageable pageable) {
+        if (elasticsearchOperations == null) {
             log.warn("Elasticsearch is not enabled, returning empty results");
-            return List.of();
+            return ProductSearchResult.empty(pageable.getPageNumber(), pageable.getPageSize());
         }
         
         try {
-            List<ProductDocument> results = List.of();
-            
-            // Arama kriterlerine göre ürünleri getir
-            if (query != null && !query.trim().isEmpty()) {
-                // Tam metin araması
-                log.debug("Tam metin araması yapılıyor: {}", query);
-                results = productSearchRepository.fullTextSearch(query.trim());
-            } else if (category != null && !category.trim().isEmpty()) {
-                // Kategori bazlı arama
-                log.debug("Kategori araması yapılıyor: {}", category);
-                results = productSearchRepository.findByCategoryName(category.trim());
-            } else if (storeName != null && !storeName.trim().isEmpty()) {
-                // Mağaza bazlı arama
-                log.debug("Mağaza araması yapılıyor: {}", storeName);
-                results = productSearchRepository.findByStoreNameContainingIgnoreCase(storeName.trim());
-            } else {
-                // Hiçbir arama kriteri yoksa veya sadece fiyat filtresi varsa tüm ürünleri getir
-                log.debug("Tüm ürünler getiriliyor (fiyat filtresi için) - query: {}, category: {}, storeName: {}", query, category, storeName);
-                // findAll() Iterable döndürür, Stream API ile List'e çeviriyoruz
-                results = StreamSupport.stream(productSearchRepository.findAll().spliterator(), false)
-                    .collect(Collectors.toList());
-            }
-            
-            log.debug("İlk arama sonucu: {} ürün bulundu", results.size());
-            
-            // Fiyat filtresi uygula
-            if (minPrice != null || maxPrice != null) {
-                log.debug("Fiyat filtresi uygulanıyor: minPrice={}, maxPrice={}", minPrice, maxPrice);
-                BigDecimal min = minPrice != null ? BigDecimal.valueOf(minPrice) : BigDecimal.ZERO;
-                BigDecimal max = maxPrice != null ? BigDecimal.valueOf(maxPrice) : BigDecimal.valueOf(999999.99);
-                
-                int beforeFilter = results.size();
-                results = results.stream()
-                    .filter(product -> {
-                        BigDecimal price = product.getPrice();
-                        if (price == null || price.compareTo(BigDecimal.ZERO) == 0) {
-                            log.debug("Ürün {} fiyatı null veya sıfır, filtreleniyor", product.getName());
-                            return false;
+            // Tüm filtreler tek bool sorguda; facet'ler aynı istekte, filtrelenmiş sonuç kümesi üzerinden hesaplanır
+            NativeQuery searchQuery = NativeQuery.builder()
+                    .withQuery(q -> q.bool(b -> {
+                        if (hasText(query)) {
+                            b.must(m -> m.multiMatch(mm -> mm.query(query.trim())
+                                    .fields("name^3", "description^2", "categoryName", "storeName")
+                                    .fuzziness("AUTO")));
                         }
-                        
-                        boolean minCheck = minPrice == null || price.compareTo(min) >= 0;
-                        boolean maxCheck = maxPrice == null || price.compareTo(max) <= 0;
-                        
-                        if (!minCheck || !maxCheck) {
-                            log.debug("Ürün {} fiyatı {} filtreleniyor (min: {}, max: {})", 
-                                    product.getName(), price, min, max);
+                        if (hasText(category)) {
+                            b.filter(f -> f.term(t -> t.field("categoryName").value(category.trim())));
                         }
-                        
-                        return minCheck && maxCheck;
-                    })
-                    .toList();
-                
-                log.debug("Fiyat filtresi uygulandı: min={}, max={}, önceki={}, sonraki={} ürün", 
-                         minPrice, maxPrice, beforeFilter, results.size());
-            }
+                        if (hasText(storeName)) {
+                            b.filter(f -> f.wildcard(w -> w.field("storeName")
+                                    .value("*" + storeName.trim() + "*").caseInsensitive(true)));
+                        }
+                        if (minPrice != null || maxPrice != null) {
+                            b.filter(f -> f.range(r -> r.number(n -> {
+                                n.field("price");
+                                if (minPrice != null) {
+                                    n.gte(minPrice);
+                                }
+                                if (maxPrice != null) {
+                                    n.lte(maxPrice);
+                                }
+                                return n;
+                            })));
+                        }
+                        if (Boolean.TRUE.equals(discounted)) {
+                            b.filter(f -> f.range(r -> r.number(n -> n.field("discountPercentage").gt(0.0))));
+                        }
+                        return b;
+                    }))
+                    .withAggregation("categories", Aggregation.of(a -> a.terms(t -> t.field("categoryName").size(FACET_SIZE))))
+                    .withAggregation("stores", Aggregation.of(a -> a.terms(t -> t.field("storeName").size(FACET_SIZE))))
+                    .withAggregation("price", Aggregation.of(a -> a.histogram(h -> h.field("price")
+                            .interval(priceFacetInterval).minDocCount(1))))
+                    .withAggregation("rating", Aggregation.of(a -> a.range(r -> r.field("averageRating")
+                            .ranges(List.of(
+                                    AggregationRange.of(x -> x.key("4+").from(4.0)),
+                                    AggregationRange.of(x -> x.key("3+").from(3.0)),
+                                    AggregationRange.of(x -> x.key("2+").from(2.0)),
+                                    AggregationRange.of(x -> x.key("1+").from(1.0)))))))
+                    .withPageable(pageable)
+                    .withTrackTotalHits(true)
+                    .build();
             
-            // Mağaza filtresi uygula (eğer kategori araması yapılmadıysa)
-            if (storeName != null && !storeName.trim().isEmpty() && (category == null || category.trim().isEmpty())) {
-                log.debug("Mağaza filtresi uygulanıyor: {}", storeName);
-                int beforeFilter = results.size();
-                results = results.stream()
-                    .filter(product -> product.getStoreName() != null && 
-                                     product.getStoreName().toLowerCase().contains(storeName.toLowerCase()))
+            SearchHits<ProductDocument> hits = elasticsearchOperations.search(searchQuery, ProductDocument.class);
+            
+            List<ProductDocument> content = hits.getSearchHits().stream()
+                    .map(SearchHit::getContent)
                     .toList();
-                log.debug("Mağaza filtresi uygulandı: önceki={}, sonraki={} ürün", beforeFilter, results.size());
+            long total = hits.getTotalHits();
+            int totalPages = pageable.getPageSize() > 0 ? (int) Math.ceil((double) total / pageable.getPageSize()) : 1;
+            
+            ProductSearchResult result = new ProductSearchResult(content, pageable.getPageNumber(),
+                    pageable.getPageSize(), total, totalPages, new LinkedHashMap<>());
+            if (hits.getAggregations() instanceof ElasticsearchAggregations aggregations) {
+                Map<String, ElasticsearchAggregation> byName = aggregations.aggregationsAsMap();
+                result.getFacets().put("categories", termBuckets(byName.get("categories")));
+                result.getFacets().put("stores", termBuckets(byName.get("stores")));
+                result.getFacets().put("price", priceBuckets(byName.get("price")));
+                result.getFacets().put("rating", ratingBuckets(byName.get("rating")));
             }
             
-            log.debug("Elasticsearch arama sonucu: {} ürün bulundu", results.size());
-            return results;
+            log.debug("Facet'li arama: {} ürün bulundu", total);
+            return result;
         } catch (Exception e) {
             log.error("Gelişmiş arama yapılırken hata oluştu", e);
+            return ProductSearchResult.empty(pageable.getPageNumber(), pageable.getPageSize());
+        }
+    }
+    
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+    
+    private List<FacetBucket> termBuckets(ElasticsearchAggregation aggregation) {
+        if (aggregation == null) {
             return List.of();
         }
+        return aggregation.aggregation().getAggregate().sterms().buckets().array().stream()
+                .map(bucket -> FacetBucket.of(bucket.key().stringValue(), bucket.docCount()))
+                .toList();
+    }
+    
+    private List<FacetBucket> priceBuckets(ElasticsearchAggregation aggregation) {
+        if (aggregation == null) {
+            return List.of();
+        }
+        return aggregation.aggregation().getAggregate().histogram().buckets().array().stream()
+                .map(bucket -> new FacetBucket(
+                        String.format("%.0f-%.0f", bucket.key(), bucket.key() + priceFacetInterval),
+                        bucket.key(), bucket.key() + priceFacetInterval, bucket.docCount()))
+                .toList();
+    }
+    
+    private List<FacetBucket> ratingBuckets(ElasticsearchAggregation aggregation) {
+        if (aggregation == null) {
+            return List.of();
+        }
+        return aggregation.aggregation().getAggregate().range().buckets().array().stream()
+                .map(bucket -> new FacetBucket(bucket.key(), bucket.from(), bucket.to(), bucket.docCount()))
+                .toList();
     }
     
     @Override
@@ -310,6 +361,7 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
     }
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void recreateIndex() {
         if (productSearchRepository == null) {
             log.warn("Elasticsearch is not enabled, skipping index recreation");
@@ -319,11 +371,8 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
         try {
             log.info("Elasticsearch index'i yeniden oluşturuluyor...");
             
-            // Mevcut index'i temizle
-            productSearchRepository.deleteAll();
-            
-            // Tüm ürünleri yeniden indexle
-            indexAllProducts();
+            // Önce silmek yerine yeni index kurulup alias çevrilir; arama boş kalmaz
+            searchReindexService.reindex(SearchReindexService.TYPE_PRODUCTS);
             
             log.info("Index başarıyla yeniden oluşturuldu");
         } catch (Exception e) {
@@ -334,6 +383,7 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
     // ==================== CATEGORY METHODS ====================
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void indexAllCategories() {
         if (categorySearchRepository == null) {
             log.warn("Elasticsearch is not enabled, skipping category indexing");
@@ -342,13 +392,8 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
         
         try {
             log.info("Tüm kategoriler Elasticsearch'e indexleniyor...");
-            List<Category> categories = categoryRepository.findAll();
-            
-            for (Category category : categories) {
-                indexCategory(category);
-            }
-            
-            log.info("{} kategori başarıyla indexlendi", categories.size());
+            // Yeni indexe parça parça yazılır, bitince alias çevrilir; arama bu sırada eski indexten devam eder
+            searchReindexService.reindex(SearchReindexService.TYPE_CATEGORIES);
         } catch (Exception e) {
             log.error("Kategoriler indexlenirken hata oluştu", e);
         }
@@ -438,6 +483,7 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
     // ==================== STORE METHODS ====================
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void indexAllStores() {
         if (storeSearchRepository == null) {
             log.warn("Elasticsearch is not enabled, skipping store indexing");
@@ -446,13 +492,8 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
         
         try {
             log.info("Tüm mağazalar Elasticsearch'e indexleniyor...");
-            List<Store> stores = storeRepository.findAll();
-            
-            for (Store store : stores) {
-                indexStore(store);
-            }
-            
-            log.info("{} mağaza başarıyla indexlendi", stores.size());
+            // Yeni indexe parça parça yazılır, bitince alias çevrilir; arama bu sırada eski indexten devam eder
+            searchReindexService.reindex(SearchReindexService.TYPE_STORES);
         } catch (Exception e) {
             log.error("Mağazalar indexlenirken hata oluştu", e);
         }
@@ -542,6 +583,7 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
     // ==================== USER METHODS ====================
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void indexAllUsers() {
         if (userSearchRepository == null) {
             log.warn("Elasticsearch is not enabled, skipping user indexing");
@@ -550,13 +592,8 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
         
         try {
             log.info("Tüm kullanıcılar Elasticsearch'e indexleniyor...");
-            List<User> users = userRepository.findAll();
-            
-            for (User user : users) {
-                indexUser(user);
-            }
-            
-            log.info("{} kullanıcı başarıyla indexlendi", users.size());
+            // Yeni indexe parça parça yazılır, bitince alias çevrilir; arama bu sırada eski indexten devam eder
+            searchReindexService.reindex(SearchReindexService.TYPE_USERS);
         } catch (Exception e) {
             log.error("Kullanıcılar indexlenirken hata oluştu", e);
         }
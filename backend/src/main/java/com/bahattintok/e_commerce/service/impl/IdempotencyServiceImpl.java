@@ -0,0 +1,276 @@
+package com.bahattintok.e_commerce.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bahattintok.e_commerce.model.IdempotencyKey;
+import com.bahattintok.e_commerce.repository.IdempotencyKeyRepository;
+import com.bahattintok.e_commerce.service.IdempotencyService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+
+    @Value("${idempotency.stale-after-minutes:5}")
+    private long staleAfterMinutes;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    /** Tamamlanan yanıtlar (LRU); tekrar istekler çoğunlukla veritabanına gitmeden yanıtlanır */
+    private final Map<String, StoredResponse> completed;
+
+    /** Bu düğümde işlenmekte olan anahtarlar; eşzamanlı tekrarlar ilk isteğin sonucunu bekler */
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private record StoredResponse(String requestHash, int status, String body) {
+    }
+
+    public IdempotencyServiceImpl(IdempotencyKeyRepository idempotencyKeyRepository,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${idempotency.cache-size:10000}") int cacheSize) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        // Anahtar kaydı çağıranın transaction'ından bağımsız commit edilmeli ki diğer düğümler görsün
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.completed = Collections.synchronizedMap(new LinkedHashMap<String, StoredResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    @Override
+    public ResponseEntity<?> execute(String scope, String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > 100) {
+            return error(HttpStatus.BAD_REQUEST, HEADER + " en fazla 100 karakter olabilir");
+        }
+        String requestHash = hash(request);
+        String cacheKey = scope + "|" + key;
+
+        StoredResponse cached = completed.get(cacheKey);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(cacheKey, mine);
+        if (running != null) {
+            return awaitRunning(running, scope, key, request, requestHash, action);
+        }
+        try {
+            return claimAndRun(scope, key, requestHash, cacheKey, mine, action);
+        } finally {
+            inFlight.remove(cacheKey, mine);
+        }
+    }
+
+    /**
+     * Anahtarı veritabanında ayırır ve işlemi çalıştırır. Anahtar başka bir düğümde ayrılmışsa
+     * o düğümün yanıtı beklenir; yarım kalmış (eski) kayıtlar silinip yeniden ayrılır.
+     */
+    private ResponseEntity<?> claimAndRun(String scope, String key, String requestHash, String cacheKey,
+                                          CompletableFuture<StoredResponse> mine, Supplier<ResponseEntity<?>> action) {
+        long deadline = System.currentTimeMillis() + waitTimeoutMs;
+        while (true) {
+            Long claimId = claim(scope, key, requestHash);
+            if (claimId != null) {
+                return run(claimId, requestHash, cacheKey, mine, action);
+            }
+
+            Optional<IdempotencyKey> existing = idempotencyKeyRepository.findByScopeAndIdempotencyKey(scope, key);
+            if (existing.isPresent() && IdempotencyKey.STATUS_COMPLETED.equals(existing.get().getStatus())) {
+                IdempotencyKey row = existing.get();
+                StoredResponse stored = new StoredResponse(row.getRequestHash(), row.getResponseStatus(), row.getResponseBody());
+                completed.put(cacheKey, stored);
+                mine.complete(stored);
+                return replay(stored, requestHash);
+            }
+            if (existing.isPresent()) {
+                LocalDateTime staleBefore = LocalDateTime.now().minusMinutes(staleAfterMinutes);
+                if (existing.get().getCreatedAt().isBefore(staleBefore)) {
+                    transactionTemplate.executeWithoutResult(status ->
+                            idempotencyKeyRepository.deleteStale(existing.get().getId(), staleBefore));
+                    continue;
+                }
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                mine.complete(null);
+                return replay(null, requestHash);
+            }
+            sleep();
+        }
+    }
+
+    private ResponseEntity<?> run(Long claimId, String requestHash, String cacheKey,
+                                  CompletableFuture<StoredResponse> mine, Supplier<ResponseEntity<?>> action) {
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            release(claimId);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+        StoredResponse stored = new StoredResponse(requestHash, response.getStatusCode().value(), toJson(response.getBody()));
+        if (response.getStatusCode().is5xxServerError()) {
+            release(claimId);
+            mine.completeExceptionally(new IllegalStateException("İstek sunucu hatasıyla sonuçlandı"));
+            return response;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.complete(
+                    claimId, stored.status(), stored.body(), LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            // İşlem yapıldı; yanıt bu düğümün önbelleğinde kalır, kayıt yarım kalırsa süresi dolunca silinir
+            log.error("Idempotency yanıtı kaydedilemedi: {}", e.getMessage());
+        }
+        completed.put(cacheKey, stored);
+        mine.complete(stored);
+        return response;
+    }
+
+    /**
+     * Aynı anahtarla eşzamanlı gelen istek: ilk isteğin sonucunu bekler. İlk istek başarısız olduysa
+     * anahtar serbest kalmıştır, istek baştan işlenir.
+     */
+    private ResponseEntity<?> awaitRunning(CompletableFuture<StoredResponse> running, String scope, String key,
+                                           Object request, String requestHash, Supplier<ResponseEntity<?>> action) {
+        try {
+            return replay(running.get(waitTimeoutMs, TimeUnit.MILLISECONDS), requestHash);
+        } catch (ExecutionException e) {
+            return execute(scope, key, request, action);
+        } catch (TimeoutException e) {
+            return replay(null, requestHash);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return replay(null, requestHash);
+        }
+    }
+
+    private Long claim(String scope, String key, String requestHash) {
+        try {
+            return transactionTemplate.execute(status -> {
+                IdempotencyKey row = new IdempotencyKey();
+                row.setScope(scope);
+                row.setIdempotencyKey(key);
+                row.setRequestHash(requestHash);
+                row.setStatus(IdempotencyKey.STATUS_IN_PROGRESS);
+                row.setCreatedAt(LocalDateTime.now());
+                return idempotencyKeyRepository.saveAndFlush(row).getId();
+            });
+        } catch (DataIntegrityViolationException e) {
+            // (scope, key) tekil kısıtı: istek daha önce alınmış
+            return null;
+        }
+    }
+
+    private void release(Long claimId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.deleteById(claimId));
+        } catch (RuntimeException e) {
+            log.error("Idempotency anahtarı serbest bırakılamadı: {}", e.getMessage());
+        }
+    }
+
+    private ResponseEntity<?> replay(StoredResponse stored, String requestHash) {
+        if (stored == null) {
+            return error(HttpStatus.CONFLICT, "Aynı " + HEADER + " ile gönderilen istek hâlâ işleniyor, lütfen tekrar deneyin");
+        }
+        if (!stored.requestHash().equals(requestHash)) {
+            return error(HttpStatus.UNPROCESSABLE_ENTITY, HEADER + " farklı bir istek için kullanılmış");
+        }
+        try {
+            return ResponseEntity.status(stored.status())
+                    .header("Idempotent-Replayed", "true")
+                    .body(objectMapper.readTree(stored.body()));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Saklanan yanıt okunamadı", e);
+        }
+    }
+
+    private static ResponseEntity<?> error(HttpStatus status, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("success", false);
+        body.put("error", message);
+        body.put("message", message);
+        return ResponseEntity.status(status).body(body);
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Yanıt saklanamadı", e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(toJson(request).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Idempotency beklemesi kesildi", e);
+        }
+    }
+
+    @Override
+    @Scheduled(cron = "${idempotency.purge-cron:0 15 * * * *}")
+    public int purgeExpired() {
+        Integer purged = transactionTemplate.execute(status ->
+                idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(ttlHours)));
+        if (purged != null && purged > 0) {
+            log.info("Süresi dolan {} idempotency anahtarı silindi", purged);
+        }
+        return purged != null ? purged : 0;
+    }
+}
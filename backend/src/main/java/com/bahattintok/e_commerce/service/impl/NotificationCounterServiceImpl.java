@@ -0,0 +1,246 @@
+package com.bahattintok.e_commerce.service.impl;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bahattintok.e_commerce.repository.NotificationReadMarkRepository;
+import com.bahattintok.e_commerce.repository.NotificationRepository;
+import com.bahattintok.e_commerce.service.BroadcastNotificationService;
+import com.bahattintok.e_commerce.service.ClusterBusService;
+import com.bahattintok.e_commerce.service.NotificationCounterService;
+import com.bahattintok.e_commerce.service.RealtimeMessagingService;
+
+@Service
+public class NotificationCounterServiceImpl implements NotificationCounterService {
+
+    private static final String CLUSTER_TOPIC = "notification-counter";
+
+    /** Yavaş istemcide bekleyen eski sayaç mesajı yenisiyle değiştirilir */
+    private static final String COALESCE_KEY = "unread-count";
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationReadMarkRepository notificationReadMarkRepository;
+    private final BroadcastNotificationService broadcastNotificationService;
+    private final RealtimeMessagingService realtimeMessagingService;
+    private final ClusterBusService clusterBusService;
+
+    /** Kullanıcılar ID'lerine göre şeritlere dağılır; kilit sadece ilgili şeridi tutar */
+    private final Stripe[] stripes;
+
+    public NotificationCounterServiceImpl(NotificationRepository notificationRepository,
+                                          NotificationReadMarkRepository notificationReadMarkRepository,
+                                          @Lazy BroadcastNotificationService broadcastNotificationService,
+                                          RealtimeMessagingService realtimeMessagingService,
+                                          ClusterBusService clusterBusService,
+                                          @Value("${notification.counter.stripes:64}") int stripeCount,
+                                          @Value("${notification.counter.max-size:100000}") int maxSize) {
+        this.notificationRepository = notificationRepository;
+        this.notificationReadMarkRepository = notificationReadMarkRepository;
+        this.broadcastNotificationService = broadcastNotificationService;
+        this.realtimeMessagingService = realtimeMessagingService;
+        this.clusterBusService = clusterBusService;
+        int count = Math.max(1, stripeCount);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(Math.max(1, maxSize / count));
+        }
+        clusterBusService.subscribe(CLUSTER_TOPIC, this::applyRemote);
+        clusterBusService.onResync(this::clearLocal);
+    }
+
+    @Override
+    public long getUnreadCount(String userId) {
+        Stripe stripe = stripe(userId);
+        long loadedAt;
+        long cachedPersonal = -1;
+        long cachedReadUpTo = 0;
+        synchronized (stripe) {
+            Counter counter = stripe.counters.get(userId);
+            loadedAt = stripe.generation;
+            if (counter != null) {
+                cachedPersonal = counter.personal;
+                cachedReadUpTo = counter.readUpTo;
+            }
+        }
+        if (cachedPersonal >= 0) {
+            // Toplu bildirim sayısı şerit kilidi dışında hesaplanır (ilk kullanımda veritabanından yüklenebilir)
+            return total(cachedPersonal, cachedReadUpTo);
+        }
+        long personal = notificationRepository.countByUserIdAndReadFalse(userId);
+        long readUpTo = notificationReadMarkRepository.findBroadcastReadUpTo(userId).orElse(0L);
+        synchronized (stripe) {
+            // Yükleme sürerken şeritte bir değişiklik commit edildiyse değer eski olabilir; önbelleğe yazılmaz
+            if (stripe.generation == loadedAt) {
+                stripe.counters.put(userId, new Counter(personal, readUpTo, loadedAt));
+            }
+        }
+        return total(personal, readUpTo);
+    }
+
+    @Override
+    public void recordChange(String userId, String email, long delta) {
+        if (delta != 0) {
+            record(userId, email, counter -> counter.personal = Math.max(0, counter.personal + delta));
+        }
+    }
+
+    @Override
+    public void recordReadMark(String userId, String email, long readUpTo) {
+        record(userId, email, counter -> counter.readUpTo = Math.max(counter.readUpTo, readUpTo));
+    }
+
+    private void record(String userId, String email, Consumer<Counter> change) {
+        if (userId == null) {
+            return;
+        }
+        Stripe stripe = stripe(userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(stripe, userId, email, change, stripe.beginChange());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long changeGeneration;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // Bundan sonra yüklenen sayaçlar bu değişikliği zaten içeriyor olabilir
+                changeGeneration = stripe.beginChange();
+            }
+
+            @Override
+            public void afterCommit() {
+                apply(stripe, userId, email, change, changeGeneration);
+            }
+        });
+    }
+
+    @Override
+    public void resetAll(Collection<String> affectedEmails) {
+        afterCommit(() -> {
+            clearLocal();
+            clusterBusService.publish(CLUSTER_TOPIC, "all");
+            UnreadCountMessage reload = new UnreadCountMessage(null, true);
+            for (String email : affectedEmails) {
+                realtimeMessagingService.sendToUser(email, DESTINATION, reload, COALESCE_KEY);
+            }
+        });
+    }
+
+    private void apply(Stripe stripe, String userId, String email, Consumer<Counter> change, long changeGeneration) {
+        Counter snapshot = null;
+        synchronized (stripe) {
+            stripe.generation++;
+            Counter counter = stripe.counters.get(userId);
+            if (counter != null) {
+                if (counter.loadedAt >= changeGeneration) {
+                    // Değişiklik commit edilirken yüklenmiş; iki kez uygulanmasın diye sayaç yeniden yüklenir
+                    stripe.counters.remove(userId);
+                } else {
+                    change.accept(counter);
+                    snapshot = new Counter(counter.personal, counter.readUpTo, counter.loadedAt);
+                }
+            }
+        }
+        clusterBusService.publish(CLUSTER_TOPIC, "user:" + userId);
+        if (email != null) {
+            // Sayaç bellekte değilse istemci sayıyı yeniden yükler
+            UnreadCountMessage message = snapshot != null
+                    ? new UnreadCountMessage(total(snapshot.personal, snapshot.readUpTo), false)
+                    : new UnreadCountMessage(null, true);
+            realtimeMessagingService.sendToUser(email, DESTINATION, message, COALESCE_KEY);
+        }
+    }
+
+    private long total(long personal, long readUpTo) {
+        return personal + broadcastNotificationService.countUnread(readUpTo);
+    }
+
+    /**
+     * Diğer düğümde değişen sayaç burada silinir; bir sonraki istekte veritabanından yüklenir.
+     */
+    private void applyRemote(String message) {
+        if (message.startsWith("user:")) {
+            String userId = message.substring("user:".length());
+            Stripe stripe = stripe(userId);
+            synchronized (stripe) {
+                stripe.generation++;
+                stripe.counters.remove(userId);
+            }
+        } else {
+            clearLocal();
+        }
+    }
+
+    private void clearLocal() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.generation++;
+                stripe.counters.clear();
+            }
+        }
+    }
+
+    private Stripe stripe(String userId) {
+        return stripes[Math.floorMod(userId.hashCode(), stripes.length)];
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Kullanıcının kişisel okunmamış sayısı, toplu bildirim okuma işareti ve yüklendiği andaki şerit nesli
+     */
+    private static final class Counter {
+
+        private long personal;
+        private long readUpTo;
+        private final long loadedAt;
+
+        private Counter(long personal, long readUpTo, long loadedAt) {
+            this.personal = personal;
+            this.readUpTo = readUpTo;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * Sayaçların bir bölümü; en uzun süredir kullanılmayan sayaç sınır aşılınca atılır.
+     * Nesil, şeritte commit edilen her değişiklikte artar.
+     */
+    private static final class Stripe {
+
+        private final Map<String, Counter> counters;
+        private long generation;
+
+        private Stripe(int maxEntries) {
+            this.counters = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Counter> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        private synchronized long beginChange() {
+            return ++generation;
+        }
+    }
+}
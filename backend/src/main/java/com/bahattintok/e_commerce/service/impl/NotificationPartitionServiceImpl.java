@@ -0,0 +1,107 @@
+package com.bahattintok.e_commerce.service.impl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.bahattintok.e_commerce.service.NotificationPartitionService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationPartitionServiceImpl implements NotificationPartitionService {
+
+    /** Migration ile aynı ad biçimi: notifications_y2026m03 */
+    private static final Pattern PARTITION_NAME = Pattern.compile("notifications_y(\\d{4})m(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${notification.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createUpcomingPartitions() {
+        try {
+            ensurePartitions();
+        } catch (DataAccessException e) {
+            log.error("Bildirim bölümleri oluşturulamadı: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public int ensurePartitions() {
+        Set<String> existing = new HashSet<>(listPartitions());
+        YearMonth month = YearMonth.now();
+        int created = 0;
+        for (int i = 0; i <= monthsAhead; i++, month = month.plusMonths(1)) {
+            String name = partitionName(month);
+            if (existing.contains(name)) {
+                continue;
+            }
+            try {
+                jdbcTemplate.execute(String.format(
+                        "CREATE TABLE IF NOT EXISTS %s PARTITION OF notifications FOR VALUES FROM ('%s') TO ('%s')",
+                        name, month.atDay(1), month.plusMonths(1).atDay(1)));
+                created++;
+            } catch (DataAccessException e) {
+                // Başka düğüm aynı anda oluşturmuş olabilir
+                log.warn("Bildirim bölümü oluşturulamadı: {} - {}", name, e.getMessage());
+            }
+        }
+        if (created > 0) {
+            log.info("{} yeni bildirim bölümü oluşturuldu", created);
+        }
+        return created;
+    }
+
+    @Override
+    public int dropExpiredPartitions(LocalDateTime cutoff) {
+        Set<String> pending = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'notifications'::regclass AND i.inhdetachpending", String.class));
+        int dropped = 0;
+        for (String name : listPartitions()) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (!matcher.matches()) {
+                continue;
+            }
+            LocalDate monthEnd = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)))
+                    .plusMonths(1).atDay(1);
+            if (!monthEnd.atStartOfDay().isAfter(cutoff)) {
+                // Bölüm önce eşzamanlı ayrılır; üst tablodaki okuma/yazmalar kilitlenmez.
+                // Yarıda kalmış bir ayırma FINALIZE ile tamamlanır. İşlem dışında çalışmalıdır.
+                jdbcTemplate.execute("ALTER TABLE notifications DETACH PARTITION " + name
+                        + (pending.contains(name) ? " FINALIZE" : " CONCURRENTLY"));
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+                dropped++;
+                log.info("Saklama süresi dolan bildirim bölümü düşürüldü: {}", name);
+            }
+        }
+        return dropped;
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'notifications'::regclass", String.class);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("notifications_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+}
@@ -1,18 +1,34 @@
 package com.bahattintok.e_commerce.service.impl;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.bahattintok.e_commerce.dto.NotificationFeedItem;
+import com.bahattintok.e_commerce.dto.NotificationFeedPage;
+import com.bahattintok.e_commerce.model.BroadcastNotification;
 import com.bahattintok.e_commerce.model.Notification;
 import com.bahattintok.e_commerce.model.User;
+import com.bahattintok.e_commerce.repository.NotificationReadMarkRepository;
 import com.bahattintok.e_commerce.repository.NotificationRepository;
+import com.bahattintok.e_commerce.service.BroadcastNotificationService;
+import com.bahattintok.e_commerce.service.NotificationCounterService;
+import com.bahattintok.e_commerce.service.NotificationPartitionService;
 import com.bahattintok.e_commerce.service.NotificationService;
 
 /**
@@ -25,6 +41,31 @@ public class NotificationServiceImpl implements NotificationService {
     @Autowired
     private NotificationRepository notificationRepository;
     
+    @Autowired
+    private NotificationCounterService notificationCounterService;
+    
+    @Autowired
+    private BroadcastNotificationService broadcastNotificationService;
+    
+    @Autowired
+    private NotificationPartitionService notificationPartitionService;
+    
+    @Autowired
+    private NotificationReadMarkRepository notificationReadMarkRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    /** Akış sırası: en yeni önce; aynı anda oluşanlarda kişisel bildirim önce, sonra ID azalan */
+    private static final Comparator<NotificationFeedItem> FEED_ORDER = Comparator
+        .comparing(NotificationFeedItem::getCreatedAt)
+        .thenComparing(NotificationFeedItem::getSource)
+        .thenComparing(NotificationFeedItem::getId)
+        .reversed();
+    
+    @Value("${notification.retention-days:30}")
+    private int retentionDays;
+    
     @Override
     public Page<Notification> getUserNotifications(User user, Pageable pageable) {
         return notificationRepository.findByUserOrderByCreatedAtDesc(user, pageable);
@@ -36,18 +77,144 @@ public class NotificationServiceImpl implements NotificationService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public long getUnreadCount(User user) {
-        return notificationRepository.countByUserAndReadFalse(user);
+        return notificationCounterService.getUnreadCount(user.getId());
     }
     
     @Override
     public void markAsRead(Long notificationId, User user) {
-        notificationRepository.markAsReadByIdAndUser(notificationId, user);
+        int updated = notificationRepository.markAsReadByIdAndUser(notificationId, user);
+        notificationCounterService.recordChange(user.getId(), user.getEmail(), -updated);
     }
     
     @Override
     public void markAllAsRead(User user) {
-        notificationRepository.markAllAsReadByUser(user);
+        int updated = notificationRepository.markAllAsReadByUser(user);
+        notificationCounterService.recordChange(user.getId(), user.getEmail(), -updated);
+        broadcastNotificationService.markAllAsRead(user);
+    }
+    
+    @Override
+    public void markBroadcastAsRead(Long broadcastId, User user) {
+        broadcastNotificationService.markAsRead(user, broadcastId);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public NotificationFeedPage getFeed(User user, String cursor, int size) {
+        FeedCursor after = FeedCursor.decode(cursor);
+        long readUpTo = notificationReadMarkRepository.findBroadcastReadUpTo(user.getId()).orElse(0L);
+        
+        // Her kaynaktan en fazla size + 1 kayıt (indeks sırasıyla) okunur ve birleştirilir
+        List<NotificationFeedItem> merged = new ArrayList<>(personalFeed(user.getId(), after, size + 1));
+        merged.addAll(broadcastFeed(readUpTo, after, size + 1));
+        merged.sort(FEED_ORDER);
+        
+        if (merged.size() <= size) {
+            return new NotificationFeedPage(merged, null);
+        }
+        List<NotificationFeedItem> items = new ArrayList<>(merged.subList(0, size));
+        return new NotificationFeedPage(items, FeedCursor.of(items.get(size - 1)).encode());
+    }
+    
+    private List<NotificationFeedItem> personalFeed(String userId, FeedCursor after, int limit) {
+        String sql = "SELECT id, title, message, type, read, created_at, related_entity_id, related_entity_type " +
+            "FROM notifications WHERE user_id = ?%s ORDER BY created_at DESC, id DESC LIMIT ?";
+        if (after == null) {
+            return jdbcTemplate.query(String.format(sql, ""), NotificationServiceImpl::mapPersonal, userId, limit);
+        }
+        if (NotificationFeedItem.SOURCE_PERSONAL.equals(after.source())) {
+            return jdbcTemplate.query(String.format(sql, " AND (created_at, id) < (?, ?)"),
+                NotificationServiceImpl::mapPersonal, userId, after.createdAt(), after.id(), limit);
+        }
+        // İmleç toplu bildirimdeyse aynı andaki kişisel bildirimler zaten gösterildi
+        return jdbcTemplate.query(String.format(sql, " AND created_at < ?"),
+            NotificationServiceImpl::mapPersonal, userId, after.createdAt(), limit);
+    }
+    
+    private List<NotificationFeedItem> broadcastFeed(long readUpTo, FeedCursor after, int limit) {
+        String sql = "SELECT id, title, message, type, created_at FROM broadcast_notifications%s " +
+            "ORDER BY created_at DESC, id DESC LIMIT ?";
+        if (after == null) {
+            return jdbcTemplate.query(String.format(sql, ""), (rs, row) -> mapBroadcast(rs, readUpTo), limit);
+        }
+        if (NotificationFeedItem.SOURCE_BROADCAST.equals(after.source())) {
+            return jdbcTemplate.query(String.format(sql, " WHERE (created_at, id) < (?, ?)"),
+                (rs, row) -> mapBroadcast(rs, readUpTo), after.createdAt(), after.id(), limit);
+        }
+        // İmleç kişisel bildirimdeyse aynı andaki toplu bildirimler henüz gösterilmedi
+        return jdbcTemplate.query(String.format(sql, " WHERE created_at <= ?"),
+            (rs, row) -> mapBroadcast(rs, readUpTo), after.createdAt(), limit);
+    }
+    
+    private static NotificationFeedItem mapPersonal(ResultSet rs, int row) throws SQLException {
+        return new NotificationFeedItem(NotificationFeedItem.SOURCE_PERSONAL, rs.getLong("id"),
+            rs.getString("title"), rs.getString("message"), rs.getString("type"), rs.getBoolean("read"),
+            rs.getTimestamp("created_at").toLocalDateTime(), rs.getObject("related_entity_id", Long.class),
+            rs.getString("related_entity_type"));
+    }
+    
+    private static NotificationFeedItem mapBroadcast(ResultSet rs, long readUpTo) throws SQLException {
+        long id = rs.getLong("id");
+        return new NotificationFeedItem(NotificationFeedItem.SOURCE_BROADCAST, id,
+            rs.getString("title"), rs.getString("message"), rs.getString("type"), id <= readUpTo,
+            rs.getTimestamp("created_at").toLocalDateTime(), null, null);
+    }
+    
+    /**
+     * Akışta kalınan yer: son gösterilen kaydın zamanı, kaynağı ve ID'si (URL'de base64 olarak taşınır)
+     */
+    private record FeedCursor(LocalDateTime createdAt, String source, long id) {
+        
+        static FeedCursor of(NotificationFeedItem item) {
+            return new FeedCursor(item.getCreatedAt(), item.getSource(), item.getId());
+        }
+        
+        static FeedCursor decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return null;
+            }
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                return new FeedCursor(LocalDateTime.parse(parts[0]), parts[1], Long.parseLong(parts[2]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Geçersiz bildirim imleci");
+            }
+        }
+        
+        String encode() {
+            String raw = createdAt + "|" + source + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+    
+    @Override
+    public int markAllAsReadForAllUsers() {
+        // Güncelleme ve etkilenen alıcılar tek ifadede alınır; arada gelen bildirimler atlanmaz
+        List<String> affectedEmails = new ArrayList<>();
+        int[] updated = { 0 };
+        jdbcTemplate.query("WITH updated AS (UPDATE notifications SET read = true WHERE read = false RETURNING user_id) " +
+            "SELECT u.email, COUNT(*) FROM updated JOIN users u ON u.id = updated.user_id GROUP BY u.email",
+            rs -> {
+                affectedEmails.add(rs.getString(1));
+                updated[0] += rs.getInt(2);
+            });
+        // Toplu bildirim işaretleri değişmediğinden sayaçlar sıfırlanır, yalnızca etkilenenler yeniden yükler
+        notificationCounterService.resetAll(affectedEmails);
+        return updated[0];
+    }
+    
+    @Override
+    public void deleteNotification(Long notificationId) {
+        Notification notification = notificationRepository.findById(notificationId)
+            .orElseThrow(() -> new RuntimeException("Bildirim bulunamadı"));
+        User user = notification.getUser();
+        boolean unread = !notification.isRead();
+        notificationRepository.delete(notification);
+        if (unread) {
+            notificationCounterService.recordChange(user.getId(), user.getEmail(), -1);
+        }
     }
     
     @Override
@@ -60,7 +227,9 @@ public class NotificationServiceImpl implements NotificationService {
         notification.setRead(false);
         notification.setCreatedAt(LocalDateTime.now());
         
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        notificationCounterService.recordChange(user.getId(), user.getEmail(), 1);
+        return saved;
     }
     
     @Override
@@ -91,10 +260,28 @@ public class NotificationServiceImpl implements NotificationService {
         createNotification(title, message, "SYSTEM", user);
     }
     
+    @Override
+    public BroadcastNotification broadcastPromotion(String title, String message) {
+        return broadcastNotificationService.broadcast(title, message, "PROMOTION");
+    }
+    
+    @Override
+    public BroadcastNotification broadcastSystemNotification(String title, String message) {
+        return broadcastNotificationService.broadcast(title, message, "SYSTEM");
+    }
+    
     @Override
     @Scheduled(cron = "0 0 2 * * ?") // Her gün saat 02:00'de çalışır
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void cleanupOldNotifications() {
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        notificationRepository.deleteOldNotifications(thirtyDaysAgo);
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        notificationPartitionService.ensurePartitions();
+        // Tamamı süresi dolan aylar bölüm olarak düşürülür; kayıtlar en geç bir ay fazladan saklanır
+        int dropped = notificationPartitionService.dropExpiredPartitions(cutoff);
+        broadcastNotificationService.purgeExpired(cutoff);
+        if (dropped > 0) {
+            // Düşürülenler arasında okunmamışlar olabilir; sayaçlar yeniden yüklenir
+            notificationCounterService.resetAll(List.of());
+        }
     }
 } 
\ No newline at end of file
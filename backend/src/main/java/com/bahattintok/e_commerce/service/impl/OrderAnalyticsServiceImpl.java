@@ -0,0 +1,138 @@
+package com.bahattintok.e_commerce.service.impl;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bahattintok.e_commerce.model.Order;
+import com.bahattintok.e_commerce.model.OrderDailyStats;
+import com.bahattintok.e_commerce.repository.OrderDailyStatsRepository;
+import com.bahattintok.e_commerce.repository.OrderRepository;
+import com.bahattintok.e_commerce.service.OrderAnalyticsService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderAnalyticsServiceImpl implements OrderAnalyticsService {
+
+    /** Özet tablosu bu advisory lock altında silinip doldurulur; düğümler aynı anda yeniden oluşturmaz */
+    private static final long REBUILD_LOCK_KEY = 0x6f72646572737473L;
+
+    private final OrderDailyStatsRepository orderDailyStatsRepository;
+    private final OrderRepository orderRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    @Transactional
+    public void recordOrderPlaced(Order order) {
+        if (order.getCreatedAt() == null || !Order.isCountedStatus(order.getStatus())) {
+            return;
+        }
+        orderDailyStatsRepository.increment(
+                order.getCreatedAt().toLocalDate(), order.getStatus(), 1, amountOf(order));
+    }
+
+    @Override
+    @Transactional
+    public void recordStatusChange(Order order, String oldStatus, String newStatus) {
+        if (order.getCreatedAt() == null || oldStatus == null || newStatus == null || oldStatus.equals(newStatus)) {
+            return;
+        }
+        LocalDate day = order.getCreatedAt().toLocalDate();
+        BigDecimal amount = amountOf(order);
+        // Sayılmayan durumdan (ör. PENDING_PAYMENT) çıkan sipariş özette hiç yoktu; sayılmayan duruma giren de eklenmez
+        if (Order.isCountedStatus(oldStatus)) {
+            orderDailyStatsRepository.increment(day, oldStatus, -1, amount.negate());
+        }
+        if (Order.isCountedStatus(newStatus)) {
+            orderDailyStatsRepository.increment(day, newStatus, 1, amount);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void recordOrderRemoved(Order order) {
+        if (order.getCreatedAt() == null || !Order.isCountedStatus(order.getStatus())) {
+            return;
+        }
+        orderDailyStatsRepository.increment(
+                order.getCreatedAt().toLocalDate(), order.getStatus(), -1, amountOf(order).negate());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getTotalOrderCount() {
+        return orderDailyStatsRepository.sumOrderCount();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getOrderCount(String status) {
+        return orderDailyStatsRepository.sumOrderCountByStatus(status);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getRevenue(String status) {
+        return orderDailyStatsRepository.sumTotalAmountByStatus(status);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderDailyStats> getDailyStats(LocalDate start, LocalDate end) {
+        return orderDailyStatsRepository.findByStatDateBetween(start, end);
+    }
+
+    @Override
+    @Transactional
+    public void rebuild() {
+        // Başka bir düğüm yeniden oluşturuyorsa o bitene kadar beklenir
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, REBUILD_LOCK_KEY);
+        rebuildRows();
+    }
+
+    /**
+     * Özet tablosu boşsa ve sipariş varsa başlangıçta doldurur. Kontrol ve doldurma tek transaction'da,
+     * advisory lock altında yapılır: aynı anda açılan düğümlerden yalnızca kilidi alan doldurur, diğerleri atlar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeIfEmpty() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                        REBUILD_LOCK_KEY);
+                if (!Boolean.TRUE.equals(locked)) {
+                    log.info("Sipariş özet tablosu başka bir düğümde oluşturuluyor, atlandı");
+                    return;
+                }
+                // Kilit alındıktan sonra yeniden sayılır; önceki düğümün commit ettiği satırlar görülür
+                if (orderDailyStatsRepository.count() == 0 && orderRepository.count() > 0) {
+                    rebuildRows();
+                }
+            });
+        } catch (Exception e) {
+            log.error("Sipariş özet tablosu başlatılamadı: {}", e.getMessage(), e);
+        }
+    }
+
+    private void rebuildRows() {
+        orderDailyStatsRepository.deleteAllRows();
+        orderDailyStatsRepository.rebuildFromOrders();
+        log.info("Sipariş özet tablosu yeniden oluşturuldu");
+    }
+
+    private BigDecimal amountOf(Order order) {
+        return order.getTotalPrice() != null ? order.getTotalPrice() : BigDecimal.ZERO;
+    }
+}
@@ -3,25 +3,30 @@ package com.bahattintok.e_commerce.service.impl;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.bahattintok.e_commerce.event.OrderPlacedEvent;
-import com.bahattintok.e_commerce.model.Cart;
-import com.bahattintok.e_commerce.model.CartItem;
 import com.bahattintok.e_commerce.model.Order;
 import com.bahattintok.e_commerce.model.OrderItem;
 import com.bahattintok.e_commerce.model.Product;
 import com.bahattintok.e_commerce.model.User;
-import com.bahattintok.e_commerce.repository.CartRepository;
-import com.bahattintok.e_commerce.repository.OrderItemRepository;
 import com.bahattintok.e_commerce.repository.OrderRepository;
 import com.bahattintok.e_commerce.repository.ProductRepository;
+import com.bahattintok.e_commerce.service.CartWriteBehindService;
+import com.bahattintok.e_commerce.service.OrderAnalyticsService;
 import com.bahattintok.e_commerce.service.OrderService;
+import com.bahattintok.e_commerce.service.StockReservationService;
+import com.bahattintok.e_commerce.service.StoreSalesService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -29,16 +34,18 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
     private final OrderRepository orderRepository;
-    private final OrderItemRepository orderItemRepository;
-    private final CartRepository cartRepository;
     private final ProductRepository productRepository;
     private final ApplicationEventPublisher eventPublisher;
+    private final StockReservationService stockReservationService;
+    private final CartWriteBehindService cartWriteBehindService;
+    private final OrderAnalyticsService orderAnalyticsService;
+    private final StoreSalesService storeSalesService;
 
     @Override
     @Transactional
     public Order createOrder(User user) {
-        Cart cart = cartRepository.findByUser(user).orElseThrow(() -> new RuntimeException("Sepet bulunamadı!"));
-        if (cart.getItems().isEmpty()) throw new RuntimeException("Sepetiniz boş!");
+        Map<String, Integer> lines = cartWriteBehindService.getLines(user);
+        if (lines.isEmpty()) throw new RuntimeException("Sepetiniz boş!");
 
         Order order = new Order();
         order.setUser(user);
@@ -46,68 +53,87 @@ public class OrderServiceImpl implements OrderService {
         order.setStatus("COMPLETED");
         order.setItems(new ArrayList<>());
 
+        // Stokları tek transaction içinde koşullu ve atomik olarak düş (yetersizse tamamı geri alınır)
+        stockReservationService.decrementAll(lines);
+
+        Map<String, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(lines.keySet())) {
+            products.put(product.getId(), product);
+        }
         BigDecimal total = BigDecimal.ZERO;
-        for (CartItem cartItem : cart.getItems()) {
-            Product product = cartItem.getProduct();
-            int newStock = product.getStock() - cartItem.getQuantity();
-            if (newStock < 0) {
-                throw new RuntimeException(product.getName() + " için stok yetersiz!");
-            }
-            product.setStock(newStock);
-            productRepository.save(product);
+        for (Map.Entry<String, Integer> line : lines.entrySet()) {
+            Product product = products.get(line.getKey());
+            if (product == null) throw new RuntimeException("Ürün bulunamadı: " + line.getKey());
 
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
             orderItem.setProduct(product);
-            orderItem.setQuantity(cartItem.getQuantity());
+            orderItem.setQuantity(line.getValue());
             orderItem.setPrice(product.getPrice());
             order.getItems().add(orderItem);
-            total = total.add(product.getPrice().multiply(BigDecimal.valueOf(cartItem.getQuantity())));
+            total = total.add(product.getPrice().multiply(BigDecimal.valueOf(line.getValue())));
         }
         order.setTotalPrice(total);
+        // Kalemler cascade ile siparişle birlikte yazılır; UUID'ler uygulamada üretildiği için insert'ler batch'lenir
         Order savedOrder = orderRepository.save(order);
-        orderItemRepository.saveAll(order.getItems());
         
         // Sipariş onay email'i gönder
         eventPublisher.publishEvent(new OrderPlacedEvent(this, savedOrder));
         
-        // Sepeti temizle
-        cart.getItems().clear();
-        cartRepository.save(cart);
+        // Sepeti temizle (commit sonrası bellekte, veritabanına geriden yazılır)
+        cartWriteBehindService.clear(user);
         return savedOrder;
     }
 
     @Override
     @Transactional
     public Order createOrder(User user, List<Map<String, Object>> items, Double total) {
+        return createOrder(user, items, total, null);
+    }
+
+    @Override
+    @Transactional
+    public Order createOrder(User user, List<Map<String, Object>> items, Double total, String requestKey) {
         if (items == null || items.isEmpty()) {
             throw new RuntimeException("Sipariş öğeleri boş olamaz!");
         }
 
+        // Aynı isteğin önceki çalışması siparişi yazdıysa (idempotency kaydı tamamlanamadan kalmış) onu döndür.
+        // Eşzamanlı tekrarda tekil indeks ikinci insert'ü reddeder, stok düşümü de geri alınır
+        if (requestKey != null) {
+            Optional<Order> existing = orderRepository.findByUserIdAndRequestKey(user.getId(), requestKey);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+        }
+
         Order order = new Order();
         order.setUser(user);
+        order.setRequestKey(requestKey);
         order.setCreatedAt(LocalDateTime.now());
         order.setStatus("COMPLETED");
         order.setItems(new ArrayList<>());
         order.setTotalPrice(BigDecimal.valueOf(total));
 
+        // Stokları tek transaction içinde koşullu ve atomik olarak düş (yetersizse tamamı geri alınır)
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (Map<String, Object> itemData : items) {
+            quantities.merge(itemData.get("productId").toString(), ((Number) itemData.get("quantity")).intValue(), Integer::sum);
+        }
+        stockReservationService.decrementAll(quantities);
+
+        // Ürünler tek sorguda
+        Map<String, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(quantities.keySet())) {
+            products.put(product.getId(), product);
+        }
         for (Map<String, Object> itemData : items) {
             String productId = itemData.get("productId").toString();
             Integer quantity = ((Number) itemData.get("quantity")).intValue();
             BigDecimal price = BigDecimal.valueOf(((Number) itemData.get("price")).doubleValue());
 
-            Product product = productRepository.findById(productId)
-                    .orElseThrow(() -> new RuntimeException("Ürün bulunamadı: " + productId));
-
-            // Stok kontrolü
-            int newStock = product.getStock() - quantity;
-            if (newStock < 0) {
-                throw new RuntimeException(product.getName() + " için stok yetersiz!");
-            }
-
-            // Stok güncelle
-            product.setStock(newStock);
-            productRepository.save(product);
+            Product product = products.get(productId);
+            if (product == null) throw new RuntimeException("Ürün bulunamadı: " + productId);
 
             // OrderItem oluştur
             OrderItem orderItem = new OrderItem();
@@ -118,18 +144,14 @@ public class OrderServiceImpl implements OrderService {
             order.getItems().add(orderItem);
         }
 
+        // Kalemler cascade ile siparişle birlikte yazılır; UUID'ler uygulamada üretildiği için insert'ler batch'lenir
         Order savedOrder = orderRepository.save(order);
-        orderItemRepository.saveAll(order.getItems());
         
         // Sipariş onay email'i gönder
         eventPublisher.publishEvent(new OrderPlacedEvent(this, savedOrder));
 
-        // Sepeti temizle
-        Cart cart = cartRepository.findByUser(user).orElse(null);
-        if (cart != null) {
-            cart.getItems().clear();
-            cartRepository.save(cart);
-        }
+        // Sepeti temizle (commit sonrası bellekte, veritabanına geriden yazılır)
+        cartWriteBehindService.clear(user);
 
         return savedOrder;
     }
@@ -137,7 +159,86 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional(readOnly = true)
     public List<Order> getUserOrders(User user) {
-        return orderRepository.findByUserWithItemsAndProducts(user);
+        return withItems(orderRepository.findByUserOrderByCreatedAtDesc(user));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Order> getAllOrders() {
+        return withItems(orderRepository.findAllByOrderByCreatedAtDesc());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Order> getOrdersByStatus(String status) {
+        return withItems(orderRepository.findByStatusOrderByCreatedAtDesc(status));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Order> getRecentOrders(Pageable pageable) {
+        Page<Order> page = orderRepository.findAllByOrderByCreatedAtDesc(pageable);
+        withItems(page.getContent());
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Order> getStoreOrders(String storeId, String status, Pageable pageable) {
+        Page<Order> page = status == null || "all".equals(status)
+                ? orderRepository.findByStoreId(storeId, pageable)
+                : orderRepository.findByStoreIdAndStatus(storeId, status, pageable);
+        withItems(page.getContent());
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Order> searchStoreOrders(String storeId, String status, String customerName, String query, Pageable pageable) {
+        Page<Order> page = orderRepository.searchStoreOrders(storeId, status, customerName, query, pageable);
+        withItems(page.getContent());
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Order> getOrderDetail(String orderId) {
+        return orderRepository.findByIdWithUserAndItems(orderId);
+    }
+
+    @Override
+    @Transactional
+    public int deleteUserOrders(User user) {
+        // Kalemler özetlerden düşmek için silmeden önce yüklenir
+        List<Order> orders = withItems(orderRepository.findByUserOrderByCreatedAtDesc(user));
+        orderRepository.deleteAll(orders);
+        orders.forEach(orderAnalyticsService::recordOrderRemoved);
+        orders.forEach(storeSalesService::recordOrderRemoved);
+        return orders.size();
+    }
+
+    @Override
+    @Transactional
+    public Optional<Order> updateStatus(String orderId, String newStatus) {
+        Optional<Order> found = orderRepository.findByIdWithUserAndItems(orderId);
+        found.ifPresent(order -> {
+            String oldStatus = order.getStatus();
+            order.setStatus(newStatus);
+            orderRepository.save(order);
+            orderAnalyticsService.recordStatusChange(order, oldStatus, newStatus);
+        });
+        return found;
+    }
+
+    /**
+     * Yüklenmiş siparişlerin kalemlerini tek sorguda doldurur; sipariş başına ek sorgu oluşmaz.
+     * Sipariş sorgusu kalemlerle JOIN edilmediği için sayfalama veritabanında kalır ve satırlar çoğalmaz.
+     */
+    private List<Order> withItems(List<Order> orders) {
+        if (!orders.isEmpty()) {
+            orderRepository.fetchItems(orders);
+        }
+        return orders;
     }
     
     /**
@@ -145,7 +246,7 @@ public class OrderServiceImpl implements OrderService {
      * 
      * 1. Sipariş Oluşturma: Sepetten sipariş oluşturma işlemi
      * 2. Stok Kontrolü: Sipariş sırasında stok yeterliliği kontrolü
-     * 3. Stok Güncelleme: Sipariş sonrası stok miktarını azaltma
+     * 3. Stok Güncelleme: Sipariş sonrası stok miktarını atomik olarak azaltma
      * 4. Toplam Hesaplama: Sipariş toplam tutarını hesaplama
      * 5. Sepet Temizleme: Sipariş sonrası sepeti temizleme
      * 6. Sipariş Geçmişi: Kullanıcının geçmiş siparişlerini getirme
@@ -0,0 +1,296 @@
+package com.bahattintok.e_commerce.service.impl;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bahattintok.e_commerce.dto.CreditCardRequest;
+import com.bahattintok.e_commerce.dto.PaymentResult;
+import com.bahattintok.e_commerce.event.OrderPlacedEvent;
+import com.bahattintok.e_commerce.model.Order;
+import com.bahattintok.e_commerce.model.PaymentRefund;
+import com.bahattintok.e_commerce.repository.OrderRepository;
+import com.bahattintok.e_commerce.repository.PaymentRefundRepository;
+import com.bahattintok.e_commerce.service.PaymentGateway;
+import com.bahattintok.e_commerce.service.PaymentService;
+import com.bahattintok.e_commerce.service.StockReservationService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class PaymentServiceImpl implements PaymentService {
+
+    private final PaymentGateway paymentGateway;
+    private final OrderRepository orderRepository;
+    private final PaymentRefundRepository paymentRefundRepository;
+    private final StockReservationService stockReservationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor paymentTaskExecutor;
+    private final Executor paymentReconcileExecutor;
+
+    /** Önceki mutabakat turu bitmeden yenisi başlatılmaz */
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+
+    @Value("${payment.gateway.timeout-seconds:30}")
+    private long timeoutSeconds;
+
+    @Value("${payment.stale-order-minutes:${stock.reservation.ttl-minutes:15}}")
+    private long staleOrderMinutes;
+
+    /** İade denemesinin kiralama süresi; iletilemeyen iade bu süre sonunda mutabakatla yeniden denenir */
+    @Value("${payment.refund.retry-seconds:120}")
+    private long refundRetrySeconds;
+
+    public PaymentServiceImpl(PaymentGateway paymentGateway,
+                              OrderRepository orderRepository,
+                              PaymentRefundRepository paymentRefundRepository,
+                              StockReservationService stockReservationService,
+                              ApplicationEventPublisher eventPublisher,
+                              SimpMessagingTemplate messagingTemplate,
+                              PlatformTransactionManager transactionManager,
+                              @Qualifier("paymentTaskExecutor") Executor paymentTaskExecutor,
+                              @Qualifier("paymentReconcileExecutor") Executor paymentReconcileExecutor) {
+        this.paymentGateway = paymentGateway;
+        this.orderRepository = orderRepository;
+        this.paymentRefundRepository = paymentRefundRepository;
+        this.stockReservationService = stockReservationService;
+        this.eventPublisher = eventPublisher;
+        this.messagingTemplate = messagingTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.paymentTaskExecutor = paymentTaskExecutor;
+        this.paymentReconcileExecutor = paymentReconcileExecutor;
+    }
+
+    @Override
+    public void startPayment(Order order, String userEmail, String reservationKey, CreditCardRequest creditCard) {
+        String orderId = order.getId();
+        BigDecimal amount = order.getTotalPrice();
+
+        CompletableFuture<PaymentResult> charge = paymentGateway.charge(orderId, creditCard, amount);
+
+        // Zaman aşımı ret sayılmaz: tahsilat sağlayıcıda hâlâ sürüyor olabilir. Sipariş PAYMENT_UNKNOWN olur,
+        // geç gelen sonuç yine işlenir; hiç gelmezse mutabakat görevi sağlayıcıdan sorgular
+        CompletableFuture.delayedExecutor(timeoutSeconds, TimeUnit.SECONDS, paymentTaskExecutor).execute(() -> {
+            if (!charge.isDone()) {
+                log.warn("Ödeme sağlayıcısı {} sn içinde yanıt vermedi: {}", timeoutSeconds, orderId);
+                markUnknown(orderId, userEmail);
+            }
+        });
+
+        charge.whenCompleteAsync((result, error) -> {
+                    if (error != null) {
+                        // Bağlantı hatasında tahsilatın yapılıp yapılmadığı bilinmez
+                        log.warn("Ödeme sağlayıcısından yanıt alınamadı: {} - {}", orderId, error.getMessage());
+                        markUnknown(orderId, userEmail);
+                    } else {
+                        completePayment(orderId, userEmail, reservationKey, amount, result);
+                    }
+                }, paymentTaskExecutor)
+                .exceptionally(e -> {
+                    log.error("Ödeme sonucu işlenemedi: {}", orderId, e);
+                    return null;
+                });
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${payment.reconcile-interval-ms:60000}")
+    public void reconcilePayments() {
+        // Sağlayıcı sorguları yanıtı bekler; ortak zamanlayıcı thread'i diğer görevler için serbest kalsın diye
+        // tur kendi executor'ında çalışır
+        if (!reconciling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            paymentReconcileExecutor.execute(() -> {
+                try {
+                    reconcileNow();
+                } finally {
+                    reconciling.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            reconciling.set(false);
+            log.warn("Ödeme mutabakatı başlatılamadı: {}", e.getMessage());
+        }
+    }
+
+    private void reconcileNow() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleBefore = now.minusMinutes(staleOrderMinutes);
+        List<String> orderIds = new ArrayList<>(
+                orderRepository.findIdsByStatusAndCreatedAtBefore(Order.STATUS_PAYMENT_UNKNOWN, now));
+        orderIds.addAll(orderRepository.findIdsByStatusAndCreatedAtBefore(Order.STATUS_PENDING_PAYMENT, staleBefore));
+        for (String orderId : orderIds) {
+            try {
+                reconcile(orderId, staleBefore);
+            } catch (Exception e) {
+                // Sağlayıcıya ulaşılamadıysa sipariş olduğu gibi kalır, sonraki turda yeniden sorgulanır
+                log.warn("Ödeme mutabakatı yapılamadı: {} - {}", orderId, e.getMessage());
+            }
+        }
+        // Sağlayıcıya iletilemeyen iadeler yeniden denenir
+        for (String transactionId : paymentRefundRepository.findReadyTransactionIds(PaymentRefund.STATUS_PENDING, now)) {
+            try {
+                refund(transactionId);
+            } catch (Exception e) {
+                log.warn("İade yeniden denenemedi: {} - {}", transactionId, e.getMessage());
+            }
+        }
+    }
+
+    private void reconcile(String orderId, LocalDateTime staleBefore) throws Exception {
+        Order order = orderRepository.findByIdWithUserAndItems(orderId).orElse(null);
+        if (order == null) {
+            return;
+        }
+        Optional<PaymentResult> charge = paymentGateway.findCharge(orderId).get(timeoutSeconds, TimeUnit.SECONDS);
+        if (charge.isPresent()) {
+            completePayment(orderId, order.getUser().getEmail(), order.getReservationKey(), order.getTotalPrice(), charge.get());
+        } else if (order.getCreatedAt().isBefore(staleBefore)) {
+            // Sağlayıcıda kayıt yok: tahsilat hiç yapılmamış. Sonradan gelirse sipariş FAILED olduğu için iade talebi yazılır
+            completePayment(orderId, order.getUser().getEmail(), order.getReservationKey(), order.getTotalPrice(),
+                    PaymentResult.declined("Ödeme sağlayıcısında tahsilat bulunamadı"));
+            log.info("Sonuçlanmayan ödeme başarısız sayıldı: {}", orderId);
+        }
+    }
+
+    private void markUnknown(String orderId, String userEmail) {
+        Integer updated = transactionTemplate.execute(status -> orderRepository.transitionStatus(
+                orderId, Order.STATUS_PENDING_PAYMENT, Order.STATUS_PAYMENT_UNKNOWN));
+        if (updated != null && updated > 0) {
+            messagingTemplate.convertAndSendToUser(userEmail, "/queue/payments", outcome(orderId,
+                    Order.STATUS_PAYMENT_UNKNOWN, "Ödeme sonucu henüz netleşmedi, sağlayıcıdan kontrol ediliyor"));
+        }
+    }
+
+    private void completePayment(String orderId, String userEmail, String reservationKey,
+                                 BigDecimal amount, PaymentResult result) {
+        List<String> refunds = new ArrayList<>();
+        Map<String, Object> outcome = transactionTemplate.execute(status ->
+                applyResult(orderId, reservationKey, amount, result, refunds));
+        // İade, siparişi başarısız sayan karar commit edildikten sonra sağlayıcıya iletilir
+        refunds.forEach(this::refund);
+        if (outcome != null) {
+            // Bildirim transaction commit edildikten sonra gönderilir; istemci durumu sorguladığında aynı sonucu görür
+            messagingTemplate.convertAndSendToUser(userEmail, "/queue/payments", outcome);
+        }
+    }
+
+    /**
+     * Ödeme sonucunu transaction içinde uygular. Tahsilatın iadesi gerekiyorsa burada yalnızca iade talebi yazılır
+     * ve işlem numarası refunds'a eklenir; sağlayıcı çağrısı commit sonrası yapılır.
+     */
+    private Map<String, Object> applyResult(String orderId, String reservationKey,
+                                            BigDecimal amount, PaymentResult result, List<String> refunds) {
+        if (!result.isSuccess()) {
+            if (!transitionFromAwaiting(orderId, Order.STATUS_FAILED)) {
+                return null;
+            }
+            stockReservationService.release(reservationKey);
+            return outcome(orderId, Order.STATUS_FAILED, result.getMessage());
+        }
+
+        if (!transitionFromAwaiting(orderId, Order.STATUS_PAID)) {
+            // Aynı tahsilat hem geç gelen yanıtla hem mutabakatla bildirilebilir; zaten PAID ise yapılacak bir şey yok.
+            // Sipariş bu arada tahsilat bulunamadığı için başarısız sayıldıysa tahsilat iade edilir
+            if (Order.STATUS_FAILED.equals(orderRepository.findStatusById(orderId).orElse(null))) {
+                requestRefund(orderId, result.getTransactionId(), amount, refunds);
+            }
+            return null;
+        }
+
+        // Rezervasyon süresi dolduysa stok başkasına satılmış olabilir: sipariş başarısız, tahsilat iade
+        if (!stockReservationService.commit(reservationKey)) {
+            if (orderRepository.transitionStatus(orderId, Order.STATUS_PAID, Order.STATUS_FAILED) == 0) {
+                // Sipariş bu transaction'da PAID yapıldı ve satır kilitli; değişmişse karar geri alınır
+                throw new IllegalStateException("Sipariş PAID durumundan çıkarılamadı: " + orderId);
+            }
+            requestRefund(orderId, result.getTransactionId(), amount, refunds);
+            return outcome(orderId, Order.STATUS_FAILED, "Ödeme süresi aşıldı, tahsilat iade edildi");
+        }
+
+        Order order = orderRepository.findByIdWithUserAndItems(orderId)
+                .orElseThrow(() -> new RuntimeException("Sipariş bulunamadı: " + orderId));
+        // Sipariş onay email'i ve sipariş özetleri ödeme onaylandıktan sonra
+        eventPublisher.publishEvent(new OrderPlacedEvent(this, order));
+        return outcome(orderId, Order.STATUS_PAID, result.getMessage());
+    }
+
+    private void requestRefund(String orderId, String transactionId, BigDecimal amount, List<String> refunds) {
+        paymentRefundRepository.insertIfAbsent(orderId, transactionId, amount, LocalDateTime.now());
+        refunds.add(transactionId);
+    }
+
+    /**
+     * Kaydedilmiş iade talebini sağlayıcıya iletir. Talep önce kiralanır; commit sonrası deneme, mutabakat ve diğer
+     * düğümler aynı iadeyi aynı anda göndermez. İletilemezse kira süresi dolunca mutabakat yeniden dener.
+     */
+    private void refund(String transactionId) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(status -> paymentRefundRepository.claim(
+                transactionId, PaymentRefund.STATUS_PENDING, now, now.plusSeconds(refundRetrySeconds)));
+        if (claimed == null || claimed == 0) {
+            return;
+        }
+        PaymentRefund refund = paymentRefundRepository.findByTransactionId(transactionId).orElseThrow();
+        paymentGateway.refund(transactionId, refund.getAmount())
+                .orTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                .whenCompleteAsync((result, error) -> {
+                    if (error == null && result.isSuccess()) {
+                        transactionTemplate.executeWithoutResult(status -> paymentRefundRepository.updateStatus(
+                                transactionId, PaymentRefund.STATUS_REFUNDED, null));
+                        log.info("Tahsilat iade edildi: {} ({})", transactionId, refund.getOrderId());
+                    } else {
+                        String message = error != null ? String.valueOf(error.getMessage()) : result.getMessage();
+                        transactionTemplate.executeWithoutResult(status -> paymentRefundRepository.updateStatus(
+                                transactionId, PaymentRefund.STATUS_PENDING, truncate(message)));
+                        log.warn("İade yapılamadı, yeniden denenecek: {} - {}", transactionId, message);
+                    }
+                }, paymentTaskExecutor)
+                .exceptionally(e -> {
+                    log.error("İade sonucu kaydedilemedi: {}", transactionId, e);
+                    return null;
+                });
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    /**
+     * Sonucu bekleyen (PENDING_PAYMENT veya PAYMENT_UNKNOWN) siparişi yeni duruma geçirir
+     */
+    private boolean transitionFromAwaiting(String orderId, String newStatus) {
+        return orderRepository.transitionStatus(orderId, Order.STATUS_PENDING_PAYMENT, newStatus) > 0
+                || orderRepository.transitionStatus(orderId, Order.STATUS_PAYMENT_UNKNOWN, newStatus) > 0;
+    }
+
+    private Map<String, Object> outcome(String orderId, String status, String message) {
+        Map<String, Object> outcome = new HashMap<>();
+        outcome.put("orderId", orderId);
+        outcome.put("status", status);
+        outcome.put("message", message);
+        return outcome;
+    }
+}
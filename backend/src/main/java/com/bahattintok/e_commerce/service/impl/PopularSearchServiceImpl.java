@@ -0,0 +1,110 @@
+package com.bahattintok.e_commerce.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bahattintok.e_commerce.model.PopularSearchTerm;
+import com.bahattintok.e_commerce.repository.PopularSearchTermRepository;
+import com.bahattintok.e_commerce.service.PopularSearchService;
+import com.bahattintok.e_commerce.util.SlidingHeavyHitters;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class PopularSearchServiceImpl implements PopularSearchService {
+
+    private static final Locale TURKISH = Locale.forLanguageTag("tr-TR");
+    private static final int MAX_TERM_LENGTH = 100;
+
+    private final PopularSearchTermRepository popularSearchTermRepository;
+
+    /** Son 1 saat: 12 x 5 dakikalık kova */
+    private final SlidingHeavyHitters hourly;
+
+    /** Son 24 saat: 24 x 1 saatlik kova */
+    private final SlidingHeavyHitters daily;
+
+    @Value("${search.popular.snapshot-size:100}")
+    private int snapshotSize;
+
+    public PopularSearchServiceImpl(PopularSearchTermRepository popularSearchTermRepository,
+                                    @Value("${search.popular.capacity:500}") int capacity) {
+        this.popularSearchTermRepository = popularSearchTermRepository;
+        this.hourly = new SlidingHeavyHitters(Duration.ofHours(1).toMillis(), 12, capacity);
+        this.daily = new SlidingHeavyHitters(Duration.ofDays(1).toMillis(), 24, capacity);
+    }
+
+    @Override
+    public void recordSearch(String term) {
+        String normalized = normalize(term);
+        if (normalized.length() < 2) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        hourly.offer(normalized, now);
+        daily.offer(normalized, now);
+    }
+
+    @Override
+    public List<String> getPopularTerms(String window, int limit) {
+        String windowName = PopularSearchTerm.WINDOW_HOUR.equalsIgnoreCase(window)
+                ? PopularSearchTerm.WINDOW_HOUR : PopularSearchTerm.WINDOW_DAY;
+        List<String> terms = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : counter(windowName).top(limit, System.currentTimeMillis())) {
+            terms.add(entry.getKey());
+        }
+        if (terms.isEmpty()) {
+            // Yeniden başlatma sonrası sayaçlar boşken son anlık görüntü kullanılır
+            for (PopularSearchTerm term : popularSearchTermRepository
+                    .findByWindowNameOrderByHitsDesc(windowName, PageRequest.of(0, limit))) {
+                terms.add(term.getTerm());
+            }
+        }
+        return terms;
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${search.popular.snapshot-interval-ms:300000}",
+               initialDelayString = "${search.popular.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        long now = System.currentTimeMillis();
+        LocalDateTime capturedAt = LocalDateTime.now();
+        for (String windowName : List.of(PopularSearchTerm.WINDOW_HOUR, PopularSearchTerm.WINDOW_DAY)) {
+            List<Map.Entry<String, Long>> top = counter(windowName).top(snapshotSize, now);
+            if (top.isEmpty()) {
+                // Trafik yokken eski anlık görüntü silinmez
+                continue;
+            }
+            popularSearchTermRepository.deleteByWindowName(windowName);
+            List<PopularSearchTerm> rows = new ArrayList<>(top.size());
+            for (Map.Entry<String, Long> entry : top) {
+                rows.add(new PopularSearchTerm(null, windowName, entry.getKey(), entry.getValue(), capturedAt));
+            }
+            popularSearchTermRepository.saveAll(rows);
+        }
+    }
+
+    private SlidingHeavyHitters counter(String windowName) {
+        return PopularSearchTerm.WINDOW_HOUR.equals(windowName) ? hourly : daily;
+    }
+
+    private String normalize(String term) {
+        if (term == null) {
+            return "";
+        }
+        String normalized = term.trim().replaceAll("\\s+", " ").toLowerCase(TURKISH);
+        return normalized.length() > MAX_TERM_LENGTH ? normalized.substring(0, MAX_TERM_LENGTH) : normalized;
+    }
+}
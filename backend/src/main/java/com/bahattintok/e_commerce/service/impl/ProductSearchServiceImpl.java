@@ -4,11 +4,17 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import com.bahattintok.e_commerce.model.Product;
 import com.bahattintok.e_commerce.model.ProductDocument;
 import com.bahattintok.e_commerce.repository.ProductRepository;
+import com.bahattintok.e_commerce.repository.ProductSpecifications;
 import com.bahattintok.e_commerce.service.ProductSearchService;
 
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +30,17 @@ public class ProductSearchServiceImpl implements ProductSearchService {
     @Autowired
     private ProductRepository productRepository;
     
+    /** fulltext (PostgreSQL tsvector + pg_trgm) veya like */
+    @Value("${search.sql.mode:fulltext}")
+    private String sqlSearchMode;
+    
+    /** Tam metin sorgusu başarısız olursa (ör. V1.27 uygulanmamış) bu süre boyunca LIKE aramasına geçilir */
+    @Value("${search.sql.fulltext-retry-ms:60000}")
+    private long fullTextRetryMs;
+    
+    /** Tam metin aramasının yeniden deneneceği zaman (epoch ms); 0 ise kullanılabilir */
+    private volatile long fullTextRetryAt = 0;
+    
     // TODO: Elasticsearch repository'si eklenecek
     // @Autowired
     // private ProductSearchRepository productSearchRepository;
@@ -69,8 +86,40 @@ public class ProductSearchServiceImpl implements ProductSearchService {
         //     .map(this::convertToProduct)
         //     .collect(Collectors.toList());
         
-        // Şimdilik normal SQL araması yapıyoruz
-        return productRepository.searchProducts(keyword, null).getContent();
+        // Şimdilik veritabanı araması yapıyoruz
+        return searchPublishedProducts(keyword, Pageable.unpaged()).getContent();
+    }
+    
+    @Override
+    public Page<Product> searchPublishedProducts(String keyword, Pageable pageable) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return productRepository.findAll(ProductSpecifications.published(), pageable);
+        }
+        String trimmed = keyword.trim();
+        
+        long retryAt = fullTextRetryAt;
+        if ("fulltext".equalsIgnoreCase(sqlSearchMode) && System.currentTimeMillis() >= retryAt) {
+            try {
+                // Sıralama ts_rank ile yapılır; istemci sıralaması uygulanmaz
+                Pageable unsorted = pageable.isPaged()
+                        ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())
+                        : pageable;
+                Page<Product> result = productRepository.fullTextSearchPublished(trimmed, unsorted);
+                if (retryAt != 0) {
+                    fullTextRetryAt = 0;
+                    log.info("PostgreSQL tam metin araması yeniden kullanılıyor");
+                }
+                return result;
+            } catch (InvalidDataAccessResourceUsageException e) {
+                // search_vector kolonu veya pg_trgm yok (ör. migration sonradan uygulanacak): süre dolunca yeniden denenir
+                fullTextRetryAt = System.currentTimeMillis() + fullTextRetryMs;
+                log.warn("PostgreSQL tam metin araması kullanılamıyor, {} ms boyunca LIKE aramasına geçiliyor: {}",
+                        fullTextRetryMs, e.getMessage());
+            }
+        }
+        
+        return productRepository.findAll(ProductSpecifications.published()
+                .and(ProductSpecifications.nameOrDescriptionContains(trimmed)), pageable);
     }
     
     @Override
@@ -1,28 +1,35 @@
 package com.bahattintok.e_commerce.service.impl;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.bahattintok.e_commerce.dto.ProductRequest;
+import com.bahattintok.e_commerce.dto.ProductView;
 import com.bahattintok.e_commerce.model.Category;
 import com.bahattintok.e_commerce.model.Product;
 import com.bahattintok.e_commerce.model.Store;
-import com.bahattintok.e_commerce.model.User;
 import com.bahattintok.e_commerce.repository.CategoryRepository;
 import com.bahattintok.e_commerce.repository.ProductRepository;
+import com.bahattintok.e_commerce.repository.ProductSpecifications;
 import com.bahattintok.e_commerce.repository.StoreRepository;
-import com.bahattintok.e_commerce.repository.UserRepository;
-import com.bahattintok.e_commerce.service.ElasticsearchService;
+import com.bahattintok.e_commerce.security.CurrentSeller;
+import com.bahattintok.e_commerce.security.CurrentUser;
+import com.bahattintok.e_commerce.security.CurrentUserProvider;
+import com.bahattintok.e_commerce.service.ProductSearchService;
 import com.bahattintok.e_commerce.service.ProductService;
+import com.bahattintok.e_commerce.service.SearchIndexOutboxService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -37,10 +44,9 @@ public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final StoreRepository storeRepository;
-    private final UserRepository userRepository;
-    
-    @Autowired(required = false)
-    private ElasticsearchService elasticsearchService;
+    private final CurrentUserProvider currentUserProvider;
+    private final ProductSearchService productSearchService;
+    private final SearchIndexOutboxService searchIndexOutboxService;
     
     /**
      * Tüm ürünleri getirir (sadece onaylanmış satıcıların).
@@ -72,20 +78,11 @@ public class ProductServiceImpl implements ProductService {
      */
     @Override
     public Product createProduct(ProductRequest request) {
-        // Mevcut kullanıcıyı al
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String currentUsername = authentication.getName();
-        User currentUser = userRepository.findByEmail(currentUsername)
-                .orElseThrow(() -> new RuntimeException("Kullanıcı bulunamadı"));
-        
-        // Kullanıcının mağazasını bul
-        Store store = storeRepository.findBySeller(currentUser)
-                .orElseThrow(() -> new RuntimeException("Mağaza bulunamadı"));
+        // Mevcut satıcıyı ve mağazasını al
+        CurrentSeller seller = currentUserProvider.requireSeller();
         
         // Satıcı onay kontrolü
-        if (currentUser.getSellerStatus() == null || 
-            (!currentUser.getSellerStatus().name().equals("APPROVED") && 
-             !currentUser.getSellerStatus().name().equals("ACTIVE"))) {
+        if (!seller.user().isApprovedSeller()) {
             throw new RuntimeException("Ürün yayınlamak için satıcı hesabınızın onaylanmış olması gerekiyor. Lütfen admin onayını bekleyin.");
         }
         
@@ -100,22 +97,15 @@ public class ProductServiceImpl implements ProductService {
         product.setImageUrl3(request.getImageUrl3());
         product.setImageUrl4(request.getImageUrl4());
         product.setImageUrl5(request.getImageUrl5());
-        product.setStoreId(store.getId()); // Mağaza ID'sini set et
+        product.setStoreId(seller.storeId()); // Mağaza ID'sini set et
         Category category = categoryRepository.findById(request.getCategoryId())
                 .orElseThrow(() -> new RuntimeException("Category not found"));
         product.setCategory(category);
         
         Product savedProduct = productRepository.save(product);
         
-        // Elasticsearch'e indexle (eğer varsa)
-        if (elasticsearchService != null) {
-            try {
-                elasticsearchService.indexProduct(savedProduct);
-            } catch (Exception e) {
-                // Elasticsearch hatası ürün oluşturmayı engellemez
-                System.err.println("Elasticsearch indexing failed: " + e.getMessage());
-            }
-        }
+        // Elasticsearch'e outbox üzerinden asenkron indexlenir
+        searchIndexOutboxService.enqueue(savedProduct.getId());
         
         return savedProduct;
     }
@@ -127,25 +117,16 @@ public class ProductServiceImpl implements ProductService {
     public Product updateProduct(String id, ProductRequest request) {
         Product product = getProductById(id);
         
-        // Mevcut kullanıcıyı al
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String currentUsername = authentication.getName();
-        User currentUser = userRepository.findByEmail(currentUsername)
-                .orElseThrow(() -> new RuntimeException("Kullanıcı bulunamadı"));
-        
-        // Kullanıcının mağazasını bul
-        Store store = storeRepository.findBySeller(currentUser)
-                .orElseThrow(() -> new RuntimeException("Mağaza bulunamadı"));
+        // Mevcut satıcıyı ve mağazasını al
+        CurrentSeller seller = currentUserProvider.requireSeller();
         
         // Satıcı onay kontrolü
-        if (currentUser.getSellerStatus() == null || 
-            (!currentUser.getSellerStatus().name().equals("APPROVED") && 
-             !currentUser.getSellerStatus().name().equals("ACTIVE"))) {
+        if (!seller.user().isApprovedSeller()) {
             throw new RuntimeException("Ürün güncellemek için satıcı hesabınızın onaylanmış olması gerekiyor. Lütfen admin onayını bekleyin.");
         }
         
         // Ürünün bu satıcıya ait olduğunu kontrol et
-        if (!store.getId().equals(product.getStoreId())) {
+        if (!seller.storeId().equals(product.getStoreId())) {
             throw new RuntimeException("Bu ürünü güncelleme yetkiniz yok");
         }
         
@@ -165,15 +146,8 @@ public class ProductServiceImpl implements ProductService {
         
         Product updatedProduct = productRepository.save(product);
         
-        // Elasticsearch'i güncelle (eğer varsa)
-        if (elasticsearchService != null) {
-            try {
-                elasticsearchService.updateProduct(updatedProduct);
-            } catch (Exception e) {
-                // Elasticsearch hatası ürün güncellemeyi engellemez
-                System.err.println("Elasticsearch update failed: " + e.getMessage());
-            }
-        }
+        // Elasticsearch'e outbox üzerinden asenkron yansıtılır
+        searchIndexOutboxService.enqueue(updatedProduct.getId());
         
         return updatedProduct;
     }
@@ -185,39 +159,23 @@ public class ProductServiceImpl implements ProductService {
     public void deleteProduct(String id) {
         Product product = getProductById(id);
         
-        // Mevcut kullanıcıyı al
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String currentUsername = authentication.getName();
-        User currentUser = userRepository.findByEmail(currentUsername)
-                .orElseThrow(() -> new RuntimeException("Kullanıcı bulunamadı"));
-        
-        // Kullanıcının mağazasını bul
-        Store store = storeRepository.findBySeller(currentUser)
-                .orElseThrow(() -> new RuntimeException("Mağaza bulunamadı"));
+        // Mevcut satıcıyı ve mağazasını al
+        CurrentSeller seller = currentUserProvider.requireSeller();
         
         // Satıcı onay kontrolü
-        if (currentUser.getSellerStatus() == null || 
-            (!currentUser.getSellerStatus().name().equals("APPROVED") && 
-             !currentUser.getSellerStatus().name().equals("ACTIVE"))) {
+        if (!seller.user().isApprovedSeller()) {
             throw new RuntimeException("Ürün silmek için satıcı hesabınızın onaylanmış olması gerekiyor. Lütfen admin onayını bekleyin.");
         }
         
         // Ürünün bu satıcıya ait olduğunu kontrol et
-        if (!store.getId().equals(product.getStoreId())) {
+        if (!seller.storeId().equals(product.getStoreId())) {
             throw new RuntimeException("Bu ürünü silme yetkiniz yok");
         }
         
-        // Önce Elasticsearch'ten sil (eğer varsa)
-        if (elasticsearchService != null) {
-            try {
-                elasticsearchService.deleteProduct(id);
-            } catch (Exception e) {
-                // Elasticsearch hatası ürün silmeyi engellemez
-                System.err.println("Elasticsearch delete failed: " + e.getMessage());
-            }
-        }
-        
         productRepository.deleteById(id);
+        
+        // Ürün artık bulunmadığı için işçi onu Elasticsearch'ten siler
+        searchIndexOutboxService.enqueue(id);
     }
     
     /**
@@ -230,16 +188,28 @@ public class ProductServiceImpl implements ProductService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Vitrindeki ürünleri filtreleyerek sayfalı getirir; filtreleme ve sayım veritabanında yapılır.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Product> findPublishedProducts(String categoryId, String storeId, Double minPrice, Double maxPrice,
+                                               String keyword, Pageable pageable) {
+        Specification<Product> spec = ProductSpecifications.published()
+                .and(ProductSpecifications.hasCategoryId(categoryId))
+                .and(ProductSpecifications.hasStoreId(storeId))
+                .and(ProductSpecifications.priceBetween(minPrice, maxPrice))
+                .and(ProductSpecifications.nameOrDescriptionContains(keyword));
+        return productRepository.findAll(spec, pageable);
+    }
+    
     /**
      * İsme göre arama yapar (sayfalı, sadece onaylanmış satıcıların).
      */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Page<Product> searchProducts(String keyword, Pageable pageable) {
-        Page<Product> products = productRepository.searchProducts(keyword, pageable);
-        List<Product> activeProducts = products.getContent().stream()
-                .filter(product -> "AKTİF".equals(product.getStatus()) && product.isSellerApproved())
-                .collect(Collectors.toList());
-        return new PageImpl<>(activeProducts, pageable, activeProducts.size());
+        return productSearchService.searchPublishedProducts(keyword, pageable);
     }
     
     /**
@@ -247,21 +217,16 @@ public class ProductServiceImpl implements ProductService {
      */
     @Override
     public List<Product> getProductsByPriceRange(Double minPrice, Double maxPrice) {
-        return productRepository.findByPriceRange(minPrice, maxPrice).stream()
-                .filter(product -> "AKTİF".equals(product.getStatus()))
-                .collect(Collectors.toList());
+        return productRepository.findAll(ProductSpecifications.isActive()
+                .and(ProductSpecifications.priceBetween(minPrice, maxPrice)));
     }
     
     /**
-     * Fiyat aralığına göre ürünleri sayfalı getirir.
+     * Fiyat aralığına göre ürünleri sayfalı getirir (sadece onaylanmış satıcıların).
      */
     @Override
     public Page<Product> getProductsByPriceRange(Double minPrice, Double maxPrice, Pageable pageable) {
-        Page<Product> products = productRepository.findByPriceRange(minPrice, maxPrice, pageable);
-        List<Product> activeProducts = products.getContent().stream()
-                .filter(product -> "AKTİF".equals(product.getStatus()))
-                .collect(Collectors.toList());
-        return new PageImpl<>(activeProducts, pageable, activeProducts.size());
+        return findPublishedProducts(null, null, minPrice, maxPrice, null, pageable);
     }
     
     /**
@@ -269,21 +234,16 @@ public class ProductServiceImpl implements ProductService {
      */
     @Override
     public List<Product> getProductsByCategoryId(String categoryId) {
-        return productRepository.findByCategoryId(categoryId).stream()
-                .filter(product -> "AKTİF".equals(product.getStatus()))
-                .collect(Collectors.toList());
+        return productRepository.findAll(ProductSpecifications.isActive()
+                .and(ProductSpecifications.hasCategoryId(categoryId)));
     }
     
     /**
-     * Kategori ID'sine göre ürünleri sayfalı getirir.
+     * Kategori ID'sine göre ürünleri sayfalı getirir (sadece onaylanmış satıcıların).
      */
     @Override
     public Page<Product> getProductsByCategoryId(String categoryId, Pageable pageable) {
-        Page<Product> products = productRepository.findByCategoryId(categoryId, pageable);
-        List<Product> activeProducts = products.getContent().stream()
-                .filter(product -> "AKTİF".equals(product.getStatus()))
-                .collect(Collectors.toList());
-        return new PageImpl<>(activeProducts, pageable, activeProducts.size());
+        return findPublishedProducts(categoryId, null, null, null, null, pageable);
     }
     
     /**
@@ -350,28 +310,22 @@ public class ProductServiceImpl implements ProductService {
     @Override
     public List<Product> getProductsByCurrentSeller() {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication == null || !authentication.isAuthenticated()) {
-                throw new RuntimeException("User not authenticated");
-            }
-            
-            String username = authentication.getName();
+            CurrentUser currentUser = currentUserProvider.findUser()
+                    .orElseThrow(() -> new RuntimeException("User not authenticated"));
+            String username = currentUser.email();
             System.out.println("Current user: " + username);
             
-            User currentUser = userRepository.findByEmail(username)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + username));
-            
-            System.out.println("Found user: " + currentUser.getUsername() + ", Role: " + currentUser.getRole());
+            System.out.println("Found user: " + username + ", Role: " + currentUser.roleName());
             
-            // Satıcının mağazasını bul
-            Store sellerStore = storeRepository.findBySeller(currentUser)
-                    .orElseThrow(() -> new RuntimeException("Store not found for seller: " + username));
+            // Satıcının mağazası (oturum önbelleğinden, mağaza sorgusu yapılmaz)
+            CurrentSeller seller = currentUserProvider.requireSeller();
+            Store sellerStore = storeRepository.getReferenceById(seller.storeId());
             
-            System.out.println("Found store: " + sellerStore.getName() + " for seller: " + username);
+            System.out.println("Found store: " + seller.storeName() + " for seller: " + username);
             
             // Mağazaya ait ürünleri getir (tümünü almak için Pageable.unpaged() kullan)
             List<Product> products = productRepository.findByStore(sellerStore, Pageable.unpaged()).getContent();
-            System.out.println("Found " + products.size() + " products for store: " + sellerStore.getName());
+            System.out.println("Found " + products.size() + " products for store: " + seller.storeName());
             
             return products;
         } catch (Exception e) {
@@ -406,6 +360,52 @@ public class ProductServiceImpl implements ProductService {
         return productRepository.findDiscountedProducts(pageable);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductView> toViews(Page<Product> products) {
+        return new PageImpl<>(toViews(products.getContent()), products.getPageable(), products.getTotalElements());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductView> toViews(List<Product> products) {
+        List<String> ids = new ArrayList<>(products.size());
+        for (Product product : products) {
+            ids.add(product.getId());
+        }
+        return getProductViews(ids);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductView> getProductViews(List<String> productIds) {
+        if (productIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, ProductView> byId = new HashMap<>();
+        for (ProductView view : productRepository.findViewsByIdIn(new LinkedHashSet<>(productIds))) {
+            byId.put(view.getId(), view);
+        }
+        List<ProductView> views = new ArrayList<>(productIds.size());
+        for (String id : productIds) {
+            ProductView view = byId.get(id);
+            if (view != null) {
+                views.add(view);
+            }
+        }
+        return views;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public ProductView getProductView(String id) {
+        List<ProductView> views = productRepository.findViewsByIdIn(List.of(id));
+        if (views.isEmpty()) {
+            throw new RuntimeException("Product not found");
+        }
+        return views.get(0);
+    }
+    
     /**
      * Bu servis şu işlevleri sağlar:
      * 
@@ -0,0 +1,63 @@
+package com.bahattintok.e_commerce.service.impl;
+
+import java.util.Map;
+
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import com.bahattintok.e_commerce.service.RealtimeMessagingService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RealtimeMessagingServiceImpl implements RealtimeMessagingService {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Override
+    public void sendToUser(String username, String destination, Object payload) {
+        sendToUser(username, destination, payload, null);
+    }
+
+    @Override
+    public void sendToUser(String username, String destination, Object payload, String coalesceKey) {
+        try {
+            messagingTemplate.convertAndSendToUser(username, destination, payload, headers(coalesceKey));
+        } catch (MessagingException e) {
+            // Gerçek zamanlı bildirim en iyi çabadır; çağıran işlem bozulmaz
+            log.warn("WebSocket mesajı gönderilemedi: {}{} - {}", username, destination, e.getMessage());
+        }
+    }
+
+    @Override
+    public void sendToRole(String role, String destination, Object payload) {
+        sendToRole(role, destination, payload, null);
+    }
+
+    @Override
+    public void sendToRole(String role, String destination, Object payload, String coalesceKey) {
+        String topic = RealtimeMessagingService.roleTopic(role, destination);
+        try {
+            messagingTemplate.convertAndSend(topic, payload, headers(coalesceKey));
+        } catch (MessagingException e) {
+            log.warn("WebSocket rol mesajı gönderilemedi: {} - {}", topic, e.getMessage());
+        }
+    }
+
+    @Override
+    public void sendToTopic(String topic, Object payload) {
+        try {
+            messagingTemplate.convertAndSend(topic, payload);
+        } catch (MessagingException e) {
+            log.warn("WebSocket topic mesajı gönderilemedi: {} - {}", topic, e.getMessage());
+        }
+    }
+
+    private static Map<String, Object> headers(String coalesceKey) {
+        return coalesceKey != null ? Map.of(COALESCE_KEY_HEADER, coalesceKey) : null;
+    }
+}
@@ -0,0 +1,335 @@
+package com.bahattintok.e_commerce.service.impl;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bahattintok.e_commerce.model.Product;
+import com.bahattintok.e_commerce.model.ProductDocument;
+import com.bahattintok.e_commerce.model.SearchIndexOutbox;
+import com.bahattintok.e_commerce.repository.ProductRepository;
+import com.bahattintok.e_commerce.repository.ReviewRepository;
+import com.bahattintok.e_commerce.repository.SearchIndexOutboxRepository;
+import com.bahattintok.e_commerce.service.SearchIndexClient;
+import com.bahattintok.e_commerce.service.SearchIndexOutboxService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchIndexOutboxServiceImpl implements SearchIndexOutboxService {
+
+    /**
+     * Boşaltan her parti bu kilidi paylaşımlı alır; reindex duraklatması tüm düğümlerde geçerli olsun diye
+     * özel (exclusive) alır. Duraklatma bekleyen partilerin bitmesini bekler, yeni partiler kilidi alamayıp atlar.
+     */
+    private static final long PAUSE_LOCK_KEY = 0x7365617263686f78L;
+
+    private final SearchIndexOutboxRepository outboxRepository;
+    private final ProductRepository productRepository;
+    private final ReviewRepository reviewRepository;
+    private final ObjectProvider<SearchIndexClient> searchIndexClient;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+
+    @Value("${search.outbox.enabled:${elasticsearch.enabled:false}}")
+    private boolean enabled;
+
+    @Value("${search.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${search.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${search.outbox.backoff-initial-ms:1000}")
+    private long backoffInitialMs;
+
+    @Value("${search.outbox.backoff-max-ms:300000}")
+    private long backoffMaxMs;
+
+    /** Duraklatma kilidini tutan ayrı bağlantı; kapanınca (düğüm çökse de) kilit bırakılır */
+    private Connection pauseConnection;
+
+    private final AtomicLong indexedTotal = new AtomicLong();
+    private final AtomicLong deletedTotal = new AtomicLong();
+    private final AtomicLong failedTotal = new AtomicLong();
+    private final AtomicLong batchesTotal = new AtomicLong();
+    private volatile long lastBatchLagMs;
+    private volatile LocalDateTime lastDrainAt;
+
+    @Override
+    @Transactional
+    public void enqueue(String productId) {
+        if (!enabled || productId == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        SearchIndexOutbox entry = new SearchIndexOutbox();
+        entry.setProductId(productId);
+        entry.setCreatedAt(now);
+        entry.setAttempts(0);
+        entry.setNextAttemptAt(now);
+        outboxRepository.save(entry);
+    }
+
+    @Override
+    @Transactional
+    public void enqueueAll(Collection<String> productIds) {
+        if (!enabled || productIds.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<SearchIndexOutbox> entries = new ArrayList<>(productIds.size());
+        for (String productId : productIds) {
+            SearchIndexOutbox entry = new SearchIndexOutbox();
+            entry.setProductId(productId);
+            entry.setCreatedAt(now);
+            entry.setAttempts(0);
+            entry.setNextAttemptAt(now);
+            entries.add(entry);
+        }
+        outboxRepository.saveAll(entries);
+    }
+
+    /**
+     * Kuyruk boşalana (veya parti dolmayana) kadar partiler halinde işler.
+     */
+    @Scheduled(fixedDelayString = "${search.outbox.poll-interval-ms:1000}",
+               initialDelayString = "${search.outbox.poll-interval-ms:1000}")
+    public void drainPending() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            while (drainBatch() >= batchSize) {
+                // Parti doluysa kuyrukta kayıt kalmış olabilir, beklemeden devam et
+            }
+        } catch (Exception e) {
+            log.error("Arama indexi outbox'ı işlenirken hata oluştu", e);
+        }
+    }
+
+    @Override
+    public int drainBatch() {
+        SearchIndexClient client = searchIndexClient.getIfAvailable();
+        if (client == null) {
+            return 0;
+        }
+        return process(client);
+    }
+
+    @Override
+    public synchronized void pause() {
+        if (pauseConnection != null) {
+            return;
+        }
+        Connection connection = null;
+        try {
+            connection = openPauseConnection();
+            try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_lock(?)")) {
+                statement.setLong(1, PAUSE_LOCK_KEY);
+                statement.executeQuery().close();
+            }
+            pauseConnection = connection;
+            log.info("Arama indexi outbox'ı tüm düğümlerde duraklatıldı");
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw new RuntimeException("Outbox duraklatılamadı", e);
+        }
+    }
+
+    @Override
+    public synchronized void resume() {
+        // Kilit oturum kilididir; bağlantı kapanınca bırakılır
+        closeQuietly(pauseConnection);
+        pauseConnection = null;
+    }
+
+    /**
+     * Havuzdan bağlantı tutmamak ve kilidin havuza dönen bağlantıda kalmaması için ayrı bir bağlantı açılır
+     */
+    private Connection openPauseConnection() throws SQLException {
+        Properties properties = new Properties();
+        String username = dataSourceProperties.determineUsername();
+        String password = dataSourceProperties.determinePassword();
+        if (username != null) {
+            properties.setProperty("user", username);
+        }
+        if (password != null) {
+            properties.setProperty("password", password);
+        }
+        properties.setProperty("ApplicationName", "search-outbox-pause");
+        Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+        connection.setAutoCommit(true);
+        return connection;
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.warn("Outbox duraklatma bağlantısı kapatılamadı: {}", e.getMessage());
+        }
+    }
+
+    private int process(SearchIndexClient client) {
+        LocalDateTime now = LocalDateTime.now();
+        lastDrainAt = now;
+        // Parti tek transaction'da işlenir: kayıtlar kilitli kalır ve silme/işaretleme ile birlikte commit edilir
+        Integer processed = transactionTemplate.execute(status -> processBatch(client, now));
+        return processed != null ? processed : 0;
+    }
+
+    private int processBatch(SearchIndexClient client, LocalDateTime now) {
+        Boolean running = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock_shared(?)", Boolean.class,
+                PAUSE_LOCK_KEY);
+        if (!Boolean.TRUE.equals(running)) {
+            // Bir düğümde ürün reindex'i sürüyor; değişiklikler kuyrukta bekler
+            return 0;
+        }
+        List<SearchIndexOutbox> batch = outboxRepository.claimReady(now, maxAttempts, batchSize);
+        if (batch.isEmpty()) {
+            lastBatchLagMs = 0;
+            return 0;
+        }
+
+        // Aynı ürüne ait birden fazla değişiklik tek bir index işlemine indirgenir
+        Map<String, List<SearchIndexOutbox>> byProduct = new LinkedHashMap<>();
+        LocalDateTime oldest = now;
+        for (SearchIndexOutbox entry : batch) {
+            byProduct.computeIfAbsent(entry.getProductId(), id -> new ArrayList<>()).add(entry);
+            if (entry.getCreatedAt().isBefore(oldest)) {
+                oldest = entry.getCreatedAt();
+            }
+        }
+        lastBatchLagMs = Duration.between(oldest, now).toMillis();
+
+        // Belge ürünün o anki halinden üretilir; ürün silinmişse indexten de silinir
+        List<ProductDocument> upserts = new ArrayList<>();
+        List<String> deleteIds = new ArrayList<>();
+        Map<String, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(byProduct.keySet())) {
+            products.put(product.getId(), product);
+        }
+        for (String productId : byProduct.keySet()) {
+            Product product = products.get(productId);
+            if (product != null) {
+                upserts.add(ProductDocument.fromProduct(product));
+            } else {
+                deleteIds.add(productId);
+            }
+        }
+        if (!upserts.isEmpty()) {
+            ProductDocument.applyRatingStats(upserts, reviewRepository.findRatingStatsByProductIds(products.keySet()));
+        }
+
+        Set<String> failed;
+        String error = null;
+        try {
+            failed = client.bulk(upserts, deleteIds);
+        } catch (Exception e) {
+            failed = byProduct.keySet();
+            error = e.getMessage();
+        }
+
+        List<Long> doneIds = new ArrayList<>();
+        Map<String, List<Long>> failedIds = new HashMap<>();
+        for (Map.Entry<String, List<SearchIndexOutbox>> entry : byProduct.entrySet()) {
+            List<Long> ids = entry.getValue().stream().map(SearchIndexOutbox::getId).toList();
+            if (failed.contains(entry.getKey())) {
+                failedIds.put(entry.getKey(), ids);
+            } else {
+                doneIds.addAll(ids);
+            }
+        }
+
+        String lastError = error != null ? error : "Toplu index isteğinde belge reddedildi";
+        if (!doneIds.isEmpty()) {
+            outboxRepository.deleteAllByIdInBatch(doneIds);
+        }
+        for (Map.Entry<String, List<Long>> entry : failedIds.entrySet()) {
+            int attempts = byProduct.get(entry.getKey()).stream()
+                    .mapToInt(SearchIndexOutbox::getAttempts).max().orElse(0) + 1;
+            outboxRepository.markFailed(entry.getValue(), attempts, now.plus(backoff(attempts)),
+                    truncate(lastError));
+        }
+
+        int failedCount = failedIds.size();
+        int deletedCount = (int) deleteIds.stream().filter(id -> !failedIds.containsKey(id)).count();
+        indexedTotal.addAndGet(byProduct.size() - failedCount - deletedCount);
+        deletedTotal.addAndGet(deletedCount);
+        failedTotal.addAndGet(failedCount);
+        batchesTotal.incrementAndGet();
+        if (failedCount > 0) {
+            log.warn("Arama indexi partisinde {} / {} ürün başarısız, tekrar denenecek", failedCount, byProduct.size());
+        }
+        return batch.size();
+    }
+
+    /**
+     * Üstel geri çekilme: 1s, 2s, 4s ... en fazla backoffMaxMs
+     */
+    private Duration backoff(int attempts) {
+        long delay = backoffInitialMs << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(delay, backoffMaxMs));
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    @Override
+    @Transactional
+    public int requeueExhausted() {
+        return outboxRepository.requeueExhausted(maxAttempts, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStats() {
+        LocalDateTime oldestPending = outboxRepository.findOldestPendingCreatedAt(maxAttempts);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled && searchIndexClient.getIfAvailable() != null);
+        stats.put("pending", outboxRepository.countByAttemptsLessThan(maxAttempts));
+        stats.put("exhausted", outboxRepository.countByAttemptsGreaterThanEqual(maxAttempts));
+        stats.put("lagMs", oldestPending != null ? Duration.between(oldestPending, LocalDateTime.now()).toMillis() : 0L);
+        stats.put("lastBatchLagMs", lastBatchLagMs);
+        stats.put("lastDrainAt", lastDrainAt);
+        stats.put("batches", batchesTotal.get());
+        stats.put("indexed", indexedTotal.get());
+        stats.put("deleted", deletedTotal.get());
+        stats.put("failed", failedTotal.get());
+        return stats;
+    }
+}
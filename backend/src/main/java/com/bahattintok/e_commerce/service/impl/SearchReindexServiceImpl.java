@@ -0,0 +1,314 @@
+package com.bahattintok.e_commerce.service.impl;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.index.AliasData;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bahattintok.e_commerce.dto.ReindexProgress;
+import com.bahattintok.e_commerce.model.Category;
+import com.bahattintok.e_commerce.model.CategoryDocument;
+import com.bahattintok.e_commerce.model.Product;
+import com.bahattintok.e_commerce.model.ProductDocument;
+import com.bahattintok.e_commerce.model.Store;
+import com.bahattintok.e_commerce.model.StoreDocument;
+import com.bahattintok.e_commerce.model.User;
+import com.bahattintok.e_commerce.model.UserDocument;
+import com.bahattintok.e_commerce.repository.CategoryRepository;
+import com.bahattintok.e_commerce.repository.ProductRepository;
+import com.bahattintok.e_commerce.repository.ReviewRepository;
+import com.bahattintok.e_commerce.repository.StoreRepository;
+import com.bahattintok.e_commerce.repository.UserRepository;
+import com.bahattintok.e_commerce.service.SearchIndexOutboxService;
+import com.bahattintok.e_commerce.service.SearchReindexService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Kesintisiz (alias değiştirmeli) reindex implementasyonu.
+ * Sadece elasticsearch.enabled=true olduğunda aktif olur.
+ *
+ * Kayıtlar ID sırasıyla keyset sayfalama ile sabit boyutlu parçalar halinde okunur; her parça
+ * ayrı bir kısa transaction'da belgeye çevrilir ve _bulk ile yeni indexe paralel yazılır.
+ * Aynı anda en fazla "parallelism" parça bellekte bulunur, böylece katalog boyutundan bağımsız
+ * sınırlı bellek kullanılır.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "elasticsearch.enabled", havingValue = "true", matchIfMissing = false)
+public class SearchReindexServiceImpl implements SearchReindexService {
+
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final StoreRepository storeRepository;
+    private final UserRepository userRepository;
+    private final ReviewRepository reviewRepository;
+    private final SearchIndexOutboxService searchIndexOutboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor reindexTaskExecutor;
+
+    @Value("${search.reindex.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${search.reindex.parallelism:4}")
+    private int parallelism;
+
+    /** Tür -> son (veya çalışan) işin ilerlemesi */
+    private final Map<String, ReindexProgress> jobs = new ConcurrentHashMap<>();
+
+    /** Aynı tür için aynı anda tek iş çalışır */
+    private final Set<String> runningTypes = ConcurrentHashMap.newKeySet();
+
+    public SearchReindexServiceImpl(ElasticsearchOperations elasticsearchOperations,
+                                    ProductRepository productRepository,
+                                    CategoryRepository categoryRepository,
+                                    StoreRepository storeRepository,
+                                    UserRepository userRepository,
+                                    ReviewRepository reviewRepository,
+                                    SearchIndexOutboxService searchIndexOutboxService,
+                                    TransactionTemplate transactionTemplate,
+                                    @Qualifier("reindexTaskExecutor") Executor reindexTaskExecutor) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.storeRepository = storeRepository;
+        this.userRepository = userRepository;
+        this.reviewRepository = reviewRepository;
+        this.searchIndexOutboxService = searchIndexOutboxService;
+        this.transactionTemplate = transactionTemplate;
+        this.reindexTaskExecutor = reindexTaskExecutor;
+    }
+
+    @Override
+    public void startReindex(String type) {
+        List<String> types = "all".equalsIgnoreCase(type)
+                ? List.of(TYPE_PRODUCTS, TYPE_CATEGORIES, TYPE_STORES, TYPE_USERS)
+                : List.of(validate(type));
+        reindexTaskExecutor.execute(() -> {
+            for (String each : types) {
+                try {
+                    reindex(each);
+                } catch (Exception e) {
+                    log.error("{} reindex başlatılamadı: {}", each, e.getMessage());
+                }
+            }
+        });
+    }
+
+    @Override
+    public ReindexProgress reindex(String type) {
+        if (!runningTypes.add(validate(type))) {
+            log.warn("{} için reindex zaten çalışıyor", type);
+            return jobs.get(type);
+        }
+        try {
+            return runFor(type);
+        } finally {
+            runningTypes.remove(type);
+        }
+    }
+
+    private ReindexProgress runFor(String type) {
+        switch (type) {
+            case TYPE_PRODUCTS:
+                // Reindex sırasında gelen ürün değişiklikleri tüm düğümlerde outbox'ta bekler,
+                // alias değişince yeni indexe yazılır
+                searchIndexOutboxService.pause();
+                try {
+                    return run(TYPE_PRODUCTS, ProductDocument.class, productRepository.count(),
+                            lastId -> productRepository.findChunkAfter(lastId, PageRequest.of(0, chunkSize)),
+                            this::toProductDocuments, ProductDocument::getId);
+                } finally {
+                    searchIndexOutboxService.resume();
+                }
+            case TYPE_CATEGORIES:
+                return run(TYPE_CATEGORIES, CategoryDocument.class, categoryRepository.count(),
+                        lastId -> categoryRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, chunkSize)),
+                        (List<Category> chunk) -> chunk.stream().map(CategoryDocument::fromCategory).toList(), CategoryDocument::getId);
+            case TYPE_STORES:
+                return run(TYPE_STORES, StoreDocument.class, storeRepository.count(),
+                        lastId -> storeRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, chunkSize)),
+                        (List<Store> chunk) -> chunk.stream().map(StoreDocument::fromStore).toList(), StoreDocument::getId);
+            default:
+                return run(TYPE_USERS, UserDocument.class, userRepository.count(),
+                        lastId -> userRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, chunkSize)),
+                        (List<User> chunk) -> chunk.stream().map(UserDocument::fromUser).toList(), UserDocument::getId);
+        }
+    }
+
+    /**
+     * Ürün belgelerini oluşturur; puan istatistikleri parça başına tek sorguyla eklenir.
+     */
+    private List<ProductDocument> toProductDocuments(List<Product> products) {
+        List<ProductDocument> documents = new ArrayList<>(products.size());
+        for (Product product : products) {
+            documents.add(ProductDocument.fromProduct(product));
+        }
+        if (!documents.isEmpty()) {
+            ProductDocument.applyRatingStats(documents, reviewRepository.findRatingStatsByProductIds(
+                    documents.stream().map(ProductDocument::getId).toList()));
+        }
+        return documents;
+    }
+
+    @Override
+    public Collection<ReindexProgress> getProgress() {
+        return new ArrayList<>(jobs.values());
+    }
+
+    private String validate(String type) {
+        if (!List.of(TYPE_PRODUCTS, TYPE_CATEGORIES, TYPE_STORES, TYPE_USERS).contains(type)) {
+            throw new RuntimeException("Geçersiz reindex türü: " + type);
+        }
+        return type;
+    }
+
+    private <E, D> ReindexProgress run(String type, Class<D> documentClass, long total,
+                                       Function<String, List<E>> chunkLoader,
+                                       Function<List<E>, List<D>> mapper,
+                                       Function<D, String> idOf) {
+        String alias = elasticsearchOperations.getIndexCoordinatesFor(documentClass).getIndexName();
+        String newIndex = alias + "_v" + LocalDateTime.now().format(VERSION_FORMAT);
+        ReindexProgress progress = new ReindexProgress(type, newIndex, total);
+        jobs.put(type, progress);
+
+        IndexOperations aliasOps = elasticsearchOperations.indexOps(documentClass);
+        IndexOperations newOps = elasticsearchOperations.indexOps(IndexCoordinates.of(newIndex));
+        ExecutorService bulkExecutor = Executors.newFixedThreadPool(parallelism);
+        try {
+            log.info("{} reindex başladı: {} kayıt -> {}", type, total, newIndex);
+            newOps.create(aliasOps.createSettings(), aliasOps.createMapping());
+
+            copyInChunks(newIndex, chunkLoader, mapper, idOf, progress, bulkExecutor);
+            if (progress.getFailed().get() > 0) {
+                throw new RuntimeException(progress.getFailed().get() + " belge indexlenemedi");
+            }
+
+            newOps.refresh();
+            swapAlias(aliasOps, alias, newIndex);
+
+            progress.setStatus(ReindexProgress.STATUS_COMPLETED);
+            log.info("{} reindex tamamlandı: {} belge, alias {} -> {}", type, progress.getProcessed().get(), alias, newIndex);
+        } catch (Exception e) {
+            progress.setStatus(ReindexProgress.STATUS_FAILED);
+            progress.setError(e.getMessage());
+            log.error("{} reindex başarısız, eski index kullanılmaya devam ediyor", type, e);
+            try {
+                newOps.delete();
+            } catch (Exception cleanup) {
+                log.warn("Yarım kalan index silinemedi: {}", newIndex);
+            }
+        } finally {
+            bulkExecutor.shutdown();
+            progress.setFinishedAt(LocalDateTime.now());
+        }
+        return progress;
+    }
+
+    /**
+     * Parçaları sırayla okur, en fazla "parallelism" parçayı aynı anda yazar.
+     */
+    private <E, D> void copyInChunks(String newIndex, Function<String, List<E>> chunkLoader,
+                                     Function<List<E>, List<D>> mapper, Function<D, String> idOf,
+                                     ReindexProgress progress, ExecutorService bulkExecutor) throws InterruptedException {
+        IndexCoordinates target = IndexCoordinates.of(newIndex);
+        Semaphore inFlight = new Semaphore(parallelism);
+        AtomicReference<Exception> firstError = new AtomicReference<>();
+        String lastId = "";
+
+        while (firstError.get() == null) {
+            String cursor = lastId;
+            // Her parça kendi kısa transaction'ında okunur; persistence context parça bitince kapanır
+            List<D> documents = transactionTemplate.execute(status -> mapper.apply(chunkLoader.apply(cursor)));
+            if (documents == null || documents.isEmpty()) {
+                break;
+            }
+            lastId = idOf.apply(documents.get(documents.size() - 1));
+
+            inFlight.acquire();
+            bulkExecutor.execute(() -> {
+                try {
+                    elasticsearchOperations.save(documents, target);
+                    progress.getProcessed().addAndGet(documents.size());
+                } catch (Exception e) {
+                    progress.getFailed().addAndGet(documents.size());
+                    firstError.compareAndSet(null, e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+
+        // Kalan yazmaların bitmesini bekle
+        inFlight.acquire(parallelism);
+        inFlight.release(parallelism);
+        if (firstError.get() != null) {
+            throw new RuntimeException("Toplu indexleme başarısız: " + firstError.get().getMessage(), firstError.get());
+        }
+    }
+
+    /**
+     * Alias'ı tek bir atomik istekle yeni indexe taşır ve eski indexleri siler.
+     * İlk çalıştırmada alias adında gerçek bir index varsa aynı istekte kaldırılır.
+     */
+    private void swapAlias(IndexOperations aliasOps, String alias, String newIndex) {
+        Set<String> oldIndices = Set.of();
+        try {
+            Map<String, Set<AliasData>> aliases = aliasOps.getAliases(alias);
+            oldIndices = aliases.keySet();
+        } catch (Exception e) {
+            log.debug("{} alias'ı henüz yok", alias);
+        }
+        boolean concreteIndex = oldIndices.isEmpty() && aliasOps.exists();
+
+        AliasActions actions = new AliasActions();
+        actions.add(new AliasAction.Add(AliasActionParameters.builder()
+                .withIndices(newIndex).withAliases(alias).build()));
+        for (String oldIndex : oldIndices) {
+            actions.add(new AliasAction.Remove(AliasActionParameters.builder()
+                    .withIndices(oldIndex).withAliases(alias).build()));
+        }
+        if (concreteIndex) {
+            actions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder()
+                    .withIndices(alias).build()));
+        }
+        elasticsearchOperations.indexOps(IndexCoordinates.of(newIndex)).alias(actions);
+
+        for (String oldIndex : oldIndices) {
+            if (!oldIndex.equals(newIndex)) {
+                try {
+                    elasticsearchOperations.indexOps(IndexCoordinates.of(oldIndex)).delete();
+                } catch (Exception e) {
+                    log.warn("Eski index silinemedi: {}", oldIndex);
+                }
+            }
+        }
+    }
+}
@@ -1,76 +1,163 @@
 package com.bahattintok.e_commerce.service.impl;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import com.bahattintok.e_commerce.model.PopularSearchTerm;
 import com.bahattintok.e_commerce.repository.CategoryRepository;
 import com.bahattintok.e_commerce.repository.ProductRepository;
+import com.bahattintok.e_commerce.repository.StoreProductSalesRepository;
 import com.bahattintok.e_commerce.repository.StoreRepository;
+import com.bahattintok.e_commerce.service.ClusterBusService;
+import com.bahattintok.e_commerce.service.PopularSearchService;
 import com.bahattintok.e_commerce.service.SearchSuggestionService;
+import com.bahattintok.e_commerce.util.SuggestionIndex;
 
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Arama önerileri servisi implementasyonu.
  * Kullanıcı yazarken otomatik öneriler sunar.
+ * Öneriler açılışta kurulan bellek içi önek indeksinden gelir; her tuş vuruşunda veritabanına gidilmez.
+ * İndeks, ürün/kategori/mağaza değişikliklerinde SuggestionIndexEntityListener ile güncel tutulur;
+ * değişiklik küme yoluyla diğer düğümlerin indekslerine de uygulanır.
  */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class SearchSuggestionServiceImpl implements SearchSuggestionService {
     
+    private static final String CLUSTER_TOPIC = "suggestions";
+    private static final String KIND_PRODUCT = "product";
+    private static final String KIND_CATEGORY = "category";
+    private static final String KIND_STORE = "store";
+    
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final StoreRepository storeRepository;
+    private final StoreProductSalesRepository storeProductSalesRepository;
+    private final PopularSearchService popularSearchService;
+    private final ClusterBusService clusterBusService;
+    
+    /** Okumalar bu referanstan yapılır; yeniden kurulumda yeni indeksler hazırlanıp tek seferde değiştirilir */
+    private volatile Indexes indexes = new Indexes(new SuggestionIndex(), new SuggestionIndex(), new SuggestionIndex());
+    
+    /** Yeniden kurulum sürerken gelen değişiklikler; yeni indekse değiştirmeden önce uygulanır */
+    private List<Consumer<Indexes>> changesDuringRebuild;
+    
+    private final Object changeLock = new Object();
+    private final Object rebuildLock = new Object();
+    
+    public SearchSuggestionServiceImpl(ProductRepository productRepository,
+                                       CategoryRepository categoryRepository,
+                                       StoreRepository storeRepository,
+                                       StoreProductSalesRepository storeProductSalesRepository,
+                                       PopularSearchService popularSearchService,
+                                       ClusterBusService clusterBusService) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.storeRepository = storeRepository;
+        this.storeProductSalesRepository = storeProductSalesRepository;
+        this.popularSearchService = popularSearchService;
+        this.clusterBusService = clusterBusService;
+        clusterBusService.subscribe(CLUSTER_TOPIC, this::applyRemote);
+        // Kaçırılan değişiklikler bilinemediğinden indeks veritabanından yeniden kurulur
+        clusterBusService.onResync(this::rebuildIndex);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeIndex() {
+        rebuildIndex();
+    }
     
     @Override
-    public List<String> getProductNameSuggestions(String query, int limit) {
-        if (query == null || query.trim().isEmpty()) {
-            return new ArrayList<>();
+    public void rebuildIndex() {
+        synchronized (rebuildLock) {
+            long start = System.currentTimeMillis();
+            synchronized (changeLock) {
+                changesDuringRebuild = new ArrayList<>();
+            }
+            Indexes rebuilt;
+            try {
+                rebuilt = loadIndexes();
+            } catch (RuntimeException e) {
+                synchronized (changeLock) {
+                    changesDuringRebuild = null;
+                }
+                throw e;
+            }
+            synchronized (changeLock) {
+                // Veritabanı okunurken gelen değişiklikler kaybolmasın
+                changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+                changesDuringRebuild = null;
+                indexes = rebuilt;
+            }
+            
+            log.info("Arama önerisi indeksi oluşturuldu: {} ürün, {} kategori, {} mağaza adı ({} ms)",
+                    rebuilt.products().size(), rebuilt.categories().size(), rebuilt.stores().size(),
+                    System.currentTimeMillis() - start);
+        }
+    }
+    
+    /**
+     * Yeni indeksleri veritabanından doldurur; mevcut indeksler bu sırada önerilere hizmet vermeye devam eder.
+     */
+    private Indexes loadIndexes() {
+        // Ürünler satış adedine göre ağırlıklandırılır
+        Map<String, Long> soldByProduct = new HashMap<>();
+        for (Object[] row : storeProductSalesRepository.sumQuantitySoldByProduct()) {
+            soldByProduct.put((String) row[0], row[1] != null ? ((Number) row[1]).longValue() : 0L);
         }
         
-        String searchQuery = query.toLowerCase().trim();
-        
-        return productRepository.findAll().stream()
-                .map(product -> product.getName())
-                .filter(name -> name != null && name.toLowerCase().contains(searchQuery))
-                .distinct()
-                .limit(limit)
-                .collect(Collectors.toList());
+        Indexes loaded = new Indexes(new SuggestionIndex(), new SuggestionIndex(), new SuggestionIndex());
+        for (Object[] row : productRepository.findAllIdAndName()) {
+            String id = (String) row[0];
+            loaded.products().put(id, (String) row[1], soldByProduct.getOrDefault(id, 0L));
+        }
+        for (Object[] row : categoryRepository.findAllIdAndName()) {
+            loaded.categories().put((String) row[0], (String) row[1], 0L);
+        }
+        for (Object[] row : storeRepository.findAllIdAndName()) {
+            loaded.stores().put((String) row[0], (String) row[1], 0L);
+        }
+        return loaded;
+    }
+    
+    /**
+     * Değişikliği mevcut indekse uygular; yeniden kurulum sürüyorsa yeni indeks için de kaydeder.
+     */
+    private void apply(Consumer<Indexes> change) {
+        synchronized (changeLock) {
+            change.accept(indexes);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        }
+    }
+    
+    @Override
+    public List<String> getProductNameSuggestions(String query, int limit) {
+        return indexes.products().suggest(query, limit);
     }
     
     @Override
     public List<String> getCategorySuggestions(String query, int limit) {
-        if (query == null || query.trim().isEmpty()) {
-            return new ArrayList<>();
-        }
-        
-        String searchQuery = query.toLowerCase().trim();
-        
-        return categoryRepository.findAll().stream()
-                .map(category -> category.getName())
-                .filter(name -> name != null && name.toLowerCase().contains(searchQuery))
-                .distinct()
-                .limit(limit)
-                .collect(Collectors.toList());
+        return indexes.categories().suggest(query, limit);
     }
     
     @Override
     public List<String> getStoreSuggestions(String query, int limit) {
-        if (query == null || query.trim().isEmpty()) {
-            return new ArrayList<>();
-        }
-        
-        String searchQuery = query.toLowerCase().trim();
-        
-        return storeRepository.findAll().stream()
-                .map(store -> store.getName())
-                .filter(name -> name != null && name.toLowerCase().contains(searchQuery))
-                .distinct()
-                .limit(limit)
-                .collect(Collectors.toList());
+        return indexes.stores().suggest(query, limit);
     }
     
     @Override
@@ -79,34 +166,39 @@ public class SearchSuggestionServiceImpl implements SearchSuggestionService {
             return new ArrayList<>();
         }
         
-        List<String> suggestions = new ArrayList<>();
+        Set<String> suggestions = new LinkedHashSet<>();
         
         // Ürün adı önerileri (öncelikli)
-        List<String> productSuggestions = getProductNameSuggestions(query, limit / 2);
-        suggestions.addAll(productSuggestions);
+        suggestions.addAll(getProductNameSuggestions(query, limit / 2));
         
         // Kategori önerileri
         if (suggestions.size() < limit) {
-            List<String> categorySuggestions = getCategorySuggestions(query, limit - suggestions.size());
-            suggestions.addAll(categorySuggestions);
+            suggestions.addAll(getCategorySuggestions(query, limit - suggestions.size()));
         }
         
         // Mağaza önerileri
         if (suggestions.size() < limit) {
-            List<String> storeSuggestions = getStoreSuggestions(query, limit - suggestions.size());
-            suggestions.addAll(storeSuggestions);
+            suggestions.addAll(getStoreSuggestions(query, limit - suggestions.size()));
         }
         
         return suggestions.stream()
-                .distinct()
                 .limit(limit)
                 .collect(Collectors.toList());
     }
     
     @Override
     public List<String> getPopularSearchTerms(int limit) {
-        // Şimdilik sabit popüler terimler döndürüyoruz
-        // İleride arama geçmişi tablosu eklenebilir
+        return getPopularSearchTerms(PopularSearchTerm.WINDOW_DAY, limit);
+    }
+    
+    @Override
+    public List<String> getPopularSearchTerms(String window, int limit) {
+        List<String> trending = popularSearchService.getPopularTerms(window, limit);
+        if (!trending.isEmpty()) {
+            return trending;
+        }
+        
+        // Henüz arama trafiği yoksa varsayılan terimler döndürülür
         List<String> popularTerms = new ArrayList<>();
         popularTerms.add("telefon");
         popularTerms.add("laptop");
@@ -123,4 +215,76 @@ public class SearchSuggestionServiceImpl implements SearchSuggestionService {
                 .limit(limit)
                 .collect(Collectors.toList());
     }
-} 
\ No newline at end of file
+    
+    @Override
+    public void indexProduct(String id, String name) {
+        // Ağırlık verilmez; ürünün mevcut satış ağırlığı korunur
+        apply(current -> current.products().put(id, name, null));
+        publish(KIND_PRODUCT, "put", id, name);
+    }
+    
+    @Override
+    public void indexCategory(String id, String name) {
+        apply(current -> current.categories().put(id, name, 0L));
+        publish(KIND_CATEGORY, "put", id, name);
+    }
+    
+    @Override
+    public void indexStore(String id, String name) {
+        apply(current -> current.stores().put(id, name, 0L));
+        publish(KIND_STORE, "put", id, name);
+    }
+    
+    @Override
+    public void removeProduct(String id) {
+        apply(current -> current.products().remove(id));
+        publish(KIND_PRODUCT, "remove", id, null);
+    }
+    
+    @Override
+    public void removeCategory(String id) {
+        apply(current -> current.categories().remove(id));
+        publish(KIND_CATEGORY, "remove", id, null);
+    }
+    
+    @Override
+    public void removeStore(String id) {
+        apply(current -> current.stores().remove(id));
+        publish(KIND_STORE, "remove", id, null);
+    }
+    
+    /**
+     * Mesaj biçimi: tür:işlem:id[:isim] (ID'ler UUID olduğundan ':' içermez, isim içerebilir)
+     */
+    private void publish(String kind, String operation, String id, String name) {
+        String payload = kind + ":" + operation + ":" + id;
+        clusterBusService.publish(CLUSTER_TOPIC, name != null ? payload + ":" + name : payload);
+    }
+    
+    private void applyRemote(String payload) {
+        String[] parts = payload.split(":", 4);
+        if (parts.length < 3) {
+            return;
+        }
+        Function<Indexes, SuggestionIndex> index = switch (parts[0]) {
+            case KIND_PRODUCT -> Indexes::products;
+            case KIND_CATEGORY -> Indexes::categories;
+            case KIND_STORE -> Indexes::stores;
+            default -> null;
+        };
+        if (index == null) {
+            return;
+        }
+        String id = parts[2];
+        if ("remove".equals(parts[1])) {
+            apply(current -> index.apply(current).remove(id));
+        } else if (parts.length == 4) {
+            String name = parts[3];
+            Long weight = KIND_PRODUCT.equals(parts[0]) ? null : 0L;
+            apply(current -> index.apply(current).put(id, name, weight));
+        }
+    }
+    
+    private record Indexes(SuggestionIndex products, SuggestionIndex categories, SuggestionIndex stores) {
+    }
+}
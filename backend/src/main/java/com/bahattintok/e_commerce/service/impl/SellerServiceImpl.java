@@ -129,6 +129,8 @@ public class SellerServiceImpl implements SellerService {
         }
         
         product.setDiscountPercentage(discountPercentage);
+        // Elle girilen indirim kampanyadan bağımsızdır; kampanya bitince kaldırılmaz
+        product.setCampaignId(null);
         System.out.println("İndirim yüzdesi ayarlandı: " + product.getDiscountPercentage());
         
         // Bitiş tarihini ayarla
@@ -183,6 +185,7 @@ public class SellerServiceImpl implements SellerService {
         product.setDiscountPercentage(null);
         product.setDiscountedPrice(null);
         product.setDiscountEndDate(null);
+        product.setCampaignId(null);
         
         return productRepository.save(product);
     }
@@ -0,0 +1,76 @@
+package com.bahattintok.e_commerce.service.impl;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.bahattintok.e_commerce.dto.CreditCardRequest;
+import com.bahattintok.e_commerce.dto.PaymentResult;
+import com.bahattintok.e_commerce.service.PaymentGateway;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Yerel geliştirme için simüle edilmiş ödeme sağlayıcısı.
+ * Sağlayıcı gecikmesi thread uyutularak değil, gecikmeli executor ile simüle edilir;
+ * bekleme süresince hiçbir thread meşgul edilmez.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "simulated", matchIfMissing = true)
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private final Executor paymentTaskExecutor;
+
+    /** Mutabakat sorguları için sonuçlanan tahsilatlar (yalnızca yerel geliştirme; uygulama yeniden başlayınca boşalır) */
+    private final Map<String, PaymentResult> charges = new ConcurrentHashMap<>();
+
+    @Value("${payment.simulated.latency-ms:1000}")
+    private long latencyMs;
+
+    public SimulatedPaymentGateway(@Qualifier("paymentTaskExecutor") Executor paymentTaskExecutor) {
+        this.paymentTaskExecutor = paymentTaskExecutor;
+    }
+
+    @Override
+    public CompletableFuture<PaymentResult> charge(String orderId, CreditCardRequest creditCard, BigDecimal amount) {
+        return CompletableFuture.supplyAsync(() -> {
+            String cardNumber = creditCard.getCardNumber().replaceAll("\\s", "");
+            String lastFourDigits = cardNumber.substring(cardNumber.length() - 4);
+
+            // Test kartları için özel kontrol
+            PaymentResult result = lastFourDigits.equals("0000")
+                    ? PaymentResult.declined("Test kartı - ödeme reddedildi")
+                    : PaymentResult.approved("SIM-" + UUID.randomUUID());
+            charges.put(orderId, result);
+            return result;
+        }, delayed());
+    }
+
+    @Override
+    public CompletableFuture<Optional<PaymentResult>> findCharge(String orderId) {
+        return CompletableFuture.supplyAsync(() -> Optional.ofNullable(charges.get(orderId)), delayed());
+    }
+
+    @Override
+    public CompletableFuture<PaymentResult> refund(String transactionId, BigDecimal amount) {
+        return CompletableFuture.supplyAsync(() -> {
+            log.info("Simüle iade yapıldı: {} ({} TL)", transactionId, amount);
+            return PaymentResult.approved(transactionId);
+        }, delayed());
+    }
+
+    private Executor delayed() {
+        return CompletableFuture.delayedExecutor(latencyMs, TimeUnit.MILLISECONDS, paymentTaskExecutor);
+    }
+}
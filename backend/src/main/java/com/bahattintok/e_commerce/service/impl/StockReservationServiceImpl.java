@@ -0,0 +1,183 @@
+package com.bahattintok.e_commerce.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bahattintok.e_commerce.model.Product;
+import com.bahattintok.e_commerce.model.StockReservation;
+import com.bahattintok.e_commerce.repository.ProductRepository;
+import com.bahattintok.e_commerce.repository.StockReservationRepository;
+import com.bahattintok.e_commerce.service.StockReservationService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private final ProductRepository productRepository;
+    private final StockReservationRepository stockReservationRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${stock.reservation.ttl-minutes:15}")
+    private long reservationTtlMinutes;
+
+    @Value("${stock.reservation.release-batch-size:500}")
+    private int releaseBatchSize;
+
+    /** Onaylanmış veya iade edilmiş rezervasyonların tabloda tutulacağı süre */
+    @Value("${stock.reservation.retention-days:7}")
+    private long retentionDays;
+
+    @Value("${stock.reservation.purge-batch-size:5000}")
+    private int purgeBatchSize;
+
+    @Override
+    @Transactional
+    public void decrementAll(Map<String, Integer> quantities) {
+        // TreeMap: satır kilitleri her zaman aynı (ID) sırayla alınır, eşzamanlı çok ürünlü siparişler kilitlenmez
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(new TreeMap<>(quantities).entrySet());
+        List<Object[]> args = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Integer> entry : entries) {
+            int quantity = entry.getValue() != null ? entry.getValue() : 0;
+            if (quantity <= 0) {
+                throw new RuntimeException("Geçersiz ürün adedi: " + entry.getKey());
+            }
+            args.add(new Object[] { quantity, entry.getKey(), quantity });
+        }
+        if (args.isEmpty()) {
+            return;
+        }
+
+        // Tüm koşullu düşümler tek JDBC batch'i ile gider; satır sayısı 0 olan ürünün stoğu yetmemiştir
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE products SET stock = stock - ? WHERE id = ? AND stock >= ?", args);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                // Exception transaction'ı geri alır; aynı batch'te düşülen stoklar da geri döner
+                String productId = entries.get(i).getKey();
+                String productName = productRepository.findById(productId)
+                        .map(Product::getName)
+                        .orElseThrow(() -> new RuntimeException("Ürün bulunamadı: " + productId));
+                throw new RuntimeException(productName + " için stok yetersiz!");
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public String reserve(Map<String, Integer> quantities) {
+        decrementAll(quantities);
+
+        String reservationKey = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        List<StockReservation> reservations = new ArrayList<>(quantities.size());
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            StockReservation reservation = new StockReservation();
+            reservation.setReservationKey(reservationKey);
+            reservation.setProductId(entry.getKey());
+            reservation.setQuantity(entry.getValue());
+            reservation.setStatus(StockReservation.STATUS_RESERVED);
+            reservation.setCreatedAt(now);
+            reservation.setExpiresAt(now.plusMinutes(reservationTtlMinutes));
+            reservations.add(reservation);
+        }
+        stockReservationRepository.saveAll(reservations);
+        return reservationKey;
+    }
+
+    @Override
+    @Transactional
+    public boolean commit(String reservationKey) {
+        List<StockReservation> reserved = stockReservationRepository
+                .findByReservationKeyAndStatus(reservationKey, StockReservation.STATUS_RESERVED);
+        // Hiç satırı kalmamış anahtar (saklama süresi dolup silinmiş) onaylanmış sayılmaz
+        boolean complete = !stockReservationRepository.existsByReservationKeyAndStatus(
+                reservationKey, StockReservation.STATUS_RELEASED)
+                && (!reserved.isEmpty() || stockReservationRepository.existsByReservationKeyAndStatus(
+                        reservationKey, StockReservation.STATUS_COMMITTED));
+        Set<String> committedIds = new HashSet<>();
+        for (StockReservation reservation : reserved) {
+            if (!complete) {
+                break;
+            }
+            // Süresi dolan rezervasyonlar bu arada iade edilmiş olabilir; koşullu geçiş bunu yakalar
+            if (stockReservationRepository.transition(reservation.getId(),
+                    StockReservation.STATUS_RESERVED, StockReservation.STATUS_COMMITTED) == 1) {
+                committedIds.add(reservation.getId());
+            } else {
+                complete = false;
+            }
+        }
+        if (complete) {
+            return true;
+        }
+
+        // Sipariş eksik stokla tamamlanamaz: bu çağrıda onaylananlar dahil kalan tüm satırlar aynı transaction'da iade edilir
+        releaseAll(reserved, reservation -> committedIds.contains(reservation.getId())
+                ? StockReservation.STATUS_COMMITTED : StockReservation.STATUS_RESERVED);
+        return false;
+    }
+
+    @Override
+    @Transactional
+    public void release(String reservationKey) {
+        releaseAll(stockReservationRepository
+                .findByReservationKeyAndStatus(reservationKey, StockReservation.STATUS_RESERVED),
+                reservation -> StockReservation.STATUS_RESERVED);
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${stock.reservation.release-interval-ms:60000}")
+    public void releaseExpired() {
+        List<StockReservation> expired = stockReservationRepository.findExpired(
+                LocalDateTime.now(), PageRequest.of(0, releaseBatchSize));
+        int released = releaseAll(expired, reservation -> StockReservation.STATUS_RESERVED);
+        if (released > 0) {
+            log.info("Süresi dolan {} stok rezervasyonu serbest bırakıldı", released);
+        }
+
+        // Sonuçlanmış satırlar saklama süresinden sonra silinir; tablo her checkout'la büyümez
+        int purged = jdbcTemplate.update(
+                "DELETE FROM stock_reservations WHERE id IN (SELECT id FROM stock_reservations " +
+                "WHERE status <> '" + StockReservation.STATUS_RESERVED + "' AND created_at < ? ORDER BY created_at LIMIT ?)",
+                LocalDateTime.now().minusDays(retentionDays), purgeBatchSize);
+        if (purged > 0) {
+            log.info("Saklama süresi dolan {} sonuçlanmış stok rezervasyonu silindi", purged);
+        }
+    }
+
+    private int releaseAll(List<StockReservation> reservations, Function<StockReservation, String> expectedStatus) {
+        // Stok geri eklenirken de aynı kilit sırası kullanılır
+        reservations.sort((a, b) -> a.getProductId().compareTo(b.getProductId()));
+        List<Object[]> increments = new ArrayList<>();
+        for (StockReservation reservation : reservations) {
+            // Durum geçişi başarılıysa stok iade edilir; böylece aynı rezervasyon iki kez iade edilemez
+            if (stockReservationRepository.transition(reservation.getId(),
+                    expectedStatus.apply(reservation), StockReservation.STATUS_RELEASED) == 1) {
+                increments.add(new Object[] { reservation.getQuantity(), reservation.getProductId() });
+            }
+        }
+        if (!increments.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE products SET stock = stock + ? WHERE id = ?", increments);
+        }
+        return increments.size();
+    }
+}
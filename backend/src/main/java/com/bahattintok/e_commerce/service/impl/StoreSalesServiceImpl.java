@@ -0,0 +1,102 @@
+package com.bahattintok.e_commerce.service.impl;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bahattintok.e_commerce.model.Order;
+import com.bahattintok.e_commerce.model.OrderItem;
+import com.bahattintok.e_commerce.model.StoreDailySales;
+import com.bahattintok.e_commerce.model.StoreProductSales;
+import com.bahattintok.e_commerce.repository.StoreDailySalesRepository;
+import com.bahattintok.e_commerce.repository.StoreProductSalesRepository;
+import com.bahattintok.e_commerce.service.StoreSalesService;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class StoreSalesServiceImpl implements StoreSalesService {
+
+    private final StoreDailySalesRepository storeDailySalesRepository;
+    private final StoreProductSalesRepository storeProductSalesRepository;
+
+    @Override
+    @Transactional
+    public void recordOrderPlaced(Order order) {
+        apply(order, 1);
+    }
+
+    @Override
+    @Transactional
+    public void recordOrderRemoved(Order order) {
+        apply(order, -1);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StoreDailySales> getDailySales(String storeId, LocalDate start, LocalDate end) {
+        return storeDailySalesRepository.findByStoreIdAndStatDateBetween(storeId, start, end);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Object[] getTotals(String storeId) {
+        List<Object[]> rows = storeDailySalesRepository.getTotalsByStoreId(storeId);
+        return rows.isEmpty() ? new Object[] {0L, 0L, BigDecimal.ZERO} : rows.get(0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StoreProductSales> getTopProducts(String storeId, int limit) {
+        return storeProductSalesRepository.findTopByStoreId(storeId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Object[]> getCategorySales(String storeId) {
+        return storeProductSalesRepository.getCategorySalesByStoreId(storeId);
+    }
+
+    /**
+     * Siparişin kalemlerini mağazaya göre gruplayıp özetlere sign (+1/-1) yönünde uygular
+     */
+    private void apply(Order order, int sign) {
+        if (order.getCreatedAt() == null || order.getItems() == null || !Order.isCountedStatus(order.getStatus())) {
+            return;
+        }
+        LocalDate day = order.getCreatedAt().toLocalDate();
+        Map<String, long[]> itemsByStore = new HashMap<>();
+        Map<String, BigDecimal> revenueByStore = new HashMap<>();
+
+        for (OrderItem item : order.getItems()) {
+            String storeId = item.getStoreId() != null ? item.getStoreId()
+                    : (item.getProduct() != null ? item.getProduct().getStoreId() : null);
+            if (storeId == null || item.getProduct() == null) {
+                continue;
+            }
+            long quantity = item.getQuantity() != null ? item.getQuantity() : 0;
+            BigDecimal revenue = item.getPrice() != null
+                    ? item.getPrice().multiply(BigDecimal.valueOf(quantity)) : BigDecimal.ZERO;
+
+            itemsByStore.computeIfAbsent(storeId, k -> new long[1])[0] += quantity;
+            revenueByStore.merge(storeId, revenue, BigDecimal::add);
+
+            storeProductSalesRepository.increment(storeId, item.getProduct().getId(),
+                    item.getProduct().getCategoryId(), sign * quantity,
+                    sign > 0 ? revenue : revenue.negate());
+        }
+
+        for (Map.Entry<String, long[]> entry : itemsByStore.entrySet()) {
+            BigDecimal revenue = revenueByStore.get(entry.getKey());
+            storeDailySalesRepository.increment(entry.getKey(), day, sign,
+                    sign * entry.getValue()[0], sign > 0 ? revenue : revenue.negate());
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.bahattintok.e_commerce.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Kayan zaman penceresinde en sık görülen terimleri sınırlı bellekle tutan sayaç.
+ *
+ * Pencere eşit süreli kovalara bölünür (ör. 1 saat = 12 x 5 dakika); her kova en fazla
+ * "capacity" terim tutan bir Space-Saving sayacıdır. Kova dolduğunda en düşük sayılı terim
+ * yeni terime devredilir, böylece sık terimler kaybolmaz ve bellek sabit kalır.
+ * Süresi geçen kova bir sonraki kullanımda sıfırlanır; sorgu anında geçerli kovalar toplanır.
+ *
+ * Eklemeler kilitsiz bir kuyruğa yazılır ve kilidi o an boşta bulan thread tarafından sayaçlara uygulanır;
+ * istek thread'leri birbirini beklemez. top() okumadan önce kuyruğu boşaltır.
+ */
+public class SlidingHeavyHitters {
+
+    /** Uygulanmayı bekleyen kayıt bu sayıyı aşarsa ekleyen thread kilidi bekleyip kuyruğu kendisi boşaltır */
+    private static final int MAX_PENDING = 10_000;
+
+    private final long bucketMillis;
+    private final int capacity;
+    private final SpaceSaving[] buckets;
+    private final long[] bucketStarts;
+
+    private final Queue<Hit> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public SlidingHeavyHitters(long windowMillis, int bucketCount, int capacity) {
+        this.bucketMillis = Math.max(1, windowMillis / bucketCount);
+        this.capacity = capacity;
+        this.buckets = new SpaceSaving[bucketCount];
+        this.bucketStarts = new long[bucketCount];
+    }
+
+    /**
+     * Terimi o anki kovaya eklenmek üzere kuyruğa alır. Kilit boştaysa kuyruğu uygular; meşgulse kaydı
+     * kilidi tutan thread'e veya bir sonraki çağrıya bırakır.
+     */
+    public void offer(String term, long now) {
+        pending.add(new Hit(term, now));
+        if (pendingCount.incrementAndGet() > MAX_PENDING) {
+            lock.lock();
+        } else if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            drain();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Pencere içindeki en sık terimleri (çoktan aza) döner.
+     */
+    public List<Map.Entry<String, Long>> top(int limit, long now) {
+        Map<String, Long> merged = new HashMap<>();
+        lock.lock();
+        try {
+            drain();
+            long windowStart = now - (now % bucketMillis) - (long) (buckets.length - 1) * bucketMillis;
+            for (int i = 0; i < buckets.length; i++) {
+                if (buckets[i] != null && bucketStarts[i] >= windowStart) {
+                    buckets[i].addTo(merged);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(merged.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+    }
+
+    /**
+     * Kuyruktaki kayıtları sayaçlara uygular (kilit tutulurken çağrılır). Tek çağrıda en fazla MAX_PENDING kayıt
+     * işlenir; sürekli gelen eklemeler boşaltan thread'i sonsuza kadar bekletmez.
+     */
+    private void drain() {
+        for (int i = 0; i < MAX_PENDING; i++) {
+            Hit hit = pending.poll();
+            if (hit == null) {
+                return;
+            }
+            pendingCount.decrementAndGet();
+            apply(hit.term(), hit.time());
+        }
+    }
+
+    private void apply(String term, long time) {
+        long start = time - (time % bucketMillis);
+        int index = (int) ((time / bucketMillis) % buckets.length);
+        if (buckets[index] == null || bucketStarts[index] < start) {
+            buckets[index] = new SpaceSaving(capacity);
+            bucketStarts[index] = start;
+        } else if (bucketStarts[index] > start) {
+            // Kovası yeni bir dilim için yeniden kullanılmış, pencereden çıkmış geç kayıt
+            return;
+        }
+        buckets[index].offer(term);
+    }
+
+    private record Hit(String term, long time) {
+    }
+
+    /**
+     * Space-Saving algoritması (stream-summary): sayaçlar sayıya göre sıralı gruplarda tutulur.
+     * Artırma ve en küçük sayacın yeni terime devri sabit zamanlıdır; kova taranmaz.
+     */
+    private static final class SpaceSaving {
+
+        private final int capacity;
+        private final Map<String, Counter> counters = new HashMap<>();
+
+        /** En küçük sayılı grup; gruplar next ile artan sırada bağlıdır */
+        private Group min;
+
+        private SpaceSaving(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private void offer(String term) {
+            Counter counter = counters.get(term);
+            if (counter == null) {
+                if (counters.size() < capacity) {
+                    counter = new Counter(term);
+                    counters.put(term, counter);
+                    addWithCountOne(counter);
+                    return;
+                }
+                // En küçük sayaç yeni terime devredilir ve bir artırılır (sayı = eski en küçük + 1)
+                counter = min.members.iterator().next();
+                counters.remove(counter.term);
+                counter.term = term;
+                counters.put(term, counter);
+            }
+            increment(counter);
+        }
+
+        private void addWithCountOne(Counter counter) {
+            if (min == null || min.count != 1) {
+                Group group = new Group(1);
+                group.next = min;
+                if (min != null) {
+                    min.prev = group;
+                }
+                min = group;
+            }
+            min.members.add(counter);
+            counter.group = min;
+        }
+
+        private void increment(Counter counter) {
+            Group current = counter.group;
+            Group next = current.next;
+            if (next == null || next.count != current.count + 1) {
+                next = new Group(current.count + 1);
+                next.prev = current;
+                next.next = current.next;
+                if (current.next != null) {
+                    current.next.prev = next;
+                }
+                current.next = next;
+            }
+            next.members.add(counter);
+            counter.group = next;
+            current.members.remove(counter);
+            if (current.members.isEmpty()) {
+                unlink(current);
+            }
+        }
+
+        private void unlink(Group group) {
+            if (group.prev != null) {
+                group.prev.next = group.next;
+            } else {
+                min = group.next;
+            }
+            if (group.next != null) {
+                group.next.prev = group.prev;
+            }
+        }
+
+        private void addTo(Map<String, Long> target) {
+            for (Group group = min; group != null; group = group.next) {
+                for (Counter counter : group.members) {
+                    target.merge(counter.term, group.count, Long::sum);
+                }
+            }
+        }
+    }
+
+    private static final class Counter {
+
+        private String term;
+        private Group group;
+
+        private Counter(String term) {
+            this.term = term;
+        }
+    }
+
+    /**
+     * Aynı sayıya sahip sayaçlar; LinkedHashSet sayesinde herhangi bir üyeyi almak sabit zamanlıdır
+     */
+    private static final class Group {
+
+        private final long count;
+        private final Set<Counter> members = new LinkedHashSet<>();
+        private Group prev;
+        private Group next;
+
+        private Group(long count) {
+            this.count = count;
+        }
+    }
+}
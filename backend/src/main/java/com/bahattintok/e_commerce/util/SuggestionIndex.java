@@ -0,0 +1,261 @@
+package com.bahattintok.e_commerce.util;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Arama önerileri için bellek içi önek (prefix) indeksi.
+ *
+ * Her isim Türkçe kurallarla küçük harfe çevrilir ve aksanlardan arındırılır ("Çiçek" -> "cicek"),
+ * ardından her kelimeden başlayan ifadeler sıralı bir map'e eklenir. Böylece "iph" veya "13 pro"
+ * gibi kelime başı sorgular veritabanına gitmeden, sıralı map üzerinde aralık taramasıyla bulunur.
+ * Sonuçlar ağırlığa (popülerlik) ve ardından Türkçe alfabetik sıraya göre döner.
+ *
+ * Sonuçlar sınırlı bir yığınla (limit kadar) seçilir; eşleşmelerin hepsi sıralanmaz. Çok sayıda isimle eşleşen
+ * kısa (1-2 karakterlik) önekler için ilk {@value #CACHED_TOP} sonuç önbellekte tutulur ve her değişiklikte geçersiz olur.
+ *
+ * Okumalar kilitsizdir; yazmalar (ekleme/silme) nadir olduğu için senkronizedir.
+ */
+public class SuggestionIndex {
+
+    private static final Locale TURKISH = Locale.forLanguageTag("tr-TR");
+
+    /** Bu uzunluğa kadar olan önekler önbelleğe alınır */
+    private static final int SHORT_PREFIX = 2;
+
+    /** Kısa önek başına önbellekte tutulan sonuç sayısı */
+    static final int CACHED_TOP = 20;
+
+    /** İfade -> o ifadeyle başlayan normalize isimler */
+    private final ConcurrentSkipListMap<String, Set<String>> phrases = new ConcurrentSkipListMap<>();
+
+    /** Normalize isim -> gösterilecek isim, kaç kayıtta geçtiği ve toplam ağırlık */
+    private final Map<String, NameEntry> names = new ConcurrentHashMap<>();
+
+    /** Kayıt ID -> normalize isim ve ağırlık (güncelleme/silmede eski değeri bulmak için) */
+    private final Map<String, IdEntry> ids = new ConcurrentHashMap<>();
+
+    /** Kısa önek -> ilk CACHED_TOP sonuç; hangi sürümden hesaplandığıyla birlikte */
+    private final Map<String, CachedTop> shortPrefixTop = new ConcurrentHashMap<>();
+
+    /** Her değişiklikte artar; eski sürümden hesaplanan önbellek kaydı kullanılmaz */
+    private volatile long version;
+
+    private final Comparator<NameEntry> ranking;
+
+    public SuggestionIndex() {
+        Collator collator = Collator.getInstance(TURKISH);
+        ranking = Comparator.comparingLong(NameEntry::weight).reversed()
+                .thenComparing(NameEntry::display, collator);
+    }
+
+    /**
+     * Kaydı ekler veya günceller; ağırlık verilmezse kaydın mevcut ağırlığı korunur.
+     */
+    public synchronized void put(String id, String name, Long weight) {
+        IdEntry previous = ids.get(id);
+        long newWeight = weight != null ? weight : (previous != null ? previous.weight() : 0L);
+        String key = normalize(name);
+
+        if (previous != null) {
+            if (previous.key().equals(key) && previous.weight() == newWeight) {
+                // İsim küçük/büyük harf değişmiş olabilir; gösterilen ismi güncelle
+                NameEntry entry = names.get(key);
+                if (entry != null && name != null && !entry.display().equals(name.trim())) {
+                    names.put(key, new NameEntry(name.trim(), entry.count(), entry.weight()));
+                    version++;
+                }
+                return;
+            }
+            removeInternal(id, previous);
+        }
+        if (key.isEmpty()) {
+            return;
+        }
+
+        ids.put(id, new IdEntry(key, newWeight));
+        NameEntry entry = names.get(key);
+        if (entry == null) {
+            names.put(key, new NameEntry(name.trim(), 1, newWeight));
+            for (String phrase : phrasesOf(key)) {
+                phrases.computeIfAbsent(phrase, p -> ConcurrentHashMap.newKeySet()).add(key);
+            }
+        } else {
+            names.put(key, new NameEntry(entry.display(), entry.count() + 1, entry.weight() + newWeight));
+        }
+        version++;
+    }
+
+    /**
+     * Kaydı indeksten çıkarır.
+     */
+    public synchronized void remove(String id) {
+        IdEntry previous = ids.get(id);
+        if (previous != null) {
+            removeInternal(id, previous);
+        }
+    }
+
+    /**
+     * İndeksi boşaltır.
+     */
+    public synchronized void clear() {
+        phrases.clear();
+        names.clear();
+        ids.clear();
+        shortPrefixTop.clear();
+        version++;
+    }
+
+    /**
+     * Sorguyla başlayan kelime/ifade içeren isimleri ağırlık sırasına göre döner.
+     */
+    public List<String> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        if (prefix.length() <= SHORT_PREFIX && limit <= CACHED_TOP) {
+            long current = version;
+            CachedTop cached = shortPrefixTop.get(prefix);
+            if (cached == null || cached.version() != current) {
+                // Hesaplama sırasında değişiklik olursa kayıt eski sürümle etiketlenir ve bir sonraki okumada yenilenir
+                cached = new CachedTop(current, top(prefix, CACHED_TOP));
+                shortPrefixTop.put(prefix, cached);
+            }
+            return new ArrayList<>(cached.displays().subList(0, Math.min(limit, cached.displays().size())));
+        }
+        return top(prefix, limit);
+    }
+
+    /**
+     * Önekle eşleşen isimlerden en yüksek sıralı "limit" tanesini, en kötüsünü tepede tutan yığınla seçer.
+     */
+    private List<String> top(String prefix, int limit) {
+        Set<String> matches = new HashSet<>();
+        for (Set<String> keys : phrases.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+            matches.addAll(keys);
+        }
+
+        PriorityQueue<NameEntry> best = new PriorityQueue<>(Math.min(limit, Math.max(1, matches.size())) + 1,
+                ranking.reversed());
+        for (String key : matches) {
+            NameEntry entry = names.get(key);
+            if (entry == null) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(entry);
+            } else if (ranking.compare(entry, best.peek()) < 0) {
+                best.poll();
+                best.add(entry);
+            }
+        }
+
+        List<NameEntry> entries = new ArrayList<>(best);
+        entries.sort(ranking);
+        List<String> result = new ArrayList<>(entries.size());
+        for (NameEntry entry : entries) {
+            result.add(entry.display());
+        }
+        return result;
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Türkçe küçük harfe çevirir, aksanları kaldırır ve harf/rakam dışındaki karakterleri boşluğa indirger.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String lower = text.toLowerCase(TURKISH);
+        StringBuilder builder = new StringBuilder(lower.length());
+        boolean lastSpace = true;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = fold(lower.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                builder.append(c);
+                lastSpace = false;
+            } else if (!lastSpace) {
+                builder.append(' ');
+                lastSpace = true;
+            }
+        }
+        int length = builder.length();
+        if (length > 0 && builder.charAt(length - 1) == ' ') {
+            builder.setLength(length - 1);
+        }
+        return builder.toString();
+    }
+
+    private static char fold(char c) {
+        switch (c) {
+            case 'ç': return 'c';
+            case 'ğ': return 'g';
+            case 'ı': return 'i';
+            case 'ö': return 'o';
+            case 'ş': return 's';
+            case 'ü': return 'u';
+            case 'â': return 'a';
+            case 'î': return 'i';
+            case 'û': return 'u';
+            default: return c;
+        }
+    }
+
+    /** "apple iphone 13" -> ["apple iphone 13", "iphone 13", "13"] */
+    private static List<String> phrasesOf(String key) {
+        List<String> result = new ArrayList<>();
+        result.add(key);
+        for (int i = key.indexOf(' '); i >= 0; i = key.indexOf(' ', i + 1)) {
+            result.add(key.substring(i + 1));
+        }
+        return result;
+    }
+
+    private void removeInternal(String id, IdEntry previous) {
+        ids.remove(id);
+        NameEntry entry = names.get(previous.key());
+        if (entry == null) {
+            return;
+        }
+        version++;
+        if (entry.count() > 1) {
+            names.put(previous.key(), new NameEntry(entry.display(), entry.count() - 1, entry.weight() - previous.weight()));
+            return;
+        }
+        names.remove(previous.key());
+        for (String phrase : phrasesOf(previous.key())) {
+            Set<String> keys = phrases.get(phrase);
+            if (keys != null) {
+                keys.remove(previous.key());
+                if (keys.isEmpty()) {
+                    phrases.remove(phrase);
+                }
+            }
+        }
+    }
+
+    private record NameEntry(String display, int count, long weight) {
+    }
+
+    private record IdEntry(String key, long weight) {
+    }
+
+    private record CachedTop(long version, List<String> displays) {
+    }
+}
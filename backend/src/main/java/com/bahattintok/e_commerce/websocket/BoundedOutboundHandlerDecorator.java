@@ -0,0 +1,66 @@
+package com.bahattintok.e_commerce.websocket;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+
+/**
+ * STOMP handler'ına her oturumu BoundedOutboundSession olarak veren decorator.
+ * Handler'ın tüm çağrılarda aynı sarmalanmış oturumu görmesi için oturumlar ID ile tutulur.
+ */
+public class BoundedOutboundHandlerDecorator extends WebSocketHandlerDecorator {
+
+    private final int queueLimit;
+    private final OutboundOverflowPolicy overflowPolicy;
+    private final Executor dispatchExecutor;
+    private final long sendTimeLimitMs;
+
+    private final Map<String, BoundedOutboundSession> sessions = new ConcurrentHashMap<>();
+
+    public BoundedOutboundHandlerDecorator(WebSocketHandler delegate, int queueLimit, OutboundOverflowPolicy overflowPolicy,
+                                           Executor dispatchExecutor, long sendTimeLimitMs) {
+        super(delegate);
+        this.queueLimit = queueLimit;
+        this.overflowPolicy = overflowPolicy;
+        this.dispatchExecutor = dispatchExecutor;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        BoundedOutboundSession bounded = new BoundedOutboundSession(
+                session, queueLimit, overflowPolicy, dispatchExecutor, sendTimeLimitMs);
+        sessions.put(session.getId(), bounded);
+        super.afterConnectionEstablished(bounded);
+    }
+
+    @Override
+    public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
+        super.handleMessage(bounded(session), message);
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
+        super.handleTransportError(bounded(session), exception);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+        BoundedOutboundSession bounded = sessions.remove(session.getId());
+        if (bounded != null) {
+            bounded.discard();
+        }
+        super.afterConnectionClosed(bounded != null ? bounded : session, closeStatus);
+    }
+
+    private WebSocketSession bounded(WebSocketSession session) {
+        BoundedOutboundSession bounded = sessions.get(session.getId());
+        return bounded != null ? bounded : session;
+    }
+}
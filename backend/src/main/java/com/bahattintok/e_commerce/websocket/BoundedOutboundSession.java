@@ -0,0 +1,277 @@
+package com.bahattintok.e_commerce.websocket;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import com.bahattintok.e_commerce.service.RealtimeMessagingService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Giden mesajları oturum başına sınırlı bir kuyrukta toplayıp ayrı dispatch thread'lerinde gönderen oturum.
+ * Broker (clientOutboundChannel) thread'i yavaş istemcinin soketinde beklemez; mesaj kuyruğa yazılıp hemen döner.
+ * Kuyruk dolarsa OutboundOverflowPolicy uygulanır. Bir gönderim sendTimeLimitMs'ten uzun sürerse oturum kapatılır.
+ * Bağlantı kontrol frame'leri (CONNECTED, RECEIPT, ERROR, heartbeat) hiçbir zaman atılmaz.
+ */
+@Slf4j
+public class BoundedOutboundSession extends WebSocketSessionDecorator {
+
+    /** Bir dispatch turunda gönderilen en fazla mesaj; kalan mesajlar için görev yeniden kuyruğa alınır */
+    private static final int DISPATCH_BATCH = 32;
+
+    private static final String COALESCE_HEADER_PREFIX = RealtimeMessagingService.COALESCE_KEY_HEADER + ":";
+
+    private final int queueLimit;
+    private final OutboundOverflowPolicy overflowPolicy;
+    private final Executor dispatchExecutor;
+    private final long sendTimeLimitMs;
+
+    /** Bekleyen mesajlar; coalesce anahtarlı mesajlar anahtarlarıyla, diğerleri sıra numarasıyla tutulur */
+    private final Map<Object, Outbound> pending = new LinkedHashMap<>();
+    private long sequence;
+    private boolean dispatching;
+    private boolean closed;
+    private CloseStatus closeAfterFlush;
+
+    private volatile long sendStartedAt;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    private record Outbound(WebSocketMessage<?> message, boolean droppable, boolean keyed) {
+    }
+
+    /** MESSAGE frame'inin hedefi ve (varsa) coalesce anahtarı */
+    record Frame(String destination, String coalesceKey) {
+    }
+
+    public BoundedOutboundSession(WebSocketSession delegate, int queueLimit, OutboundOverflowPolicy overflowPolicy,
+                                  Executor dispatchExecutor, long sendTimeLimitMs) {
+        super(delegate);
+        this.queueLimit = queueLimit;
+        this.overflowPolicy = overflowPolicy;
+        this.dispatchExecutor = dispatchExecutor;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (isStuck()) {
+            log.warn("WebSocket oturumu {} ms içinde yazılamadı, kapatılıyor: {}", sendTimeLimitMs, getId());
+            abort(CloseStatus.SESSION_NOT_RELIABLE);
+            return;
+        }
+        Frame frame = inspect(message);
+        boolean keyed = overflowPolicy == OutboundOverflowPolicy.COALESCE && frame != null && frame.coalesceKey() != null;
+        boolean schedule;
+        synchronized (pending) {
+            if (closed) {
+                return;
+            }
+            Outbound outbound = new Outbound(message, frame != null, keyed);
+            if (keyed) {
+                // Aynı anahtarlı bekleyen mesaj varsa yerini koruyarak güncel olanla değiştirilir
+                Object key = frame.destination() + "\n" + frame.coalesceKey();
+                if (pending.put(key, outbound) != null) {
+                    coalesced.incrementAndGet();
+                }
+            } else {
+                pending.put(sequence++, outbound);
+            }
+            if (pending.size() > queueLimit) {
+                dropOldest();
+            }
+            schedule = !dispatching;
+            dispatching = true;
+        }
+        if (schedule) {
+            schedule();
+        }
+    }
+
+    /**
+     * Kapanış, bekleyen kontrol frame'leri (ör. ERROR) gönderildikten sonra yapılır.
+     */
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        synchronized (pending) {
+            if (closed) {
+                return;
+            }
+            if (dispatching) {
+                closeAfterFlush = status;
+                return;
+            }
+            closed = true;
+        }
+        super.close(status);
+    }
+
+    /**
+     * Bağlantı kapandığında bekleyen mesajları bırakır.
+     */
+    public void discard() {
+        synchronized (pending) {
+            closed = true;
+            pending.clear();
+        }
+    }
+
+    public int getQueueSize() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    public boolean isDispatching() {
+        synchronized (pending) {
+            return dispatching;
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * En eski atılabilir mesajı atar. Anahtarlı mesajlar bir durumun son halini taşıdığından
+     * önce anahtarsız mesajlar atılır.
+     */
+    private void dropOldest() {
+        if (!dropFirst(false)) {
+            dropFirst(true);
+        }
+    }
+
+    private boolean dropFirst(boolean keyed) {
+        Iterator<Outbound> iterator = pending.values().iterator();
+        while (iterator.hasNext()) {
+            Outbound outbound = iterator.next();
+            if (outbound.droppable() && outbound.keyed() == keyed) {
+                iterator.remove();
+                dropped.incrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void schedule() {
+        try {
+            dispatchExecutor.execute(this::dispatch);
+        } catch (RejectedExecutionException e) {
+            log.error("WebSocket dispatch görevi kuyruğa alınamadı, oturum kapatılıyor: {}", getId());
+            abort(CloseStatus.SERVICE_OVERLOAD);
+        }
+    }
+
+    private void dispatch() {
+        for (int sent = 0; sent < DISPATCH_BATCH; sent++) {
+            Outbound next;
+            CloseStatus closeStatus = null;
+            synchronized (pending) {
+                Iterator<Outbound> iterator = pending.values().iterator();
+                if (closed || !iterator.hasNext()) {
+                    dispatching = false;
+                    if (!closed && closeAfterFlush != null) {
+                        closed = true;
+                        closeStatus = closeAfterFlush;
+                    }
+                    next = null;
+                } else {
+                    next = iterator.next();
+                    iterator.remove();
+                }
+            }
+            if (next == null) {
+                if (closeStatus != null) {
+                    closeQuietly(closeStatus);
+                }
+                return;
+            }
+            sendStartedAt = System.currentTimeMillis();
+            try {
+                getDelegate().sendMessage(next.message());
+            } catch (IOException | RuntimeException e) {
+                log.debug("WebSocket mesajı gönderilemedi, oturum kapatılıyor: {} - {}", getId(), e.getMessage());
+                abort(CloseStatus.SESSION_NOT_RELIABLE);
+                return;
+            } finally {
+                sendStartedAt = 0;
+            }
+        }
+        // Diğer oturumlar beklemesin; kalanlar için görev sona eklenir
+        schedule();
+    }
+
+    private boolean isStuck() {
+        long started = sendStartedAt;
+        return started > 0 && System.currentTimeMillis() - started > sendTimeLimitMs;
+    }
+
+    private void abort(CloseStatus status) {
+        synchronized (pending) {
+            closed = true;
+            dispatching = false;
+            pending.clear();
+        }
+        closeQuietly(status);
+    }
+
+    private void closeQuietly(CloseStatus status) {
+        try {
+            getDelegate().close(status);
+        } catch (IOException | RuntimeException e) {
+            log.debug("WebSocket oturumu kapatılamadı: {} - {}", getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * STOMP MESSAGE frame'inin hedefini ve coalesce anahtarını başlıklardan okur (gövde parse edilmez).
+     * MESSAGE dışındaki frame'ler için null döner; binary mesajlar anahtarsız MESSAGE sayılır.
+     */
+    static Frame inspect(WebSocketMessage<?> message) {
+        if (!(message instanceof TextMessage text)) {
+            return new Frame("", null);
+        }
+        String payload = text.getPayload();
+        if (!payload.startsWith("MESSAGE\n") && !payload.startsWith("MESSAGE\r\n")) {
+            return null;
+        }
+        String destination = "";
+        String coalesceKey = null;
+        int start = payload.indexOf('\n') + 1;
+        while (start < payload.length()) {
+            int end = payload.indexOf('\n', start);
+            if (end < 0) {
+                break;
+            }
+            int lineEnd = end > start && payload.charAt(end - 1) == '\r' ? end - 1 : end;
+            if (lineEnd == start) {
+                break; // başlıkların sonu
+            }
+            if (payload.startsWith("destination:", start)) {
+                destination = payload.substring(start + "destination:".length(), lineEnd);
+            } else if (payload.startsWith(COALESCE_HEADER_PREFIX, start)) {
+                coalesceKey = payload.substring(start + COALESCE_HEADER_PREFIX.length(), lineEnd);
+            }
+            start = end + 1;
+        }
+        return new Frame(destination, coalesceKey);
+    }
+}
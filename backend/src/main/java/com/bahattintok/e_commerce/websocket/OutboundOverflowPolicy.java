@@ -0,0 +1,16 @@
+package com.bahattintok.e_commerce.websocket;
+
+/**
+ * Bir WebSocket oturumunun giden kuyruğu dolduğunda uygulanacak politika.
+ */
+public enum OutboundOverflowPolicy {
+
+    /** Kuyruktaki en eski mesaj atılır */
+    DROP_OLDEST,
+
+    /**
+     * Aynı hedef ve coalesce-key başlığına sahip bekleyen mesaj yenisiyle değiştirilir (sıradaki yeri korunur);
+     * kuyruk dolarsa önce en eski anahtarsız mesaj atılır
+     */
+    COALESCE
+}
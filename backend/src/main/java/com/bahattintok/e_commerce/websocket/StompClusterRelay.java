@@ -0,0 +1,106 @@
+package com.bahattintok.e_commerce.websocket;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import com.bahattintok.e_commerce.service.ClusterBusService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bu düğümde broker'a gönderilen /topic ve /user mesajlarını küme yolu üzerinden diğer düğümlere aktarır;
+ * diğer düğümlerden gelenleri yerel broker'a verir. Böylece kullanıcı hangi düğüme bağlı olursa olsun mesajı alır.
+ */
+@Slf4j
+@Component
+public class StompClusterRelay implements ChannelInterceptor {
+
+    static final String TOPIC = "stomp";
+
+    /** Diğer düğümden gelmiş mesajı işaretler; tekrar aktarılmaz */
+    static final String RELAYED_HEADER = "clusterRelayed";
+
+    private final ClusterBusService clusterBusService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+
+    /** Küme yolunda taşınan STOMP mesajı */
+    record RelayedMessage(String destination, String contentType, Map<String, List<String>> nativeHeaders,
+                          byte[] payload) {
+    }
+
+    public StompClusterRelay(ClusterBusService clusterBusService,
+                             @Lazy SimpMessagingTemplate messagingTemplate,
+                             ObjectMapper objectMapper) {
+        this.clusterBusService = clusterBusService;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        clusterBusService.subscribe(TOPIC, this::deliver);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (shouldRelay(message) && message.getPayload() instanceof byte[] payload) {
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+            Object contentType = message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+            RelayedMessage relayed = new RelayedMessage(
+                    accessor.getDestination(),
+                    contentType != null ? contentType.toString() : null,
+                    accessor.toNativeHeaderMap(),
+                    payload);
+            try {
+                clusterBusService.publish(TOPIC, objectMapper.writeValueAsString(relayed));
+            } catch (JsonProcessingException e) {
+                log.error("STOMP mesajı diğer düğümlere aktarılamadı: {}", e.getMessage());
+            }
+        }
+        return message;
+    }
+
+    private static boolean shouldRelay(Message<?> message) {
+        MessageHeaders headers = message.getHeaders();
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE
+                || headers.containsKey(RELAYED_HEADER)
+                // Kullanıcı hedefinin oturumlara çözülmüş hali; orijinal /user mesajı zaten aktarıldı
+                || headers.containsKey(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION)) {
+            return false;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        return destination != null && (destination.startsWith("/topic/") || destination.startsWith("/user/"));
+    }
+
+    private void deliver(String payload) {
+        RelayedMessage relayed;
+        try {
+            relayed = objectMapper.readValue(payload, RelayedMessage.class);
+        } catch (JsonProcessingException e) {
+            log.error("Diğer düğümden gelen STOMP mesajı okunamadı: {}", e.getMessage());
+            return;
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        if (relayed.nativeHeaders() != null) {
+            relayed.nativeHeaders().forEach((name, values) -> values.forEach(value -> accessor.addNativeHeader(name, value)));
+        }
+        if (relayed.contentType() != null) {
+            accessor.setContentType(MimeTypeUtils.parseMimeType(relayed.contentType()));
+        }
+        accessor.setHeader(RELAYED_HEADER, true);
+        accessor.setLeaveMutable(true);
+        messagingTemplate.send(relayed.destination(),
+                MessageBuilder.createMessage(relayed.payload(), accessor.getMessageHeaders()));
+    }
+}
@@ -0,0 +1,18 @@
+-- Admin raporları için günlük sipariş özet tablosu
+CREATE TABLE IF NOT EXISTS order_daily_stats (
+    id BIGSERIAL PRIMARY KEY,
+    stat_date DATE NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    total_amount NUMERIC(38, 2) NOT NULL DEFAULT 0,
+    CONSTRAINT uk_order_daily_stats_date_status UNIQUE (stat_date, status)
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_daily_stats_status ON order_daily_stats(status);
+
+-- Mevcut siparişlerden başlangıç verisini oluştur
+INSERT INTO order_daily_stats (stat_date, status, order_count, total_amount)
+SELECT CAST(created_at AS DATE), status, COUNT(*), COALESCE(SUM(total_price), 0)
+FROM orders
+GROUP BY CAST(created_at AS DATE), status
+ON CONFLICT (stat_date, status) DO NOTHING;
@@ -0,0 +1,51 @@
+-- Sipariş kalemlerine mağaza ID'si ekle (mağaza bazlı sipariş sorguları için)
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS store_id VARCHAR(36);
+
+UPDATE order_items oi
+SET store_id = p.store_id
+FROM products p
+WHERE oi.product_id = p.id AND oi.store_id IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_order_items_store_order ON order_items(store_id, order_id);
+CREATE INDEX IF NOT EXISTS idx_orders_created_at ON orders(created_at DESC);
+
+-- Mağaza günlük satış özeti
+CREATE TABLE IF NOT EXISTS store_daily_sales (
+    id BIGSERIAL PRIMARY KEY,
+    store_id VARCHAR(36) NOT NULL,
+    stat_date DATE NOT NULL,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    items_sold BIGINT NOT NULL DEFAULT 0,
+    revenue NUMERIC(38, 2) NOT NULL DEFAULT 0,
+    CONSTRAINT uk_store_daily_sales_store_date UNIQUE (store_id, stat_date)
+);
+
+-- Mağaza ürün satış özeti
+CREATE TABLE IF NOT EXISTS store_product_sales (
+    id BIGSERIAL PRIMARY KEY,
+    store_id VARCHAR(36) NOT NULL,
+    product_id VARCHAR(36) NOT NULL,
+    category_id VARCHAR(36),
+    quantity_sold BIGINT NOT NULL DEFAULT 0,
+    revenue NUMERIC(38, 2) NOT NULL DEFAULT 0,
+    CONSTRAINT uk_store_product_sales_store_product UNIQUE (store_id, product_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_store_product_sales_top ON store_product_sales(store_id, quantity_sold DESC);
+
+-- Mevcut siparişlerden başlangıç verisini oluştur
+INSERT INTO store_daily_sales (store_id, stat_date, order_count, items_sold, revenue)
+SELECT oi.store_id, CAST(o.created_at AS DATE), COUNT(DISTINCT o.id), SUM(oi.quantity), SUM(oi.price * oi.quantity)
+FROM order_items oi
+JOIN orders o ON o.id = oi.order_id
+WHERE oi.store_id IS NOT NULL
+GROUP BY oi.store_id, CAST(o.created_at AS DATE)
+ON CONFLICT (store_id, stat_date) DO NOTHING;
+
+INSERT INTO store_product_sales (store_id, product_id, category_id, quantity_sold, revenue)
+SELECT oi.store_id, oi.product_id, MAX(p.category_id), SUM(oi.quantity), SUM(oi.price * oi.quantity)
+FROM order_items oi
+JOIN products p ON p.id = oi.product_id
+WHERE oi.store_id IS NOT NULL
+GROUP BY oi.store_id, oi.product_id
+ON CONFLICT (store_id, product_id) DO NOTHING;
@@ -0,0 +1,18 @@
+-- Checkout sırasında ayrılan stok kayıtları
+CREATE TABLE IF NOT EXISTS stock_reservations (
+    id VARCHAR(255) PRIMARY KEY,
+    reservation_key VARCHAR(255) NOT NULL,
+    product_id VARCHAR(36) NOT NULL,
+    quantity INTEGER NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_key ON stock_reservations(reservation_key);
+-- Süresi dolan rezervasyon taraması için kısmi indeks
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_expiry ON stock_reservations(expires_at) WHERE status = 'RESERVED';
+
+-- Stok hiçbir koşulda negatife düşmesin
+ALTER TABLE products DROP CONSTRAINT IF EXISTS chk_products_stock_non_negative;
+ALTER TABLE products ADD CONSTRAINT chk_products_stock_non_negative CHECK (stock >= 0) NOT VALID;
@@ -0,0 +1,9 @@
+-- Popüler arama terimlerinin periyodik anlık görüntüsü (bellek içi sayaçtan yazılır)
+CREATE TABLE IF NOT EXISTS popular_search_terms (
+    id BIGSERIAL PRIMARY KEY,
+    window_name VARCHAR(10) NOT NULL,
+    term VARCHAR(100) NOT NULL,
+    hits BIGINT NOT NULL DEFAULT 0,
+    captured_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_popular_search_terms_window_term UNIQUE (window_name, term)
+);
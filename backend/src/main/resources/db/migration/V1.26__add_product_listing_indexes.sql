@@ -0,0 +1,4 @@
+-- Vitrin ürün listeleri her zaman status = 'AKTİF' ile filtrelenir; durum önde olacak şekilde bileşik indeksler
+CREATE INDEX IF NOT EXISTS idx_products_status_category_price ON products(status, category_id, price);
+CREATE INDEX IF NOT EXISTS idx_products_status_store ON products(status, store_id);
+CREATE INDEX IF NOT EXISTS idx_products_status_price ON products(status, price);
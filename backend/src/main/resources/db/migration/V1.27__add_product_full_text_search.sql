@@ -0,0 +1,14 @@
+-- Elasticsearch kapalıyken kullanılan PostgreSQL tam metin + trigram araması
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- İsim (A) ve açıklama (B) ağırlıklı, Türkçe köklerle üretilen arama vektörü
+ALTER TABLE products ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('turkish'::regconfig, coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('turkish'::regconfig, coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_products_search_vector ON products USING GIN (search_vector);
+
+-- Yazım hatalı ve kelime içi (LIKE '%..%') isim aramaları için trigram indeksi
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING GIN (lower(name) gin_trgm_ops);
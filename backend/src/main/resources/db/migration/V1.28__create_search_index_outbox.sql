@@ -0,0 +1,13 @@
+-- Elasticsearch'e aktarılacak ürün değişiklikleri (transactional outbox)
+CREATE TABLE IF NOT EXISTS search_index_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    product_id VARCHAR(36) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(1000)
+);
+
+-- İşçinin hazır kayıt taraması için
+CREATE INDEX IF NOT EXISTS idx_search_index_outbox_ready ON search_index_outbox(next_attempt_at, id);
+CREATE INDEX IF NOT EXISTS idx_search_index_outbox_product ON search_index_outbox(product_id);
@@ -0,0 +1,5 @@
+-- Bellekteki sepetin veritabanına yazılırken iyimser sürüm kontrolü için
+ALTER TABLE IF EXISTS carts ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Toplu yazımda sepet satırlarının sepet bazında okunması için
+CREATE INDEX IF NOT EXISTS idx_cart_items_cart ON cart_items(cart_id);
@@ -0,0 +1,34 @@
+-- Kampanyalar zamanlayıcı tarafından başlangıç/bitiş zamanında toplu UPDATE ile uygulanır
+ALTER TABLE IF EXISTS campaigns ADD COLUMN IF NOT EXISTS status VARCHAR(20) NOT NULL DEFAULT 'SCHEDULED';
+
+UPDATE campaigns SET status = CASE
+    WHEN end_date <= CURRENT_TIMESTAMP OR NOT is_active THEN 'ENDED'
+    WHEN start_date <= CURRENT_TIMESTAMP THEN 'RUNNING'
+    ELSE 'SCHEDULED'
+END;
+
+CREATE INDEX IF NOT EXISTS idx_campaigns_status_start ON campaigns(status, start_date);
+CREATE INDEX IF NOT EXISTS idx_campaigns_status_end ON campaigns(status, end_date);
+
+-- Ürünlerde satış fiyatı önceden hesaplanır; okumalar indirim kuralı işletmez
+ALTER TABLE IF EXISTS products ADD COLUMN IF NOT EXISTS effective_price NUMERIC(38,2);
+ALTER TABLE IF EXISTS products ADD COLUMN IF NOT EXISTS campaign_id VARCHAR(36);
+
+UPDATE products SET effective_price = CASE
+    WHEN discount_percentage > 0 AND discounted_price IS NOT NULL
+         AND (discount_end_date IS NULL OR discount_end_date > CURRENT_TIMESTAMP) THEN discounted_price
+    ELSE price
+END;
+
+-- Çalışan kampanyaların uyguladığı indirimler kampanyaya bağlanır (bitişte sadece bunlar kaldırılır)
+UPDATE products p SET campaign_id = c.id
+FROM campaigns c
+WHERE c.status = 'RUNNING'
+  AND p.store_id = c.store_id
+  AND p.discount_end_date = c.end_date
+  AND ((c.campaign_type = 'product' AND p.id = c.target_id)
+    OR (c.campaign_type = 'category' AND p.category_id = c.target_id));
+
+CREATE INDEX IF NOT EXISTS idx_products_campaign ON products(campaign_id) WHERE campaign_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_products_discount_end ON products(discount_end_date) WHERE discount_end_date IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_products_discounted ON products(status) WHERE effective_price < price;
@@ -0,0 +1,10 @@
+-- Düğümler arası mesaj yolu (LISTEN/NOTIFY ile duyurulur). Bağlantısı kopan düğüm kaçırdığı
+-- mesajları buradan okur; kayıtlar kısa bir süre sonra silinir.
+CREATE TABLE IF NOT EXISTS cluster_bus_messages (
+    id BIGSERIAL PRIMARY KEY,
+    node_id VARCHAR(64) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_cluster_bus_messages_created_at ON cluster_bus_messages(created_at);
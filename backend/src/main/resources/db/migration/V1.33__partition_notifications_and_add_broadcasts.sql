@@ -0,0 +1,85 @@
+-- Bildirimler created_at'e göre aylık bölümlere ayrılır; saklama süresi dolan aylar satır satır silinmek
+-- yerine bölüm olarak düşürülür. Tablo daha önce Hibernate tarafından oluşturulduysa veriler yeni tabloya taşınır.
+-- Bölümler notifications_yYYYYmMM adını taşır; ileriki aylar uygulama tarafından önceden oluşturulur.
+DO $$
+DECLARE
+    legacy_exists BOOLEAN;
+    first_month DATE;
+    month_start DATE;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace
+               WHERE c.relname = 'notifications' AND n.nspname = current_schema() AND c.relkind = 'p') THEN
+        RETURN;
+    END IF;
+
+    legacy_exists := EXISTS (SELECT 1 FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace
+                             WHERE c.relname = 'notifications' AND n.nspname = current_schema() AND c.relkind = 'r');
+    IF legacy_exists THEN
+        ALTER TABLE notifications RENAME TO notifications_legacy;
+    END IF;
+
+    CREATE SEQUENCE IF NOT EXISTS notification_id_seq;
+
+    CREATE TABLE notifications (
+        id BIGINT NOT NULL DEFAULT nextval('notification_id_seq'),
+        title VARCHAR(255) NOT NULL,
+        message VARCHAR(1000) NOT NULL,
+        type VARCHAR(255) NOT NULL,
+        read BOOLEAN NOT NULL DEFAULT FALSE,
+        created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP,
+        user_id VARCHAR(255) NOT NULL,
+        related_entity_id BIGINT,
+        related_entity_type VARCHAR(255),
+        CONSTRAINT pk_notifications PRIMARY KEY (id, created_at)
+    ) PARTITION BY RANGE (created_at);
+
+    ALTER SEQUENCE notification_id_seq OWNED BY notifications.id;
+
+    -- Beklenmedik tarihli kayıtlar için; bölümler önceden oluşturulduğundan normalde boş kalır
+    CREATE TABLE notifications_default PARTITION OF notifications DEFAULT;
+
+    first_month := date_trunc('month', CURRENT_DATE)::date;
+    IF legacy_exists THEN
+        EXECUTE 'SELECT LEAST($1, COALESCE(date_trunc(''month'', MIN(created_at))::date, $1)) FROM notifications_legacy'
+            INTO first_month USING first_month;
+    END IF;
+
+    month_start := first_month;
+    WHILE month_start <= (date_trunc('month', CURRENT_DATE) + INTERVAL '3 months')::date LOOP
+        EXECUTE format('CREATE TABLE notifications_y%sm%s PARTITION OF notifications FOR VALUES FROM (%L) TO (%L)',
+            to_char(month_start, 'YYYY'), to_char(month_start, 'MM'),
+            month_start, (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+
+    IF legacy_exists THEN
+        INSERT INTO notifications (id, title, message, type, read, created_at, user_id, related_entity_id, related_entity_type)
+        SELECT id, title, message, type, read, COALESCE(created_at, CURRENT_TIMESTAMP), user_id,
+               related_entity_id, related_entity_type
+        FROM notifications_legacy;
+        PERFORM setval('notification_id_seq', COALESCE((SELECT MAX(id) FROM notifications), 0) + 1, false);
+        DROP TABLE notifications_legacy;
+    END IF;
+END $$;
+
+-- Kullanıcının akışı (en yeni önce) ve okunmamış sayısı
+CREATE INDEX IF NOT EXISTS idx_notifications_user_created ON notifications(user_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_notifications_user_unread ON notifications(user_id) WHERE read = false;
+
+-- Tüm kullanıcılara giden bildirimler (sistem, promosyon) tek satır olarak saklanır
+CREATE TABLE IF NOT EXISTS broadcast_notifications (
+    id BIGSERIAL PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    message VARCHAR(1000) NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_broadcast_notifications_created ON broadcast_notifications(created_at DESC, id DESC);
+
+-- Kullanıcının okuduğu son toplu bildirim; bu ID'ye kadar olanlar okunmuş sayılır
+CREATE TABLE IF NOT EXISTS notification_read_marks (
+    user_id VARCHAR(255) PRIMARY KEY,
+    broadcast_read_up_to BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
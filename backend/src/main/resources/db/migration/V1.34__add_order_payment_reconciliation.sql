@@ -0,0 +1,6 @@
+-- Kart ödemesinin rezervasyon anahtarı siparişte tutulur; sonucu belirsiz kalan ödemeler sağlayıcıdan sorgulanıp
+-- rezervasyon uygulama yeniden başlasa da onaylanabilir veya iade edilebilir
+ALTER TABLE IF EXISTS orders ADD COLUMN IF NOT EXISTS reservation_key VARCHAR(36);
+
+CREATE INDEX IF NOT EXISTS idx_orders_payment_pending ON orders(status, created_at)
+    WHERE status IN ('PENDING_PAYMENT', 'PAYMENT_UNKNOWN');
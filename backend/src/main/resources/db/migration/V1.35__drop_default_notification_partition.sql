@@ -0,0 +1,26 @@
+-- Süresi dolan bildirim bölümleri CONCURRENTLY ile ayrılabilsin diye varsayılan bölüm kaldırılır
+-- (PostgreSQL varsayılan bölüm varken eşzamanlı ayırmaya izin vermez). İçindeki kayıtlar kendi aylarının
+-- bölümlerine taşınır; ileriki aylar uygulama tarafından önceden oluşturulduğundan varsayılan bölüme gerek kalmaz.
+DO $$
+DECLARE
+    month_start DATE;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                   WHERE i.inhparent = 'notifications'::regclass AND c.relname = 'notifications_default') THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE notifications DETACH PARTITION notifications_default;
+
+    FOR month_start IN SELECT DISTINCT date_trunc('month', created_at)::date FROM notifications_default LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS notifications_y%sm%s PARTITION OF notifications FOR VALUES FROM (%L) TO (%L)',
+            to_char(month_start, 'YYYY'), to_char(month_start, 'MM'),
+            month_start, (month_start + INTERVAL '1 month')::date);
+    END LOOP;
+
+    INSERT INTO notifications (id, title, message, type, read, created_at, user_id, related_entity_id, related_entity_type)
+    SELECT id, title, message, type, read, created_at, user_id, related_entity_id, related_entity_type
+    FROM notifications_default;
+
+    DROP TABLE notifications_default;
+END $$;
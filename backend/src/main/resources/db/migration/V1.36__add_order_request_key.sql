@@ -0,0 +1,6 @@
+-- Siparişi oluşturan isteğin Idempotency-Key'i; idempotency kaydı tamamlanamadan kalan bir istek yeniden
+-- çalıştırıldığında ikinci sipariş yerine mevcut sipariş döner. Eşzamanlı tekrarları tekil indeks durdurur
+ALTER TABLE IF EXISTS orders ADD COLUMN IF NOT EXISTS request_key VARCHAR(120);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_orders_user_request_key ON orders(user_id, request_key)
+    WHERE request_key IS NOT NULL;
@@ -0,0 +1,2 @@
+-- Onaylanmış ve iade edilmiş rezervasyonların saklama süresi sonunda silinmesi için kısmi indeks
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_settled ON stock_reservations(created_at) WHERE status <> 'RESERVED';
@@ -0,0 +1,18 @@
+-- İade edilmesi gereken tahsilatlar. Sipariş başarısız sayıldığı transaction ile birlikte yazılır, iade commit
+-- sonrası sağlayıcıya iletilir; iletilemezse ödeme mutabakatı yeniden dener. Aynı tahsilat bir kez kaydedilir
+CREATE TABLE IF NOT EXISTS payment_refunds (
+    id BIGSERIAL PRIMARY KEY,
+    order_id VARCHAR(36) NOT NULL,
+    transaction_id VARCHAR(255) NOT NULL,
+    amount NUMERIC(38, 2) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(1000),
+    CONSTRAINT uk_payment_refunds_transaction UNIQUE (transaction_id)
+);
+
+-- Mutabakatın bekleyen iade taraması için
+CREATE INDEX IF NOT EXISTS idx_payment_refunds_pending ON payment_refunds(next_attempt_at) WHERE status = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_payment_refunds_order ON payment_refunds(order_id);
@@ -0,0 +1,127 @@
+package com.bahattintok.e_commerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bahattintok.e_commerce.dto.ProductView;
+import com.bahattintok.e_commerce.model.Campaign;
+import com.bahattintok.e_commerce.model.Product;
+import com.bahattintok.e_commerce.model.Store;
+import com.bahattintok.e_commerce.model.User;
+import com.bahattintok.e_commerce.repository.CampaignRepository;
+import com.bahattintok.e_commerce.repository.ProductRepository;
+
+/**
+ * Kampanyaların zamanında toplu uygulanıp kaldırıldığını ve etkin fiyatın okuma modeline yansıdığını doğrular.
+ * Zamanlanmış çalıştırma test boyunca devre dışıdır; zamanlayıcı elle tetiklenir.
+ */
+@SpringBootTest(properties = "campaign.scheduler.interval-ms=3600000")
+@Import(TestFixtures.class)
+class CampaignServiceTest {
+
+    @Autowired
+    private CampaignService campaignService;
+
+    @Autowired
+    private CampaignRepository campaignRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Store store;
+    private String categoryId;
+    private final List<String> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User seller = fixtures.user("campaign", "SELLER");
+        store = fixtures.store(seller, "Kampanya Mağazası");
+        categoryId = fixtures.category("Kampanya Kategorisi");
+        for (int i = 0; i < 2; i++) {
+            productIds.add(fixtures.product("Kampanya Ürünü " + i, new BigDecimal("100.00"), 10, categoryId, store.getId()).getId());
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        fixtures.cleanup();
+        productIds.clear();
+    }
+
+    @Test
+    void runningCampaignIsAppliedOnSaveAndRemovedAtEnd() {
+        Campaign campaign = campaign("category", categoryId, "percentage", "20",
+                LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(1));
+        Campaign saved = campaignService.save(campaign);
+
+        assertThat(saved.getStatus()).isEqualTo(Campaign.STATUS_RUNNING);
+        for (ProductView view : productRepository.findViewsByIdIn(productIds)) {
+            assertThat(view.isDiscountActive()).isTrue();
+            assertThat(view.getDiscountedPrice()).isEqualByComparingTo("80.00");
+        }
+
+        // Bitiş zamanı geçmiş gibi
+        jdbcTemplate.update("UPDATE campaigns SET end_date = ? WHERE id = ?", LocalDateTime.now().minusMinutes(1), saved.getId());
+        assertThat(campaignService.runDue()).isGreaterThanOrEqualTo(2);
+
+        assertThat(campaignRepository.findById(saved.getId()).orElseThrow().getStatus()).isEqualTo(Campaign.STATUS_ENDED);
+        for (ProductView view : productRepository.findViewsByIdIn(productIds)) {
+            assertThat(view.isDiscountActive()).isFalse();
+            assertThat(view.getDiscountedPrice()).isEqualByComparingTo("100.00");
+        }
+    }
+
+    @Test
+    void scheduledCampaignStartsOnlyWhenDue() {
+        String target = productIds.get(0);
+        Campaign saved = campaignService.save(campaign("product", target, "fixed", "25",
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2)));
+
+        assertThat(saved.getStatus()).isEqualTo(Campaign.STATUS_SCHEDULED);
+        campaignService.runDue();
+        assertThat(productRepository.findById(target).orElseThrow().isDiscountActive()).isFalse();
+
+        jdbcTemplate.update("UPDATE campaigns SET start_date = ? WHERE id = ?", LocalDateTime.now().minusMinutes(1), saved.getId());
+        assertThat(campaignService.runDue()).isGreaterThanOrEqualTo(1);
+
+        Product product = productRepository.findById(target).orElseThrow();
+        assertThat(product.getDiscountPercentage()).isEqualTo(25);
+        assertThat(product.getFinalPrice()).isEqualByComparingTo("75.00");
+        assertThat(productRepository.findById(productIds.get(1)).orElseThrow().isDiscountActive()).isFalse();
+    }
+
+    private Campaign campaign(String type, String targetId, String discountType, String value,
+                              LocalDateTime start, LocalDateTime end) {
+        Campaign campaign = new Campaign();
+        campaign.setName("Test Kampanyası");
+        campaign.setCampaignType(type);
+        campaign.setTargetId(targetId);
+        campaign.setDiscountType(discountType);
+        campaign.setDiscountValue(new BigDecimal(value));
+        campaign.setStartDate(start);
+        campaign.setEndDate(end);
+        campaign.setActive(true);
+        campaign.setStore(store);
+        campaign.setCreatedAt(LocalDateTime.now());
+        campaign.setUpdatedAt(LocalDateTime.now());
+        return campaign;
+    }
+}
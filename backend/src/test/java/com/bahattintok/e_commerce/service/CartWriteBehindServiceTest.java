@@ -0,0 +1,144 @@
+package com.bahattintok.e_commerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bahattintok.e_commerce.dto.CartBatchRequest;
+import com.bahattintok.e_commerce.model.User;
+
+/**
+ * Sepet değişikliklerinin veritabanına sadece toplu yazımda gittiğini ve sürüm çakışmasında
+ * yazılmamış değişikliklerin güncel sepetle birleştirildiğini doğrular. Zamanlanmış yazım test boyunca devre dışıdır.
+ */
+@SpringBootTest(properties = "cart.write-behind.flush-interval-ms=3600000")
+@Import(TestFixtures.class)
+class CartWriteBehindServiceTest {
+
+    @Autowired
+    private CartWriteBehindService cartWriteBehindService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User customer;
+    private final List<String> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        customer = fixtures.user("cart-write-behind", "USER");
+        for (int i = 0; i < 2; i++) {
+            productIds.add(fixtures.product("Sepet Ürünü " + i, BigDecimal.TEN, 100, null, null).getId());
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        cartWriteBehindService.invalidate(customer.getId());
+        fixtures.cleanup();
+        productIds.clear();
+    }
+
+    @Test
+    void mutationsAreWrittenOnlyOnFlush() {
+        String first = productIds.get(0);
+        String second = productIds.get(1);
+
+        cartService.addToCart(customer, first, 1);
+        cartService.addToCart(customer, first, 2);
+        cartService.addToCart(customer, second, 1);
+        cartService.updateCartItemQuantity(customer, second, 5);
+        cartService.removeFromCart(customer, second);
+
+        assertThat(storedLines()).isEmpty();
+        assertThat(cartService.getCartItemViews(customer)).hasSize(1);
+
+        assertThat(cartWriteBehindService.flushDirty()).isGreaterThanOrEqualTo(1);
+        assertThat(storedLines()).containsExactlyEntriesOf(Map.of(first, 3));
+
+        // Temiz sepet tekrar yazılmaz
+        Long version = storedVersion();
+        cartWriteBehindService.flushDirty();
+        assertThat(storedVersion()).isEqualTo(version);
+
+        cartService.clearCart(customer);
+        cartWriteBehindService.flushDirty();
+        assertThat(storedLines()).isEmpty();
+        assertThat(storedVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+    void pendingChangesAreMergedOnVersionConflict() {
+        String first = productIds.get(0);
+        String second = productIds.get(1);
+
+        cartService.addToCart(customer, first, 1);
+        cartWriteBehindService.flushDirty();
+
+        // Sepet başka bir düğümde yazılmış gibi: ilk ürünün miktarı 3 olmuş
+        jdbcTemplate.update("UPDATE cart_items SET quantity = 3 WHERE cart_id = (SELECT id FROM carts WHERE user_id = ?)",
+                customer.getId());
+        jdbcTemplate.update("UPDATE carts SET version = version + 1 WHERE user_id = ?", customer.getId());
+        cartService.addToCart(customer, second, 4);
+        cartWriteBehindService.flushDirty();
+
+        // Çakışan yazım birleştirildi, sepet kirli kaldı; sonraki yazım ikisini birden yazar
+        assertThat(cartWriteBehindService.getLines(customer)).isEqualTo(Map.of(first, 3, second, 4));
+        cartWriteBehindService.flushDirty();
+        assertThat(storedLines()).isEqualTo(Map.of(first, 3, second, 4));
+    }
+
+    @Test
+    void batchIsAppliedAllOrNothing() {
+        String first = productIds.get(0);
+        String second = productIds.get(1);
+        cartService.addToCart(customer, first, 1);
+
+        List<Map<String, Object>> items = cartService.applyBatch(customer, List.of(
+                new CartBatchRequest.Operation("ADD", first, 2),
+                new CartBatchRequest.Operation("UPDATE", second, 4)));
+
+        assertThat(items).hasSize(2);
+        assertThat(cartWriteBehindService.getLines(customer)).isEqualTo(Map.of(first, 3, second, 4));
+
+        // İkinci ürün için stok yetmez; ilk işlem de uygulanmamalı
+        assertThatThrownBy(() -> cartService.applyBatch(customer, List.of(
+                new CartBatchRequest.Operation("REMOVE", first, null),
+                new CartBatchRequest.Operation("ADD", second, 500))))
+                .hasMessageContaining("stok yetersiz");
+        assertThat(cartWriteBehindService.getLines(customer)).isEqualTo(Map.of(first, 3, second, 4));
+    }
+
+    private Map<String, Integer> storedLines() {
+        Map<String, Integer> lines = new HashMap<>();
+        jdbcTemplate.query("SELECT ci.product_id, ci.quantity FROM cart_items ci JOIN carts c ON c.id = ci.cart_id WHERE c.user_id = ?",
+                rs -> {
+                    lines.put(rs.getString(1), rs.getInt(2));
+                },
+                customer.getId());
+        return lines;
+    }
+
+    private Long storedVersion() {
+        return jdbcTemplate.queryForObject("SELECT version FROM carts WHERE user_id = ?", Long.class, customer.getId());
+    }
+}
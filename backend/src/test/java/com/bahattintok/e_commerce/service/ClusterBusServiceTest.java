@@ -0,0 +1,170 @@
+package com.bahattintok.e_commerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import com.bahattintok.e_commerce.ECommerceBackendApplication;
+import com.bahattintok.e_commerce.security.CurrentUser;
+import com.bahattintok.e_commerce.security.CurrentUserCache;
+
+/**
+ * Aynı veritabanına bağlı iki düğümde (iki uygulama context'i) mesajların sırayla iletildiğini, STOMP mesajlarının
+ * önbellek temizlemelerinin ve arama önerisi değişikliklerinin diğer düğüme ulaştığını ve bağlantısı kopan düğümün kaçırdığı mesajları okuduğunu doğrular.
+ */
+class ClusterBusServiceTest {
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+        await(() -> bus(nodeA).isConnected() && bus(nodeB).isConnected(), "düğümler bağlanmadı");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @Test
+    void messagesArriveInOrderOnOtherNodeOnly() {
+        String topic = "test-order-" + UUID.randomUUID();
+        List<String> receivedByA = Collections.synchronizedList(new ArrayList<>());
+        List<String> receivedByB = Collections.synchronizedList(new ArrayList<>());
+        bus(nodeA).subscribe(topic, receivedByA::add);
+        bus(nodeB).subscribe(topic, receivedByB::add);
+
+        List<String> sent = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            sent.add(String.valueOf(i));
+            bus(nodeA).publish(topic, String.valueOf(i));
+        }
+        bus(nodeA).flush();
+
+        await(() -> receivedByB.size() >= sent.size(), "mesajlar diğer düğüme ulaşmadı");
+        assertThat(receivedByB).containsExactlyElementsOf(sent);
+        assertThat(receivedByA).isEmpty();
+    }
+
+    @Test
+    void stompBroadcastIsRelayedToOtherNode() {
+        String destination = "/topic/cluster-test-" + UUID.randomUUID();
+        List<String> deliveredOnB = Collections.synchronizedList(new ArrayList<>());
+        SubscribableChannel brokerChannelB = nodeB.getBean("brokerChannel", SubscribableChannel.class);
+        MessageHandler handler = message -> {
+            if (destination.equals(SimpMessageHeaderAccessor.getDestination(message.getHeaders()))) {
+                deliveredOnB.add(new String((byte[]) message.getPayload(), StandardCharsets.UTF_8));
+            }
+        };
+        brokerChannelB.subscribe(handler);
+        try {
+            nodeA.getBean(SimpMessagingTemplate.class).convertAndSend(destination, "merhaba");
+            bus(nodeA).flush();
+
+            await(() -> !deliveredOnB.isEmpty(), "STOMP mesajı diğer düğüme aktarılmadı");
+            assertThat(deliveredOnB).containsExactly("merhaba");
+        } finally {
+            brokerChannelB.unsubscribe(handler);
+        }
+    }
+
+    @Test
+    void cacheInvalidationReachesOtherNode() {
+        String userId = UUID.randomUUID().toString();
+        String email = "cluster-" + userId + "@test.local";
+        CurrentUserCache cacheB = nodeB.getBean(CurrentUserCache.class);
+        CurrentUser user = new CurrentUser(userId, email, "Küme", "Testi", "USER", false, null);
+        cacheB.put(email, new CurrentUserCache.Identity(user, null, null), cacheB.generation());
+        assertThat(cacheB.get(email)).isNotNull();
+
+        nodeA.getBean(CurrentUserCache.class).invalidateUser(userId);
+        bus(nodeA).flush();
+
+        await(() -> cacheB.get(email) == null, "önbellek diğer düğümde temizlenmedi");
+    }
+
+    @Test
+    void suggestionIndexChangesReachOtherNode() {
+        String id = UUID.randomUUID().toString();
+        String name = "Küme Önerisi " + id.substring(0, 8);
+        SearchSuggestionService suggestionsB = nodeB.getBean(SearchSuggestionService.class);
+
+        nodeA.getBean(SearchSuggestionService.class).indexCategory(id, name);
+        bus(nodeA).flush();
+        await(() -> suggestionsB.getCategorySuggestions(name, 5).contains(name), "öneri diğer düğümde eklenmedi");
+
+        nodeA.getBean(SearchSuggestionService.class).removeCategory(id);
+        bus(nodeA).flush();
+        await(() -> suggestionsB.getCategorySuggestions(name, 5).isEmpty(), "öneri diğer düğümde silinmedi");
+    }
+
+    @Test
+    void reconnectedNodeReadsMissedMessages() {
+        String topic = "test-reconnect-" + UUID.randomUUID();
+        List<String> receivedByB = Collections.synchronizedList(new ArrayList<>());
+        bus(nodeB).subscribe(topic, receivedByB::add);
+
+        // B'nin dinleme bağlantısı sunucu tarafında kapatılır; bu arada gönderilen mesajlar tablodan okunmalı
+        nodeA.getBean(JdbcTemplate.class).query(
+                "SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = ?",
+                rs -> null, "cluster-bus-" + bus(nodeB).getNodeId());
+        await(() -> !bus(nodeB).isConnected(), "bağlantı kopmadı");
+        for (int i = 0; i < 10; i++) {
+            bus(nodeA).publish(topic, String.valueOf(i));
+        }
+        bus(nodeA).flush();
+
+        await(() -> receivedByB.size() >= 10, "kaçırılan mesajlar okunmadı");
+        assertThat(receivedByB).containsExactly("0", "1", "2", "3", "4", "5", "6", "7", "8", "9");
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(ECommerceBackendApplication.class)
+                // Komut satırı argümanları application.properties'i ezer; properties() ile verilen port ezilirdi
+                .run("--server.port=0",
+                        "--cluster.bus.flush-interval-ms=20",
+                        "--cluster.bus.reconnect-delay-ms=200",
+                        "--cluster.bus.poll-timeout-ms=100");
+    }
+
+    private static ClusterBusService bus(ConfigurableApplicationContext context) {
+        return context.getBean(ClusterBusService.class);
+    }
+
+    private static void await(BooleanSupplier condition, String description) {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as(description).isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
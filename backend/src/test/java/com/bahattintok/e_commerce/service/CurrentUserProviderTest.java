@@ -0,0 +1,147 @@
+package com.bahattintok.e_commerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Date;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.bahattintok.e_commerce.model.Store;
+import com.bahattintok.e_commerce.model.User;
+import com.bahattintok.e_commerce.model.enums.SellerStatus;
+import com.bahattintok.e_commerce.repository.StoreRepository;
+import com.bahattintok.e_commerce.repository.UserRepository;
+import com.bahattintok.e_commerce.security.CurrentSeller;
+import com.bahattintok.e_commerce.security.CurrentUserCache;
+import com.bahattintok.e_commerce.security.CurrentUserProvider;
+import com.bahattintok.e_commerce.security.PrincipalCache;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Oturumdaki satıcının önbellekten sorgusuz çözüldüğünü ve mağaza/kullanıcı değişince önbelleğin
+ * (JWT principal önbelleği dahil) temizlendiğini, principal kaydının token'a bağlı olduğunu doğrular.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(TestFixtures.class)
+class CurrentUserProviderTest {
+
+    @Autowired
+    private CurrentUserProvider currentUserProvider;
+
+    @Autowired
+    private CurrentUserCache currentUserCache;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User seller;
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        seller = fixtures.user("current-user", "SELLER");
+        store = fixtures.store(seller, "Oturum Mağazası");
+
+        currentUserCache.invalidateAll();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(seller.getEmail(), null, List.of()));
+    }
+
+    @AfterEach
+    void cleanup() {
+        SecurityContextHolder.clearContext();
+        fixtures.cleanup();
+    }
+
+    @Test
+    void sellerIsResolvedFromCacheAfterFirstLoad() {
+        CurrentSeller first = currentUserProvider.requireSeller();
+        assertThat(first.storeId()).isEqualTo(store.getId());
+        assertThat(first.user().isSeller()).isTrue();
+        assertThat(first.user().isApprovedSeller()).isFalse();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        CurrentSeller second = currentUserProvider.requireSeller();
+
+        assertThat(second).isEqualTo(first);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void storeAndUserUpdatesInvalidateCache() {
+        currentUserProvider.requireSeller();
+
+        Store loaded = storeRepository.findById(store.getId()).orElseThrow();
+        loaded.setName(loaded.getName() + " Yeni");
+        storeRepository.save(loaded);
+        assertThat(currentUserProvider.requireSeller().storeName()).endsWith(" Yeni");
+
+        User loadedUser = userRepository.findById(seller.getId()).orElseThrow();
+        loadedUser.setSellerStatus(SellerStatus.APPROVED);
+        userRepository.save(loadedUser);
+        assertThat(currentUserProvider.requireSeller().user().isApprovedSeller()).isTrue();
+    }
+
+    @Test
+    void principalIsDroppedTogetherWithIdentity() {
+        Date issuedAt = new Date();
+        Date expiration = new Date(issuedAt.getTime() + 60_000);
+        currentUserProvider.requireSeller();
+        principalCache.put(seller.getEmail(), issuedAt, expiration, seller, principalCache.generation());
+        assertThat(principalCache.get(seller.getEmail(), issuedAt)).isSameAs(seller);
+        assertThat(currentUserCache.get(seller.getEmail())).isNotNull();
+
+        currentUserCache.invalidateUser(seller.getId());
+
+        assertThat(principalCache.get(seller.getEmail(), issuedAt)).isNull();
+        assertThat(currentUserCache.get(seller.getEmail())).isNull();
+    }
+
+    @Test
+    void principalIsKeyedByIssuedAtAndCappedAtTokenExpiry() throws InterruptedException {
+        Date issuedAt = new Date();
+        principalCache.put(seller.getEmail(), issuedAt, new Date(issuedAt.getTime() + 60_000), seller,
+                principalCache.generation());
+        // Aynı kullanıcının başka bir token'ı ayrı kayıttır
+        assertThat(principalCache.get(seller.getEmail(), new Date(issuedAt.getTime() + 1000))).isNull();
+
+        // Süresi dolmuş token önbelleğe yazılmaz
+        Date oldIssuedAt = new Date(issuedAt.getTime() - 120_000);
+        principalCache.put(seller.getEmail(), oldIssuedAt, new Date(issuedAt.getTime() - 1000), seller,
+                principalCache.generation());
+        assertThat(principalCache.get(seller.getEmail(), oldIssuedAt)).isNull();
+
+        // Kayıt TTL'den önce, token süresi dolunca düşer
+        Date shortIssuedAt = new Date(issuedAt.getTime() - 1000);
+        principalCache.put(seller.getEmail(), shortIssuedAt, new Date(System.currentTimeMillis() + 200), seller,
+                principalCache.generation());
+        assertThat(principalCache.get(seller.getEmail(), shortIssuedAt)).isSameAs(seller);
+        Thread.sleep(300);
+        assertThat(principalCache.get(seller.getEmail(), shortIssuedAt)).isNull();
+        assertThat(principalCache.get(seller.getEmail(), issuedAt)).isSameAs(seller);
+    }
+}
@@ -0,0 +1,157 @@
+package com.bahattintok.e_commerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bahattintok.e_commerce.model.Order;
+import com.bahattintok.e_commerce.model.Product;
+import com.bahattintok.e_commerce.model.User;
+import com.bahattintok.e_commerce.repository.ProductRepository;
+
+/**
+ * Aynı Idempotency-Key ile gelen tekrar ve eşzamanlı isteklerin işlemi yalnızca bir kez çalıştırdığını ve
+ * yanıtı kaydedilemeden yeniden çalışan sipariş isteğinin ikinci sipariş oluşturmadığını doğrular.
+ */
+@SpringBootTest
+@Import(TestFixtures.class)
+class IdempotencyServiceTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String scope = "test:" + UUID.randomUUID();
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE scope = ?", scope);
+        fixtures.cleanup();
+    }
+
+    @Test
+    void retryReplaysFirstResponse() {
+        AtomicInteger calls = new AtomicInteger();
+        Map<String, Object> request = Map.of("total", 10);
+
+        ResponseEntity<?> first = idempotencyService.execute(scope, "k1", request,
+                () -> ResponseEntity.ok(Map.of("orderId", "o-" + calls.incrementAndGet())));
+        ResponseEntity<?> retry = idempotencyService.execute(scope, "k1", request,
+                () -> ResponseEntity.ok(Map.of("orderId", "o-" + calls.incrementAndGet())));
+
+        assertThat(calls).hasValue(1);
+        assertThat(retry.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(retry.getBody().toString()).contains("o-1");
+        assertThat(first.getStatusCode().value()).isEqualTo(200);
+
+        // Aynı anahtar farklı bir istekle kullanılamaz
+        ResponseEntity<?> mismatch = idempotencyService.execute(scope, "k1", Map.of("total", 20),
+                () -> ResponseEntity.ok(Map.of("orderId", "o-" + calls.incrementAndGet())));
+        assertThat(mismatch.getStatusCode().value()).isEqualTo(422);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void concurrentDuplicatesRunOnce() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ResponseEntity<?>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return idempotencyService.execute(scope, "k2", Map.of("total", 10), () -> {
+                        calls.incrementAndGet();
+                        sleep(200);
+                        return ResponseEntity.ok(Map.of("success", true));
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<ResponseEntity<?>> result : results) {
+                assertThat(result.get().getStatusCode().value()).isEqualTo(200);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void failedAttemptReleasesKey() {
+        AtomicInteger calls = new AtomicInteger();
+        try {
+            idempotencyService.execute(scope, "k3", Map.of("total", 10), () -> {
+                calls.incrementAndGet();
+                throw new RuntimeException("geçici hata");
+            });
+        } catch (RuntimeException expected) {
+            // beklenen
+        }
+        ResponseEntity<?> retry = idempotencyService.execute(scope, "k3", Map.of("total", 10), () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.ok(Map.of("success", true));
+        });
+
+        assertThat(calls).hasValue(2);
+        assertThat(retry.getHeaders().containsKey("Idempotent-Replayed")).isFalse();
+    }
+
+    @Test
+    void rerunOfCompletedOrderReturnsExistingOrder() {
+        User customer = fixtures.user("idempotent-order", "USER");
+        Product product = fixtures.product("Idempotent Ürün", BigDecimal.TEN, 5, null, null);
+        List<Map<String, Object>> items = List.of(Map.of("productId", product.getId(), "quantity", 2, "price", 10));
+        String requestKey = IdempotencyService.requestKey("orders", "k4");
+
+        // İlk çalışma siparişi yazdı ama idempotency kaydı tamamlanamadı; süresi dolan kayıt işlemi yeniden çalıştırır
+        Order first = orderService.createOrder(customer, items, 20.0, requestKey);
+        Order rerun = orderService.createOrder(customer, items, 20.0, requestKey);
+
+        assertThat(rerun.getId()).isEqualTo(first.getId());
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStock()).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE user_id = ?", Long.class,
+                customer.getId())).isEqualTo(1L);
+
+        // Anahtarsız istekler her seferinde yeni sipariş oluşturur
+        orderService.createOrder(customer, items, 20.0, IdempotencyService.requestKey("orders", " "));
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStock()).isEqualTo(1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
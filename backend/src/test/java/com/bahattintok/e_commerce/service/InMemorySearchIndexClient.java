@@ -0,0 +1,50 @@
+package com.bahattintok.e_commerce.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.bahattintok.e_commerce.model.ProductDocument;
+
+/**
+ * Testler için bellek içi arama indexi; gönderilen toplu istekleri kaydeder ve istenen belgeleri reddedebilir.
+ */
+class InMemorySearchIndexClient implements SearchIndexClient {
+
+    final Map<String, ProductDocument> documents = new ConcurrentHashMap<>();
+    final List<List<String>> requests = new ArrayList<>();
+    final Set<String> rejectIds = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public synchronized Set<String> bulk(List<ProductDocument> upserts, List<String> deleteIds) {
+        List<String> request = new ArrayList<>();
+        Set<String> failed = new HashSet<>();
+        for (ProductDocument document : upserts) {
+            request.add(document.getId());
+            if (rejectIds.contains(document.getId())) {
+                failed.add(document.getId());
+            } else {
+                documents.put(document.getId(), document);
+            }
+        }
+        for (String id : deleteIds) {
+            request.add(id);
+            if (rejectIds.contains(id)) {
+                failed.add(id);
+            } else {
+                documents.remove(id);
+            }
+        }
+        requests.add(request);
+        return failed;
+    }
+
+    synchronized void reset() {
+        documents.clear();
+        requests.clear();
+        rejectIds.clear();
+    }
+}
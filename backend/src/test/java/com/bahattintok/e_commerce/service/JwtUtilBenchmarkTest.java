@@ -0,0 +1,64 @@
+package com.bahattintok.e_commerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.bahattintok.e_commerce.security.JwtUtil;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Token'ın bir kez çözülüp tüm claim'lerin aynı nesneden okunduğunu doğrular ve JwtUtilBenchmark'ı JMH ile çalıştırır.
+ * Ölçüm varsayılan olarak çalışmaz: mvn test -Dtest=JwtUtilBenchmarkTest -Dbenchmark=true (benchmark profilini açar)
+ */
+@SpringBootTest
+class JwtUtilBenchmarkTest {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private UserDetails userDetails;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        userDetails = new User("jwt-benchmark@test.local", "x", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = jwtUtil.generateToken(userDetails);
+    }
+
+    @Test
+    void claimsAreReadFromOneParse() {
+        Claims claims = jwtUtil.parseClaims(token);
+
+        assertThat(claims.getSubject()).isEqualTo(userDetails.getUsername());
+        assertThat(claims.get("role", String.class)).isEqualTo("USER");
+        assertThat(jwtUtil.validateToken(token, userDetails)).isTrue();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void tokensPerSecond() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtUtilBenchmark.class.getName())
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertThat(results).hasSize(2);
+    }
+}
@@ -0,0 +1,91 @@
+package com.bahattintok.e_commerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bahattintok.e_commerce.model.Notification;
+import com.bahattintok.e_commerce.model.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Okunmamış sayaçlarının ilk yüklemeden sonra sorgusuz döndüğünü ve oluşturma/okuma işlemleriyle
+ * (aynı bildirim iki kez okunduğunda iki kez düşmeden) güncel kaldığını doğrular.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(TestFixtures.class)
+class NotificationCounterServiceTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationCounterService notificationCounterService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user("unread", "USER");
+    }
+
+    @AfterEach
+    void cleanup() {
+        fixtures.cleanup();
+    }
+
+    @Test
+    void counterIsServedFromMemoryAndFollowsChanges() {
+        Notification first = notificationService.createNotification("Başlık", "Mesaj 1", "SYSTEM", user);
+        notificationService.createNotification("Başlık", "Mesaj 2", "SYSTEM", user);
+        assertThat(notificationCounterService.getUnreadCount(user.getId())).isEqualTo(2);
+
+        Notification third = notificationService.createNotification("Başlık", "Mesaj 3", "SYSTEM", user);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertThat(notificationCounterService.getUnreadCount(user.getId())).isEqualTo(3);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        notificationService.markAsRead(first.getId(), user);
+        notificationService.markAsRead(first.getId(), user);
+        assertThat(notificationCounterService.getUnreadCount(user.getId())).isEqualTo(2);
+
+        notificationService.deleteNotification(third.getId());
+        assertThat(notificationCounterService.getUnreadCount(user.getId())).isEqualTo(1);
+
+        notificationService.markAllAsRead(user);
+        assertThat(notificationCounterService.getUnreadCount(user.getId())).isZero();
+    }
+
+    @Test
+    void adminMarkAllResetsCounters() {
+        notificationService.createNotification("Başlık", "Mesaj 1", "SYSTEM", user);
+        notificationService.createNotification("Başlık", "Mesaj 2", "SYSTEM", user);
+        assertThat(notificationCounterService.getUnreadCount(user.getId())).isEqualTo(2);
+
+        assertThat(notificationService.markAllAsReadForAllUsers()).isGreaterThanOrEqualTo(2);
+
+        assertThat(notificationCounterService.getUnreadCount(user.getId())).isZero();
+        Integer unreadInDb = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notifications WHERE user_id = ? AND read = false", Integer.class, user.getId());
+        assertThat(unreadInDb).isZero();
+    }
+}
@@ -0,0 +1,170 @@
+package com.bahattintok.e_commerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bahattintok.e_commerce.dto.NotificationFeedItem;
+import com.bahattintok.e_commerce.dto.NotificationFeedPage;
+import com.bahattintok.e_commerce.model.BroadcastNotification;
+import com.bahattintok.e_commerce.model.User;
+
+/**
+ * Toplu bildirimlerin tek satır saklandığını, okuma işaretiyle okundu sayıldığını, kişisel ve toplu bildirimlerin
+ * imleçli akışta tekrarsız ve sıralı birleştiğini ve aylık bölümlerin yönetildiğini doğrular.
+ */
+@SpringBootTest
+@Import(TestFixtures.class)
+class NotificationFeedTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationCounterService notificationCounterService;
+
+    @Autowired
+    private BroadcastNotificationService broadcastNotificationService;
+
+    @Autowired
+    private NotificationPartitionService notificationPartitionService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private final List<Long> broadcastIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user("feed", "USER");
+    }
+
+    @AfterEach
+    void cleanup() {
+        // Testin toplu bildirimleri çok eski tarihe çekilip servis üzerinden silinir; bellekteki ID kümesi de yenilenir
+        broadcastIds.forEach(id -> jdbcTemplate.update(
+                "UPDATE broadcast_notifications SET created_at = '2000-01-01' WHERE id = ?", id));
+        broadcastNotificationService.purgeExpired(LocalDateTime.of(2000, 1, 2, 0, 0));
+        broadcastIds.clear();
+        fixtures.cleanup();
+    }
+
+    @Test
+    void broadcastIsStoredOnceAndReadByWatermark() {
+        // Kayıttan önce gönderilen toplu bildirimler yeni kullanıcıya okunmamış görünmez
+        assertThat(notificationCounterService.getUnreadCount(user.getId())).isZero();
+        BroadcastNotification first = broadcast("Kampanya 1");
+        BroadcastNotification second = broadcast("Kampanya 2");
+
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM broadcast_notifications WHERE id IN (?, ?)", Integer.class, first.getId(), second.getId());
+        assertThat(rows).isEqualTo(2);
+        assertThat(notificationCounterService.getUnreadCount(user.getId())).isEqualTo(2);
+
+        notificationService.markBroadcastAsRead(first.getId(), user);
+        assertThat(notificationCounterService.getUnreadCount(user.getId())).isEqualTo(1);
+
+        List<NotificationFeedItem> feed = readWholeFeed(2);
+        assertThat(find(feed, second.getId()).isRead()).isFalse();
+        assertThat(find(feed, first.getId()).isRead()).isTrue();
+
+        notificationService.markAllAsRead(user);
+        assertThat(notificationCounterService.getUnreadCount(user.getId())).isZero();
+    }
+
+    @Test
+    void broadcastsSentBeforeRegistrationAreNotUnread() {
+        broadcast("Eski kampanya");
+        User newcomer = fixtures.user("feed-newcomer", "USER");
+        assertThat(notificationCounterService.getUnreadCount(newcomer.getId())).isZero();
+
+        BroadcastNotification later = broadcast("Yeni kampanya");
+        assertThat(notificationCounterService.getUnreadCount(newcomer.getId())).isEqualTo(1);
+        NotificationFeedPage page = notificationService.getFeed(newcomer, null, 1);
+        assertThat(page.getItems().get(0).getId()).isEqualTo(later.getId());
+        assertThat(page.getItems().get(0).isRead()).isFalse();
+        assertThat(page.getItems().get(0).getSource()).isEqualTo(NotificationFeedItem.SOURCE_BROADCAST);
+    }
+
+    @Test
+    void feedMergesPersonalAndBroadcastInOrderWithoutDuplicates() {
+        for (int i = 0; i < 5; i++) {
+            notificationService.createNotification("Kişisel " + i, "Mesaj", "SYSTEM", user);
+            broadcast("Toplu " + i);
+        }
+
+        List<NotificationFeedItem> feed = readWholeFeed(3);
+
+        Set<String> keys = new HashSet<>();
+        for (NotificationFeedItem item : feed) {
+            assertThat(keys.add(item.getSource() + ":" + item.getId())).as("tekrar eden kayıt").isTrue();
+        }
+        for (int i = 1; i < feed.size(); i++) {
+            assertThat(feed.get(i - 1).getCreatedAt()).isAfterOrEqualTo(feed.get(i).getCreatedAt());
+        }
+        assertThat(feed).filteredOn(item -> NotificationFeedItem.SOURCE_PERSONAL.equals(item.getSource())).hasSize(5);
+        assertThat(broadcastIds).allSatisfy(id -> assertThat(find(feed, id)).isNotNull());
+    }
+
+    @Test
+    void partitionsAreCreatedAheadAndOnlyExpiredOnesAreDropped() {
+        notificationPartitionService.ensurePartitions();
+        assertThat(notificationPartitionService.ensurePartitions()).isZero();
+        notificationService.createNotification("Bu ay", "Mesaj", "SYSTEM", user);
+
+        // Gerçek verilere dokunmamak için yalnızca çok eski, geçici bir bölüm süresi dolmuş sayılır
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS notifications_y2001m01 PARTITION OF notifications " +
+                "FOR VALUES FROM ('2001-01-01') TO ('2001-02-01')");
+        assertThat(notificationPartitionService.dropExpiredPartitions(LocalDateTime.of(2001, 3, 1, 0, 0))).isEqualTo(1);
+
+        Integer throwaway = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_class WHERE relname = 'notifications_y2001m01'", Integer.class);
+        assertThat(throwaway).isZero();
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM notifications WHERE user_id = ?", Integer.class, user.getId());
+        assertThat(rows).isEqualTo(1);
+    }
+
+    private BroadcastNotification broadcast(String title) {
+        BroadcastNotification notification = notificationService.broadcastPromotion(title, "Tüm kullanıcılara");
+        broadcastIds.add(notification.getId());
+        return notification;
+    }
+
+    private List<NotificationFeedItem> readWholeFeed(int pageSize) {
+        List<NotificationFeedItem> items = new ArrayList<>();
+        String cursor = null;
+        for (int page = 0; page < 10_000; page++) {
+            NotificationFeedPage feedPage = notificationService.getFeed(user, cursor, pageSize);
+            items.addAll(feedPage.getItems());
+            cursor = feedPage.getNextCursor();
+            if (cursor == null) {
+                break;
+            }
+        }
+        return items;
+    }
+
+    private static NotificationFeedItem find(List<NotificationFeedItem> feed, long broadcastId) {
+        return feed.stream()
+                .filter(item -> NotificationFeedItem.SOURCE_BROADCAST.equals(item.getSource()) && item.getId() == broadcastId)
+                .findFirst()
+                .orElse(null);
+    }
+}
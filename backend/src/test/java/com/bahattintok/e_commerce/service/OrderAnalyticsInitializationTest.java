@@ -0,0 +1,118 @@
+package com.bahattintok.e_commerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bahattintok.e_commerce.model.Order;
+import com.bahattintok.e_commerce.repository.OrderRepository;
+import com.bahattintok.e_commerce.service.impl.OrderAnalyticsServiceImpl;
+
+/**
+ * Boş özet tablosunun başlangıçta yalnızca kilidi alan düğüm tarafından, bir kez doldurulduğunu doğrular.
+ */
+@SpringBootTest
+@Import(TestFixtures.class)
+class OrderAnalyticsInitializationTest {
+
+    private static final String COUNTED_ORDERS =
+            "SELECT COUNT(*) FROM orders WHERE status NOT IN ('PENDING_PAYMENT', 'PAYMENT_UNKNOWN', 'FAILED')";
+
+    @Autowired
+    private OrderAnalyticsServiceImpl orderAnalyticsService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        Order order = new Order();
+        order.setUser(fixtures.user("analytics-init", "USER"));
+        order.setStatus("PENDING");
+        order.setTotalPrice(new BigDecimal("20.00"));
+        order.setCreatedAt(LocalDateTime.now());
+        orderRepository.save(order);
+        jdbcTemplate.update("DELETE FROM order_daily_stats");
+    }
+
+    @AfterEach
+    void cleanup() {
+        fixtures.cleanup();
+        // Tablo diğer testler için siparişlerden yeniden oluşturulur
+        orderAnalyticsService.rebuild();
+    }
+
+    @Test
+    void skipsWhileAnotherNodeHoldsTheLock() throws Exception {
+        long lockKey = (Long) ReflectionTestUtils.getField(OrderAnalyticsServiceImpl.class, "REBUILD_LOCK_KEY");
+        try (Connection otherNode = dataSource.getConnection()) {
+            try (PreparedStatement statement = otherNode.prepareStatement("SELECT pg_advisory_lock(?)")) {
+                statement.setLong(1, lockKey);
+                statement.execute();
+            }
+            orderAnalyticsService.initializeIfEmpty();
+            assertThat(orderAnalyticsService.getTotalOrderCount()).isZero();
+
+            try (PreparedStatement statement = otherNode.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+                statement.setLong(1, lockKey);
+                statement.execute();
+            }
+        }
+
+        orderAnalyticsService.initializeIfEmpty();
+        assertThat(orderAnalyticsService.getTotalOrderCount())
+                .isEqualTo(jdbcTemplate.queryForObject(COUNTED_ORDERS, Long.class));
+    }
+
+    @Test
+    void concurrentStartupsFillTheTableOnce() throws Exception {
+        ExecutorService nodes = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < 4; i++) {
+                nodes.execute(() -> {
+                    try {
+                        start.await();
+                        orderAnalyticsService.initializeIfEmpty();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            nodes.shutdown();
+            assertThat(nodes.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(orderAnalyticsService.getTotalOrderCount())
+                .isEqualTo(jdbcTemplate.queryForObject(COUNTED_ORDERS, Long.class));
+    }
+}
@@ -0,0 +1,113 @@
+package com.bahattintok.e_commerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.bahattintok.e_commerce.controller.AdminController;
+import com.bahattintok.e_commerce.model.Order;
+import com.bahattintok.e_commerce.model.OrderItem;
+import com.bahattintok.e_commerce.model.Product;
+import com.bahattintok.e_commerce.model.Store;
+import com.bahattintok.e_commerce.model.User;
+import com.bahattintok.e_commerce.repository.OrderRepository;
+
+/**
+ * Ödemesi tamamlanmamış siparişlerin satış özetlerine girmediğini ve silinirken özetlerden düşülmediğini doğrular.
+ */
+@SpringBootTest
+@Import(TestFixtures.class)
+class OrderAnalyticsServiceTest {
+
+    @Autowired
+    private OrderAnalyticsService orderAnalyticsService;
+
+    @Autowired
+    private StoreSalesService storeSalesService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private AdminController adminController;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private User customer;
+    private Store store;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        customer = fixtures.user("order-analytics", "USER");
+        store = fixtures.store(fixtures.user("order-analytics-seller", "SELLER"), "Özet Mağazası");
+        product = fixtures.product("Özet Ürünü", new BigDecimal("40.00"), 100, null, store.getId());
+    }
+
+    @AfterEach
+    void cleanup() {
+        fixtures.cleanup();
+    }
+
+    @Test
+    void deletingUserWithUnpaidOrderSubtractsOnlyCountedOrders() {
+        Order paid = order("PENDING");
+        orderAnalyticsService.recordOrderPlaced(paid);
+        storeSalesService.recordOrderPlaced(paid);
+        Order unpaid = order(Order.STATUS_PENDING_PAYMENT);
+        orderAnalyticsService.recordOrderPlaced(unpaid);
+        storeSalesService.recordOrderPlaced(unpaid);
+
+        long totalBefore = orderAnalyticsService.getTotalOrderCount();
+        long unpaidBefore = orderAnalyticsService.getOrderCount(Order.STATUS_PENDING_PAYMENT);
+        assertThat(((Number) storeSalesService.getTotals(store.getId())[0]).longValue()).isEqualTo(1);
+
+        assertThat(adminController.deleteUserOrders(customer.getId()).getBody()).containsEntry("deletedCount", 2);
+
+        assertThat(orderAnalyticsService.getTotalOrderCount()).isEqualTo(totalBefore - 1);
+        assertThat(orderAnalyticsService.getOrderCount(Order.STATUS_PENDING_PAYMENT)).isEqualTo(unpaidBefore);
+        Object[] storeTotals = storeSalesService.getTotals(store.getId());
+        assertThat(((Number) storeTotals[0]).longValue()).isZero();
+        assertThat(new BigDecimal(storeTotals[2].toString())).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void statusChangeOutOfUnpaidStatusOnlyAddsNewStatus() {
+        Order order = order(Order.STATUS_PENDING_PAYMENT);
+        long unpaidBefore = orderAnalyticsService.getOrderCount(Order.STATUS_PENDING_PAYMENT);
+        long shippedBefore = orderAnalyticsService.getOrderCount("SHIPPED");
+
+        orderAnalyticsService.recordStatusChange(order, Order.STATUS_PENDING_PAYMENT, "SHIPPED");
+
+        assertThat(orderAnalyticsService.getOrderCount(Order.STATUS_PENDING_PAYMENT)).isEqualTo(unpaidBefore);
+        assertThat(orderAnalyticsService.getOrderCount("SHIPPED")).isEqualTo(shippedBefore + 1);
+        orderAnalyticsService.recordStatusChange(order, "SHIPPED", Order.STATUS_FAILED);
+        assertThat(orderAnalyticsService.getOrderCount("SHIPPED")).isEqualTo(shippedBefore);
+    }
+
+    private Order order(String status) {
+        Order order = new Order();
+        order.setUser(customer);
+        order.setStatus(status);
+        order.setTotalPrice(new BigDecimal("40.00"));
+        order.setCreatedAt(LocalDateTime.now());
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setProduct(product);
+        item.setQuantity(1);
+        item.setPrice(new BigDecimal("40.00"));
+        order.setItems(new ArrayList<>(List.of(item)));
+        return orderRepository.save(order);
+    }
+}
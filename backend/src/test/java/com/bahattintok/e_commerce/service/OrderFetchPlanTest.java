@@ -0,0 +1,166 @@
+package com.bahattintok.e_commerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.bahattintok.e_commerce.model.Order;
+import com.bahattintok.e_commerce.model.OrderItem;
+import com.bahattintok.e_commerce.model.Product;
+import com.bahattintok.e_commerce.model.User;
+import com.bahattintok.e_commerce.repository.OrderRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Sipariş uç noktalarının kullandığı fetch planlarını sorgu ve yüklenen entity sayısıyla sabitler.
+ * Test transaction dışında çalışır; plan dışı bir lazy ilişkiye dokunulursa LazyInitializationException alınır.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(TestFixtures.class)
+class OrderFetchPlanTest {
+
+    private static final int ORDERS = 3;
+    private static final int ITEMS_PER_ORDER = 2;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User customer;
+    private String storeId;
+    private final List<String> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String suffix = fixtures.uniqueSuffix();
+        storeId = "plan-" + suffix.substring(suffix.length() - 8);
+        customer = fixtures.user("fetch-plan", "USER");
+        String categoryId = fixtures.category("Fetch Plan");
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            products.add(fixtures.product("Plan Ürünü " + i, BigDecimal.TEN, 100, categoryId, null));
+        }
+
+        for (int o = 0; o < ORDERS; o++) {
+            Order order = new Order();
+            order.setUser(customer);
+            order.setCreatedAt(LocalDateTime.now().minusMinutes(o));
+            order.setStatus("DELIVERED");
+            order.setTotalPrice(BigDecimal.valueOf(20));
+            for (Product product : products) {
+                OrderItem item = new OrderItem();
+                item.setOrder(order);
+                item.setProduct(product);
+                item.setQuantity(1);
+                item.setPrice(BigDecimal.TEN);
+                item.setStoreId(storeId);
+                order.getItems().add(item);
+            }
+            orderIds.add(orderRepository.save(order).getId());
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        fixtures.cleanup();
+        orderIds.clear();
+    }
+
+    @Test
+    void userOrderListLoadsItemsWithOneExtraQuery() {
+        statistics.clear();
+        List<Order> orders = orderService.getUserOrders(customer);
+
+        // Siparişler + tüm kalemler (ürün ve kategoriyle); sipariş sayısından bağımsız
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(orders).hasSize(ORDERS);
+        assertRendered(orders, false);
+        assertThat(statistics.getEntityLoadCount())
+                .isLessThanOrEqualTo(ORDERS + ORDERS * ITEMS_PER_ORDER + ITEMS_PER_ORDER + 1);
+    }
+
+    @Test
+    void storeOrderPageDoesNotMultiplyOrderRows() {
+        statistics.clear();
+        Page<Order> page = orderService.getStoreOrders(storeId, "all", PageRequest.of(0, 2));
+
+        // Sayfa + sayım + kalemler; sayfalama veritabanında kalır (JOIN FETCH ile bellekte sayfalama yok)
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(page.getTotalElements()).isEqualTo(ORDERS);
+        assertThat(page.getContent()).hasSize(2);
+        assertRendered(page.getContent(), true);
+    }
+
+    @Test
+    void detailViewIsASingleQuery() {
+        statistics.clear();
+        Order order = orderService.getOrderDetail(orderIds.get(0)).orElseThrow();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertRendered(List.of(order), true);
+        assertThat(order.getUser().getRole().getName()).isEqualTo("USER");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void analyticsDoNotLoadOrderEntities() {
+        statistics.clear();
+        adminService.getDashboardStats();
+        adminService.getQuickStats();
+        adminService.getSalesChartData();
+        adminService.getFinancialReports();
+        adminService.getMonthlySalesReport();
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    /**
+     * Uç noktaların serileştirdiği alanlara dokunur ve bunun ek sorgu üretmediğini doğrular.
+     */
+    private void assertRendered(List<Order> orders, boolean withCustomer) {
+        long statements = statistics.getPrepareStatementCount();
+        for (Order order : orders) {
+            if (withCustomer) {
+                assertThat(order.getCustomerEmail()).isEqualTo(customer.getEmail());
+            }
+            assertThat(order.getItemCount()).isEqualTo(ITEMS_PER_ORDER);
+            for (OrderItem item : order.getItems()) {
+                assertThat(item.getProduct().getName()).startsWith("Plan Ürünü");
+                assertThat(item.getProduct().getCategoryName()).startsWith("Fetch Plan");
+            }
+        }
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getEntityFetchCount()).isZero();
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+    }
+}
@@ -0,0 +1,110 @@
+package com.bahattintok.e_commerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.bahattintok.e_commerce.model.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Sipariş yazım yolunun batch'lendiğini doğrular ve 1, 10, 50 kalemli siparişler için saniyedeki sipariş sayısını ölçer.
+ * Ölçüm varsayılan olarak çalışmaz: mvn test -Dtest=OrderWriteBenchmarkTest -Dbenchmark=true
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@Import(TestFixtures.class)
+class OrderWriteBenchmarkTest {
+
+    private static final int MAX_ITEMS = 50;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User customer;
+    private final List<String> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        customer = fixtures.user("order-benchmark", "USER");
+        for (int i = 0; i < MAX_ITEMS; i++) {
+            productIds.add(fixtures.product("Ölçüm Ürünü " + i, BigDecimal.TEN, 1_000_000, null, null).getId());
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        fixtures.cleanup();
+        productIds.clear();
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithLineItems() {
+        statistics.clear();
+        placeOrder(1);
+        long single = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        placeOrder(MAX_ITEMS);
+        long many = statistics.getPrepareStatementCount();
+
+        // Kalemler tek batch'te yazılır, ürünler tek sorguda okunur; stok düşümü JDBC batch'idir
+        assertThat(many).isEqualTo(single);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1 + MAX_ITEMS);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 10, 50 })
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void ordersPerSecond(int lineItems) {
+        int warmup = 20;
+        int measured = 200;
+        for (int i = 0; i < warmup; i++) {
+            placeOrder(lineItems);
+        }
+
+        long started = System.nanoTime();
+        for (int i = 0; i < measured; i++) {
+            placeOrder(lineItems);
+        }
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        System.out.printf("Sipariş yazımı: %d kalem -> %.1f sipariş/sn (%d sipariş, %.2f sn)%n",
+                lineItems, measured / seconds, measured, seconds);
+    }
+
+    private void placeOrder(int lineItems) {
+        List<Map<String, Object>> items = new ArrayList<>(lineItems);
+        for (int i = 0; i < lineItems; i++) {
+            items.add(Map.of("productId", productIds.get(i), "quantity", 1, "price", 10));
+        }
+        orderService.createOrder(customer, items, 10.0 * lineItems);
+    }
+}
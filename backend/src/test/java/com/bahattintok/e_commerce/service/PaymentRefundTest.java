@@ -0,0 +1,156 @@
+package com.bahattintok.e_commerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.bahattintok.e_commerce.dto.CreditCardRequest;
+import com.bahattintok.e_commerce.dto.PaymentResult;
+import com.bahattintok.e_commerce.model.Order;
+import com.bahattintok.e_commerce.model.PaymentRefund;
+import com.bahattintok.e_commerce.model.User;
+import com.bahattintok.e_commerce.repository.OrderRepository;
+import com.bahattintok.e_commerce.repository.PaymentRefundRepository;
+import com.bahattintok.e_commerce.service.impl.PaymentServiceImpl;
+
+/**
+ * Stok rezervasyonu onaylanamayan ödemede siparişin başarısız sayıldığını, iadenin commit sonrası kayıtlı talepten
+ * yapıldığını ve sağlayıcıya iletilemeyen iadenin mutabakatla yeniden denendiğini doğrular.
+ */
+@SpringBootTest
+@Import(TestFixtures.class)
+class PaymentRefundTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PaymentRefundRepository paymentRefundRepository;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("paymentTaskExecutor")
+    private Executor paymentTaskExecutor;
+
+    @Autowired
+    @Qualifier("paymentReconcileExecutor")
+    private Executor paymentReconcileExecutor;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private final AtomicBoolean refundFails = new AtomicBoolean(true);
+    private final AtomicInteger refundCalls = new AtomicInteger();
+
+    private PaymentServiceImpl paymentService;
+    private User customer;
+
+    @BeforeEach
+    void setUp() {
+        paymentService = new PaymentServiceImpl(gateway(), orderRepository, paymentRefundRepository,
+                stockReservationService, eventPublisher, messagingTemplate, transactionManager,
+                paymentTaskExecutor, paymentReconcileExecutor);
+        ReflectionTestUtils.setField(paymentService, "timeoutSeconds", 30L);
+        ReflectionTestUtils.setField(paymentService, "staleOrderMinutes", 15L);
+        // Kira hemen dolar; başarısız iade bir sonraki mutabakatta yeniden denenir
+        ReflectionTestUtils.setField(paymentService, "refundRetrySeconds", 0L);
+        customer = fixtures.user("payment-refund", "USER");
+    }
+
+    @AfterEach
+    void cleanup() {
+        fixtures.cleanup();
+    }
+
+    @Test
+    void unconfirmedReservationIsRefundedAfterCommitAndRetriedByReconcile() throws InterruptedException {
+        Order order = new Order();
+        order.setUser(customer);
+        order.setStatus(Order.STATUS_PENDING_PAYMENT);
+        order.setTotalPrice(new BigDecimal("75.00"));
+        order.setCreatedAt(LocalDateTime.now());
+        // Rezervasyon yok: süresi dolmuş sayılır, stok onaylanamaz
+        order.setReservationKey("payment-refund-" + fixtures.uniqueSuffix());
+        order = orderRepository.save(order);
+        String orderId = order.getId();
+
+        paymentService.startPayment(order, customer.getEmail(), order.getReservationKey(), new CreditCardRequest());
+
+        await(() -> refundCalls.get() == 1
+                && paymentRefundRepository.findByOrderId(orderId).stream().anyMatch(r -> r.getLastError() != null));
+        assertThat(orderRepository.findStatusById(orderId)).contains(Order.STATUS_FAILED);
+        List<PaymentRefund> refunds = paymentRefundRepository.findByOrderId(orderId);
+        assertThat(refunds).hasSize(1);
+        assertThat(refunds.get(0).getStatus()).isEqualTo(PaymentRefund.STATUS_PENDING);
+        assertThat(refunds.get(0).getAmount()).isEqualByComparingTo("75.00");
+
+        refundFails.set(false);
+        paymentService.reconcilePayments();
+
+        await(() -> PaymentRefund.STATUS_REFUNDED.equals(
+                paymentRefundRepository.findByOrderId(orderId).get(0).getStatus()));
+        assertThat(refundCalls).hasValue(2);
+        assertThat(paymentRefundRepository.findByOrderId(orderId).get(0).getAttempts()).isEqualTo(2);
+    }
+
+    private void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("koşul zamanında sağlanmadı").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private PaymentGateway gateway() {
+        return (PaymentGateway) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { PaymentGateway.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "charge" -> {
+                            return CompletableFuture.completedFuture(PaymentResult.approved("TX-" + args[0]));
+                        }
+                        case "findCharge" -> {
+                            return CompletableFuture.completedFuture(Optional.empty());
+                        }
+                        case "refund" -> {
+                            refundCalls.incrementAndGet();
+                            return refundFails.get()
+                                    ? CompletableFuture.failedFuture(new IllegalStateException("sağlayıcıya ulaşılamadı"))
+                                    : CompletableFuture.completedFuture(PaymentResult.approved((String) args[0]));
+                        }
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,72 @@
+package com.bahattintok.e_commerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.bahattintok.e_commerce.repository.ProductRepository;
+import com.bahattintok.e_commerce.service.impl.ProductSearchServiceImpl;
+
+/**
+ * Tam metin sorgusu başarısız olunca aramanın LIKE'a düştüğünü ve bekleme süresi dolunca tam metnin
+ * yeniden denendiğini doğrular.
+ */
+class ProductSearchFallbackTest {
+
+    private final AtomicBoolean fullTextBroken = new AtomicBoolean(true);
+    private final AtomicInteger fullTextCalls = new AtomicInteger();
+    private final AtomicInteger likeCalls = new AtomicInteger();
+
+    @Test
+    void fullTextIsRetriedAfterBackoff() throws InterruptedException {
+        ProductSearchServiceImpl service = new ProductSearchServiceImpl();
+        ReflectionTestUtils.setField(service, "productRepository", repository());
+        ReflectionTestUtils.setField(service, "sqlSearchMode", "fulltext");
+        ReflectionTestUtils.setField(service, "fullTextRetryMs", 200L);
+
+        service.searchPublishedProducts("kalem", Pageable.ofSize(10));
+        assertThat(fullTextCalls).hasValue(1);
+        assertThat(likeCalls).hasValue(1);
+
+        // Bekleme süresince tam metin denenmez
+        service.searchPublishedProducts("kalem", Pageable.ofSize(10));
+        assertThat(fullTextCalls).hasValue(1);
+        assertThat(likeCalls).hasValue(2);
+
+        // Migration uygulandı; süre dolunca tam metin yeniden kullanılır
+        fullTextBroken.set(false);
+        Thread.sleep(250);
+        service.searchPublishedProducts("kalem", Pageable.ofSize(10));
+        service.searchPublishedProducts("kalem", Pageable.ofSize(10));
+        assertThat(fullTextCalls).hasValue(3);
+        assertThat(likeCalls).hasValue(2);
+    }
+
+    private ProductRepository repository() {
+        return (ProductRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { ProductRepository.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "fullTextSearchPublished" -> {
+                            fullTextCalls.incrementAndGet();
+                            if (fullTextBroken.get()) {
+                                throw new InvalidDataAccessResourceUsageException("column \"search_vector\" does not exist");
+                            }
+                            return Page.empty();
+                        }
+                        case "findAll" -> {
+                            likeCalls.incrementAndGet();
+                            return Page.empty();
+                        }
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
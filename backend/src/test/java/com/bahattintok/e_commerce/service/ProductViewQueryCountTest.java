@@ -0,0 +1,113 @@
+package com.bahattintok.e_commerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.bahattintok.e_commerce.dto.ProductView;
+import com.bahattintok.e_commerce.model.Product;
+import com.bahattintok.e_commerce.model.Store;
+import com.bahattintok.e_commerce.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(TestFixtures.class)
+class ProductViewQueryCountTest {
+
+    private static final int PAGE_SIZE = 12;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<String> createdProductIds = new ArrayList<>();
+    private final Map<String, Store> storesByProduct = new HashMap<>();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int c = 0; c < 3; c++) {
+            String categoryId = fixtures.category("Sayım Testi " + c);
+            // Her kategorinin ürünleri ayrı bir satıcının mağazasında; mağaza ve satıcı join'leri de sayıma girer
+            Store store = fixtures.store(fixtures.user("view-seller-" + c, "SELLER"), "Sayım Mağazası " + c);
+            for (int p = 0; p < PAGE_SIZE / 3; p++) {
+                String productId = fixtures.product("Sayım Ürünü " + c + "-" + p, BigDecimal.TEN, 5, categoryId, store.getId()).getId();
+                createdProductIds.add(productId);
+                storesByProduct.put(productId, store);
+            }
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        fixtures.cleanup();
+        createdProductIds.clear();
+        storesByProduct.clear();
+    }
+
+    @Test
+    void pageOfViewsIsLoadedWithConstantStatementCount() throws Exception {
+        Specification<Product> onlyCreated = (root, query, cb) -> root.get("id").in(createdProductIds);
+
+        statistics.clear();
+        Page<Product> page = productRepository.findAll(onlyCreated, PageRequest.of(0, PAGE_SIZE, Sort.by("name")));
+        Page<ProductView> views = productService.toViews(page);
+
+        // Sayfa sorgusu + sayım sorgusu + tek okuma modeli sorgusu; ürün sayısından bağımsız
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+        assertThat(views.getContent()).hasSize(PAGE_SIZE);
+        assertThat(views.getContent()).extracting(ProductView::getId)
+                .containsExactlyElementsOf(page.getContent().stream().map(Product::getId).toList());
+        assertThat(views.getContent()).allSatisfy(view -> {
+            assertThat(view.getCategoryName()).startsWith("Sayım Testi");
+            assertThat(view.getCategory().getId()).isEqualTo(view.getCategoryId());
+            assertThat(view.getSellerName()).startsWith("Test view-seller-");
+        });
+        // Her ürün kendi mağazasına ve o mağazanın satıcısına çözülür
+        assertThat(views.getContent()).allSatisfy(view -> {
+            Store store = storesByProduct.get(view.getId());
+            assertThat(view.getStoreId()).isEqualTo(store.getId());
+            assertThat(view.getStoreName()).isEqualTo(store.getName());
+            assertThat(view.getSellerId()).isEqualTo(store.getSeller().getId());
+            assertThat(view.getSellerEmail()).isEqualTo(store.getSeller().getEmail());
+        });
+
+        statistics.clear();
+        String json = objectMapper.writeValueAsString(views);
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(json).contains("\"categoryName\"", "\"storeName\"", "\"sellerEmail\"", "\"isDiscountActive\"", "\"discountedPrice\"");
+    }
+}
@@ -0,0 +1,184 @@
+package com.bahattintok.e_commerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+
+import com.bahattintok.e_commerce.model.SearchIndexOutbox;
+import com.bahattintok.e_commerce.repository.ProductRepository;
+import com.bahattintok.e_commerce.repository.SearchIndexOutboxRepository;
+
+@SpringBootTest(properties = {
+        "search.outbox.enabled=true",
+        "search.outbox.poll-interval-ms=3600000"
+})
+@Import(TestFixtures.class)
+class SearchIndexOutboxServiceTest {
+
+    @TestConfiguration
+    static class InMemoryIndexConfig {
+
+        @Bean
+        @Primary
+        InMemorySearchIndexClient inMemorySearchIndexClient() {
+            return new InMemorySearchIndexClient();
+        }
+    }
+
+    @Autowired
+    private SearchIndexOutboxService searchIndexOutboxService;
+
+    @Autowired
+    private SearchIndexOutboxRepository outboxRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InMemorySearchIndexClient index;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final List<String> createdProductIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        index.reset();
+    }
+
+    @AfterEach
+    void cleanup() {
+        for (String productId : createdProductIds) {
+            outboxRepository.deleteAll(outboxRepository.findByProductId(productId));
+        }
+        fixtures.cleanup();
+        createdProductIds.clear();
+    }
+
+    @Test
+    void repeatedUpdatesAreCoalescedIntoOneBulkRequest() {
+        String first = createProduct();
+        String second = createProduct();
+        searchIndexOutboxService.enqueue(first);
+        searchIndexOutboxService.enqueue(second);
+        searchIndexOutboxService.enqueue(first);
+        searchIndexOutboxService.enqueue(first);
+
+        assertThat(searchIndexOutboxService.drainBatch()).isGreaterThanOrEqualTo(4);
+
+        assertThat(index.requests).hasSize(1);
+        assertThat(index.requests.get(0)).containsOnlyOnce(first, second);
+        assertThat(index.documents).containsKeys(first, second);
+        assertThat(outboxRepository.findByProductId(first)).isEmpty();
+        assertThat(outboxRepository.findByProductId(second)).isEmpty();
+    }
+
+    @Test
+    void missingProductIsDeletedFromIndex() {
+        String productId = createProduct();
+        searchIndexOutboxService.enqueue(productId);
+        searchIndexOutboxService.drainBatch();
+        assertThat(index.documents).containsKey(productId);
+
+        productRepository.deleteById(productId);
+        searchIndexOutboxService.enqueue(productId);
+        searchIndexOutboxService.drainBatch();
+
+        assertThat(index.documents).doesNotContainKey(productId);
+    }
+
+    @Test
+    void rejectedDocumentsAreRetriedWithBackoff() {
+        String accepted = createProduct();
+        String rejected = createProduct();
+        index.rejectIds.add(rejected);
+        searchIndexOutboxService.enqueue(accepted);
+        searchIndexOutboxService.enqueue(rejected);
+
+        searchIndexOutboxService.drainBatch();
+
+        assertThat(outboxRepository.findByProductId(accepted)).isEmpty();
+        List<SearchIndexOutbox> remaining = outboxRepository.findByProductId(rejected);
+        assertThat(remaining).hasSize(1);
+        assertThat(remaining.get(0).getAttempts()).isEqualTo(1);
+        assertThat(remaining.get(0).getNextAttemptAt()).isAfter(LocalDateTime.now());
+        assertThat((Long) searchIndexOutboxService.getStats().get("failed")).isPositive();
+
+        // Geri çekilme süresi dolmadan tekrar denenmez
+        index.requests.clear();
+        searchIndexOutboxService.drainBatch();
+        assertThat(index.requests).noneMatch(request -> request.contains(rejected));
+    }
+
+    @Test
+    void rowsLockedByAnotherDrainerAreSkipped() throws Exception {
+        String locked = createProduct();
+        String free = createProduct();
+        searchIndexOutboxService.enqueue(locked);
+        searchIndexOutboxService.enqueue(free);
+
+        // Başka bir düğüm bu ürünün kaydını işliyormuş gibi satır kilitlenir
+        try (Connection other = dataSource.getConnection()) {
+            other.setAutoCommit(false);
+            try (PreparedStatement statement = other.prepareStatement(
+                    "SELECT id FROM search_index_outbox WHERE product_id = ? FOR UPDATE")) {
+                statement.setString(1, locked);
+                statement.executeQuery().close();
+            }
+
+            searchIndexOutboxService.drainBatch();
+
+            assertThat(index.documents).containsKey(free).doesNotContainKey(locked);
+            assertThat(outboxRepository.findByProductId(locked)).hasSize(1);
+            other.rollback();
+        }
+
+        searchIndexOutboxService.drainBatch();
+        assertThat(index.documents).containsKey(locked);
+    }
+
+    @Test
+    void pausedOutboxIsNotDrainedUntilResumed() {
+        String productId = createProduct();
+        searchIndexOutboxService.enqueue(productId);
+
+        // Duraklatma veritabanı kilidiyle yapılır; başka düğümün boşaltıcısı da aynı kilidi görür
+        searchIndexOutboxService.pause();
+        try {
+            assertThat(searchIndexOutboxService.drainBatch()).isZero();
+            assertThat(index.documents).doesNotContainKey(productId);
+        } finally {
+            searchIndexOutboxService.resume();
+        }
+
+        searchIndexOutboxService.drainBatch();
+        assertThat(index.documents).containsKey(productId);
+    }
+
+    private String createProduct() {
+        String id = fixtures.product("Index Testi", BigDecimal.TEN, 1, null, null).getId();
+        createdProductIds.add(id);
+        return id;
+    }
+}
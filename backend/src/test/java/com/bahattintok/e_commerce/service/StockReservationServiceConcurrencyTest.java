@@ -0,0 +1,151 @@
+package com.bahattintok.e_commerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bahattintok.e_commerce.repository.ProductRepository;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+class StockReservationServiceConcurrencyTest {
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanup() {
+        fixtures.cleanup();
+    }
+
+    @Test
+    void concurrentDecrementsNeverOversell() throws Exception {
+        int initialStock = 25;
+        int threads = 32;
+        int attempts = 200;
+        String productId = createProduct(initialStock);
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        for (int i = 0; i < attempts; i++) {
+            executor.submit(() -> {
+                start.await();
+                try {
+                    stockReservationService.decrementAll(Map.of(productId, 1));
+                    succeeded.incrementAndGet();
+                } catch (RuntimeException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(succeeded.get()).isEqualTo(initialStock);
+        assertThat(rejected.get()).isEqualTo(attempts - initialStock);
+        assertThat(productRepository.findById(productId).orElseThrow().getStock()).isZero();
+    }
+
+    @Test
+    void multiItemDecrementIsAllOrNothing() {
+        String available = createProduct(5);
+        String soldOut = createProduct(0);
+
+        assertThatThrownBy(() -> stockReservationService.decrementAll(Map.of(available, 2, soldOut, 1)))
+                .isInstanceOf(RuntimeException.class);
+
+        assertThat(productRepository.findById(available).orElseThrow().getStock()).isEqualTo(5);
+        assertThat(productRepository.findById(soldOut).orElseThrow().getStock()).isZero();
+    }
+
+    @Test
+    void releasedReservationRestoresStockOnlyOnce() {
+        String productId = createProduct(3);
+
+        String reservationKey = stockReservationService.reserve(Map.of(productId, 2));
+        assertThat(productRepository.findById(productId).orElseThrow().getStock()).isEqualTo(1);
+
+        stockReservationService.release(reservationKey);
+        stockReservationService.release(reservationKey);
+        assertThat(productRepository.findById(productId).orElseThrow().getStock()).isEqualTo(3);
+    }
+
+    @Test
+    void commitAfterPartialExpiryRestoresAllStock() {
+        String first = createProduct(4);
+        String second = createProduct(4);
+
+        String reservationKey = stockReservationService.reserve(Map.of(first, 1, second, 2));
+        jdbcTemplate.update("UPDATE stock_reservations SET expires_at = ? WHERE reservation_key = ? AND product_id = ?",
+                LocalDateTime.now().minusMinutes(1), reservationKey, first);
+        stockReservationService.releaseExpired();
+
+        assertThat(stockReservationService.commit(reservationKey)).isFalse();
+        assertThat(productRepository.findById(first).orElseThrow().getStock()).isEqualTo(4);
+        assertThat(productRepository.findById(second).orElseThrow().getStock()).isEqualTo(4);
+    }
+
+    @Test
+    void settledReservationsArePurgedAfterRetention() {
+        String productId = createProduct(10);
+        String committed = stockReservationService.reserve(Map.of(productId, 1));
+        stockReservationService.commit(committed);
+        String released = stockReservationService.reserve(Map.of(productId, 1));
+        stockReservationService.release(released);
+        String pending = stockReservationService.reserve(Map.of(productId, 1));
+        String recent = stockReservationService.reserve(Map.of(productId, 1));
+        stockReservationService.commit(recent);
+
+        // Saklama süresinden eski gibi; ayrılmış olanın süresi henüz dolmadı
+        jdbcTemplate.update("UPDATE stock_reservations SET created_at = ? WHERE reservation_key IN (?, ?, ?)",
+                LocalDateTime.now().minusDays(30), committed, released, pending);
+        stockReservationService.releaseExpired();
+
+        assertThat(countRows(committed)).isZero();
+        assertThat(countRows(released)).isZero();
+        assertThat(countRows(pending)).isEqualTo(1);
+        assertThat(countRows(recent)).isEqualTo(1);
+        // Satırları silinmiş anahtar onaylanamaz; bekleyen rezervasyon hâlâ onaylanabilir
+        assertThat(stockReservationService.commit(committed)).isFalse();
+        assertThat(stockReservationService.commit(pending)).isTrue();
+        assertThat(productRepository.findById(productId).orElseThrow().getStock()).isEqualTo(7);
+    }
+
+    private long countRows(String reservationKey) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_reservations WHERE reservation_key = ?",
+                Long.class, reservationKey);
+    }
+
+    private String createProduct(int stock) {
+        return fixtures.product("Stok Testi", BigDecimal.TEN, stock, null, null).getId();
+    }
+}
@@ -0,0 +1,173 @@
+package com.bahattintok.e_commerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.bahattintok.e_commerce.model.Order;
+import com.bahattintok.e_commerce.model.OrderItem;
+import com.bahattintok.e_commerce.model.Product;
+import com.bahattintok.e_commerce.model.Store;
+import com.bahattintok.e_commerce.model.StoreDailySales;
+import com.bahattintok.e_commerce.model.StoreProductSales;
+import com.bahattintok.e_commerce.model.User;
+import com.bahattintok.e_commerce.repository.OrderRepository;
+
+/**
+ * İki mağazanın ürününü içeren siparişin mağaza bazlı sorgularda ve satış özetlerinde yalnızca ilgili mağazanın
+ * kalemleriyle sayıldığını, sipariş silinince özetlerden düşüldüğünü ve durum güncellemesinin günlük özeti
+ * düzelttiğini doğrular.
+ */
+@SpringBootTest
+@Import(TestFixtures.class)
+class StoreSalesServiceTest {
+
+    @Autowired
+    private StoreSalesService storeSalesService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderAnalyticsService orderAnalyticsService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private User customer;
+    private Store bookStore;
+    private Store toyStore;
+    private Product book;
+    private Product toy;
+    private String bookCategoryId;
+
+    @BeforeEach
+    void setUp() {
+        customer = fixtures.user("store-sales", "USER");
+        bookStore = fixtures.store(fixtures.user("store-sales-books", "SELLER"), "Kitap Mağazası");
+        toyStore = fixtures.store(fixtures.user("store-sales-toys", "SELLER"), "Oyuncak Mağazası");
+        bookCategoryId = fixtures.category("Kitap");
+        book = fixtures.product("Roman", new BigDecimal("30.00"), 100, bookCategoryId, bookStore.getId());
+        toy = fixtures.product("Top", new BigDecimal("15.00"), 100, fixtures.category("Oyuncak"), toyStore.getId());
+    }
+
+    @AfterEach
+    void cleanup() {
+        fixtures.cleanup();
+    }
+
+    @Test
+    void storeQueriesAndSalesCountOnlyTheStoresItems() {
+        Order mixed = order("PENDING", item(book, 2), item(toy, 1));
+        Order booksOnly = order("DELIVERED", item(book, 1));
+        storeSalesService.recordOrderPlaced(mixed);
+        storeSalesService.recordOrderPlaced(booksOnly);
+
+        Page<Order> bookOrders = orderService.getStoreOrders(bookStore.getId(), "all", PageRequest.of(0, 10));
+        assertThat(bookOrders.getTotalElements()).isEqualTo(2);
+        assertThat(bookOrders.getContent()).extracting(Order::getId)
+                .containsExactlyInAnyOrder(booksOnly.getId(), mixed.getId());
+        assertThat(orderService.getStoreOrders(toyStore.getId(), "all", PageRequest.of(0, 10)).getContent())
+                .extracting(Order::getId).containsExactly(mixed.getId());
+        assertThat(orderService.getStoreOrders(bookStore.getId(), "delivered", PageRequest.of(0, 10)).getContent())
+                .extracting(Order::getId).containsExactly(booksOnly.getId());
+        assertThat(orderService.searchStoreOrders(toyStore.getId(), "all", "", "Top", PageRequest.of(0, 10))
+                .getTotalElements()).isEqualTo(1);
+        assertThat(orderService.searchStoreOrders(toyStore.getId(), "DELIVERED", "", "", PageRequest.of(0, 10))
+                .getTotalElements()).isZero();
+        assertThat(orderRepository.countDistinctCustomersByStoreId(bookStore.getId())).isEqualTo(1);
+
+        assertTotals(bookStore, 2, 3, "90.00");
+        assertTotals(toyStore, 1, 1, "15.00");
+
+        List<StoreDailySales> days = storeSalesService.getDailySales(bookStore.getId(), LocalDate.now(), LocalDate.now());
+        assertThat(days).hasSize(1);
+        assertThat(days.get(0).getOrderCount()).isEqualTo(2);
+
+        List<StoreProductSales> top = storeSalesService.getTopProducts(bookStore.getId(), 5);
+        assertThat(top).extracting(StoreProductSales::getProductId).containsExactly(book.getId());
+        assertThat(top.get(0).getQuantitySold()).isEqualTo(3);
+        assertThat(top.get(0).getRevenue()).isEqualByComparingTo("90.00");
+
+        List<Object[]> categories = storeSalesService.getCategorySales(bookStore.getId());
+        assertThat(categories).hasSize(1);
+        assertThat(((Number) categories.get(0)[1]).longValue()).isEqualTo(3);
+    }
+
+    @Test
+    void deletingOrdersRemovesThemFromStoreSales() {
+        storeSalesService.recordOrderPlaced(order("PENDING", item(book, 2), item(toy, 1)));
+        storeSalesService.recordOrderPlaced(order(Order.STATUS_PENDING_PAYMENT, item(toy, 4)));
+        assertTotals(toyStore, 1, 1, "15.00");
+
+        assertThat(orderService.deleteUserOrders(customer)).isEqualTo(2);
+
+        assertTotals(bookStore, 0, 0, "0");
+        assertTotals(toyStore, 0, 0, "0");
+        assertThat(storeSalesService.getTopProducts(bookStore.getId(), 5).get(0).getQuantitySold()).isZero();
+        assertThat(orderService.getStoreOrders(bookStore.getId(), "all", PageRequest.of(0, 10)).getTotalElements())
+                .isZero();
+    }
+
+    @Test
+    void statusUpdateMovesOrderBetweenDailyStatuses() {
+        Order order = order("PENDING", item(book, 1));
+        orderAnalyticsService.recordOrderPlaced(order);
+        long pendingBefore = orderAnalyticsService.getOrderCount("PENDING");
+        long shippedBefore = orderAnalyticsService.getOrderCount("SHIPPED");
+
+        Order updated = orderService.updateStatus(order.getId(), "SHIPPED").orElseThrow();
+
+        assertThat(updated.getItems()).hasSize(1);
+        assertThat(orderRepository.findById(order.getId()).orElseThrow().getStatus()).isEqualTo("SHIPPED");
+        assertThat(orderAnalyticsService.getOrderCount("PENDING")).isEqualTo(pendingBefore - 1);
+        assertThat(orderAnalyticsService.getOrderCount("SHIPPED")).isEqualTo(shippedBefore + 1);
+        assertThat(orderService.updateStatus("missing-order", "SHIPPED")).isEmpty();
+    }
+
+    private void assertTotals(Store store, long orders, long items, String revenue) {
+        Object[] totals = storeSalesService.getTotals(store.getId());
+        assertThat(((Number) totals[0]).longValue()).isEqualTo(orders);
+        assertThat(((Number) totals[1]).longValue()).isEqualTo(items);
+        assertThat(new BigDecimal(totals[2].toString())).isEqualByComparingTo(revenue);
+    }
+
+    private OrderItem item(Product product, int quantity) {
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setPrice(product.getPrice());
+        return item;
+    }
+
+    private Order order(String status, OrderItem... items) {
+        Order order = new Order();
+        order.setUser(customer);
+        order.setStatus(status);
+        order.setCreatedAt(LocalDateTime.now());
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderItem item : items) {
+            item.setOrder(order);
+            total = total.add(item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        order.setTotalPrice(total);
+        order.setItems(new ArrayList<>(List.of(items)));
+        return orderRepository.save(order);
+    }
+}
@@ -0,0 +1,59 @@
+package com.bahattintok.e_commerce.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.bahattintok.e_commerce.util.SuggestionIndex;
+
+/**
+ * Öneri indeksinin kelime başı önekleri Türkçe kurallarla eşleştirdiğini, sonuçları ağırlık ve alfabetik sıraya göre
+ * döndüğünü ve kısa önek önbelleğinin değişikliklerden sonra güncel kaldığını doğrular.
+ */
+class SuggestionIndexTest {
+
+    @Test
+    void matchesWordPrefixesWithTurkishFolding() {
+        SuggestionIndex index = new SuggestionIndex();
+        index.put("1", "Apple iPhone 13 Pro", 0L);
+        index.put("2", "Çiçek Vazo", 0L);
+        index.put("3", "Işıklı Ayna", 0L);
+
+        assertThat(index.suggest("iph", 10)).containsExactly("Apple iPhone 13 Pro");
+        assertThat(index.suggest("13 pro", 10)).containsExactly("Apple iPhone 13 Pro");
+        assertThat(index.suggest("cic", 10)).containsExactly("Çiçek Vazo");
+        assertThat(index.suggest("ışık", 10)).containsExactly("Işıklı Ayna");
+        // Kelime ortası eşleşmez
+        assertThat(index.suggest("hone", 10)).isEmpty();
+    }
+
+    @Test
+    void ranksByWeightThenAlphabeticallyAndHonorsLimit() {
+        SuggestionIndex index = new SuggestionIndex();
+        index.put("1", "Kalem", 5L);
+        index.put("2", "Kitap", 50L);
+        index.put("3", "Çanta Kılıfı", 5L);
+        index.put("4", "Kupa", 0L);
+
+        assertThat(index.suggest("k", 10)).containsExactly("Kitap", "Çanta Kılıfı", "Kalem", "Kupa");
+        assertThat(index.suggest("k", 2)).containsExactly("Kitap", "Çanta Kılıfı");
+        // Uzun önekler önbellek dışından aynı sırayla döner
+        assertThat(index.suggest("ka", 10)).containsExactly("Kalem");
+        assertThat(index.suggest("kal", 10)).containsExactly("Kalem");
+    }
+
+    @Test
+    void shortPrefixResultsFollowUpdates() {
+        SuggestionIndex index = new SuggestionIndex();
+        index.put("1", "Kalem", 5L);
+        index.put("2", "Kitap", 1L);
+        assertThat(index.suggest("k", 10)).containsExactly("Kalem", "Kitap");
+
+        index.put("2", "Kitap", 10L);
+        assertThat(index.suggest("k", 10)).containsExactly("Kitap", "Kalem");
+
+        index.remove("1");
+        index.put("3", "Kutu", 0L);
+        assertThat(index.suggest("k", 10)).containsExactly("Kitap", "Kutu");
+    }
+}
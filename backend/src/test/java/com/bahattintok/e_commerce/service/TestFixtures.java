@@ -0,0 +1,143 @@
+package com.bahattintok.e_commerce.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bahattintok.e_commerce.model.Category;
+import com.bahattintok.e_commerce.model.Product;
+import com.bahattintok.e_commerce.model.RoleEntity;
+import com.bahattintok.e_commerce.model.Store;
+import com.bahattintok.e_commerce.model.User;
+import com.bahattintok.e_commerce.repository.CategoryRepository;
+import com.bahattintok.e_commerce.repository.ProductRepository;
+import com.bahattintok.e_commerce.repository.RoleRepository;
+import com.bahattintok.e_commerce.repository.StoreRepository;
+import com.bahattintok.e_commerce.repository.UserRepository;
+
+/**
+ * Entegrasyon testleri için benzersiz adlı kullanıcı, mağaza, kategori ve ürün oluşturur.
+ * Oluşturulan kayıtlar bağlı satırlarıyla (sipariş, iade talebi, sepet, bildirim, kampanya, mağaza satış özeti)
+ * birlikte {@link #cleanup()} ile silinir.
+ * Testler {@code @Import(TestFixtures.class)} ile kullanır.
+ */
+@TestComponent
+public class TestFixtures {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.nanoTime());
+
+    private final RoleRepository roleRepository;
+    private final UserRepository userRepository;
+    private final StoreRepository storeRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final List<String> userIds = new ArrayList<>();
+    private final List<String> storeIds = new ArrayList<>();
+    private final List<String> categoryIds = new ArrayList<>();
+    private final List<String> productIds = new ArrayList<>();
+
+    public TestFixtures(RoleRepository roleRepository, UserRepository userRepository, StoreRepository storeRepository,
+                        CategoryRepository categoryRepository, ProductRepository productRepository,
+                        JdbcTemplate jdbcTemplate) {
+        this.roleRepository = roleRepository;
+        this.userRepository = userRepository;
+        this.storeRepository = storeRepository;
+        this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Aynı JVM'de çalışan testler arasında çakışmayan ek
+     */
+    public String uniqueSuffix() {
+        return String.valueOf(SEQUENCE.incrementAndGet());
+    }
+
+    /**
+     * Verilen rolde, e-postası "önek-ek@test.local" olan kullanıcı (rol yoksa oluşturulur)
+     */
+    public User user(String emailPrefix, String roleName) {
+        RoleEntity role = roleRepository.findByName(roleName).orElseGet(() -> {
+            RoleEntity created = new RoleEntity();
+            created.setName(roleName);
+            return roleRepository.save(created);
+        });
+        User user = new User();
+        user.setFirstName("Test");
+        user.setLastName(emailPrefix);
+        user.setEmail(emailPrefix + "-" + uniqueSuffix() + "@test.local");
+        user.setPassword("test-password");
+        user.setRole(role);
+        User saved = userRepository.save(user);
+        userIds.add(saved.getId());
+        return saved;
+    }
+
+    public Store store(User seller, String name) {
+        Store store = new Store();
+        store.setName(name + " " + uniqueSuffix());
+        store.setSeller(seller);
+        Store saved = storeRepository.save(store);
+        storeIds.add(saved.getId());
+        return saved;
+    }
+
+    public String category(String name) {
+        Category category = new Category();
+        category.setName(name + " " + uniqueSuffix());
+        String id = categoryRepository.save(category).getId();
+        categoryIds.add(id);
+        return id;
+    }
+
+    /**
+     * Aktif ürün; kategori ve mağaza boş bırakılabilir
+     */
+    public Product product(String name, BigDecimal price, int stock, String categoryId, String storeId) {
+        Product product = new Product();
+        product.setName(name + " " + uniqueSuffix());
+        product.setPrice(price);
+        product.setStock(stock);
+        product.setStatus("AKTİF");
+        product.setCategoryId(categoryId);
+        product.setStoreId(storeId);
+        Product saved = productRepository.save(product);
+        productIds.add(saved.getId());
+        return saved;
+    }
+
+    /**
+     * Oluşturulan kayıtları ve onlara bağlı satırları siler
+     */
+    public void cleanup() {
+        for (String userId : userIds) {
+            jdbcTemplate.update("DELETE FROM notifications WHERE user_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM notification_read_marks WHERE user_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM cart_items WHERE cart_id IN (SELECT id FROM carts WHERE user_id = ?)", userId);
+            jdbcTemplate.update("DELETE FROM carts WHERE user_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM payment_refunds WHERE order_id IN (SELECT id FROM orders WHERE user_id = ?)", userId);
+            jdbcTemplate.update("DELETE FROM order_items WHERE order_id IN (SELECT id FROM orders WHERE user_id = ?)", userId);
+            jdbcTemplate.update("DELETE FROM orders WHERE user_id = ?", userId);
+        }
+        for (String storeId : storeIds) {
+            jdbcTemplate.update("DELETE FROM campaigns WHERE store_id = ?", storeId);
+            jdbcTemplate.update("DELETE FROM store_daily_sales WHERE store_id = ?", storeId);
+            jdbcTemplate.update("DELETE FROM store_product_sales WHERE store_id = ?", storeId);
+        }
+        productRepository.deleteAllById(productIds);
+        categoryRepository.deleteAllById(categoryIds);
+        storeRepository.deleteAllById(storeIds);
+        userRepository.deleteAllById(userIds);
+        productIds.clear();
+        categoryIds.clear();
+        storeIds.clear();
+        userIds.clear();
+    }
+}
@@ -0,0 +1,103 @@
+package com.bahattintok.e_commerce.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Süresi geçen kovaların pencereden düştüğünü, sınırlı kapasiteyle en sık terimlerin doğru bulunduğunu ve
+ * eşzamanlı eklemelerin kaybolmadığını doğrular.
+ */
+class SlidingHeavyHittersTest {
+
+    @Test
+    void expiredBucketsLeaveTheWindow() {
+        // 1 sn pencere, 4 x 250 ms kova
+        SlidingHeavyHitters counter = new SlidingHeavyHitters(1000, 4, 10);
+        for (int i = 0; i < 3; i++) {
+            counter.offer("kalem", 10);
+        }
+        counter.offer("defter", 600);
+
+        assertThat(counter.top(10, 900)).containsExactly(Map.entry("kalem", 3L), Map.entry("defter", 1L));
+
+        // 0-250 kovası pencereden çıktı
+        assertThat(counter.top(10, 1100)).containsExactly(Map.entry("defter", 1L));
+
+        // Aynı kova yuvası yeni dilim için sıfırlanır; eski dilimden geç gelen kayıt yok sayılır
+        counter.offer("silgi", 1010);
+        counter.offer("kalem", 20);
+        assertThat(counter.top(10, 1100))
+                .containsExactlyInAnyOrder(Map.entry("defter", 1L), Map.entry("silgi", 1L));
+
+        assertThat(counter.top(10, 2500)).isEmpty();
+    }
+
+    @Test
+    void heavyTermsSurviveEvictionWithBoundedError() {
+        int capacity = 20;
+        SlidingHeavyHitters counter = new SlidingHeavyHitters(60_000, 1, capacity);
+        List<String> stream = new ArrayList<>();
+        for (int term = 0; term < 5; term++) {
+            for (int i = 0; i < 500 - term * 50; i++) {
+                stream.add("sık-" + term);
+            }
+        }
+        for (int i = 0; i < 2000; i++) {
+            stream.add("seyrek-" + i);
+        }
+        Collections.shuffle(stream, new Random(42));
+        stream.forEach(term -> counter.offer(term, 0));
+
+        List<Map.Entry<String, Long>> top = counter.top(5, 0);
+
+        assertThat(top).extracting(Map.Entry::getKey).containsExactly("sık-0", "sık-1", "sık-2", "sık-3", "sık-4");
+        // Space-Saving sayıyı asla eksik saymaz; fazlası en çok akış uzunluğu / kapasite kadardır
+        long maxError = stream.size() / capacity;
+        for (int term = 0; term < 5; term++) {
+            long actual = 500 - term * 50;
+            assertThat(top.get(term).getValue()).isBetween(actual, actual + maxError);
+        }
+    }
+
+    @Test
+    void concurrentOffersAreNotLost() throws InterruptedException {
+        SlidingHeavyHitters counter = new SlidingHeavyHitters(60_000, 1, 10);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < 8; t++) {
+            String own = "terim-" + t;
+            threads.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 20_000; i++) {
+                    counter.offer("ortak", 0);
+                    if (i % 4 == 0) {
+                        counter.offer(own, 0);
+                    }
+                }
+            });
+        }
+        start.countDown();
+        threads.shutdown();
+        assertThat(threads.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        List<Map.Entry<String, Long>> top = counter.top(9, 0);
+        assertThat(top.get(0)).isEqualTo(Map.entry("ortak", 160_000L));
+        assertThat(top.subList(1, 9)).allSatisfy(entry -> assertThat(entry.getValue()).isEqualTo(5_000L));
+    }
+}
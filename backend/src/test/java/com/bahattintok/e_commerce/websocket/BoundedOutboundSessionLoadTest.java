@@ -0,0 +1,307 @@
+package com.bahattintok.e_commerce.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.bahattintok.e_commerce.service.RealtimeMessagingService;
+
+/**
+ * Oturum başına sınırlı giden kuyrukların yavaş istemcilerde yayıncıyı bekletmediğini, kuyruğun sınırı aşmadığını
+ * ve aynı anahtarlı mesajlarda istemcinin her zaman son değeri aldığını doğrular.
+ * Binlerce simüle STOMP istemcisiyle yük testi varsayılan olarak çalışmaz:
+ * mvn test -Dtest=BoundedOutboundSessionLoadTest -Dbenchmark=true [-Dws.load.clients=5000 -Dws.load.messages=200]
+ */
+class BoundedOutboundSessionLoadTest {
+
+    private static final StompEncoder ENCODER = new StompEncoder();
+
+    private final ExecutorService dispatchExecutor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void shutdown() {
+        dispatchExecutor.shutdownNow();
+    }
+
+    @Test
+    void slowClientKeepsOnlyLatestValuePerKey() throws Exception {
+        SimulatedClient client = new SimulatedClient("c-1", 0);
+        client.block();
+        BoundedOutboundSession session = new BoundedOutboundSession(
+                client, 16, OutboundOverflowPolicy.COALESCE, dispatchExecutor, 60_000);
+
+        // İlk mesaj gönderimde takılı kalır; sonraki 100 güncelleme tek bir bekleyen mesajda birleşir
+        for (int i = 0; i <= 100; i++) {
+            session.sendMessage(frame("/topic/role/admin/stock", "p-1", "{\"stock\":" + i + "}"));
+        }
+        assertThat(session.getQueueSize()).isLessThanOrEqualTo(1);
+        assertThat(session.getCoalescedCount()).isGreaterThanOrEqualTo(99);
+
+        client.unblock();
+        awaitDrained(List.of(session));
+        assertThat(client.lastValue("p-1")).isEqualTo("{\"stock\":100}");
+    }
+
+    @Test
+    void queueIsBoundedAndControlFramesAreKept() throws Exception {
+        SimulatedClient client = new SimulatedClient("c-2", 0);
+        client.block();
+        BoundedOutboundSession session = new BoundedOutboundSession(
+                client, 10, OutboundOverflowPolicy.DROP_OLDEST, dispatchExecutor, 60_000);
+
+        session.sendMessage(frame("/topic/role/admin/notifications", null, "{\"n\":0}"));
+        session.sendMessage(new TextMessage("RECEIPT\nreceipt-id:r-1\n\n\u0000"));
+        for (int i = 1; i < 100; i++) {
+            session.sendMessage(frame("/topic/role/admin/notifications", null, "{\"n\":" + i + "}"));
+        }
+        assertThat(session.getQueueSize()).isLessThanOrEqualTo(10);
+        assertThat(session.getDroppedCount()).isGreaterThanOrEqualTo(89);
+
+        client.unblock();
+        awaitDrained(List.of(session));
+        assertThat(client.received()).anyMatch(payload -> payload.startsWith("RECEIPT"));
+        assertThat(client.received().get(client.received().size() - 1)).contains("{\"n\":99}");
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void notificationStormWithThousandsOfClients() throws Exception {
+        int clients = Integer.getInteger("ws.load.clients", 5000);
+        int messages = Integer.getInteger("ws.load.messages", 200);
+        int keys = 10;
+
+        // %1 istemci her mesajda 2 ms gecikir (yavaş ağ)
+        List<SimulatedClient> simulated = new ArrayList<>();
+        List<BoundedOutboundSession> sessions = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            SimulatedClient client = new SimulatedClient("c-" + i, i % 100 == 0 ? 2 : 0);
+            simulated.add(client);
+            sessions.add(new BoundedOutboundSession(client, 256, OutboundOverflowPolicy.COALESCE, dispatchExecutor, 60_000));
+        }
+
+        // Broker'ın rol topic'ini tüm abonelere dağıtması: yarısı anahtarlı stok güncellemesi, yarısı bildirim
+        long maxCallNanos = 0;
+        long started = System.nanoTime();
+        for (int m = 0; m < messages; m++) {
+            TextMessage message = m % 2 == 0
+                    ? frame("/topic/role/admin/stock", "p-" + (m / 2) % keys, "{\"seq\":" + m + "}")
+                    : frame("/topic/role/admin/notifications", null, "{\"seq\":" + m + "}");
+            for (BoundedOutboundSession session : sessions) {
+                long callStarted = System.nanoTime();
+                session.sendMessage(message);
+                maxCallNanos = Math.max(maxCallNanos, System.nanoTime() - callStarted);
+            }
+        }
+        long publishNanos = System.nanoTime() - started;
+        awaitDrained(sessions);
+        long totalNanos = System.nanoTime() - started;
+
+        long dropped = sessions.stream().mapToLong(BoundedOutboundSession::getDroppedCount).sum();
+        long coalesced = sessions.stream().mapToLong(BoundedOutboundSession::getCoalescedCount).sum();
+        long delivered = simulated.stream().mapToLong(client -> client.received().size()).sum();
+        System.out.printf("WebSocket yük testi: %d istemci x %d mesaj, yayın %d ms (en uzun çağrı %.2f ms), "
+                        + "tamamı %d ms, iletilen %d, birleştirilen %d, atılan %d%n",
+                clients, messages, TimeUnit.NANOSECONDS.toMillis(publishNanos), maxCallNanos / 1_000_000.0,
+                TimeUnit.NANOSECONDS.toMillis(totalNanos), delivered, coalesced, dropped);
+
+        // Yayıncı yavaş istemcinin gönderimini beklemez
+        assertThat(TimeUnit.NANOSECONDS.toMillis(maxCallNanos)).isLessThan(50);
+        // Her istemci her anahtarın son değerini alır
+        for (SimulatedClient client : simulated) {
+            for (int k = 0; k < keys; k++) {
+                int lastSeq = lastKeyedSequence(messages, keys, k);
+                assertThat(client.lastValue("p-" + k)).isEqualTo("{\"seq\":" + lastSeq + "}");
+            }
+        }
+    }
+
+    private static int lastKeyedSequence(int messages, int keys, int key) {
+        int last = -1;
+        for (int m = 0; m < messages; m += 2) {
+            if ((m / 2) % keys == key) {
+                last = m;
+            }
+        }
+        return last;
+    }
+
+    private static TextMessage frame(String destination, String coalesceKey, String body) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setMessageId(String.valueOf(System.nanoTime()));
+        if (coalesceKey != null) {
+            accessor.setNativeHeader(RealtimeMessagingService.COALESCE_KEY_HEADER, coalesceKey);
+        }
+        accessor.setLeaveMutable(true);
+        byte[] encoded = ENCODER.encode(MessageBuilder.createMessage(
+                body.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders()));
+        return new TextMessage(encoded);
+    }
+
+    private static void awaitDrained(List<BoundedOutboundSession> sessions) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 120_000;
+        while (sessions.stream().anyMatch(session -> session.getQueueSize() > 0 || session.isDispatching())) {
+            assertThat(System.currentTimeMillis()).as("kuyruklar zamanında boşalmadı").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * Aldığı frame'leri saklayan, istenirse gönderimde geciken veya takılı kalan istemci oturumu.
+     */
+    private static class SimulatedClient implements WebSocketSession {
+
+        private final String id;
+        private final long delayMs;
+        private final List<String> received = Collections.synchronizedList(new ArrayList<>());
+        private final Map<String, String> lastValues = new ConcurrentHashMap<>();
+        private volatile CountDownLatch gate;
+
+        SimulatedClient(String id, long delayMs) {
+            this.id = id;
+            this.delayMs = delayMs;
+        }
+
+        void block() {
+            gate = new CountDownLatch(1);
+        }
+
+        void unblock() {
+            gate.countDown();
+        }
+
+        List<String> received() {
+            return received;
+        }
+
+        String lastValue(String key) {
+            return lastValues.get(key);
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) {
+            try {
+                CountDownLatch current = gate;
+                if (current != null) {
+                    current.await();
+                }
+                if (delayMs > 0) {
+                    Thread.sleep(delayMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String payload = ((TextMessage) message).getPayload();
+            received.add(payload);
+            String header = RealtimeMessagingService.COALESCE_KEY_HEADER + ":";
+            int index = payload.indexOf(header);
+            if (index >= 0) {
+                String key = payload.substring(index + header.length(), payload.indexOf('\n', index));
+                lastValues.put(key, payload.substring(payload.indexOf("\n\n") + 2, payload.length() - 1));
+            }
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public URI getUri() {
+            return null;
+        }
+
+        @Override
+        public HttpHeaders getHandshakeHeaders() {
+            return new HttpHeaders();
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public Principal getPrincipal() {
+            return null;
+        }
+
+        @Override
+        public InetSocketAddress getLocalAddress() {
+            return null;
+        }
+
+        @Override
+        public InetSocketAddress getRemoteAddress() {
+            return null;
+        }
+
+        @Override
+        public String getAcceptedProtocol() {
+            return "v12.stomp";
+        }
+
+        @Override
+        public void setTextMessageSizeLimit(int messageSizeLimit) {
+        }
+
+        @Override
+        public int getTextMessageSizeLimit() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+        }
+
+        @Override
+        public int getBinaryMessageSizeLimit() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public List<WebSocketExtension> getExtensions() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void close(CloseStatus status) {
+        }
+    }
+}
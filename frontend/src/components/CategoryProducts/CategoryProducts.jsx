@@ -19,6 +19,8 @@ const CategoryProducts = () => {
   const [error, setError] = useState("");
   const [page, setPage] = useState(0);
   const [totalPages, setTotalPages] = useState(1);
+  // Elasticsearch sonucuyla gelen filtre sayıları (kategori, mağaza, fiyat aralıkları)
+  const [facets, setFacets] = useState(null);
   const [sort, setSort] = useState("");
   const [minPrice, setMinPrice] = useState("");
   const [maxPrice, setMaxPrice] = useState("");
@@ -118,14 +120,17 @@ const CategoryProducts = () => {
         if (elasticsearchAvailable && data.content) {
           setProducts(data.content);
           setTotalPages(data.totalPages || 1);
+          setFacets(data.facets || null);
         } else if (elasticsearchAvailable && Array.isArray(data)) {
           // Eski format için fallback
           setProducts(data);
           setTotalPages(1);
+          setFacets(null);
         } else {
           // Normal API response
           setProducts(data.content || data);
           setTotalPages(data.totalPages || 1);
+          setFacets(null);
         }
         setLoading(false);
       })
@@ -221,6 +226,19 @@ const CategoryProducts = () => {
     }, 300);
   }, []);
 
+  // Fiyat facet'inden seçilen aralık beklemeden uygulanır
+  const handlePriceRangeSelect = useCallback((from, to) => {
+    const min = from != null ? String(Math.floor(from)) : "";
+    const max = to != null ? String(Math.ceil(to)) : "";
+    if (minPriceTimeoutRef.current) clearTimeout(minPriceTimeoutRef.current);
+    if (maxPriceTimeoutRef.current) clearTimeout(maxPriceTimeoutRef.current);
+    setMinPrice(min);
+    setMaxPrice(max);
+    setDebouncedMinPrice(min);
+    setDebouncedMaxPrice(max);
+    setPage(0);
+  }, []);
+
   const clearFilters = useCallback(() => {
     setSearchQuery("");
     setMinPrice("");
@@ -282,6 +300,8 @@ const CategoryProducts = () => {
           onSortChange={handleSortChange}
           onToggleFilters={handleToggleFilters}
           onClearFilters={clearFilters}
+          facets={facets}
+          onPriceRangeSelect={handlePriceRangeSelect}
         />
 
         {/* Sağ Ürün Listesi */}
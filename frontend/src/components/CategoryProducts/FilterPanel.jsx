@@ -1,5 +1,14 @@
 import React, { memo } from 'react';
 
+// Elasticsearch sonucundaki facet'ten seçeneğin ürün sayısını bulur; facet yoksa null döner
+const facetCount = (facets, name, key) => {
+  if (!facets || !Array.isArray(facets[name])) return null;
+  const bucket = facets[name].find((b) => b.key === key);
+  return bucket ? bucket.count : 0;
+};
+
+const withCount = (label, count) => (count === null ? label : `${label} (${count})`);
+
 const FilterPanel = memo(({
   searchQuery,
   minPrice,
@@ -18,8 +27,12 @@ const FilterPanel = memo(({
   onCategoryChange,
   onSortChange,
   onToggleFilters,
-  onClearFilters
+  onClearFilters,
+  facets,
+  onPriceRangeSelect
 }) => {
+  const priceBuckets = facets && Array.isArray(facets.price) ? facets.price : [];
+
   return (
     <div className="w-full lg:w-1/5 lg:sticky lg:top-4 lg:self-start h-fit z-10 mt-20">
       <div className="filter-panel bg-white p-4 flex-shrink-5 border border-gray-200 rounded-lg">
@@ -65,7 +78,7 @@ const FilterPanel = memo(({
                 <option value="">Tüm Kategoriler</option>
                 {Array.isArray(categories) && categories.map((category) => (
                   <option key={category.id} value={category.name}>
-                    {category.name}
+                    {withCount(category.name, facetCount(facets, 'categories', category.name))}
                   </option>
                 ))}
               </select>
@@ -95,6 +108,22 @@ const FilterPanel = memo(({
                 className="w-full border border-gray-200 px-2 py-1.5 text-sm rounded-md focus:ring-1 focus:ring-blue-500 focus:border-blue-500"
               />
             </div>
+            {/* Elasticsearch fiyat facet'i: tıklanan aralık min/max olarak uygulanır */}
+            {onPriceRangeSelect && priceBuckets.length > 0 && (
+              <div className="mt-2 space-y-1">
+                {priceBuckets.map((bucket) => (
+                  <button
+                    key={bucket.key}
+                    type="button"
+                    onClick={() => onPriceRangeSelect(bucket.from, bucket.to)}
+                    className="w-full flex justify-between text-xs text-gray-600 px-2 py-1 rounded hover:bg-gray-100"
+                  >
+                    <span>{bucket.key} ₺</span>
+                    <span className="text-gray-400">{bucket.count}</span>
+                  </button>
+                ))}
+              </div>
+            )}
           </div>
 
           {/* Mağaza Filtresi */}
@@ -111,7 +140,7 @@ const FilterPanel = memo(({
               <option value="">Tüm Mağazalar</option>
               {stores.map((store) => (
                 <option key={store.id} value={store.name}>
-                  {store.name}
+                  {withCount(store.name, facetCount(facets, 'stores', store.name))}
                 </option>
               ))}
             </select>
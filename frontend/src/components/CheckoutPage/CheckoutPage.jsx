@@ -1,9 +1,10 @@
-import React, { useState, useEffect, useContext } from 'react';
+import React, { useState, useEffect, useContext, useRef } from 'react';
 import { useNavigate, useLocation } from 'react-router-dom';
 import { CartContext } from '../../context/CartContext';
 import { AuthContext } from '../../context/AuthContext';
 import { NotificationContext } from '../../context/NotificationContext';
 import api from '../../services/api';
+import { generateUuid } from '../../utils/idUtils';
 
 import PageTitle from '../PageTitle/PageTitle';
 import MetaTags from '../MetaTags/MetaTags';
@@ -58,6 +59,8 @@ const CheckoutPage = () => {
   });
   const [showCvv, setShowCvv] = useState(false);
   const [cardType, setCardType] = useState('');
+  // Aynı sipariş denemesi için sabit kalan Idempotency-Key; ağ hatasından sonra tekrar gönderim çift sipariş oluşturmaz
+  const checkoutAttemptRef = useRef(null);
 
   // Sepet toplamını hesapla
   const subtotal = cartItems.reduce((sum, item) => {
@@ -289,9 +292,17 @@ const CheckoutPage = () => {
         creditCard: null
       };
 
-      const response = await api.post('/checkout/complete', checkoutData);
+      const payload = JSON.stringify(checkoutData);
+      if (!checkoutAttemptRef.current || checkoutAttemptRef.current.payload !== payload) {
+        checkoutAttemptRef.current = { key: generateUuid(), payload };
+      }
+
+      const response = await api.post('/checkout/complete', checkoutData, {
+        headers: { 'Idempotency-Key': checkoutAttemptRef.current.key }
+      });
       
       if (response.data.success) {
+        checkoutAttemptRef.current = null;
         await clearCart();
         navigate('/orders', { 
           state: { 
@@ -300,9 +311,18 @@ const CheckoutPage = () => {
           } 
         });
       } else {
+        // İş kuralı hatası (ör. stok): düzeltilip yeniden denenecek istek yeni bir anahtarla gitmeli
+        checkoutAttemptRef.current = null;
         setError(response.data.message);
       }
     } catch (error) {
+      if (error.response?.status === 409) {
+        setError(error.response.data?.message || 'Siparişiniz hâlâ işleniyor, lütfen tekrar deneyin');
+        return;
+      }
+      if (error.response) {
+        checkoutAttemptRef.current = null;
+      }
       setError('Sipariş oluşturulurken hata oluştu');
     } finally {
       setLoading(false);
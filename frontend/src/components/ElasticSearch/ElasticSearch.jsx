@@ -15,6 +15,9 @@ const ElasticSearch = () => {
   const [showFilters, setShowFilters] = useState(false);
   const [page, setPage] = useState(0);
   const [totalPages, setTotalPages] = useState(1);
+  const [totalElements, setTotalElements] = useState(0);
+  // Aramayla aynı istekte gelen filtre sayıları (kategori, mağaza, fiyat aralıkları)
+  const [facets, setFacets] = useState(null);
   const [filters, setFilters] = useState({
     category: '',
     minPrice: '',
@@ -68,6 +71,7 @@ const ElasticSearch = () => {
     if (!searchQuery.trim() && !Object.values(searchFilters).some(v => v)) {
       setResults([]);
       setTotalPages(1);
+      setFacets(null);
       return;
     }
 
@@ -112,13 +116,18 @@ const ElasticSearch = () => {
         if (data.content) {
           setResults(data.content);
           setTotalPages(data.totalPages || 1);
+          setTotalElements(data.totalElements ?? data.content.length);
+          setFacets(data.facets || null);
         } else if (Array.isArray(data)) {
           // Eski format için fallback
           setResults(data);
           setTotalPages(1);
+          setTotalElements(data.length);
+          setFacets(null);
         } else {
           setResults(data);
           setTotalPages(1);
+          setFacets(null);
         }
       } else if (response.status === 500) {
         // Elasticsearch hatası durumunda kullanıcıya bilgi ver
@@ -161,6 +170,26 @@ const ElasticSearch = () => {
     performSearch(query, clearedFilters, 0);
   };
 
+  // Fiyat facet'inden seçilen aralık min/max filtresi olarak uygulanır
+  const handlePriceRangeSelect = (from, to) => {
+    const newFilters = {
+      ...filters,
+      minPrice: from != null ? String(Math.floor(from)) : '',
+      maxPrice: to != null ? String(Math.ceil(to)) : ''
+    };
+    setFilters(newFilters);
+    setPage(0);
+    performSearch(query, newFilters, 0);
+  };
+
+  const facetCount = (name, key) => {
+    if (!facets || !Array.isArray(facets[name])) return null;
+    const bucket = facets[name].find((b) => b.key === key);
+    return bucket ? bucket.count : 0;
+  };
+
+  const withCount = (label, count) => (count === null ? label : `${label} (${count})`);
+
   const handlePageChange = (newPage) => {
     setPage(newPage);
     performSearch(query, filters, newPage);
@@ -222,7 +251,7 @@ const ElasticSearch = () => {
                   <option value="">Tüm Kategoriler</option>
                   {Array.isArray(categories) && categories.map(cat => (
                     <option key={cat.id} value={cat.name}>
-                      {cat.name}
+                      {withCount(cat.name, facetCount('categories', cat.name))}
                     </option>
                   ))}
                 </select>
@@ -249,6 +278,21 @@ const ElasticSearch = () => {
                     className="w-full border border-gray-300 px-3 py-2 rounded-lg focus:ring-2 focus:ring-green-500 focus:border-transparent"
                   />
                 </div>
+                {facets && Array.isArray(facets.price) && facets.price.length > 0 && (
+                  <div className="mt-2 space-y-1">
+                    {facets.price.map((bucket) => (
+                      <button
+                        key={bucket.key}
+                        type="button"
+                        onClick={() => handlePriceRangeSelect(bucket.from, bucket.to)}
+                        className="w-full flex justify-between text-sm text-gray-600 px-2 py-1 rounded hover:bg-gray-100"
+                      >
+                        <span>{bucket.key} ₺</span>
+                        <span className="text-gray-400">{bucket.count}</span>
+                      </button>
+                    ))}
+                  </div>
+                )}
               </div>
 
               {/* Mağaza Filtresi */}
@@ -264,7 +308,7 @@ const ElasticSearch = () => {
                   <option value="">Tüm Mağazalar</option>
                   {stores.map(store => (
                     <option key={store.id} value={store.name}>
-                      {store.name}
+                      {withCount(store.name, facetCount('stores', store.name))}
                     </option>
                   ))}
                 </select>
@@ -334,7 +378,7 @@ const ElasticSearch = () => {
             ) : results.length > 0 ? (
               <>
                 <div className="mb-6">
-                  <h3 className="text-lg font-semibold text-gray-800">{results.length} sonuç bulundu</h3>
+                  <h3 className="text-lg font-semibold text-gray-800">{totalElements || results.length} sonuç bulundu</h3>
                 </div>
                 <div className="grid grid-cols-1 sm:grid-cols-2 md:grid-cols-3 lg:grid-cols-4 gap-4 sm:gap-5 py-8">
                   {results.map((product) => (
@@ -4,7 +4,9 @@ import { useNotifications } from '../../context/NotificationContext';
 
 
 const NotificationBell = () => {
-  const { notifications, unreadCount, markAsRead, markAllAsRead } = useNotifications();
+  const {
+    notifications, unreadCount, markAsRead, markAllAsRead, hasMore, loadingMore, loadMoreNotifications
+  } = useNotifications();
   const [isOpen, setIsOpen] = useState(false);
   const [activeFilter, setActiveFilter] = useState('all');
   const dropdownRef = useRef(null);
@@ -50,7 +52,7 @@ const NotificationBell = () => {
 
   const handleNotificationClick = async (notification) => {
     if (!notification.read) {
-      await markAsRead(notification.id);
+      await markAsRead(notification.id, notification.source);
     }
     // Bildirim tipine göre yönlendirme yapılabilir
     setIsOpen(false);
@@ -150,7 +152,7 @@ const NotificationBell = () => {
                 const { icon: Icon, color, bgColor } = getNotificationIcon(notification.type);
                 return (
                   <div
-                    key={notification.id}
+                    key={`${notification.source || 'PERSONAL'}-${notification.id}`}
                     onClick={() => handleNotificationClick(notification)}
                                       className={`p-4 border-b border-gray-100 cursor-pointer hover:bg-gray-50 transition-all duration-200 ${
                     !notification.read ? 'bg-[rgba(255,96,0,0.05)]' : ''
@@ -186,6 +188,15 @@ const NotificationBell = () => {
                 );
               })
             )}
+            {hasMore && (
+              <button
+                onClick={loadMoreNotifications}
+                disabled={loadingMore}
+                className="w-full p-3 text-sm text-[#ff6000] hover:bg-gray-50 disabled:opacity-50 transition-colors"
+              >
+                {loadingMore ? 'Yükleniyor...' : 'Daha fazla göster'}
+              </button>
+            )}
           </div>
 
           {/* Footer */}
@@ -16,6 +16,8 @@ const ProductList = () => {
   const [error, setError] = useState(null);
   const [page, setPage] = useState(0);
   const [totalPages, setTotalPages] = useState(1);
+  // Elasticsearch sonucuyla gelen filtre sayıları (kategori, mağaza, fiyat aralıkları)
+  const [facets, setFacets] = useState(null);
   const [sort, setSort] = useState("");
   const [minPrice, setMinPrice] = useState("");
   const [maxPrice, setMaxPrice] = useState("");
@@ -131,14 +133,17 @@ const ProductList = () => {
           if (elasticsearchAvailable && data.content) {
             setProducts(data.content);
             setTotalPages(data.totalPages || 1);
+            setFacets(data.facets || null);
           } else if (elasticsearchAvailable && Array.isArray(data)) {
             // Eski format için fallback
             setProducts(data);
             setTotalPages(1);
+            setFacets(null);
           } else {
             // Normal API response
             setProducts(data.content || data);
             setTotalPages(data.totalPages || 1);
+            setFacets(null);
           }
           setLoading(false);
         } catch (parseError) {
@@ -248,6 +253,19 @@ const ProductList = () => {
 
 
 
+  // Fiyat facet'inden seçilen aralık beklemeden uygulanır
+  const handlePriceRangeSelect = useCallback((from, to) => {
+    const min = from != null ? String(Math.floor(from)) : "";
+    const max = to != null ? String(Math.ceil(to)) : "";
+    if (minPriceTimeoutRef.current) clearTimeout(minPriceTimeoutRef.current);
+    if (maxPriceTimeoutRef.current) clearTimeout(maxPriceTimeoutRef.current);
+    setMinPrice(min);
+    setMaxPrice(max);
+    setDebouncedMinPrice(min);
+    setDebouncedMaxPrice(max);
+    setPage(0);
+  }, []);
+
   const clearFilters = () => {
     setSearchQuery("");
     setSelectedCategory("");
@@ -307,6 +325,8 @@ const ProductList = () => {
           onSortChange={handleSortChange}
           onToggleFilters={() => setShowFilters(!showFilters)}
           onClearFilters={clearFilters}
+          facets={facets}
+          onPriceRangeSelect={handlePriceRangeSelect}
         />
 
         {/* Sağ Ürün Listesi */}
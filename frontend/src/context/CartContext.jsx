@@ -77,6 +77,23 @@ export const CartProvider = ({ children }) => {
     }
   };
 
+  // Birden fazla ekleme/güncelleme/silmeyi tek istekte uygular (ör. [{ action: 'ADD', productId, quantity }])
+  const applyCartOperations = async (operations) => {
+    if (!isLoggedIn) {
+      alert('Sepete ürün eklemek için giriş yapmanız gerekiyor.');
+      return;
+    }
+
+    try {
+      const res = await api.post("/cart/batch", { operations }, { withCredentials: true });
+      // Yanıt güncel sepeti içerir, ayrıca yeniden yüklemeye gerek yok
+      setCartItems(Array.isArray(res.data) ? res.data : []);
+    } catch (error) {
+      console.error('Toplu sepet işlemi hatası:', error);
+      alert(error.response?.data?.error || 'Sepet güncellenirken bir hata oluştu.');
+    }
+  };
+
   const clearCart = async () => {
     try {
       await api.delete("/cart", { withCredentials: true });
@@ -89,7 +106,7 @@ export const CartProvider = ({ children }) => {
 
   return (
     <CartContext.Provider
-      value={{ cartItems, addToCart, removeFromCart, changeQuantity, clearCart, loading }}
+      value={{ cartItems, addToCart, removeFromCart, changeQuantity, applyCartOperations, clearCart, loading }}
     >
       {children}
     </CartContext.Provider>
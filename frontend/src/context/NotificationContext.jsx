@@ -11,6 +11,10 @@ export const NotificationProvider = ({ children }) => {
   const [notifications, setNotifications] = useState([]);
   const [unreadCount, setUnreadCount] = useState(0);
   const [loading, setLoading] = useState(false);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+
+  const notificationKey = (n) => `${n.source || 'PERSONAL'}-${n.id}`;
 
   // Bildirimleri getir
   const fetchNotifications = async () => {
@@ -18,26 +22,80 @@ export const NotificationProvider = ({ children }) => {
     
     setLoading(true);
     try {
-      const response = await api.get('/notifications', { withCredentials: true });
-      const notificationsData = Array.isArray(response.data) ? response.data : [];
+      // Kişisel ve toplu bildirimler tek akışta gelir (imleçli sayfalama)
+      const response = await api.get('/notifications/feed', { withCredentials: true });
+      const notificationsData = Array.isArray(response.data?.items) ? response.data.items : [];
       setNotifications(notificationsData);
-      setUnreadCount(notificationsData.filter(n => !n.read).length || 0);
+      setNextCursor(response.data?.nextCursor || null);
     } catch (error) {
       console.log('Bildirimler alınamadı:', error);
     } finally {
       setLoading(false);
     }
+    fetchUnreadCount();
   };
 
-  // Bildirimi okundu olarak işaretle
-  const markAsRead = async (notificationId) => {
+  // Sonraki sayfayı getir; imleç son gösterilen kayıttan devam eder
+  const loadMoreNotifications = async () => {
+    if (window.BACKEND_OFFLINE || !nextCursor || loadingMore) return;
+
+    setLoadingMore(true);
+    try {
+      const response = await api.get('/notifications/feed', {
+        params: { cursor: nextCursor },
+        withCredentials: true
+      });
+      const page = Array.isArray(response.data?.items) ? response.data.items : [];
+      setNotifications(prev => {
+        // Gerçek zamanlı gelen bildirimler listede olabilir; tekrar eklenmez
+        const seen = new Set(prev.map(notificationKey));
+        return [...prev, ...page.filter(n => !seen.has(notificationKey(n)))];
+      });
+      setNextCursor(response.data?.nextCursor || null);
+    } catch (error) {
+      console.log('Bildirimler alınamadı:', error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
+  // Okunmamış sayısını getir (sonraki değişiklikler WebSocket ile gelir)
+  const fetchUnreadCount = async () => {
+    if (window.BACKEND_OFFLINE) return;
+
+    try {
+      const response = await api.get('/notifications/unread-count', { withCredentials: true });
+      setUnreadCount(Number(response.data) || 0);
+    } catch (error) {
+      console.log('Okunmamış bildirim sayısı alınamadı:', error);
+    }
+  };
+
+  // Sunucudan gelen sayaç mesajı: sayı biliniyorsa uygulanır, değilse yeniden yüklenir
+  const handleUnreadCount = (message) => {
+    if (message && message.unreadCount !== null && message.unreadCount !== undefined && !message.reload) {
+      setUnreadCount(message.unreadCount);
+    } else {
+      fetchUnreadCount();
+    }
+  };
+
+  // Bildirimi okundu olarak işaretle (toplu bildirimde ondan eskiler de okunmuş sayılır)
+  const markAsRead = async (notificationId, source = 'PERSONAL') => {
     if (window.BACKEND_OFFLINE) return;
     
     try {
-      await api.put(`/notifications/${notificationId}/read`, {}, { withCredentials: true });
-      setNotifications(prev => 
-        prev.map(n => n.id === notificationId ? { ...n, read: true } : n)
-      );
+      if (source === 'BROADCAST') {
+        await api.put(`/notifications/broadcast/${notificationId}/read`, {}, { withCredentials: true });
+        setNotifications(prev =>
+          prev.map(n => n.source === 'BROADCAST' && n.id <= notificationId ? { ...n, read: true } : n)
+        );
+      } else {
+        await api.put(`/notifications/${notificationId}/read`, {}, { withCredentials: true });
+        setNotifications(prev =>
+          prev.map(n => n.source !== 'BROADCAST' && n.id === notificationId ? { ...n, read: true } : n)
+        );
+      }
       setUnreadCount(prev => Math.max(0, prev - 1));
     } catch (error) {
       console.log('Bildirim güncellenemedi:', error);
@@ -57,10 +115,11 @@ export const NotificationProvider = ({ children }) => {
     }
   };
 
-  // Yeni bildirim ekle ve toast göster
-  const addNotification = (notification) => {
+  // Yeni bildirim ekle ve toast göster (kişisel bildirimlerin sayacı sunucudan gelir)
+  const addNotification = (notification, { countUnread = true } = {}) => {
     const newNotification = {
         id: notification.id || Date.now(),
+        source: notification.source || 'PERSONAL',
         title: notification.title || 'Bildirim',
         message: notification.message,
         type: notification.type || 'info',
@@ -86,7 +145,7 @@ export const NotificationProvider = ({ children }) => {
     }
 
     setNotifications(prev => [newNotification, ...prev]);
-    if (!newNotification.read) {
+    if (countUnread && !newNotification.read) {
       setUnreadCount(prev => prev + 1);
     }
   };
@@ -101,19 +160,28 @@ export const NotificationProvider = ({ children }) => {
   useEffect(() => {
     if (user) {
       webSocketService.subscribe('/user/queue/notifications', (notification) => {
+        addNotification(notification, { countUnread: false });
+      });
+
+      webSocketService.subscribe('/user/queue/unread-count', handleUnreadCount);
+
+      // Tüm kullanıcılara giden bildirimler tek topic'ten gelir
+      webSocketService.subscribe('/topic/notifications/broadcast', (notification) => {
         addNotification(notification);
       });
 
       if (user.role === 'ADMIN') {
-        webSocketService.subscribe('/topic/admin-notifications', (notification) => {
+        webSocketService.subscribe('/topic/role/admin/notifications', (notification) => {
           addNotification(notification);
         });
       }
 
       return () => {
         webSocketService.unsubscribe('/user/queue/notifications');
+        webSocketService.unsubscribe('/user/queue/unread-count');
+        webSocketService.unsubscribe('/topic/notifications/broadcast');
         if (user.role === 'ADMIN') {
-          webSocketService.unsubscribe('/topic/admin-notifications');
+          webSocketService.unsubscribe('/topic/role/admin/notifications');
         }
       };
     }
@@ -124,7 +192,11 @@ export const NotificationProvider = ({ children }) => {
       notifications,
       unreadCount,
       loading,
+      loadingMore,
+      hasMore: Boolean(nextCursor),
       fetchNotifications,
+      loadMoreNotifications,
+      fetchUnreadCount,
       markAsRead,
       markAllAsRead,
       addNotification
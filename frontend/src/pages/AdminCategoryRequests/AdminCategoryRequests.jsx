@@ -25,23 +25,15 @@ const AdminCategoryRequests = () => {
     // WebSocket bildirimleri için useEffect
     useEffect(() => {
         if (user && user.role === 'ADMIN') {
-            // Kategori istek bildirimlerini dinle
-            webSocketService.subscribe('/user/queue/category-requests', (notification) => {
+            // Admin rol topic'indeki kategori istek bildirimlerini dinle
+            webSocketService.subscribe('/topic/role/admin/category-requests', (notification) => {
                 console.log('Yeni kategori istek bildirimi:', notification);
                 toast.success(notification.message);
                 fetchRequests(); // Listeyi yenile
             });
 
-            // Genel topic'i de dinle
-            webSocketService.subscribe('/topic/category-requests', (notification) => {
-                console.log('Genel kategori istek bildirimi:', notification);
-                toast.success(notification.message);
-                fetchRequests(); // Listeyi yenile
-            });
-
             return () => {
-                webSocketService.unsubscribe('/user/queue/category-requests');
-                webSocketService.unsubscribe('/topic/category-requests');
+                webSocketService.unsubscribe('/topic/role/admin/category-requests');
             };
         }
     }, [user]);
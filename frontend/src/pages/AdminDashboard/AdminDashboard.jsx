@@ -62,8 +62,8 @@ const AdminDashboard = () => {
   // WebSocket bildirimleri için useEffect
   useEffect(() => {
     if (user && user.role === 'ADMIN') {
-      // Admin bildirimlerini dinle
-      webSocketService.subscribe('/user/queue/notifications', (notification) => {
+      // Admin rol topic'indeki bildirimleri dinle
+      webSocketService.subscribe('/topic/role/admin/notifications', (notification) => {
         console.log('Yeni admin bildirimi:', notification);
         
         // Toast bildirimi göster
@@ -76,23 +76,8 @@ const AdminDashboard = () => {
         fetchDashboardData();
       });
 
-      // Genel admin bildirimlerini dinle
-      webSocketService.subscribe('/topic/admin-notifications', (notification) => {
-        console.log('Genel admin bildirimi:', notification);
-        
-        // Toast bildirimi göster
-        toast.success(notification.title + ': ' + notification.message, {
-          duration: 5000,
-          position: 'top-right'
-        });
-        
-        // Bildirimleri yenile
-        fetchDashboardData();
-      });
-
       return () => {
-        webSocketService.unsubscribe('/user/queue/notifications');
-        webSocketService.unsubscribe('/topic/admin-notifications');
+        webSocketService.unsubscribe('/topic/role/admin/notifications');
       };
     }
   }, [user]);
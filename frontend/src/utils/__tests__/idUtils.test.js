@@ -0,0 +1,36 @@
+/**
+ * Id Utils Test Dosyası
+ * Güvenli bağlam dışında da geçerli UUID üretildiğini kontrol eder
+ */
+
+import { generateUuid } from '../idUtils';
+
+const UUID_V4 = /^[0-9a-f]{8}-[0-9a-f]{4}-4[0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}$/;
+
+describe('Id Utils Tests', () => {
+
+  const originalCrypto = globalThis.crypto;
+
+  afterEach(() => {
+    Object.defineProperty(globalThis, 'crypto', { value: originalCrypto, configurable: true });
+  });
+
+  test('crypto.randomUUID yokken getRandomValues ile üretir', () => {
+    Object.defineProperty(globalThis, 'crypto', {
+      value: { getRandomValues: (bytes) => bytes.fill(0xff) },
+      configurable: true
+    });
+
+    expect(generateUuid()).toBe('ffffffff-ffff-4fff-bfff-ffffffffffff');
+  });
+
+  test('crypto hiç yokken de geçerli ve farklı UUID üretir', () => {
+    Object.defineProperty(globalThis, 'crypto', { value: undefined, configurable: true });
+
+    const first = generateUuid();
+    const second = generateUuid();
+    expect(first).toMatch(UUID_V4);
+    expect(second).toMatch(UUID_V4);
+    expect(first).not.toBe(second);
+  });
+});
@@ -0,0 +1,32 @@
+/**
+ * Kimlik üretme utility fonksiyonları
+ */
+
+/**
+ * Rastgele bir UUID (v4) üretir.
+ * crypto.randomUUID yalnızca güvenli bağlamda (HTTPS, localhost) vardır; yoksa crypto.getRandomValues,
+ * o da yoksa Math.random ile aynı biçimde üretilir.
+ * @returns {string} - UUID
+ */
+export const generateUuid = () => {
+  const cryptoApi = typeof globalThis !== 'undefined' ? globalThis.crypto : undefined;
+  if (cryptoApi && typeof cryptoApi.randomUUID === 'function') {
+    return cryptoApi.randomUUID();
+  }
+
+  const bytes = new Uint8Array(16);
+  if (cryptoApi && typeof cryptoApi.getRandomValues === 'function') {
+    cryptoApi.getRandomValues(bytes);
+  } else {
+    for (let i = 0; i < bytes.length; i++) {
+      bytes[i] = Math.floor(Math.random() * 256);
+    }
+  }
+
+  // RFC 4122: sürüm 4 ve varyant bitleri
+  bytes[6] = (bytes[6] & 0x0f) | 0x40;
+  bytes[8] = (bytes[8] & 0x3f) | 0x80;
+
+  const hex = Array.from(bytes, b => b.toString(16).padStart(2, '0')).join('');
+  return `${hex.slice(0, 8)}-${hex.slice(8, 12)}-${hex.slice(12, 16)}-${hex.slice(16, 20)}-${hex.slice(20)}`;
+};